@@ -0,0 +1,123 @@
+package com.alibaba.cloud.ai.review.benchmark;
+
+import com.alibaba.cloud.ai.graph.RunnableConfig;
+import com.alibaba.cloud.ai.graph.checkpoint.BaseCheckpointSaver;
+import com.alibaba.cloud.ai.graph.checkpoint.Checkpoint;
+import com.alibaba.cloud.ai.graph.checkpoint.savers.MemorySaver;
+import com.alibaba.cloud.ai.review.checkpoint.AppendLogCheckpointSaver;
+import com.alibaba.cloud.ai.review.checkpoint.CheckpointCodec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * 检查点保存与状态序列化开销
+ * 对比 MemorySaver 与 {@link AppendLogCheckpointSaver} 的写入/读取，以及 {@link CheckpointCodec} 的编解码，
+ * 状态内容与一次审核在人工审核前的状态相当
+ *
+ * @author Jast
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CheckpointBenchmark {
+
+    @Param({"memory", "append-log"})
+    public String saverType;
+
+    private BaseCheckpointSaver saver;
+
+    private Path directory;
+
+    private RunnableConfig config;
+
+    private Checkpoint checkpoint;
+
+    private List<Checkpoint> checkpoints;
+
+    private byte[] encoded;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        Map<String, Object> state = new HashMap<>();
+        state.put("document_content", ReviewGraphFixture.contract());
+        state.put("document_type", "contract");
+        state.put("content_analysis", StubChatModel.RESPONSE);
+        state.put("compliance_check", StubChatModel.RESPONSE);
+        state.put("risk_assessment", StubChatModel.RESPONSE);
+        state.put("risk_score", 6);
+        checkpoint = Checkpoint.builder().nodeId("risk_assessment").nextNodeId("human_review").state(state).build();
+        checkpoints = List.of(checkpoint, checkpoint, checkpoint, checkpoint);
+        encoded = CheckpointCodec.encode(checkpoints);
+
+        if ("append-log".equals(saverType)) {
+            directory = Files.createTempDirectory("review-checkpoint-bench");
+            // 与默认配置相同的批量刷盘参数，压缩间隔拉长以免干扰测量
+            saver = new AppendLogCheckpointSaver(directory, 64L * 1024 * 1024, 32, Duration.ofMillis(200),
+                    Duration.ofHours(1), 0.5);
+        } else {
+            saver = new MemorySaver();
+        }
+        config = saver.put(RunnableConfig.builder().threadId("bench").build(), checkpoint);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        if (saver instanceof AppendLogCheckpointSaver appendLog) {
+            appendLog.close();
+        }
+        if (directory != null) {
+            try (Stream<Path> files = Files.walk(directory)) {
+                for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+    }
+
+    /**
+     * 覆盖当前检查点，对应同一线程内节点之间的状态保存
+     */
+    @Benchmark
+    public RunnableConfig put() throws Exception {
+        return saver.put(config, checkpoint);
+    }
+
+    @Benchmark
+    public Object get() {
+        return saver.get(config);
+    }
+
+    @Benchmark
+    public byte[] encode() throws Exception {
+        return CheckpointCodec.encode(checkpoints);
+    }
+
+    @Benchmark
+    public Object decode() throws Exception {
+        return CheckpointCodec.decode(encoded);
+    }
+}
@@ -0,0 +1,72 @@
+package com.alibaba.cloud.ai.review.benchmark;
+
+import com.alibaba.cloud.ai.review.chunk.ChunkResultMerger;
+import com.alibaba.cloud.ai.review.chunk.DocumentChunker;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 分块分析的切分与合并开销
+ * 文档由演示合同重复拼接到指定大小，按默认配置（6000 字符分块、300 字符重叠）切分，
+ * 每个分块的模型结果为同一段合规检查 JSON，按保守策略合并
+ *
+ * @author Jast
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ChunkingBenchmark {
+
+    private static final String CHUNK_RESULT = """
+            {"compliance_score": 6, "passed_checks": ["格式规范性"], "failed_checks": ["必要信息完整性"],
+             "warnings": ["保密期限未填写"], "recommendations": ["补充联系方式"], "overall_status": "needs-review"}
+            """;
+
+    @Param({"10240", "102400", "1048576"})
+    public int documentChars;
+
+    private final DocumentChunker chunker = new DocumentChunker(6000, 300);
+
+    private final ChunkResultMerger merger = new ChunkResultMerger(ChunkResultMerger.Strategy.CONSERVATIVE);
+
+    private String document;
+
+    private List<String> chunkResults;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        StringBuilder builder = new StringBuilder(documentChars + 4096);
+        while (builder.length() < documentChars) {
+            builder.append(ReviewGraphFixture.contract()).append('\n');
+        }
+        document = builder.substring(0, documentChars);
+        chunkResults = Collections.nCopies(chunker.split(document).size(), CHUNK_RESULT);
+    }
+
+    @Benchmark
+    public List<String> split() {
+        return chunker.split(document);
+    }
+
+    @Benchmark
+    public String merge() {
+        return merger.merge(chunkResults);
+    }
+}
@@ -0,0 +1,142 @@
+package com.alibaba.cloud.ai.review.benchmark;
+
+import com.alibaba.cloud.ai.review.controller.process.ReviewEventEncoder;
+import com.alibaba.cloud.ai.review.controller.process.ReviewEventSink;
+import com.alibaba.cloud.ai.review.controller.process.StreamChunkCoalescer;
+import com.alibaba.cloud.ai.review.result.RiskAssessment;
+import com.alibaba.cloud.ai.review.result.StreamingJsonParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 事件编码与结果解析开销
+ * 一次审核中按节点顺序编码节点完成事件（完整状态与增量两种方式）、逐分片编码并合并模型输出，
+ * 以及模型结果的解析：整段解析、逐分片增量解析和风险评分提取
+ *
+ * @author Jast
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EventEncodingBenchmark {
+
+    private static final String[] NODES = {"document_intake", "content_analysis", "compliance_check",
+            "risk_assessment", "approval_process", "final_report"};
+
+    private List<Map<String, Object>> states;
+
+    private List<String> chunks;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        // 每个节点在上一个状态上新增自己的输出，与图执行时的状态增长方式一致
+        states = new ArrayList<>();
+        Map<String, Object> state = new HashMap<>();
+        state.put("document_content", ReviewGraphFixture.contract());
+        state.put("document_type", "contract");
+        for (String node : NODES) {
+            state.put(node, StubChatModel.RESPONSE);
+            states.add(new HashMap<>(state));
+        }
+        chunks = new ArrayList<>();
+        for (int start = 0; start < StubChatModel.RESPONSE.length(); start += 8) {
+            chunks.add(StubChatModel.RESPONSE.substring(start, Math.min(StubChatModel.RESPONSE.length(), start + 8)));
+        }
+    }
+
+    @Benchmark
+    public void nodeOutputFull(Blackhole blackhole) {
+        encodeNodeOutputs(new ReviewEventEncoder(ReviewEventEncoder.StateEmission.FULL), blackhole);
+    }
+
+    @Benchmark
+    public void nodeOutputDelta(Blackhole blackhole) {
+        encodeNodeOutputs(new ReviewEventEncoder(ReviewEventEncoder.StateEmission.DELTA), blackhole);
+    }
+
+    /**
+     * 每个分片单独编码为一个事件
+     */
+    @Benchmark
+    public void chunksUncoalesced(Blackhole blackhole) {
+        for (String chunk : chunks) {
+            blackhole.consume(ReviewEventEncoder.encodeChunk("content_analysis", chunk));
+        }
+    }
+
+    /**
+     * 分片经合并后再编码
+     */
+    @Benchmark
+    public void chunksCoalesced(Blackhole blackhole) {
+        StreamChunkCoalescer coalescer = new StreamChunkCoalescer(new BlackholeSink(blackhole),
+                Duration.ofMillis(50), 512);
+        for (String chunk : chunks) {
+            coalescer.chunk("content_analysis", chunk);
+        }
+        coalescer.flush();
+    }
+
+    @Benchmark
+    public Object parseWhole() {
+        return StreamingJsonParser.parse(StubChatModel.RESPONSE);
+    }
+
+    @Benchmark
+    public Object parseIncremental() {
+        StreamingJsonParser parser = new StreamingJsonParser();
+        for (String chunk : chunks) {
+            parser.append(chunk);
+        }
+        return parser.result();
+    }
+
+    @Benchmark
+    public RiskAssessment riskScore() {
+        return RiskAssessment.from(StreamingJsonParser.parse(StubChatModel.RESPONSE));
+    }
+
+    private void encodeNodeOutputs(ReviewEventEncoder encoder, Blackhole blackhole) {
+        for (int i = 0; i < NODES.length; i++) {
+            blackhole.consume(encoder.encodeNodeOutput(NODES[i], states.get(i)));
+        }
+    }
+
+    private record BlackholeSink(Blackhole blackhole) implements ReviewEventSink {
+
+        @Override
+        public void chunk(String nodeName, String text) {
+            blackhole.consume(ReviewEventEncoder.encodeChunk(nodeName, text));
+        }
+
+        @Override
+        public void nodeOutput(String nodeName, Map<String, Object> state) {
+            blackhole.consume(state);
+        }
+
+        @Override
+        public void event(String content, String eventName) {
+            blackhole.consume(content);
+        }
+    }
+}
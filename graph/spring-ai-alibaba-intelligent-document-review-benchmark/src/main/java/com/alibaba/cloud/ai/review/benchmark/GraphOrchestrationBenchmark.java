@@ -0,0 +1,68 @@
+package com.alibaba.cloud.ai.review.benchmark;
+
+import com.alibaba.cloud.ai.review.config.DocumentReviewProperties;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 整条审核图的编排开销
+ * 每次操作运行一篇文档：受理、内容分析、合规检查、风险评估，在人工审核前暂停后以通过恢复，执行审批与最终报告。
+ * 模型是无延迟的 {@link StubChatModel}，结果只反映图调度、状态合并、检查点与流式分片处理的耗时
+ *
+ * @author Jast
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.AverageTime, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class GraphOrchestrationBenchmark {
+
+    /**
+     * 桩模型每个流式分片的字符数，越小分片越多，越能体现逐分片处理的开销
+     */
+    @Param({"8", "64"})
+    public int chunkChars;
+
+    private final AtomicLong threadSequence = new AtomicLong();
+
+    private ReviewGraphFixture fixture;
+
+    private String contract;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        fixture = new ReviewGraphFixture(new DocumentReviewProperties(), new StubChatModel(chunkChars));
+        contract = ReviewGraphFixture.contract();
+    }
+
+    @Benchmark
+    public void reviewToInterrupt(Blackhole blackhole) throws Exception {
+        String threadId = "bench-" + threadSequence.incrementAndGet();
+        fixture.start(threadId, contract, blackhole::consume);
+        fixture.clear(threadId);
+    }
+
+    @Benchmark
+    public void reviewAndApprove(Blackhole blackhole) throws Exception {
+        String threadId = "bench-" + threadSequence.incrementAndGet();
+        fixture.start(threadId, contract, blackhole::consume);
+        fixture.approve(threadId, blackhole::consume);
+        fixture.clear(threadId);
+    }
+}
@@ -0,0 +1,89 @@
+package com.alibaba.cloud.ai.review.benchmark;
+
+import com.alibaba.cloud.ai.review.similar.DocumentFingerprint;
+import com.alibaba.cloud.ai.review.similar.MinHasher;
+import com.alibaba.cloud.ai.review.similar.NearDuplicateIndex;
+import com.alibaba.cloud.ai.review.similar.NearDuplicateMatch;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 近重复检测开销
+ * 索引预先填入指定数量的随机签名（模拟互不相似的历史文档）与演示合同，分别测量命中与未命中的查询耗时，以及合同指纹计算耗时
+ *
+ * @author Jast
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NearDuplicateBenchmark {
+
+    @Param({"100000"})
+    public int entries;
+
+    private MinHasher hasher;
+
+    private NearDuplicateIndex index;
+
+    private String contract;
+
+    private DocumentFingerprint edited;
+
+    private DocumentFingerprint unrelated;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        hasher = new MinHasher(5, 128);
+        index = new NearDuplicateIndex(hasher, 0.85, 16, entries + 1, 200);
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < entries; i++) {
+            index.add("history-" + i, "contract", randomFingerprint(random), Map.of());
+        }
+        contract = ReviewGraphFixture.contract();
+        index.add("template", "contract", hasher.fingerprint(contract), Map.of());
+        edited = hasher.fingerprint(contract.replace("0.1%", "0.5%"));
+        unrelated = randomFingerprint(random);
+    }
+
+    @Benchmark
+    public Optional<NearDuplicateMatch> lookupHit() {
+        return index.find("contract", edited);
+    }
+
+    @Benchmark
+    public Optional<NearDuplicateMatch> lookupMiss() {
+        return index.find("contract", unrelated);
+    }
+
+    @Benchmark
+    public DocumentFingerprint fingerprint() {
+        return hasher.fingerprint(contract);
+    }
+
+    private DocumentFingerprint randomFingerprint(SplittableRandom random) {
+        int[] signature = new int[hasher.numHashes()];
+        for (int i = 0; i < signature.length; i++) {
+            signature[i] = random.nextInt();
+        }
+        return new DocumentFingerprint(signature, new long[]{random.nextLong()}, List.of("正文"), 1000);
+    }
+}
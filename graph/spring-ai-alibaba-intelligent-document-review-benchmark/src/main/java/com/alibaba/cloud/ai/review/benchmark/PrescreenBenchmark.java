@@ -0,0 +1,86 @@
+package com.alibaba.cloud.ai.review.benchmark;
+
+import com.alibaba.cloud.ai.review.config.DocumentReviewProperties;
+import com.alibaba.cloud.ai.review.prescreen.PrescreenEngine;
+import com.alibaba.cloud.ai.review.prescreen.PrescreenResult;
+import com.alibaba.cloud.ai.review.prescreen.PrescreenRule;
+import com.alibaba.cloud.ai.review.prescreen.PrescreenRuleSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+
+/**
+ * 规则预筛开销
+ * 对比 {@link PrescreenEngine} 的单次扫描与逐条规则独立执行（每个关键词一次 indexOf、每个正则一次全文匹配）的朴素实现，
+ * 文档由演示合同重复拼接到指定大小
+ *
+ * @author Jast
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PrescreenBenchmark {
+
+    @Param({"100000", "1000000", "5000000"})
+    public int documentChars;
+
+    private PrescreenEngine engine;
+
+    private String document;
+
+    private String lowerCaseDocument;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        engine = new PrescreenRuleSource(new DocumentReviewProperties()).current();
+        StringBuilder builder = new StringBuilder(documentChars + 4096);
+        while (builder.length() < documentChars) {
+            builder.append(ReviewGraphFixture.contract()).append('\n');
+        }
+        document = builder.substring(0, documentChars);
+        lowerCaseDocument = document.toLowerCase(Locale.ROOT);
+    }
+
+    @Benchmark
+    public PrescreenResult engine() {
+        return engine.scan(document, "contract");
+    }
+
+    @Benchmark
+    public int naive() {
+        int matches = 0;
+        for (PrescreenRule rule : engine.rules()) {
+            if (rule.type() == PrescreenRule.Type.REGEX) {
+                Matcher matcher = rule.pattern().matcher(document);
+                while (matcher.find()) {
+                    matches++;
+                }
+                continue;
+            }
+            for (String keyword : rule.keywords()) {
+                String needle = keyword.toLowerCase(Locale.ROOT);
+                for (int i = lowerCaseDocument.indexOf(needle); i >= 0; i = lowerCaseDocument.indexOf(needle, i + 1)) {
+                    matches++;
+                }
+            }
+        }
+        return matches;
+    }
+}
@@ -0,0 +1,106 @@
+package com.alibaba.cloud.ai.review.benchmark;
+
+import com.alibaba.cloud.ai.graph.NodeOutput;
+import com.alibaba.cloud.ai.graph.OverAllState;
+import com.alibaba.cloud.ai.graph.RunnableConfig;
+import com.alibaba.cloud.ai.graph.checkpoint.BaseCheckpointSaver;
+import com.alibaba.cloud.ai.graph.checkpoint.config.SaverConfig;
+import com.alibaba.cloud.ai.graph.checkpoint.constant.SaverConstant;
+import com.alibaba.cloud.ai.graph.checkpoint.savers.MemorySaver;
+import com.alibaba.cloud.ai.review.blob.BlobStore;
+import com.alibaba.cloud.ai.review.config.DocumentReviewGraphConfiguration;
+import com.alibaba.cloud.ai.review.config.DocumentReviewProperties;
+import com.alibaba.cloud.ai.review.llm.NodeChatClientFactory;
+import com.alibaba.cloud.ai.review.metrics.ReviewMetrics;
+import com.alibaba.cloud.ai.review.prescreen.PrescreenRuleSource;
+import com.alibaba.cloud.ai.review.result.ReviewContent;
+import com.alibaba.cloud.ai.review.similar.NearDuplicateIndex;
+import com.alibaba.cloud.ai.review.speculative.SpeculativeBranchRunner;
+import com.alibaba.cloud.ai.review.variant.ReviewGraphRegistry;
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * 基准测试用的审核图
+ * 用与应用相同的 {@link DocumentReviewGraphConfiguration#reviewGraphRegistry} 编译真实的审核图变体，模型替换为 {@link StubChatModel}，
+ * 不启用缓存、限流、指标、近重复复用（基准反复审核同一文档）、大字段外置与推测执行，规则预筛与应用默认配置一致，检查点使用 MemorySaver
+ *
+ * @author Jast
+ */
+public class ReviewGraphFixture {
+
+    private final ReviewGraphRegistry registry;
+
+    private final BaseCheckpointSaver saver = new MemorySaver();
+
+    public ReviewGraphFixture(DocumentReviewProperties properties, StubChatModel model) throws Exception {
+        NodeChatClientFactory chatClients = new NodeChatClientFactory(ChatClient.builder(model), properties,
+                null, null, null);
+        DefaultListableBeanFactory beans = new DefaultListableBeanFactory();
+        if (properties.getPrescreen().isEnabled()) {
+            beans.registerSingleton("prescreenRuleSource", new PrescreenRuleSource(properties));
+        }
+        SaverConfig saverConfig = SaverConfig.builder().register(SaverConstant.MEMORY, saver).build();
+        this.registry = new DocumentReviewGraphConfiguration().reviewGraphRegistry(chatClients, properties, saverConfig,
+                beans.getBeanProvider(ReviewMetrics.class), beans.getBeanProvider(PrescreenRuleSource.class),
+                beans.getBeanProvider(NearDuplicateIndex.class), beans.getBeanProvider(BlobStore.class),
+                ReviewContent.INLINE, beans.getBeanProvider(SpeculativeBranchRunner.class));
+    }
+
+    /**
+     * 运行到人工审核前暂停
+     */
+    public void start(String threadId, String documentContent, Consumer<NodeOutput> consumer) throws Exception {
+        Map<String, Object> input = new HashMap<>();
+        input.put("document_content", documentContent);
+        input.put("document_type", "contract");
+        input.put("urgency_level", "normal");
+        input.put("thread_id", threadId);
+        registry.start(input).stream(input, config(threadId)).forEachAsync(consumer).join();
+    }
+
+    /**
+     * 以审核通过恢复，运行到结束
+     */
+    public void approve(String threadId, Consumer<NodeOutput> consumer) throws Exception {
+        RunnableConfig config = config(threadId);
+        OverAllState state = registry.stateReader().getState(config).state();
+        state.withResume();
+        Map<String, Object> feedback = new HashMap<>();
+        feedback.put("review_action", "approve");
+        feedback.put("reviewer_comments", "同意");
+        feedback.put("suggested_changes", "");
+        state.withHumanFeedback(new OverAllState.HumanFeedback(feedback, ""));
+        registry.resume(state).streamFromInitialNode(state, config).forEachAsync(consumer).join();
+    }
+
+    /**
+     * 清理线程的检查点，避免基准迭代之间内存增长
+     */
+    public void clear(String threadId) {
+        saver.clear(config(threadId));
+    }
+
+    private static RunnableConfig config(String threadId) {
+        return RunnableConfig.builder().threadId(threadId).build();
+    }
+
+    /**
+     * 应用内置的演示合同
+     */
+    public static String contract() throws IOException {
+        try (InputStream in = ReviewGraphFixture.class.getResourceAsStream("/problematic-contract.md")) {
+            if (in == null) {
+                throw new IOException("problematic-contract.md not found on classpath");
+            }
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.alibaba.cloud.ai.review.benchmark;
+
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.Prompt;
+import reactor.core.publisher.Flux;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 确定性的进程内桩模型
+ * 无网络、无延迟：每次调用返回同一份包含内容分析、合规检查、风险评估全部字段的 JSON，按固定字符数切分为流式分片，
+ * 基准测试测得的时间全部是图编排、状态与事件处理的开销
+ *
+ * @author Jast
+ */
+public class StubChatModel implements ChatModel {
+
+    static final String RESPONSE = """
+            {"document_summary": "技术服务合同，约定服务内容、费用与违约责任", "document_type": "contract",
+             "key_points": ["服务期限一年", "费用按季度支付", "违约金为合同总额的 20%"],
+             "potential_issues": ["保密期限未约定", "争议解决条款缺失"], "completeness_score": 7, "clarity_score": 8,
+             "compliance_score": 6, "passed_checks": ["格式规范性"], "failed_checks": ["必要信息完整性"],
+             "warnings": ["保密期限未填写"], "recommendations": ["补充联系方式", "明确争议解决方式"],
+             "overall_status": "needs-review", "overall_risk_score": 6,
+             "risk_factors": [{"factor": "违约责任不对等", "severity": "medium"}], "escalation_required": false}
+            """;
+
+    private final List<ChatResponse> chunks;
+
+    private final ChatResponse whole;
+
+    /**
+     * @param chunkChars 每个流式分片的字符数，与真实模型的分片大小相近时事件数量更接近线上
+     */
+    public StubChatModel(int chunkChars) {
+        List<ChatResponse> responses = new ArrayList<>();
+        for (int start = 0; start < RESPONSE.length(); start += chunkChars) {
+            responses.add(response(RESPONSE.substring(start, Math.min(RESPONSE.length(), start + chunkChars))));
+        }
+        this.chunks = List.copyOf(responses);
+        this.whole = response(RESPONSE);
+    }
+
+    @Override
+    public ChatResponse call(Prompt prompt) {
+        return whole;
+    }
+
+    @Override
+    public Flux<ChatResponse> stream(Prompt prompt) {
+        return Flux.fromIterable(chunks);
+    }
+
+    public int chunkCount() {
+        return chunks.size();
+    }
+
+    private static ChatResponse response(String text) {
+        return new ChatResponse(List.of(new Generation(new AssistantMessage(text))));
+    }
+}
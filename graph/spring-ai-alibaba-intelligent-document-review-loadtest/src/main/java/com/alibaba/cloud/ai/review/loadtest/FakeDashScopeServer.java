@@ -0,0 +1,293 @@
+package com.alibaba.cloud.ai.review.loadtest;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONArray;
+import com.alibaba.fastjson.JSONObject;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * 本地模拟的 DashScope 文本生成服务
+ * 实现 /api/v1/services/aigc/text-generation/generation 的流式（SSE）与非流式响应，
+ * 可配置首字延迟、每秒输出 token 数、错误率与响应内容，应用通过 spring.ai.dashscope.base-url 指向本服务即可离线压测
+ *
+ * @author Jast
+ */
+public class FakeDashScopeServer implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(FakeDashScopeServer.class);
+
+    static final String GENERATION_PATH = "/api/v1/services/aigc/text-generation/generation";
+
+    /**
+     * 未指定响应目录时使用的内置响应，同时包含内容分析、合规检查与风险评估各节点解析的字段
+     */
+    static final String DEFAULT_RESPONSE = """
+            {"document_summary": "技术服务合同，约定服务内容、费用与违约责任", "document_type": "contract",
+             "key_points": ["服务期限一年", "费用按季度支付", "违约金为合同总额的 20%"],
+             "potential_issues": ["保密期限未约定", "争议解决条款缺失"], "completeness_score": 7, "clarity_score": 8,
+             "compliance_score": 6, "passed_checks": ["格式规范性"], "failed_checks": ["必要信息完整性"],
+             "warnings": ["保密期限未填写"], "recommendations": ["补充联系方式", "明确争议解决方式"],
+             "overall_status": "needs-review", "overall_risk_score": 6,
+             "risk_factors": [{"factor": "违约责任不对等", "severity": "medium"}], "escalation_required": false}
+            """;
+
+    private final Settings settings;
+
+    private final List<String> responses;
+
+    private final HttpServer server;
+
+    private final ExecutorService executor;
+
+    private final AtomicInteger responseIndex = new AtomicInteger();
+
+    private final AtomicInteger activeRequests = new AtomicInteger();
+
+    private final AtomicInteger peakActiveRequests = new AtomicInteger();
+
+    private final AtomicLong requests = new AtomicLong();
+
+    private final AtomicLong injectedErrors = new AtomicLong();
+
+    private final AtomicLong outputTokens = new AtomicLong();
+
+    public FakeDashScopeServer(Settings settings) throws IOException {
+        this.settings = settings;
+        this.responses = loadResponses(settings.responsesDirectory());
+        // 每个请求在输出期间按节奏休眠，使用不限大小的线程池避免模拟服务自身成为瓶颈
+        this.executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "fake-dashscope");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), settings.port()), 1024);
+        this.server.setExecutor(executor);
+        this.server.createContext(GENERATION_PATH, this::handle);
+    }
+
+    public void start() {
+        server.start();
+        logger.info("Fake DashScope server started - {}, first token delay: {}, tokens/s: {}, error rate: {}, responses: {}",
+                baseUrl(), settings.firstTokenDelay(), settings.tokensPerSecond(), settings.errorRate(), responses.size());
+    }
+
+    public String baseUrl() {
+        return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort();
+    }
+
+    public long requests() {
+        return requests.get();
+    }
+
+    public long injectedErrors() {
+        return injectedErrors.get();
+    }
+
+    public long outputTokens() {
+        return outputTokens.get();
+    }
+
+    public int peakActiveRequests() {
+        return peakActiveRequests.get();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        peakActiveRequests.accumulateAndGet(activeRequests.incrementAndGet(), Math::max);
+        try (exchange) {
+            JSONObject request = JSON.parseObject(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+            if (settings.errorRate() > 0 && ThreadLocalRandom.current().nextDouble() < settings.errorRate()) {
+                injectedErrors.incrementAndGet();
+                sendError(exchange);
+                return;
+            }
+
+            String content = responses.get(Math.floorMod(responseIndex.getAndIncrement(), responses.size()));
+            List<String> tokens = tokenize(content);
+            int inputTokens = (int) Math.ceil(inputChars(request) / settings.charsPerToken());
+            JSONObject parameters = request.getJSONObject("parameters");
+            boolean incremental = parameters == null || !Boolean.FALSE.equals(parameters.getBoolean("incremental_output"));
+            boolean stream = "enable".equalsIgnoreCase(exchange.getRequestHeaders().getFirst("X-DashScope-SSE"))
+                    || (parameters != null && Boolean.TRUE.equals(parameters.getBoolean("stream")));
+
+            sleep(settings.firstTokenDelay().toNanos());
+            if (stream) {
+                stream(exchange, tokens, inputTokens, incremental);
+            } else {
+                sleep(tokens.size() * tokenIntervalNanos());
+                byte[] body = chunk(content, "stop", inputTokens, tokens.size()).getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().set("Content-Type", "application/json");
+                exchange.sendResponseHeaders(200, body.length);
+                exchange.getResponseBody().write(body);
+            }
+            outputTokens.addAndGet(tokens.size());
+        } catch (IOException e) {
+            // 应用端取消订阅（客户端断开）时写入失败，属于正常情况
+            logger.debug("Fake DashScope response aborted: {}", e.getMessage());
+        } finally {
+            activeRequests.decrementAndGet();
+        }
+    }
+
+    private void stream(HttpExchange exchange, List<String> tokens, int inputTokens, boolean incremental) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "text/event-stream;charset=UTF-8");
+        exchange.sendResponseHeaders(200, 0);
+        OutputStream out = exchange.getResponseBody();
+        long interval = tokenIntervalNanos() * settings.tokensPerChunk();
+        StringBuilder emitted = new StringBuilder();
+        int id = 0;
+        for (int start = 0; start < tokens.size(); start += settings.tokensPerChunk()) {
+            int end = Math.min(tokens.size(), start + settings.tokensPerChunk());
+            String piece = String.join("", tokens.subList(start, end));
+            emitted.append(piece);
+            if (start > 0) {
+                sleep(interval);
+            }
+            String finishReason = end == tokens.size() ? "stop" : "null";
+            String data = chunk(incremental ? piece : emitted.toString(), finishReason, inputTokens, end);
+            String event = "id:" + (++id) + "\nevent:result\n:HTTP_STATUS/200\ndata:" + data + "\n\n";
+            out.write(event.getBytes(StandardCharsets.UTF_8));
+            out.flush();
+        }
+    }
+
+    private void sendError(HttpExchange exchange) throws IOException {
+        JSONObject error = new JSONObject();
+        error.put("request_id", UUID.randomUUID().toString());
+        error.put("code", settings.errorStatus() == 429 ? "Throttling.RateQuota" : "InternalError");
+        error.put("message", "Injected error from fake DashScope server");
+        byte[] body = error.toJSONString().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(settings.errorStatus(), body.length);
+        exchange.getResponseBody().write(body);
+    }
+
+    /**
+     * 按 DashScope 的响应结构编码一个分片
+     */
+    private static String chunk(String content, String finishReason, int inputTokens, int outputTokens) {
+        JSONObject message = new JSONObject();
+        message.put("role", "assistant");
+        message.put("content", content);
+        JSONObject choice = new JSONObject();
+        choice.put("finish_reason", finishReason);
+        choice.put("message", message);
+        JSONObject output = new JSONObject();
+        output.put("choices", List.of(choice));
+        JSONObject usage = new JSONObject();
+        usage.put("input_tokens", inputTokens);
+        usage.put("output_tokens", outputTokens);
+        usage.put("total_tokens", inputTokens + outputTokens);
+        JSONObject response = new JSONObject();
+        response.put("request_id", UUID.randomUUID().toString());
+        response.put("output", output);
+        response.put("usage", usage);
+        return response.toJSONString();
+    }
+
+    private static int inputChars(JSONObject request) {
+        JSONObject input = request.getJSONObject("input");
+        JSONArray messages = input == null ? null : input.getJSONArray("messages");
+        if (messages == null) {
+            return 0;
+        }
+        int chars = 0;
+        for (int i = 0; i < messages.size(); i++) {
+            Object content = messages.getJSONObject(i).get("content");
+            chars += content == null ? 0 : content.toString().length();
+        }
+        return chars;
+    }
+
+    private List<String> tokenize(String content) {
+        int charsPerToken = Math.max(1, (int) Math.round(settings.charsPerToken()));
+        List<String> tokens = new ArrayList<>(content.length() / charsPerToken + 1);
+        for (int start = 0; start < content.length(); start += charsPerToken) {
+            tokens.add(content.substring(start, Math.min(content.length(), start + charsPerToken)));
+        }
+        return tokens;
+    }
+
+    private long tokenIntervalNanos() {
+        return settings.tokensPerSecond() <= 0 ? 0 : (long) (1_000_000_000L / settings.tokensPerSecond());
+    }
+
+    private static void sleep(long nanos) {
+        if (nanos <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(nanos / 1_000_000, (int) (nanos % 1_000_000));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static List<String> loadResponses(Path directory) throws IOException {
+        if (directory == null) {
+            return List.of(DEFAULT_RESPONSE);
+        }
+        List<String> responses = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.filter(Files::isRegularFile).sorted().toList()) {
+                try (InputStream in = Files.newInputStream(file)) {
+                    responses.add(new String(in.readAllBytes(), StandardCharsets.UTF_8));
+                }
+            }
+        }
+        if (responses.isEmpty()) {
+            throw new IOException("No response files found in " + directory);
+        }
+        return responses;
+    }
+
+    /**
+     * 模拟服务配置
+     *
+     * @param port               监听端口，0 为随机端口
+     * @param firstTokenDelay    收到请求到发送第一个分片的延迟
+     * @param tokensPerSecond    每秒输出的 token 数，小于等于 0 时不限速
+     * @param tokensPerChunk     每个 SSE 分片包含的 token 数
+     * @param charsPerToken      响应与提示词按多少个字符折算一个 token
+     * @param errorRate          在输出前直接返回错误的请求比例
+     * @param errorStatus        注入错误时的 HTTP 状态码
+     * @param responsesDirectory 响应内容目录，每个文件为一份响应，按请求顺序轮流使用；为 null 时使用内置响应
+     */
+    public record Settings(int port, Duration firstTokenDelay, double tokensPerSecond, int tokensPerChunk,
+                           double charsPerToken, double errorRate, int errorStatus, Path responsesDirectory) {
+
+        public Settings {
+            tokensPerChunk = Math.max(1, tokensPerChunk);
+            charsPerToken = charsPerToken <= 0 ? 1 : charsPerToken;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.alibaba.cloud.ai.review.loadtest;
+
+import java.util.Arrays;
+
+/**
+ * 单个阶段的耗时记录，结束后按最近秩计算分位数
+ *
+ * @author Jast
+ */
+public class LatencyRecorder {
+
+    private long[] samples = new long[1024];
+
+    private int count;
+
+    private long failures;
+
+    public synchronized void record(long nanos) {
+        if (count == samples.length) {
+            samples = Arrays.copyOf(samples, count * 2);
+        }
+        samples[count++] = nanos;
+    }
+
+    public synchronized void failure() {
+        failures++;
+    }
+
+    public synchronized Summary summary() {
+        long[] sorted = Arrays.copyOf(samples, count);
+        Arrays.sort(sorted);
+        double mean = count == 0 ? 0 : Arrays.stream(sorted).average().orElse(0) / 1e6;
+        return new Summary(count, failures, mean, percentile(sorted, 0.50), percentile(sorted, 0.95),
+                percentile(sorted, 0.99), count == 0 ? 0 : sorted[count - 1] / 1e6);
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(quantile * sorted.length);
+        return sorted[Math.max(0, rank - 1)] / 1e6;
+    }
+
+    /**
+     * 阶段统计，耗时单位为毫秒
+     */
+    public record Summary(int count, long failures, double meanMillis, double p50Millis, double p95Millis,
+                          double p99Millis, double maxMillis) {
+    }
+}
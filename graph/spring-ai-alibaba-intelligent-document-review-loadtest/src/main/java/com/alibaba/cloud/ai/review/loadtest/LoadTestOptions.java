@@ -0,0 +1,110 @@
+package com.alibaba.cloud.ai.review.loadtest;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 压测参数，命令行格式为 --name=value；以 --app. 开头的参数去掉前缀后作为应用配置传入，
+ * 例如 --app.document-review.rate-limit.enabled=true
+ *
+ * @author Jast
+ */
+public class LoadTestOptions {
+
+    private static final String APP_PREFIX = "app.";
+
+    private final Map<String, String> values = new LinkedHashMap<>();
+
+    private final Map<String, Object> appProperties = new LinkedHashMap<>();
+
+    public LoadTestOptions(String[] args) {
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Invalid argument, expected --name=value: " + arg);
+            }
+            String name = arg.substring(2, arg.indexOf('='));
+            String value = arg.substring(arg.indexOf('=') + 1);
+            if (name.startsWith(APP_PREFIX)) {
+                appProperties.put(name.substring(APP_PREFIX.length()), value);
+            } else {
+                values.put(name, value);
+            }
+        }
+    }
+
+    /**
+     * 并发会话数
+     */
+    public int concurrency() {
+        return Integer.parseInt(values.getOrDefault("concurrency", "16"));
+    }
+
+    /**
+     * 计入统计的会话总数
+     */
+    public int sessions() {
+        return Integer.parseInt(values.getOrDefault("sessions", "200"));
+    }
+
+    /**
+     * 预热会话数，不计入统计
+     */
+    public int warmupSessions() {
+        return Integer.parseInt(values.getOrDefault("warmup-sessions", "20"));
+    }
+
+    /**
+     * /start 结束后到调用 /continue 前的等待，模拟审核员处理时间
+     */
+    public Duration thinkTime() {
+        return duration("think-time", "0ms");
+    }
+
+    public String action() {
+        return values.getOrDefault("action", "approve");
+    }
+
+    public String documentType() {
+        return values.getOrDefault("document-type", "contract");
+    }
+
+    public String urgencyLevel() {
+        return values.getOrDefault("urgency-level", "normal");
+    }
+
+    /**
+     * 审核的文档文件，未指定时使用应用内置的演示合同
+     */
+    public Path documentFile() {
+        return path("document-file");
+    }
+
+    public FakeDashScopeServer.Settings serverSettings() {
+        return new FakeDashScopeServer.Settings(
+                Integer.parseInt(values.getOrDefault("llm-port", "0")),
+                duration("first-token-delay", "300ms"),
+                Double.parseDouble(values.getOrDefault("tokens-per-second", "50")),
+                Integer.parseInt(values.getOrDefault("tokens-per-chunk", "1")),
+                Double.parseDouble(values.getOrDefault("chars-per-token", "2")),
+                Double.parseDouble(values.getOrDefault("error-rate", "0")),
+                Integer.parseInt(values.getOrDefault("error-status", "429")),
+                path("responses-dir"));
+    }
+
+    public Map<String, Object> appProperties() {
+        return appProperties;
+    }
+
+    private Duration duration(String name, String defaultValue) {
+        return DurationStyle.detectAndParse(values.getOrDefault(name, defaultValue));
+    }
+
+    private Path path(String name) {
+        String value = values.get(name);
+        return value == null || value.isBlank() ? null : Path.of(value);
+    }
+}
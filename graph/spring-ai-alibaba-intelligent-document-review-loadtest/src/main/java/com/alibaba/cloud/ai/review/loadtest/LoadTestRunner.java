@@ -0,0 +1,300 @@
+package com.alibaba.cloud.ai.review.loadtest;
+
+import com.alibaba.cloud.ai.review.DocumentReviewApplication;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * 端到端压测
+ * 启动本地模拟的 DashScope 服务与审核应用（同一进程），以固定并发驱动完整的审核会话：
+ * /start 运行到人工审核前暂停，等待 think-time 后 /continue 执行到最终报告。
+ * 输出吞吐量、各阶段首个事件与完成耗时的 p50/p95/p99、线程数与堆内存峰值。
+ * <p>
+ * 示例：java -jar intelligent-document-review-loadtest.jar --concurrency=32 --sessions=500 --tokens-per-second=40
+ *
+ * @author Jast
+ */
+public class LoadTestRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoadTestRunner.class);
+
+    private static final String REVIEW_PATH = "/document/review";
+
+    private final LoadTestOptions options;
+
+    private final HttpClient httpClient;
+
+    private final Map<String, LatencyRecorder> phases = new LinkedHashMap<>();
+
+    private final AtomicLong threadSequence = new AtomicLong();
+
+    private String baseUrl;
+
+    private String document;
+
+    public LoadTestRunner(LoadTestOptions options) {
+        this.options = options;
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .executor(Executors.newCachedThreadPool(runnable -> {
+                    Thread thread = new Thread(runnable, "loadtest-http");
+                    thread.setDaemon(true);
+                    return thread;
+                }))
+                .build();
+        for (String phase : List.of("start.first_event", "start.complete", "continue.first_event",
+                "continue.complete", "session")) {
+            phases.put(phase, new LatencyRecorder());
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = new LoadTestOptions(args);
+        try (FakeDashScopeServer llm = new FakeDashScopeServer(options.serverSettings())) {
+            llm.start();
+            try (ConfigurableApplicationContext app = startApplication(options, llm.baseUrl())) {
+                LoadTestRunner runner = new LoadTestRunner(options);
+                runner.baseUrl = "http://127.0.0.1:" + app.getEnvironment().getProperty("local.server.port") + REVIEW_PATH;
+                runner.document = runner.loadDocument();
+                runner.run(llm);
+            }
+        }
+        System.exit(0);
+    }
+
+    /**
+     * 启动审核应用，大模型地址指向模拟服务；默认关闭响应缓存、全局限流与近重复复用，使压测覆盖完整的模型调用路径
+     */
+    private static ConfigurableApplicationContext startApplication(LoadTestOptions options, String llmBaseUrl) {
+        Map<String, Object> properties = new LinkedHashMap<>();
+        properties.put("server.port", 0);
+        // 文档内容通过查询参数传递
+        properties.put("server.max-http-request-header-size", "4MB");
+        properties.put("spring.ai.dashscope.base-url", llmBaseUrl);
+        properties.put("spring.ai.dashscope.api-key", "loadtest");
+        properties.put("document-review.llm-cache.enabled", false);
+        properties.put("document-review.rate-limit.enabled", false);
+        // 压测会话提交同一份文档，关闭近重复复用才能覆盖完整的分析节点
+        properties.put("document-review.near-duplicate.enabled", false);
+        properties.putAll(options.appProperties());
+        return new SpringApplicationBuilder(DocumentReviewApplication.class).properties(properties).run();
+    }
+
+    private void run(FakeDashScopeServer llm) throws Exception {
+        if (options.warmupSessions() > 0) {
+            logger.info("Warming up - sessions: {}", options.warmupSessions());
+            runSessions(options.warmupSessions(), false);
+        }
+
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        threads.resetPeakThreadCount();
+        long gcCountBefore = gcCount();
+        long gcTimeBefore = gcTimeMillis();
+        long requestsBefore = llm.requests();
+        AtomicLong peakHeap = new AtomicLong();
+        ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor();
+        sampler.scheduleAtFixedRate(() -> peakHeap.accumulateAndGet(memory.getHeapMemoryUsage().getUsed(), Math::max),
+                0, 100, TimeUnit.MILLISECONDS);
+
+        logger.info("Running load test - sessions: {}, concurrency: {}", options.sessions(), options.concurrency());
+        long start = System.nanoTime();
+        runSessions(options.sessions(), true);
+        double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+        sampler.shutdownNow();
+
+        LatencyRecorder.Summary sessions = phases.get("session").summary();
+        System.out.println();
+        System.out.printf("sessions: %d ok / %d failed, concurrency: %d, elapsed: %.1f s, throughput: %.2f sessions/s%n",
+                sessions.count(), sessions.failures(), options.concurrency(), elapsedSeconds,
+                sessions.count() / elapsedSeconds);
+        System.out.printf("%-22s %8s %8s %10s %10s %10s %10s %10s%n", "phase (ms)", "count", "failed", "mean", "p50",
+                "p95", "p99", "max");
+        for (Map.Entry<String, LatencyRecorder> phase : phases.entrySet()) {
+            LatencyRecorder.Summary summary = phase.getValue().summary();
+            System.out.printf("%-22s %8d %8d %10.1f %10.1f %10.1f %10.1f %10.1f%n", phase.getKey(), summary.count(),
+                    summary.failures(), summary.meanMillis(), summary.p50Millis(), summary.p95Millis(),
+                    summary.p99Millis(), summary.maxMillis());
+        }
+        System.out.printf("threads: live %d, peak %d, daemon %d%n", threads.getThreadCount(),
+                threads.getPeakThreadCount(), threads.getDaemonThreadCount());
+        System.out.printf("heap: peak used %d MB, committed %d MB, max %d MB; gc: %d collections, %d ms%n",
+                peakHeap.get() >> 20, memory.getHeapMemoryUsage().getCommitted() >> 20,
+                memory.getHeapMemoryUsage().getMax() >> 20, gcCount() - gcCountBefore, gcTimeMillis() - gcTimeBefore);
+        System.out.printf("fake llm: %d requests, %d injected errors, peak %d concurrent, %d output tokens total%n",
+                llm.requests() - requestsBefore, llm.injectedErrors(), llm.peakActiveRequests(), llm.outputTokens());
+        System.out.println("stream dispatcher: " + get("/stream/stats"));
+    }
+
+    private void runSessions(int count, boolean record) throws Exception {
+        ExecutorService workers = Executors.newFixedThreadPool(options.concurrency());
+        try {
+            List<Future<?>> futures = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                futures.add(workers.submit(() -> session(record)));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            workers.shutdown();
+        }
+    }
+
+    private void session(boolean record) {
+        String threadId = "loadtest-" + threadSequence.incrementAndGet();
+        long start = System.nanoTime();
+        boolean started = phase("start", "/start?thread_id=" + threadId
+                + "&document_type=" + encode(options.documentType())
+                + "&urgency_level=" + encode(options.urgencyLevel())
+                + "&document_content=" + encode(document), "\"risk_assessment\"", record);
+        if (!started) {
+            fail("session", record);
+            return;
+        }
+        sleep(options.thinkTime());
+        boolean continued = phase("continue", "/continue?thread_id=" + threadId
+                + "&action=" + encode(options.action()), "\"final_report\"", record);
+        if (!continued) {
+            fail("session", record);
+            return;
+        }
+        if (record) {
+            phases.get("session").record(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * 消费一个 SSE 审核流直至结束，流中需出现完成标记才视为成功
+     */
+    private boolean phase(String name, String path, String completionMarker, boolean record) {
+        long start = System.nanoTime();
+        long firstEvent = 0;
+        boolean completed = false;
+        boolean rejected = false;
+        try {
+            HttpResponse<Stream<String>> response = httpClient.send(
+                    HttpRequest.newBuilder(URI.create(baseUrl + path)).header("Accept", "text/event-stream").GET().build(),
+                    HttpResponse.BodyHandlers.ofLines());
+            if (response.statusCode() != 200) {
+                response.body().close();
+                logger.warn("{} returned HTTP {}", name, response.statusCode());
+                fail(name + ".complete", record);
+                return false;
+            }
+            try (Stream<String> lines = response.body()) {
+                Iterator<String> iterator = lines.iterator();
+                while (iterator.hasNext()) {
+                    String line = iterator.next();
+                    if (line.startsWith("event:rejected")) {
+                        rejected = true;
+                    } else if (line.startsWith("data:")) {
+                        if (firstEvent == 0) {
+                            firstEvent = System.nanoTime() - start;
+                        }
+                        completed |= line.contains(completionMarker);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            logger.warn("{} stream failed: {}", name, e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        if (!completed || rejected) {
+            fail(name + ".complete", record);
+            return false;
+        }
+        if (record) {
+            phases.get(name + ".first_event").record(firstEvent);
+            phases.get(name + ".complete").record(System.nanoTime() - start);
+        }
+        return true;
+    }
+
+    private String get(String path) {
+        try {
+            return httpClient.send(HttpRequest.newBuilder(URI.create(baseUrl + path)).GET().build(),
+                    HttpResponse.BodyHandlers.ofString()).body();
+        } catch (IOException e) {
+            return "unavailable: " + e.getMessage();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return "interrupted";
+        }
+    }
+
+    private void fail(String phase, boolean record) {
+        if (record) {
+            phases.get(phase).failure();
+        }
+    }
+
+    private String loadDocument() throws IOException {
+        if (options.documentFile() != null) {
+            return Files.readString(options.documentFile());
+        }
+        try (InputStream in = DocumentReviewApplication.class.getResourceAsStream("/problematic-contract.md")) {
+            if (in == null) {
+                throw new IOException("problematic-contract.md not found on classpath");
+            }
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    private static void sleep(Duration duration) {
+        if (duration.isZero() || duration.isNegative()) {
+            return;
+        }
+        try {
+            Thread.sleep(duration.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static long gcCount() {
+        return ManagementFactory.getGarbageCollectorMXBeans().stream()
+                .mapToLong(GarbageCollectorMXBean::getCollectionCount).filter(count -> count > 0).sum();
+    }
+
+    private static long gcTimeMillis() {
+        return ManagementFactory.getGarbageCollectorMXBeans().stream()
+                .mapToLong(GarbageCollectorMXBean::getCollectionTime).filter(time -> time > 0).sum();
+    }
+}
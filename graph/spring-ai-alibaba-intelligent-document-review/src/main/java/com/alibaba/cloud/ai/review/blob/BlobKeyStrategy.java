@@ -0,0 +1,27 @@
+package com.alibaba.cloud.ai.review.blob;
+
+import com.alibaba.cloud.ai.graph.KeyStrategy;
+import com.alibaba.cloud.ai.graph.state.strategy.ReplaceStrategy;
+
+/**
+ * 按引用保存的状态字段的合并策略
+ * 与 {@link ReplaceStrategy} 语义相同，写入前把足够长的字符串存入 {@link BlobStore} 并替换为 {@link BlobRef}。
+ * 初始输入、节点输出与流式节点的最终结果都经过该策略写入状态，节点本身无需感知引用存储。
+ *
+ * @author Jast
+ */
+public class BlobKeyStrategy implements KeyStrategy {
+
+    private final KeyStrategy delegate = new ReplaceStrategy();
+
+    private final BlobStore store;
+
+    public BlobKeyStrategy(BlobStore store) {
+        this.store = store;
+    }
+
+    @Override
+    public Object apply(Object oldValue, Object newValue) {
+        return delegate.apply(oldValue, store.externalize(newValue));
+    }
+}
@@ -0,0 +1,30 @@
+package com.alibaba.cloud.ai.review.blob;
+
+import java.io.Serializable;
+import java.util.Map;
+
+/**
+ * 保存在 {@link BlobStore} 中的字符串值的引用
+ * 状态、检查点与状态事件中只保存该引用，需要原文的节点经 {@link BlobStore#read(BlobRef)} 按需读取；
+ * 引用中不含文件路径，服务端目录结构不会随状态发送给客户端
+ *
+ * @param sha256 UTF-8 字节的 SHA-256（十六进制）
+ * @param chars  原文字符数
+ * @author Jast
+ */
+public record BlobRef(String sha256, int chars) implements Serializable {
+
+    /**
+     * 状态中的值是引用（记录或序列化后的字段 Map）时返回引用，否则返回 null
+     */
+    public static BlobRef of(Object value) {
+        if (value instanceof BlobRef ref) {
+            return ref;
+        }
+        if (value instanceof Map<?, ?> fields && fields.containsKey("sha256") && fields.containsKey("chars")) {
+            Object chars = fields.get("chars");
+            return new BlobRef(String.valueOf(fields.get("sha256")), chars instanceof Number number ? number.intValue() : 0);
+        }
+        return null;
+    }
+}
@@ -0,0 +1,58 @@
+package com.alibaba.cloud.ai.review.blob;
+
+import com.alibaba.cloud.ai.graph.RunnableConfig;
+import com.alibaba.cloud.ai.graph.checkpoint.BaseCheckpointSaver;
+import com.alibaba.cloud.ai.graph.checkpoint.Checkpoint;
+
+import java.util.Collection;
+import java.util.Optional;
+
+/**
+ * 为检查点中的 {@link BlobRef} 登记引用的检查点存储包装
+ * 写入检查点时以线程 id 为引用方登记引用，清除线程时释放；读取到的检查点同样登记，
+ * 重启后从磁盘恢复的线程在被访问时重新持有引用。
+ *
+ * @author Jast
+ */
+public class BlobRetainingCheckpointSaver implements BaseCheckpointSaver {
+
+    private static final String DEFAULT_THREAD_ID = "$default";
+
+    private final BaseCheckpointSaver delegate;
+
+    private final BlobStore store;
+
+    public BlobRetainingCheckpointSaver(BaseCheckpointSaver delegate, BlobStore store) {
+        this.delegate = delegate;
+        this.store = store;
+    }
+
+    @Override
+    public Collection<Checkpoint> list(RunnableConfig config) {
+        return delegate.list(config);
+    }
+
+    @Override
+    public Optional<Checkpoint> get(RunnableConfig config) {
+        Optional<Checkpoint> checkpoint = delegate.get(config);
+        checkpoint.ifPresent(found -> store.retain(threadId(config), found.getState().values()));
+        return checkpoint;
+    }
+
+    @Override
+    public RunnableConfig put(RunnableConfig config, Checkpoint checkpoint) throws Exception {
+        store.retain(threadId(config), checkpoint.getState().values());
+        return delegate.put(config, checkpoint);
+    }
+
+    @Override
+    public boolean clear(RunnableConfig config) {
+        boolean cleared = delegate.clear(config);
+        store.release(threadId(config));
+        return cleared;
+    }
+
+    private static String threadId(RunnableConfig config) {
+        return config.threadId().orElse(DEFAULT_THREAD_ID);
+    }
+}
@@ -0,0 +1,306 @@
+package com.alibaba.cloud.ai.review.blob;
+
+import com.alibaba.cloud.ai.review.config.DocumentReviewProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * 按内容寻址的本地大字段存储
+ * <p>
+ * 较长的字符串按 UTF-8 字节的 SHA-256 写入一个文件，相同内容只存一份，状态中以 {@link BlobRef} 代替原文，
+ * 读取时按哈希定位文件并以内存映射方式解码。每个引用方（审核线程）持有的内容各计一次引用，线程的检查点被清除或丢弃时释放；
+ * 引用计数归零并超过 gc-grace 的文件由后台清理删除。重启前已存在的文件按启动时间重新计算保留期，
+ * 期间被访问的线程会重新登记引用。
+ *
+ * @author Jast
+ */
+@Component
+@ConditionalOnProperty(prefix = "document-review.blob-store", name = "enabled", havingValue = "true")
+public class BlobStore implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(BlobStore.class);
+
+    private static final String SUFFIX = ".blob";
+
+    private static final Pattern HASH = Pattern.compile("[0-9a-f]{64}");
+
+    private final Path directory;
+
+    private final int minChars;
+
+    private final Set<String> keys;
+
+    private final long graceMillis;
+
+    private final Map<String, Blob> blobs = new HashMap<>();
+
+    private final Map<String, Set<String>> owners = new HashMap<>();
+
+    private final ScheduledExecutorService collector;
+
+    private final AtomicLong puts = new AtomicLong();
+
+    private final AtomicLong deduplicated = new AtomicLong();
+
+    private final AtomicLong writtenBytes = new AtomicLong();
+
+    private final AtomicLong collected = new AtomicLong();
+
+    public BlobStore(DocumentReviewProperties properties) throws IOException {
+        DocumentReviewProperties.BlobStore config = properties.getBlobStore();
+        this.directory = Files.createDirectories(Path.of(config.getDirectory()));
+        this.minChars = Math.max(1, config.getMinChars());
+        this.keys = Set.copyOf(config.getKeys());
+        this.graceMillis = config.getGcGrace().toMillis();
+        recover();
+
+        this.collector = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "blob-store-collector");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = Math.max(1000, config.getGcInterval().toMillis());
+        this.collector.scheduleWithFixedDelay(this::collectQuietly, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 按引用保存的状态字段
+     */
+    public Set<String> keys() {
+        return keys;
+    }
+
+    /**
+     * 足够长的字符串写入存储并返回引用，其他值原样返回
+     */
+    public Object externalize(Object value) {
+        return value instanceof String text && text.length() >= minChars ? put(text) : value;
+    }
+
+    /**
+     * 写入字符串，相同内容已存在时直接返回引用
+     */
+    public BlobRef put(String text) {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        String sha256 = HexFormat.of().formatHex(sha256().digest(bytes));
+        Path path = path(sha256);
+        BlobRef ref = new BlobRef(sha256, text.length());
+        puts.incrementAndGet();
+
+        synchronized (this) {
+            Blob blob = blobs.get(sha256);
+            if (blob != null && Files.exists(path)) {
+                // 新引用还没有登记到线程上，重新计算保留期
+                blob.idleSinceMillis = System.currentTimeMillis();
+                deduplicated.incrementAndGet();
+                return ref;
+            }
+        }
+        try {
+            Path temp = Files.createTempFile(directory, "blob-", ".tmp");
+            try {
+                Files.write(temp, bytes);
+                // 内容相同的并发写入覆盖的也是相同字节
+                Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write blob " + sha256, e);
+        }
+        writtenBytes.addAndGet(bytes.length);
+        synchronized (this) {
+            blobs.computeIfAbsent(sha256, key -> new Blob(bytes.length)).idleSinceMillis = System.currentTimeMillis();
+        }
+        return ref;
+    }
+
+    /**
+     * 以内存映射方式读取并解码引用的原文
+     */
+    public String read(BlobRef ref) {
+        try (FileChannel channel = FileChannel.open(path(ref.sha256()), StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return StandardCharsets.UTF_8.decode(buffer).toString();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read blob " + ref.sha256(), e);
+        }
+    }
+
+    /**
+     * 为引用方登记 values 中出现的引用，同一引用方对同一内容只计一次
+     */
+    public synchronized void retain(String owner, Collection<?> values) {
+        for (Object value : values) {
+            BlobRef ref = BlobRef.of(value);
+            if (ref == null || !owners.computeIfAbsent(owner, key -> new HashSet<>()).add(ref.sha256())) {
+                continue;
+            }
+            blobs.computeIfAbsent(ref.sha256(), key -> new Blob(0)).refs++;
+        }
+    }
+
+    /**
+     * 释放引用方持有的所有引用
+     */
+    public synchronized void release(String owner) {
+        Set<String> held = owners.remove(owner);
+        if (held == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        for (String sha256 : held) {
+            Blob blob = blobs.get(sha256);
+            if (blob != null && --blob.refs <= 0) {
+                blob.refs = 0;
+                blob.idleSinceMillis = now;
+            }
+        }
+    }
+
+    /**
+     * 删除引用计数为零且超过保留期的文件，返回删除数量
+     */
+    public synchronized int collect() {
+        long cutoff = System.currentTimeMillis() - graceMillis;
+        int removed = 0;
+        Iterator<Map.Entry<String, Blob>> iterator = blobs.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, Blob> entry = iterator.next();
+            Blob blob = entry.getValue();
+            if (blob.refs > 0 || blob.idleSinceMillis > cutoff) {
+                continue;
+            }
+            try {
+                Files.deleteIfExists(path(entry.getKey()));
+                iterator.remove();
+                removed++;
+            } catch (IOException e) {
+                logger.warn("Failed to delete blob {}", entry.getKey(), e);
+            }
+        }
+        collected.addAndGet(removed);
+        return removed;
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        synchronized (this) {
+            stats.put("blobs", blobs.size());
+            stats.put("referenced_blobs", blobs.values().stream().filter(blob -> blob.refs > 0).count());
+            stats.put("owners", owners.size());
+            stats.put("stored_bytes", blobs.values().stream().mapToLong(blob -> blob.bytes).sum());
+        }
+        stats.put("directory", directory.toString());
+        stats.put("min_chars", minChars);
+        stats.put("keys", keys);
+        stats.put("gc_grace", Duration.ofMillis(graceMillis).toString());
+        stats.put("puts", puts.get());
+        stats.put("deduplicated", deduplicated.get());
+        stats.put("written_bytes", writtenBytes.get());
+        stats.put("collected", collected.get());
+        return stats;
+    }
+
+    @Override
+    public void destroy() {
+        collector.shutdownNow();
+    }
+
+    /**
+     * 登记重启前已存在的文件，删除写入中断遗留的临时文件
+     */
+    private void recover() throws IOException {
+        long now = System.currentTimeMillis();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                if (name.endsWith(SUFFIX)) {
+                    Blob blob = new Blob(Files.size(file));
+                    blob.idleSinceMillis = now;
+                    blobs.put(name.substring(0, name.length() - SUFFIX.length()), blob);
+                } else if (name.endsWith(".tmp")) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+        if (!blobs.isEmpty()) {
+            logger.info("Recovered {} blobs from {}", blobs.size(), directory);
+        }
+    }
+
+    /**
+     * 内容哈希对应的存储文件，哈希不是十六进制时拒绝，避免客户端构造的引用读到存储目录以外的文件
+     */
+    private Path path(String sha256) {
+        if (!HASH.matcher(sha256).matches()) {
+            throw new IllegalArgumentException("Invalid blob hash: " + sha256);
+        }
+        return directory.resolve(sha256 + SUFFIX);
+    }
+
+    private void collectQuietly() {
+        try {
+            int removed = collect();
+            if (removed > 0) {
+                logger.info("Collected {} unreferenced blobs", removed);
+            }
+        } catch (RuntimeException e) {
+            logger.error("Failed to collect blobs", e);
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * 存储文件的引用计数，计数归零时记录开始空闲的时间
+     */
+    private static final class Blob {
+
+        private final long bytes;
+
+        private int refs;
+
+        private long idleSinceMillis;
+
+        private Blob(long bytes) {
+            this.bytes = bytes;
+        }
+    }
+}
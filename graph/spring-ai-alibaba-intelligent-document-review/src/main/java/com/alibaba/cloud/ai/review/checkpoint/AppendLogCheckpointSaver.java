@@ -0,0 +1,583 @@
+package com.alibaba.cloud.ai.review.checkpoint;
+
+import com.alibaba.cloud.ai.graph.RunnableConfig;
+import com.alibaba.cloud.ai.graph.checkpoint.BaseCheckpointSaver;
+import com.alibaba.cloud.ai.graph.checkpoint.Checkpoint;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * 基于本地磁盘追加日志的检查点存储
+ * <p>
+ * 每次写入把该线程完整的检查点列表追加为一条记录，内存中只保留 线程ID -> 记录位置 的偏移索引，
+ * 因此成千上万个停在 human_review 的线程只占用很小且固定的堆内存，重启后通过扫描日志重建索引。
+ * <ul>
+ *     <li>段文件写满后封存，封存段通过内存映射读取，活跃段通过 FileChannel 定位读取</li>
+ *     <li>fsync 按批合并：累计写入达到批量或到达刷盘间隔时统一 force</li>
+ *     <li>后台定期压缩存活数据比例过低的封存段，把存活记录搬到活跃段后删除旧段；更早的段仍存在时清除记录一并搬移，
+ *     避免重启回放时更早段中的旧记录使已清除的线程复活</li>
+ * </ul>
+ * 记录格式：[int 记录长度][byte 类型][int 线程ID长度][线程ID][负载][int CRC32]
+ *
+ * @author Jast
+ */
+public class AppendLogCheckpointSaver implements BaseCheckpointSaver, Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(AppendLogCheckpointSaver.class);
+
+    private static final byte RECORD_PUT = 1;
+
+    private static final byte RECORD_CLEAR = 2;
+
+    private static final String SEGMENT_PREFIX = "segment-";
+
+    private static final String SEGMENT_SUFFIX = ".log";
+
+    private static final String DEFAULT_THREAD_ID = "$default";
+
+    private final Path directory;
+
+    private final long segmentBytes;
+
+    private final int fsyncBatchSize;
+
+    private final double compactionLiveRatio;
+
+    private final Map<String, RecordPointer> index = new ConcurrentHashMap<>();
+
+    /**
+     * 已清除线程最近一条清除记录的位置，线程重新写入后移除
+     */
+    private final Map<String, RecordPointer> tombstones = new ConcurrentHashMap<>();
+
+    private final TreeMap<Integer, Segment> segments = new TreeMap<>();
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final ScheduledExecutorService scheduler;
+
+    private Segment activeSegment;
+
+    private int pendingWrites;
+
+    public AppendLogCheckpointSaver(Path directory) throws IOException {
+        this(directory, 64L * 1024 * 1024, 32, Duration.ofMillis(200), Duration.ofMinutes(5), 0.5);
+    }
+
+    /**
+     * @param directory           段文件所在目录
+     * @param segmentBytes        单个段文件的滚动阈值
+     * @param fsyncBatchSize      累计多少次写入后立即刷盘
+     * @param fsyncInterval       定时刷盘间隔
+     * @param compactionInterval  后台压缩检查间隔
+     * @param compactionLiveRatio 封存段存活数据比例低于该值时进行压缩
+     */
+    public AppendLogCheckpointSaver(Path directory, long segmentBytes, int fsyncBatchSize, Duration fsyncInterval,
+                                    Duration compactionInterval, double compactionLiveRatio) throws IOException {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.fsyncBatchSize = Math.max(1, fsyncBatchSize);
+        this.compactionLiveRatio = compactionLiveRatio;
+
+        Files.createDirectories(directory);
+        recover();
+
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "checkpoint-log-maintenance");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.scheduler.scheduleWithFixedDelay(this::flushQuietly, fsyncInterval.toMillis(), fsyncInterval.toMillis(),
+                TimeUnit.MILLISECONDS);
+        this.scheduler.scheduleWithFixedDelay(this::compactQuietly, compactionInterval.toMillis(),
+                compactionInterval.toMillis(), TimeUnit.MILLISECONDS);
+
+        logger.info("Append-log checkpoint saver opened at {} - segments: {}, threads: {}", directory,
+                segments.size(), index.size());
+    }
+
+    @Override
+    public Collection<Checkpoint> list(RunnableConfig config) {
+        return loadCheckpoints(threadId(config));
+    }
+
+    @Override
+    public Optional<Checkpoint> get(RunnableConfig config) {
+        LinkedList<Checkpoint> checkpoints = loadCheckpoints(threadId(config));
+        if (config.checkPointId().isPresent()) {
+            String checkPointId = config.checkPointId().get();
+            return checkpoints.stream().filter(checkpoint -> checkpoint.getId().equals(checkPointId)).findFirst();
+        }
+        return Optional.ofNullable(checkpoints.peekFirst());
+    }
+
+    @Override
+    public RunnableConfig put(RunnableConfig config, Checkpoint checkpoint) throws Exception {
+        String threadId = threadId(config);
+        lock.writeLock().lock();
+        try {
+            LinkedList<Checkpoint> checkpoints = loadCheckpoints(threadId);
+            RunnableConfig result;
+            if (config.checkPointId().isPresent()) {
+                // 替换已有检查点
+                String checkPointId = config.checkPointId().get();
+                int position = -1;
+                for (int i = 0; i < checkpoints.size(); i++) {
+                    if (checkpoints.get(i).getId().equals(checkPointId)) {
+                        position = i;
+                        break;
+                    }
+                }
+                if (position < 0) {
+                    throw new NoSuchElementException("Checkpoint with id " + checkPointId + " not found!");
+                }
+                checkpoints.set(position, checkpoint);
+                result = config;
+            } else {
+                // 新增检查点，最新的在前
+                checkpoints.push(checkpoint);
+                result = RunnableConfig.builder(config).checkPointId(checkpoint.getId()).build();
+            }
+            append(RECORD_PUT, threadId, CheckpointCodec.encode(checkpoints));
+            return result;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean clear(RunnableConfig config) {
+        String threadId = threadId(config);
+        lock.writeLock().lock();
+        try {
+            if (!index.containsKey(threadId)) {
+                return false;
+            }
+            append(RECORD_CLEAR, threadId, new byte[0]);
+            return true;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 整体写入一个线程的检查点列表（最新的在前），用于从其他存储迁移或溢出
+     */
+    public void store(String threadId, List<Checkpoint> checkpoints) throws IOException {
+        lock.writeLock().lock();
+        try {
+            append(RECORD_PUT, threadId, CheckpointCodec.encode(checkpoints));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 读取一个线程的完整检查点列表（最新的在前），不存在时返回空列表
+     */
+    public LinkedList<Checkpoint> load(String threadId) {
+        return loadCheckpoints(threadId);
+    }
+
+    /**
+     * 是否存有指定线程的检查点
+     */
+    public boolean contains(String threadId) {
+        return index.containsKey(threadId);
+    }
+
+    /**
+     * 当前存有检查点的线程 id
+     */
+    public Set<String> threadIds() {
+        return Set.copyOf(index.keySet());
+    }
+
+    /**
+     * 当前存有检查点的线程数量
+     */
+    public int threadCount() {
+        return index.size();
+    }
+
+    /**
+     * 磁盘上所有段文件的总字节数
+     */
+    public long diskBytes() {
+        lock.readLock().lock();
+        try {
+            return segments.values().stream().mapToLong(segment -> segment.size).sum();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 立即将未刷盘的写入 fsync 到磁盘
+     */
+    public void flush() throws IOException {
+        lock.writeLock().lock();
+        try {
+            if (pendingWrites > 0) {
+                activeSegment.channel.force(false);
+                pendingWrites = 0;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 压缩存活数据比例过低的封存段
+     *
+     * @return 被删除的段数量
+     */
+    public int compact() throws IOException {
+        lock.writeLock().lock();
+        try {
+            List<Segment> candidates = new ArrayList<>();
+            for (Segment segment : segments.values()) {
+                if (segment != activeSegment && segment.liveBytes <= segment.size * compactionLiveRatio) {
+                    candidates.add(segment);
+                }
+            }
+            for (Segment segment : candidates) {
+                for (Map.Entry<String, RecordPointer> entry : index.entrySet()) {
+                    RecordPointer pointer = entry.getValue();
+                    if (pointer.segmentId() == segment.id) {
+                        byte[] record = readRecord(pointer);
+                        index.put(entry.getKey(), writeRecord(record));
+                    }
+                }
+                // 更早的段中可能还有该线程的旧记录，清除记录需要保留到这些段都被删除
+                boolean olderSegments = segments.firstKey() < segment.id;
+                for (Map.Entry<String, RecordPointer> entry : tombstones.entrySet()) {
+                    RecordPointer pointer = entry.getValue();
+                    if (pointer.segmentId() != segment.id) {
+                        continue;
+                    }
+                    if (olderSegments) {
+                        RecordPointer moved = writeRecord(readRecord(pointer));
+                        release(moved);
+                        entry.setValue(moved);
+                    } else {
+                        tombstones.remove(entry.getKey());
+                    }
+                }
+                segments.remove(segment.id);
+                segment.close();
+                Files.deleteIfExists(segment.path);
+            }
+            if (!candidates.isEmpty()) {
+                activeSegment.channel.force(false);
+                pendingWrites = 0;
+                logger.info("Compacted {} checkpoint segments, remaining segments: {}", candidates.size(), segments.size());
+            }
+            return candidates.size();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        scheduler.shutdown();
+        lock.writeLock().lock();
+        try {
+            if (activeSegment != null && pendingWrites > 0) {
+                activeSegment.channel.force(false);
+                pendingWrites = 0;
+            }
+            for (Segment segment : segments.values()) {
+                segment.close();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private LinkedList<Checkpoint> loadCheckpoints(String threadId) {
+        lock.readLock().lock();
+        try {
+            RecordPointer pointer = index.get(threadId);
+            if (pointer == null) {
+                return new LinkedList<>();
+            }
+            byte[] record = readRecord(pointer);
+            ByteBuffer buffer = ByteBuffer.wrap(record);
+            buffer.position(4 + 1);
+            int threadIdLength = buffer.getInt();
+            int payloadOffset = buffer.position() + threadIdLength;
+            int payloadLength = record.length - payloadOffset - 4;
+            byte[] payload = new byte[payloadLength];
+            System.arraycopy(record, payloadOffset, payload, 0, payloadLength);
+            return CheckpointCodec.decode(payload);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read checkpoints of thread " + threadId, e);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 追加一条记录并更新索引，调用方需持有写锁
+     */
+    private void append(byte type, String threadId, byte[] payload) throws IOException {
+        byte[] threadIdBytes = threadId.getBytes(StandardCharsets.UTF_8);
+        int recordLength = 1 + 4 + threadIdBytes.length + payload.length + 4;
+        ByteBuffer buffer = ByteBuffer.allocate(4 + recordLength);
+        buffer.putInt(recordLength);
+        buffer.put(type);
+        buffer.putInt(threadIdBytes.length);
+        buffer.put(threadIdBytes);
+        buffer.put(payload);
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), 4, recordLength - 4);
+        buffer.putInt((int) crc.getValue());
+
+        RecordPointer pointer = writeRecord(buffer.array());
+        apply(type, threadId, pointer);
+
+        if (++pendingWrites >= fsyncBatchSize) {
+            activeSegment.channel.force(false);
+            pendingWrites = 0;
+        }
+    }
+
+    /**
+     * 将一条完整记录写入活跃段，必要时先滚动段文件，调用方需持有写锁
+     */
+    private RecordPointer writeRecord(byte[] record) throws IOException {
+        if (activeSegment.size > 0 && activeSegment.size + record.length > segmentBytes) {
+            rollSegment();
+        }
+        long offset = activeSegment.size;
+        ByteBuffer buffer = ByteBuffer.wrap(record);
+        while (buffer.hasRemaining()) {
+            activeSegment.channel.write(buffer, offset + buffer.position());
+        }
+        activeSegment.size += record.length;
+        activeSegment.liveBytes += record.length;
+        return new RecordPointer(activeSegment.id, offset, record.length);
+    }
+
+    private byte[] readRecord(RecordPointer pointer) throws IOException {
+        Segment segment = segments.get(pointer.segmentId());
+        if (segment == null) {
+            throw new IOException("Checkpoint segment " + pointer.segmentId() + " is missing");
+        }
+        byte[] record = new byte[pointer.length()];
+        if (segment.mapped != null) {
+            segment.mapped.slice((int) pointer.offset(), pointer.length()).get(record);
+        } else {
+            ByteBuffer buffer = ByteBuffer.wrap(record);
+            while (buffer.hasRemaining()) {
+                if (segment.channel.read(buffer, pointer.offset() + buffer.position()) < 0) {
+                    throw new IOException("Unexpected end of checkpoint segment " + segment.path);
+                }
+            }
+        }
+        return record;
+    }
+
+    /**
+     * 按记录类型更新索引与存活字节数，写入与重启回放共用
+     */
+    private void apply(byte type, String threadId, RecordPointer pointer) {
+        RecordPointer previous;
+        if (type == RECORD_PUT) {
+            previous = index.put(threadId, pointer);
+            tombstones.remove(threadId);
+        } else {
+            previous = index.remove(threadId);
+            tombstones.put(threadId, pointer);
+            // 清除记录不计入存活数据，只在压缩时按需搬移
+            release(pointer);
+        }
+        if (previous != null) {
+            release(previous);
+        }
+    }
+
+    private void release(RecordPointer pointer) {
+        Segment segment = segments.get(pointer.segmentId());
+        if (segment != null) {
+            segment.liveBytes -= pointer.length();
+        }
+    }
+
+    private void rollSegment() throws IOException {
+        activeSegment.channel.force(false);
+        pendingWrites = 0;
+        activeSegment.seal();
+        activeSegment = openSegment(activeSegment.id + 1);
+    }
+
+    private Segment openSegment(int id) throws IOException {
+        Path path = directory.resolve(String.format("%s%08d%s", SEGMENT_PREFIX, id, SEGMENT_SUFFIX));
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        Segment segment = new Segment(id, path, channel);
+        segments.put(id, segment);
+        return segment;
+    }
+
+    /**
+     * 启动时按顺序扫描段文件重建偏移索引，截断末尾未写完整或校验失败的记录
+     */
+    private void recover() throws IOException {
+        List<Integer> segmentIds = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX))
+                    .map(name -> Integer.parseInt(name.substring(SEGMENT_PREFIX.length(),
+                            name.length() - SEGMENT_SUFFIX.length())))
+                    .sorted()
+                    .forEach(segmentIds::add);
+        }
+
+        for (int segmentId : segmentIds) {
+            Segment segment = openSegment(segmentId);
+            long fileSize = segment.channel.size();
+            long offset = 0;
+            ByteBuffer header = ByteBuffer.allocate(4);
+            while (offset + 4 <= fileSize) {
+                header.clear();
+                segment.channel.read(header, offset);
+                int recordLength = header.getInt(0);
+                if (recordLength <= 9 || offset + 4 + recordLength > fileSize) {
+                    break;
+                }
+                ByteBuffer record = ByteBuffer.allocate(4 + recordLength);
+                while (record.hasRemaining()) {
+                    segment.channel.read(record, offset + record.position());
+                }
+                byte[] bytes = record.array();
+                CRC32 crc = new CRC32();
+                crc.update(bytes, 4, recordLength - 4);
+                if ((int) crc.getValue() != record.getInt(bytes.length - 4)) {
+                    break;
+                }
+                byte type = record.get(4);
+                int threadIdLength = record.getInt(5);
+                String threadId = new String(bytes, 9, threadIdLength, StandardCharsets.UTF_8);
+
+                segment.size = offset + bytes.length;
+                segment.liveBytes += bytes.length;
+                apply(type, threadId, new RecordPointer(segmentId, offset, bytes.length));
+                offset += bytes.length;
+            }
+            if (offset < fileSize) {
+                logger.warn("Truncating torn checkpoint log tail of {} at offset {} (file size {})",
+                        segment.path, offset, fileSize);
+                segment.channel.truncate(offset);
+                segment.size = offset;
+            }
+        }
+
+        if (segments.isEmpty()) {
+            activeSegment = openSegment(1);
+        } else {
+            activeSegment = segments.lastEntry().getValue();
+            for (Segment segment : segments.values()) {
+                if (segment != activeSegment) {
+                    segment.seal();
+                }
+            }
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (Exception e) {
+            logger.error("Failed to fsync checkpoint log", e);
+        }
+    }
+
+    private void compactQuietly() {
+        try {
+            compact();
+        } catch (Exception e) {
+            logger.error("Failed to compact checkpoint log", e);
+        }
+    }
+
+    private static String threadId(RunnableConfig config) {
+        return config.threadId().orElse(DEFAULT_THREAD_ID);
+    }
+
+    /**
+     * 索引项：记录所在段、段内偏移与记录总长度
+     */
+    private record RecordPointer(int segmentId, long offset, int length) {
+    }
+
+    /**
+     * 段文件
+     */
+    private static final class Segment {
+
+        private final int id;
+
+        private final Path path;
+
+        private final FileChannel channel;
+
+        private long size;
+
+        private long liveBytes;
+
+        private MappedByteBuffer mapped;
+
+        private Segment(int id, Path path, FileChannel channel) {
+            this.id = id;
+            this.path = path;
+            this.channel = channel;
+        }
+
+        /**
+         * 封存后段文件不再写入，改为内存映射读取
+         */
+        private void seal() throws IOException {
+            if (size > 0) {
+                mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            }
+        }
+
+        private void close() throws IOException {
+            mapped = null;
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,364 @@
+package com.alibaba.cloud.ai.review.checkpoint;
+
+import com.alibaba.cloud.ai.graph.RunnableConfig;
+import com.alibaba.cloud.ai.graph.StateGraph;
+import com.alibaba.cloud.ai.graph.checkpoint.BaseCheckpointSaver;
+import com.alibaba.cloud.ai.graph.checkpoint.Checkpoint;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * 有界内存检查点存储
+ * <p>
+ * 与 MemorySaver 语义一致，但对线程数、估算总字节数和空闲时间设置上限，按 LRU 顺序淘汰。
+ * 从未调用 /continue 的审核会带着完整的 document_content 与所有 AI 结果一直留在内存中，
+ * 这里在超限或空闲超时后将其淘汰；若配置了溢出存储，仍停在中断点的线程会被写入磁盘而不是丢弃，
+ * 之后再次访问时自动加载回内存。
+ *
+ * @author Jast
+ */
+public class BoundedCheckpointSaver implements BaseCheckpointSaver, Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(BoundedCheckpointSaver.class);
+
+    private static final String DEFAULT_THREAD_ID = "$default";
+
+    private final int maxThreads;
+
+    private final long maxBytes;
+
+    private final long idleTtlNanos;
+
+    private final AppendLogCheckpointSaver spillSaver;
+
+    private final LinkedHashMap<String, ThreadEntry> threads = new LinkedHashMap<>(16, 0.75f, true);
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final ScheduledExecutorService scheduler;
+
+    private long totalBytes;
+
+    private final AtomicLong sizeEvictions = new AtomicLong();
+
+    private final AtomicLong idleEvictions = new AtomicLong();
+
+    private final AtomicLong spills = new AtomicLong();
+
+    private final AtomicLong reloads = new AtomicLong();
+
+    private final AtomicLong discards = new AtomicLong();
+
+    private volatile Consumer<String> discardListener = threadId -> {
+    };
+
+    /**
+     * @param maxThreads 内存中最多保留的线程数
+     * @param maxBytes   内存中检查点估算总字节数上限
+     * @param idleTtl    线程空闲超过该时间后淘汰
+     * @param spillSaver 淘汰仍处于中断状态的线程时的溢出存储，为 null 时直接丢弃
+     */
+    public BoundedCheckpointSaver(int maxThreads, long maxBytes, Duration idleTtl, AppendLogCheckpointSaver spillSaver) {
+        this.maxThreads = maxThreads;
+        this.maxBytes = maxBytes;
+        this.idleTtlNanos = idleTtl.toNanos();
+        this.spillSaver = spillSaver;
+
+        long sweepMillis = Math.max(1000L, idleTtl.toMillis() / 4);
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "checkpoint-idle-sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.scheduler.scheduleWithFixedDelay(this::evictIdleQuietly, sweepMillis, sweepMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public Collection<Checkpoint> list(RunnableConfig config) {
+        lock.lock();
+        try {
+            ThreadEntry entry = entry(threadId(config));
+            return entry == null ? new LinkedList<>() : new LinkedList<>(entry.checkpoints);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Optional<Checkpoint> get(RunnableConfig config) {
+        lock.lock();
+        try {
+            ThreadEntry entry = entry(threadId(config));
+            if (entry == null) {
+                return Optional.empty();
+            }
+            if (config.checkPointId().isPresent()) {
+                String checkPointId = config.checkPointId().get();
+                return entry.checkpoints.stream().filter(checkpoint -> checkpoint.getId().equals(checkPointId)).findFirst();
+            }
+            return Optional.ofNullable(entry.checkpoints.peekFirst());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public RunnableConfig put(RunnableConfig config, Checkpoint checkpoint) throws Exception {
+        String threadId = threadId(config);
+        lock.lock();
+        try {
+            ThreadEntry entry = entry(threadId);
+            if (entry == null) {
+                entry = new ThreadEntry();
+                threads.put(threadId, entry);
+            }
+            entry.lastAccessNanos = System.nanoTime();
+
+            RunnableConfig result;
+            if (config.checkPointId().isPresent()) {
+                // 替换已有检查点
+                String checkPointId = config.checkPointId().get();
+                int position = -1;
+                for (int i = 0; i < entry.checkpoints.size(); i++) {
+                    if (entry.checkpoints.get(i).getId().equals(checkPointId)) {
+                        position = i;
+                        break;
+                    }
+                }
+                if (position < 0) {
+                    throw new NoSuchElementException("Checkpoint with id " + checkPointId + " not found!");
+                }
+                Checkpoint replaced = entry.checkpoints.set(position, checkpoint);
+                resize(entry, estimateBytes(checkpoint) - estimateBytes(replaced));
+                result = config;
+            } else {
+                // 新增检查点，最新的在前
+                entry.checkpoints.push(checkpoint);
+                resize(entry, estimateBytes(checkpoint));
+                result = RunnableConfig.builder(config).checkPointId(checkpoint.getId()).build();
+            }
+
+            enforceLimits(threadId);
+            return result;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean clear(RunnableConfig config) {
+        String threadId = threadId(config);
+        lock.lock();
+        try {
+            boolean cleared = false;
+            ThreadEntry entry = threads.remove(threadId);
+            if (entry != null) {
+                totalBytes -= entry.bytes;
+                cleared = true;
+            }
+            if (spillSaver != null && spillSaver.contains(threadId)) {
+                cleared |= spillSaver.clear(RunnableConfig.builder().threadId(threadId).build());
+            }
+            return cleared;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 淘汰空闲超时的线程，返回淘汰数量
+     */
+    public int evictIdle() {
+        lock.lock();
+        try {
+            long now = System.nanoTime();
+            int evicted = 0;
+            Iterator<Map.Entry<String, ThreadEntry>> iterator = threads.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<String, ThreadEntry> eldest = iterator.next();
+                // 按访问顺序排列，遇到第一个未超时的线程即可停止
+                if (now - eldest.getValue().lastAccessNanos < idleTtlNanos) {
+                    break;
+                }
+                iterator.remove();
+                evict(eldest.getKey(), eldest.getValue());
+                idleEvictions.incrementAndGet();
+                evicted++;
+            }
+            return evicted;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 获取存储运行统计：内存线程数、估算字节数与淘汰、溢出、加载次数
+     */
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        lock.lock();
+        try {
+            stats.put("threads", threads.size());
+            stats.put("bytes", totalBytes);
+        } finally {
+            lock.unlock();
+        }
+        stats.put("max_threads", maxThreads);
+        stats.put("max_bytes", maxBytes);
+        stats.put("size_evictions", sizeEvictions.get());
+        stats.put("idle_evictions", idleEvictions.get());
+        stats.put("spills", spills.get());
+        stats.put("reloads", reloads.get());
+        stats.put("discards", discards.get());
+        stats.put("spilled_threads", spillSaver == null ? 0 : spillSaver.threadCount());
+        return stats;
+    }
+
+    /**
+     * 淘汰时丢弃（未溢出）线程后的回调，参数为线程 id，在持有锁时调用
+     */
+    public void setDiscardListener(Consumer<String> discardListener) {
+        this.discardListener = discardListener;
+    }
+
+    public long getEvictions() {
+        return sizeEvictions.get() + idleEvictions.get();
+    }
+
+    public long getSpills() {
+        return spills.get();
+    }
+
+    public long getReloads() {
+        return reloads.get();
+    }
+
+    @Override
+    public void close() throws IOException {
+        scheduler.shutdown();
+        if (spillSaver != null) {
+            spillSaver.close();
+        }
+    }
+
+    /**
+     * 查找线程，内存中不存在时尝试从溢出存储加载，调用方需持有锁
+     */
+    private ThreadEntry entry(String threadId) {
+        ThreadEntry entry = threads.get(threadId);
+        if (entry == null && spillSaver != null && spillSaver.contains(threadId)) {
+            entry = new ThreadEntry();
+            entry.checkpoints.addAll(spillSaver.load(threadId));
+            spillSaver.clear(RunnableConfig.builder().threadId(threadId).build());
+            threads.put(threadId, entry);
+            resize(entry, entry.checkpoints.stream().mapToLong(BoundedCheckpointSaver::estimateBytes).sum());
+            reloads.incrementAndGet();
+            logger.info("Reloaded spilled checkpoints of thread {}", threadId);
+            enforceLimits(threadId);
+        }
+        if (entry != null) {
+            entry.lastAccessNanos = System.nanoTime();
+        }
+        return entry;
+    }
+
+    /**
+     * 超出线程数或字节数上限时按 LRU 顺序淘汰，保留当前正在访问的线程，调用方需持有锁
+     */
+    private void enforceLimits(String currentThreadId) {
+        Iterator<Map.Entry<String, ThreadEntry>> iterator = threads.entrySet().iterator();
+        while ((threads.size() > maxThreads || totalBytes > maxBytes) && iterator.hasNext()) {
+            Map.Entry<String, ThreadEntry> eldest = iterator.next();
+            if (eldest.getKey().equals(currentThreadId)) {
+                continue;
+            }
+            iterator.remove();
+            evict(eldest.getKey(), eldest.getValue());
+            sizeEvictions.incrementAndGet();
+        }
+    }
+
+    /**
+     * 淘汰一个已从内存移除的线程：仍停在中断点的线程写入溢出存储，否则丢弃，调用方需持有锁
+     */
+    private void evict(String threadId, ThreadEntry entry) {
+        totalBytes -= entry.bytes;
+        Checkpoint latest = entry.checkpoints.peekFirst();
+        boolean paused = latest != null && latest.getNextNodeId() != null
+                && !StateGraph.END.equals(latest.getNextNodeId());
+        if (paused && spillSaver != null) {
+            try {
+                spillSaver.store(threadId, entry.checkpoints);
+                spills.incrementAndGet();
+                return;
+            } catch (IOException e) {
+                logger.error("Failed to spill checkpoints of thread {}, discarding", threadId, e);
+            }
+        }
+        discards.incrementAndGet();
+        discardListener.accept(threadId);
+        logger.info("Discarded checkpoints of thread {} (paused: {})", threadId, paused);
+    }
+
+    private void resize(ThreadEntry entry, long delta) {
+        entry.bytes += delta;
+        totalBytes += delta;
+    }
+
+    private void evictIdleQuietly() {
+        try {
+            int evicted = evictIdle();
+            if (evicted > 0) {
+                logger.info("Evicted {} idle review threads from checkpoint memory", evicted);
+            }
+        } catch (Exception e) {
+            logger.error("Failed to evict idle checkpoints", e);
+        }
+    }
+
+    private static String threadId(RunnableConfig config) {
+        return config.threadId().orElse(DEFAULT_THREAD_ID);
+    }
+
+    /**
+     * 粗略估算检查点占用的堆字节数，字符串按 UTF-16 计算
+     */
+    static long estimateBytes(Checkpoint checkpoint) {
+        long bytes = 128;
+        for (Map.Entry<String, Object> entry : checkpoint.getState().entrySet()) {
+            bytes += 48 + 2L * entry.getKey().length();
+            Object value = entry.getValue();
+            bytes += value instanceof CharSequence text ? 40 + 2L * text.length() : 24;
+        }
+        return bytes;
+    }
+
+    /**
+     * 内存中的线程条目
+     */
+    private static final class ThreadEntry {
+
+        private final LinkedList<Checkpoint> checkpoints = new LinkedList<>();
+
+        private long bytes;
+
+        private long lastAccessNanos = System.nanoTime();
+    }
+}
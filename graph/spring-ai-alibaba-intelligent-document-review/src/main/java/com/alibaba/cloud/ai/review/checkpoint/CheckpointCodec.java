@@ -0,0 +1,73 @@
+package com.alibaba.cloud.ai.review.checkpoint;
+
+import com.alibaba.cloud.ai.graph.checkpoint.Checkpoint;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 检查点编解码器
+ * 将一个线程的检查点列表（最新的在前）编码为字节数组，供磁盘存储使用
+ *
+ * @author Jast
+ */
+public final class CheckpointCodec {
+
+    private CheckpointCodec() {
+    }
+
+    public static byte[] encode(List<Checkpoint> checkpoints) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(1024);
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeInt(checkpoints.size());
+            for (Checkpoint checkpoint : checkpoints) {
+                out.writeUTF(checkpoint.getId());
+                writeNullableUTF(out, checkpoint.getNodeId());
+                writeNullableUTF(out, checkpoint.getNextNodeId());
+                out.writeObject(new HashMap<>(checkpoint.getState()));
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    @SuppressWarnings("unchecked")
+    public static LinkedList<Checkpoint> decode(byte[] data) throws IOException {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(data))) {
+            int size = in.readInt();
+            LinkedList<Checkpoint> checkpoints = new LinkedList<>();
+            for (int i = 0; i < size; i++) {
+                String id = in.readUTF();
+                String nodeId = readNullableUTF(in);
+                String nextNodeId = readNullableUTF(in);
+                Map<String, Object> state = (Map<String, Object>) in.readObject();
+                checkpoints.add(Checkpoint.builder()
+                        .id(id)
+                        .nodeId(nodeId)
+                        .nextNodeId(nextNodeId)
+                        .state(state)
+                        .build());
+            }
+            return checkpoints;
+        } catch (ClassNotFoundException e) {
+            throw new IOException("Failed to decode checkpoint state", e);
+        }
+    }
+
+    private static void writeNullableUTF(ObjectOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readNullableUTF(ObjectInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+}
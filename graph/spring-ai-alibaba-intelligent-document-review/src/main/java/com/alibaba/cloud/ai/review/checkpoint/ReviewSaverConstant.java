@@ -0,0 +1,23 @@
+package com.alibaba.cloud.ai.review.checkpoint;
+
+/**
+ * 文档审核系统自定义的检查点存储类型
+ * 与框架内置的 SaverConstant 并列注册到 SaverConfig 中
+ *
+ * @author Jast
+ */
+public final class ReviewSaverConstant {
+
+    /**
+     * 基于本地磁盘追加日志的检查点存储
+     */
+    public static final String APPEND_LOG = "append_log";
+
+    /**
+     * 有容量、字节数与空闲时间上限的内存检查点存储
+     */
+    public static final String BOUNDED_MEMORY = "bounded_memory";
+
+    private ReviewSaverConstant() {
+    }
+}
@@ -0,0 +1,31 @@
+package com.alibaba.cloud.ai.review.chunk;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 一次分析调用覆盖的章节及其模型输出，修改后重审时章节内容未变的分析单元直接沿用输出
+ *
+ * @param sectionHashes 单元内各章节的内容哈希，按章节顺序排列
+ * @param result        该单元的模型原始输出
+ * @author Jast
+ */
+public record AnalysisUnit(List<Long> sectionHashes, String result) implements Serializable {
+
+    /**
+     * 状态序列化后记录变为字段 Map，这里兼容驼峰与下划线两种键名；数值可能被反序列化为 Integer
+     */
+    public static AnalysisUnit from(Map<?, ?> fields) {
+        Object hashes = fields.containsKey("sectionHashes") ? fields.get("sectionHashes") : fields.get("section_hashes");
+        List<Long> sectionHashes = new ArrayList<>();
+        if (hashes instanceof List<?> values) {
+            for (Object value : values) {
+                sectionHashes.add(value instanceof Number number ? number.longValue() : Long.parseLong(String.valueOf(value)));
+            }
+        }
+        Object result = fields.get("result");
+        return new AnalysisUnit(List.copyOf(sectionHashes), result == null ? null : result.toString());
+    }
+}
@@ -0,0 +1,163 @@
+package com.alibaba.cloud.ai.review.chunk;
+
+import com.alibaba.cloud.ai.review.result.StreamingJsonParser;
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONArray;
+import com.alibaba.fastjson.JSONObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 分块结果合并器
+ * 将各分块返回的 JSON 分析结果合并为与整篇分析相同结构的 JSON：
+ * 列表字段合并去重，数值评分按策略取平均或取最低，总体状态取最严重的一项，其余文本字段去重拼接。
+ * 以字符串返回的纯数字评分按数值合并；同一字段在某个分块中不是数值时整体按文本拼接。
+ * 无法解析为 JSON 的分块按原文拼接保留。
+ *
+ * @author Jast
+ */
+public class ChunkResultMerger {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChunkResultMerger.class);
+
+    /**
+     * 合并策略
+     */
+    public enum Strategy {
+
+        /**
+         * 数值评分取平均
+         */
+        AVERAGE,
+
+        /**
+         * 数值评分取最低（最保守）
+         */
+        CONSERVATIVE,
+
+        /**
+         * 不解析 JSON，按分块顺序拼接原文
+         */
+        CONCAT
+    }
+
+    /**
+     * overall_status 的严重程度，从轻到重
+     */
+    private static final List<String> STATUS_SEVERITY = List.of("compliant", "needs-review", "non-compliant");
+
+    private final Strategy strategy;
+
+    public ChunkResultMerger(Strategy strategy) {
+        this.strategy = strategy;
+    }
+
+    public String merge(List<String> chunkResults) {
+        if (chunkResults.size() == 1) {
+            return chunkResults.get(0);
+        }
+        if (strategy == Strategy.CONCAT) {
+            return concat(chunkResults);
+        }
+
+        Map<String, Object> merged = new LinkedHashMap<>();
+        Map<String, Integer> numericCounts = new LinkedHashMap<>();
+        StringBuilder unparsed = new StringBuilder();
+        for (int i = 0; i < chunkResults.size(); i++) {
+            JSONObject result = StreamingJsonParser.parse(chunkResults.get(i));
+            if (result == null) {
+                logger.warn("Chunk {} result is not valid JSON, keeping raw text", i + 1);
+                unparsed.append("\n\n[第 ").append(i + 1).append(" 部分]\n").append(chunkResults.get(i));
+                continue;
+            }
+            for (Map.Entry<String, Object> field : result.entrySet()) {
+                mergeField(merged, numericCounts, field.getKey(), field.getValue());
+            }
+        }
+
+        // 平均策略下的数值字段在累加后统一求平均
+        if (strategy == Strategy.AVERAGE) {
+            for (Map.Entry<String, Integer> count : numericCounts.entrySet()) {
+                if (merged.get(count.getKey()) instanceof Number sum) {
+                    merged.put(count.getKey(), Math.round(sum.doubleValue() / count.getValue() * 10) / 10.0);
+                }
+            }
+        }
+        for (Map.Entry<String, Object> field : merged.entrySet()) {
+            if (field.getValue() instanceof Set<?> values) {
+                field.setValue(new JSONArray(new ArrayList<>(values)));
+            }
+        }
+
+        String json = JSON.toJSONString(merged);
+        return unparsed.length() == 0 ? json : json + unparsed;
+    }
+
+    private void mergeField(Map<String, Object> merged, Map<String, Integer> numericCounts, String key, Object value) {
+        Object existing = merged.get(key);
+        Double number = numeric(value);
+        if (number != null && (existing == null || existing instanceof Number)) {
+            if (existing == null) {
+                merged.put(key, number);
+            } else if (strategy == Strategy.CONSERVATIVE) {
+                merged.put(key, Math.min(((Number) existing).doubleValue(), number));
+            } else {
+                merged.put(key, ((Number) existing).doubleValue() + number);
+            }
+            numericCounts.merge(key, 1, Integer::sum);
+        } else if (value instanceof List<?> list) {
+            @SuppressWarnings("unchecked")
+            Set<Object> values = existing instanceof Set<?> set ? (Set<Object>) set : new LinkedHashSet<>();
+            values.addAll(list);
+            merged.put(key, values);
+        } else if (value instanceof Boolean flag) {
+            // 布尔标记（如 escalation_required）任一分块为 true 即为 true
+            merged.put(key, flag || Boolean.TRUE.equals(existing));
+        } else if (value != null) {
+            String text = value.toString();
+            if (existing == null) {
+                merged.put(key, text);
+            } else if ("overall_status".equals(key)) {
+                merged.put(key, STATUS_SEVERITY.indexOf(text) > STATUS_SEVERITY.indexOf(existing.toString())
+                        ? text : existing);
+            } else if (!existing.toString().contains(text)) {
+                merged.put(key, existing + "\n" + text);
+            }
+        }
+    }
+
+    /**
+     * 数值或纯数字字符串转为 double，其余返回 null
+     */
+    private static Double numeric(Object value) {
+        if (value instanceof Number number) {
+            return number.doubleValue();
+        }
+        if (value instanceof String text && !text.isBlank()) {
+            try {
+                return Double.parseDouble(text.strip());
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+        return null;
+    }
+
+    private static String concat(List<String> chunkResults) {
+        StringBuilder merged = new StringBuilder();
+        for (int i = 0; i < chunkResults.size(); i++) {
+            if (i > 0) {
+                merged.append("\n\n");
+            }
+            merged.append("[第 ").append(i + 1).append(" 部分]\n").append(chunkResults.get(i));
+        }
+        return merged.toString();
+    }
+}
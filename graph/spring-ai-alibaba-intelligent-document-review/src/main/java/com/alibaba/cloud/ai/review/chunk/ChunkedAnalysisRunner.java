@@ -0,0 +1,160 @@
+package com.alibaba.cloud.ai.review.chunk;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import reactor.core.publisher.Flux;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * 分块分析执行器（map-reduce）
+ * 大文档按章节分块后并发调用模型（受并发上限约束），流式输出按分块顺序依次转发给客户端，
+ * 全部分块完成后由 {@link ChunkResultMerger} 合并为与整篇分析相同的结果。
+ * 配置了 {@link SectionDiffPlanner} 时按章节记录分析单元，修改后重审只分析内容变化的单元，其余单元沿用上一轮输出
+ *
+ * @author Jast
+ */
+public class ChunkedAnalysisRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChunkedAnalysisRunner.class);
+
+    private final DocumentChunker chunker;
+
+    private final ChunkResultMerger merger;
+
+    private final int thresholdChars;
+
+    private final int parallelism;
+
+    private final SectionDiffPlanner planner;
+
+    public ChunkedAnalysisRunner(DocumentChunker chunker, ChunkResultMerger merger, int thresholdChars, int parallelism) {
+        this(chunker, merger, thresholdChars, parallelism, null);
+    }
+
+    /**
+     * @param chunker        文档分块器
+     * @param merger         分块结果合并器
+     * @param thresholdChars 文档超过该字符数时才启用分块分析
+     * @param parallelism    同时分析的分块数上限
+     * @param planner        修改后重审的章节差异规划器，为 null 时不记录分析单元
+     */
+    public ChunkedAnalysisRunner(DocumentChunker chunker, ChunkResultMerger merger, int thresholdChars, int parallelism,
+                                 SectionDiffPlanner planner) {
+        this.chunker = chunker;
+        this.merger = merger;
+        this.thresholdChars = thresholdChars;
+        this.parallelism = Math.max(1, parallelism);
+        this.planner = planner;
+    }
+
+    /**
+     * 切分文档，未超过阈值时返回只包含原文的单元素列表
+     */
+    public List<String> split(String documentContent) {
+        if (documentContent.length() <= thresholdChars) {
+            return List.of(documentContent);
+        }
+        return chunker.split(documentContent);
+    }
+
+    /**
+     * 规划本次分析：配置了章节差异规划器时按章节划分单元并沿用上一轮未变化单元的输出，否则按 {@link #split(String)} 分块。
+     * 未超过阈值的文档以阈值为单元上限，首轮审核与不分块时一样整篇调用一次模型
+     *
+     * @param previous 上一轮的分析单元，首轮审核时为空
+     */
+    public SectionPlan plan(String documentContent, List<AnalysisUnit> previous) {
+        if (planner == null) {
+            return SectionPlan.of(split(documentContent));
+        }
+        SectionPlan plan = documentContent.length() <= thresholdChars
+                ? planner.plan(documentContent, previous, thresholdChars)
+                : planner.plan(documentContent, previous);
+        if (!previous.isEmpty()) {
+            logger.info("Incremental analysis planned - units: {}, reused: {}, chars to analyze: {}/{}",
+                    plan.size(), plan.reused(), plan.analyzedChars(), documentContent.length());
+        }
+        return plan;
+    }
+
+    /**
+     * 并发分析所有分块
+     *
+     * @param chunks   文档分块
+     * @param analyzer 对单个分块发起流式模型调用，参数为带有分块序号说明的分块文本
+     */
+    public ChunkedAnalysis run(List<String> chunks, Function<String, Flux<ChatResponse>> analyzer) {
+        return run(SectionPlan.of(chunks), analyzer);
+    }
+
+    /**
+     * 按计划分析：沿用上一轮输出的单元不调用模型，其余单元并发分析
+     */
+    public ChunkedAnalysis run(SectionPlan plan, Function<String, Flux<ChatResponse>> analyzer) {
+        List<SectionPlan.Unit> units = plan.units();
+        int total = units.size();
+        List<StringBuilder> results = new ArrayList<>(total);
+        for (SectionPlan.Unit unit : units) {
+            results.add(new StringBuilder(unit.isReused() ? unit.reusedResult() : ""));
+        }
+        logger.info("Running chunked analysis - chunks: {}, reused: {}, parallelism: {}", total, plan.reused(),
+                parallelism);
+
+        Flux<ChatResponse> stream = Flux.range(0, total)
+                .flatMapSequential(index -> {
+                    if (units.get(index).isReused()) {
+                        return Flux.just(textResponse(
+                                "\n\n[第 " + (index + 1) + "/" + total + " 部分：内容未修改，沿用上一轮结果]\n"));
+                    }
+                    if (total == 1) {
+                        StringBuilder result = results.get(0);
+                        return analyzer.apply(units.get(0).text()).doOnNext(response -> append(result, response));
+                    }
+                    String chunkText = "【第 " + (index + 1) + "/" + total + " 部分】\n" + units.get(index).text();
+                    StringBuilder result = results.get(index);
+                    Flux<ChatResponse> chunkStream = analyzer.apply(chunkText)
+                            .doOnNext(response -> append(result, response));
+                    return Flux.concat(Flux.just(textResponse("\n\n[第 " + (index + 1) + "/" + total + " 部分]\n")),
+                            chunkStream);
+                }, parallelism);
+
+        Supplier<List<String>> chunkResults = () -> results.stream().map(StringBuilder::toString).toList();
+        return new ChunkedAnalysis(stream, () -> merger.merge(chunkResults.get()), chunkResults);
+    }
+
+    private static void append(StringBuilder result, ChatResponse response) {
+        String text = textOf(response);
+        if (text != null) {
+            result.append(text);
+        }
+    }
+
+    private static String textOf(ChatResponse response) {
+        if (response == null || response.getResult() == null || response.getResult().getOutput() == null) {
+            return null;
+        }
+        return response.getResult().getOutput().getText();
+    }
+
+    private static ChatResponse textResponse(String text) {
+        return new ChatResponse(List.of(new Generation(new AssistantMessage(text))));
+    }
+
+    /**
+     * 分块分析结果
+     *
+     * @param stream       按分块顺序转发的流式输出，包含分块分隔标记
+     * @param mergedResult 流结束后调用，返回合并后的分析结果
+     * @param chunkResults 流结束后调用，按分块顺序返回各分块的输出（沿用的分块为上一轮输出）
+     */
+    public record ChunkedAnalysis(Flux<ChatResponse> stream, Supplier<String> mergedResult,
+                                  Supplier<List<String>> chunkResults) {
+    }
+}
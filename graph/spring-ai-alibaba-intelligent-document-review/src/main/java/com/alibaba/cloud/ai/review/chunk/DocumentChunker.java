@@ -0,0 +1,125 @@
+package com.alibaba.cloud.ai.review.chunk;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * 文档分块器
+ * 先按 markdown 标题和条款编号（第X条、1.2、一、等）切分为章节，再把章节按字符上限装箱为分块，
+ * 超长章节按段落或硬切分；相邻分块之间保留一段重叠文本，避免跨块的条款丢失上下文
+ *
+ * @author Jast
+ */
+public class DocumentChunker {
+
+    /**
+     * 章节起始行：markdown 标题、"第X条/章/节"、"1." / "1.2" / "1、" 编号、"一、" 编号
+     */
+    private static final Pattern SECTION_START = Pattern.compile(
+            "^(#{1,6}\\s+.*|第[一二三四五六七八九十百零〇\\d]+[条章节款].*|\\d+(\\.\\d+)*[.、)）]\\s*\\S.*|[一二三四五六七八九十]+、.*)$");
+
+    private final int chunkChars;
+
+    private final int overlapChars;
+
+    /**
+     * @param chunkChars   单个分块的字符上限（不含重叠部分）
+     * @param overlapChars 相邻分块之间的重叠字符数
+     */
+    public DocumentChunker(int chunkChars, int overlapChars) {
+        this.chunkChars = Math.max(1, chunkChars);
+        this.overlapChars = Math.max(0, Math.min(overlapChars, chunkChars / 2));
+    }
+
+    /**
+     * 将文档切分为分块，文档不超过单块上限时返回只包含原文的单元素列表
+     */
+    public List<String> split(String document) {
+        if (document.length() <= chunkChars) {
+            return List.of(document);
+        }
+
+        List<String> packed = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        for (String section : sections(document)) {
+            for (String piece : fit(section)) {
+                if (current.length() > 0 && current.length() + piece.length() > chunkChars) {
+                    packed.add(current.toString());
+                    current.setLength(0);
+                }
+                current.append(piece);
+            }
+        }
+        if (current.length() > 0) {
+            packed.add(current.toString());
+        }
+
+        if (overlapChars == 0 || packed.size() < 2) {
+            return packed;
+        }
+        List<String> chunks = new ArrayList<>(packed.size());
+        chunks.add(packed.get(0));
+        for (int i = 1; i < packed.size(); i++) {
+            String previous = packed.get(i - 1);
+            chunks.add(previous.substring(Math.max(0, previous.length() - overlapChars)) + packed.get(i));
+        }
+        return chunks;
+    }
+
+    /**
+     * 按章节起始行切分，保留原始换行；各章节依次拼接即为原文
+     */
+    public static List<String> sections(String document) {
+        List<String> sections = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        int lineStart = 0;
+        while (lineStart < document.length()) {
+            int lineEnd = document.indexOf('\n', lineStart);
+            lineEnd = lineEnd < 0 ? document.length() : lineEnd + 1;
+            String line = document.substring(lineStart, lineEnd);
+            if (current.length() > 0 && SECTION_START.matcher(line.strip()).matches()) {
+                sections.add(current.toString());
+                current.setLength(0);
+            }
+            current.append(line);
+            lineStart = lineEnd;
+        }
+        if (current.length() > 0) {
+            sections.add(current.toString());
+        }
+        return sections;
+    }
+
+    private List<String> fit(String section) {
+        return fit(section, chunkChars);
+    }
+
+    /**
+     * 超长章节先按空行分段，单段仍超长时硬切分；各片段依次拼接即为原章节
+     */
+    static List<String> fit(String section, int maxChars) {
+        if (section.length() <= maxChars) {
+            return List.of(section);
+        }
+        List<String> pieces = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        for (String paragraph : section.split("(?<=\\n\\n)")) {
+            if (current.length() > 0 && current.length() + paragraph.length() > maxChars) {
+                pieces.add(current.toString());
+                current.setLength(0);
+            }
+            if (paragraph.length() > maxChars) {
+                for (int start = 0; start < paragraph.length(); start += maxChars) {
+                    pieces.add(paragraph.substring(start, Math.min(paragraph.length(), start + maxChars)));
+                }
+            } else {
+                current.append(paragraph);
+            }
+        }
+        if (current.length() > 0) {
+            pieces.add(current.toString());
+        }
+        return pieces;
+    }
+}
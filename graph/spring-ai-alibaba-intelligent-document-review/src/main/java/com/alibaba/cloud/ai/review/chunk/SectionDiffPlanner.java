@@ -0,0 +1,138 @@
+package com.alibaba.cloud.ai.review.chunk;
+
+import com.alibaba.cloud.ai.review.similar.MinHasher;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 按章节差异规划修改后重审
+ * 文档按 {@link DocumentChunker#sections(String)} 切分为章节，超过单元上限的章节按与分块相同的方式按段落或硬切分，
+ * 再计算各章节的内容哈希。上一轮的分析单元中，所有章节都能在新文档中找到内容相同章节的单元直接沿用输出；
+ * 其余章节（修改、新增的章节，以及与其同属一个旧单元的章节）按文档顺序把相邻章节装箱为不超过单元上限的新单元重新分析，
+ * 新单元前附带前文末尾的重叠文本作为上下文。单元边界只落在章节之间，
+ * 修改一个章节不会移动其他单元的边界，多轮修改后未改动的单元始终可以沿用。
+ *
+ * @author Jast
+ */
+public class SectionDiffPlanner {
+
+    private final int unitChars;
+
+    private final int overlapChars;
+
+    /**
+     * @param unitChars    新单元的字符上限（不含重叠部分）
+     * @param overlapChars 新单元前附带的前文字符数
+     */
+    public SectionDiffPlanner(int unitChars, int overlapChars) {
+        this.unitChars = Math.max(1, unitChars);
+        this.overlapChars = Math.max(0, Math.min(overlapChars, this.unitChars / 2));
+    }
+
+    /**
+     * @param document 本轮文档
+     * @param previous 上一轮的分析单元，首轮审核时为空
+     */
+    public SectionPlan plan(String document, List<AnalysisUnit> previous) {
+        return plan(document, previous, unitChars);
+    }
+
+    /**
+     * 按指定的单元上限规划；分析执行器对未超过分块阈值的文档以阈值为上限，首轮审核整篇作为一个单元分析
+     */
+    SectionPlan plan(String document, List<AnalysisUnit> previous, int unitChars) {
+        List<String> sections = new ArrayList<>();
+        for (String section : DocumentChunker.sections(document)) {
+            sections.addAll(DocumentChunker.fit(section, unitChars));
+        }
+        int count = sections.size();
+        long[] hashes = new long[count];
+        int[] starts = new int[count];
+        Map<Long, Deque<Integer>> positions = new HashMap<>();
+        for (int i = 0, start = 0; i < count; start += sections.get(i).length(), i++) {
+            hashes[i] = MinHasher.sectionHash(sections.get(i));
+            starts[i] = start;
+            positions.computeIfAbsent(hashes[i], hash -> new ArrayDeque<>()).addLast(i);
+        }
+
+        // 沿用的单元记在其第一个章节的位置上
+        SectionPlan.Unit[] reusedAt = new SectionPlan.Unit[count];
+        boolean[] covered = new boolean[count];
+        for (AnalysisUnit unit : previous) {
+            List<Integer> claimed = claim(unit, positions);
+            if (claimed == null) {
+                continue;
+            }
+            StringBuilder text = new StringBuilder();
+            for (int index : claimed) {
+                covered[index] = true;
+                text.append(sections.get(index));
+            }
+            reusedAt[claimed.stream().mapToInt(Integer::intValue).min().orElseThrow()] =
+                    new SectionPlan.Unit(text.toString(), unit.sectionHashes(), unit.result());
+        }
+
+        List<SectionPlan.Unit> units = new ArrayList<>();
+        StringBuilder pending = new StringBuilder();
+        List<Long> pendingHashes = new ArrayList<>();
+        int overlap = 0;
+        for (int i = 0; i < count; i++) {
+            if (covered[i]) {
+                flush(units, pending, pendingHashes);
+                if (reusedAt[i] != null) {
+                    units.add(reusedAt[i]);
+                }
+                continue;
+            }
+            if (!pendingHashes.isEmpty() && pending.length() - overlap + sections.get(i).length() > unitChars) {
+                flush(units, pending, pendingHashes);
+            }
+            if (pendingHashes.isEmpty()) {
+                overlap = Math.min(overlapChars, starts[i]);
+                pending.append(document, starts[i] - overlap, starts[i]);
+            }
+            pending.append(sections.get(i));
+            pendingHashes.add(hashes[i]);
+        }
+        flush(units, pending, pendingHashes);
+        if (units.isEmpty()) {
+            units.add(new SectionPlan.Unit(document, List.of(), null));
+        }
+        return new SectionPlan(List.copyOf(units), true);
+    }
+
+    /**
+     * 为旧单元的每个章节认领一个内容相同且尚未被认领的新章节，任一章节找不到时撤销本次认领并返回 null
+     */
+    private static List<Integer> claim(AnalysisUnit unit, Map<Long, Deque<Integer>> positions) {
+        if (unit.result() == null || unit.sectionHashes().isEmpty()) {
+            return null;
+        }
+        List<Integer> claimed = new ArrayList<>(unit.sectionHashes().size());
+        for (Long hash : unit.sectionHashes()) {
+            Deque<Integer> available = positions.get(hash);
+            if (available == null || available.isEmpty()) {
+                for (int i = claimed.size() - 1; i >= 0; i--) {
+                    positions.get(unit.sectionHashes().get(i)).addFirst(claimed.get(i));
+                }
+                return null;
+            }
+            claimed.add(available.pollFirst());
+        }
+        return claimed;
+    }
+
+    private static void flush(List<SectionPlan.Unit> units, StringBuilder pending, List<Long> pendingHashes) {
+        if (pending.length() == 0) {
+            return;
+        }
+        units.add(new SectionPlan.Unit(pending.toString(), List.copyOf(pendingHashes), null));
+        pending.setLength(0);
+        pendingHashes.clear();
+    }
+}
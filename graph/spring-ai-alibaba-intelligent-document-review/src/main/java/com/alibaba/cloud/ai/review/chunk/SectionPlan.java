@@ -0,0 +1,62 @@
+package com.alibaba.cloud.ai.review.chunk;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 一次分析的执行计划：文档按顺序分为若干单元，每个单元调用一次模型，或沿用上一轮的输出
+ *
+ * @param units       按文档顺序排列的单元
+ * @param incremental 是否按章节记录分析单元（修改后重审依赖该记录）
+ * @author Jast
+ */
+public record SectionPlan(List<Unit> units, boolean incremental) {
+
+    /**
+     * 不记录章节的普通计划，每个分块调用一次模型
+     */
+    public static SectionPlan of(List<String> chunks) {
+        return new SectionPlan(chunks.stream().map(chunk -> new Unit(chunk, List.of(), null)).toList(), false);
+    }
+
+    public int size() {
+        return units.size();
+    }
+
+    /**
+     * 沿用上一轮输出的单元数
+     */
+    public int reused() {
+        return (int) units.stream().filter(Unit::isReused).count();
+    }
+
+    /**
+     * 需要调用模型的文本字符数
+     */
+    public long analyzedChars() {
+        return units.stream().filter(unit -> !unit.isReused()).mapToLong(unit -> unit.text().length()).sum();
+    }
+
+    /**
+     * 按各单元的最终输出生成分析单元记录，存入状态供下一轮重审使用
+     */
+    public List<AnalysisUnit> toAnalysisUnits(List<String> results) {
+        List<AnalysisUnit> analysisUnits = new ArrayList<>(units.size());
+        for (int i = 0; i < units.size(); i++) {
+            analysisUnits.add(new AnalysisUnit(units.get(i).sectionHashes(), results.get(i)));
+        }
+        return analysisUnits;
+    }
+
+    /**
+     * @param text          单元文本
+     * @param sectionHashes 单元内各章节的内容哈希
+     * @param reusedResult  沿用的上一轮输出，需要调用模型时为 null
+     */
+    public record Unit(String text, List<Long> sectionHashes, String reusedResult) {
+
+        public boolean isReused() {
+            return reusedResult != null;
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.alibaba.cloud.ai.review.config;
+
+import com.alibaba.cloud.ai.graph.checkpoint.BaseCheckpointSaver;
+import com.alibaba.cloud.ai.graph.checkpoint.Checkpoint;
+import com.alibaba.cloud.ai.graph.checkpoint.config.SaverConfig;
+import com.alibaba.cloud.ai.graph.checkpoint.constant.SaverConstant;
+import com.alibaba.cloud.ai.graph.checkpoint.savers.MemorySaver;
+import com.alibaba.cloud.ai.review.blob.BlobRetainingCheckpointSaver;
+import com.alibaba.cloud.ai.review.blob.BlobStore;
+import com.alibaba.cloud.ai.review.checkpoint.AppendLogCheckpointSaver;
+import com.alibaba.cloud.ai.review.checkpoint.BoundedCheckpointSaver;
+import com.alibaba.cloud.ai.review.checkpoint.ReviewSaverConstant;
+import com.alibaba.cloud.ai.review.upload.DocumentRetainingCheckpointSaver;
+import com.alibaba.cloud.ai.review.upload.DocumentSpool;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * 检查点存储配置
+ * 默认使用 MemorySaver；document-review.checkpoint.type=append_log 时使用本地磁盘追加日志存储，
+ * 停在人工审核节点的线程在重启后仍可继续；type=bounded_memory 时使用有界内存存储，淘汰被遗弃的审核线程。
+ * 各存储外包一层上传文档的引用登记，启用 document-review.blob-store 时再包一层大字段引用登记，两类引用都按线程计数
+ *
+ * @author Jast
+ */
+@Configuration
+public class CheckpointSaverConfiguration {
+
+    private static final Logger logger = LoggerFactory.getLogger(CheckpointSaverConfiguration.class);
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(prefix = "document-review.checkpoint", name = "type", havingValue = ReviewSaverConstant.APPEND_LOG)
+    public AppendLogCheckpointSaver appendLogCheckpointSaver(DocumentReviewProperties properties) throws IOException {
+        DocumentReviewProperties.Checkpoint config = properties.getCheckpoint();
+        return new AppendLogCheckpointSaver(Path.of(config.getDirectory()), config.getSegmentBytes(),
+                config.getFsyncBatchSize(), config.getFsyncInterval(), config.getCompactionInterval(),
+                config.getCompactionLiveRatio());
+    }
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(prefix = "document-review.checkpoint", name = "type", havingValue = ReviewSaverConstant.BOUNDED_MEMORY)
+    public BoundedCheckpointSaver boundedCheckpointSaver(DocumentReviewProperties properties) throws IOException {
+        DocumentReviewProperties.Checkpoint.Bounded config = properties.getCheckpoint().getBounded();
+        AppendLogCheckpointSaver spillSaver = config.isSpillEnabled()
+                ? new AppendLogCheckpointSaver(Path.of(config.getSpillDirectory()))
+                : null;
+        return new BoundedCheckpointSaver(config.getMaxThreads(), config.getMaxBytes(), config.getIdleTtl(), spillSaver);
+    }
+
+    @Bean
+    public SaverConfig reviewSaverConfig(DocumentReviewProperties properties,
+                                         ObjectProvider<AppendLogCheckpointSaver> appendLogCheckpointSaver,
+                                         ObjectProvider<BoundedCheckpointSaver> boundedCheckpointSaver,
+                                         ObjectProvider<BlobStore> blobStore,
+                                         DocumentSpool documentSpool) {
+        BlobStore blobs = blobStore.getIfAvailable();
+        SaverConfig.Builder builder = SaverConfig.builder()
+                .register(SaverConstant.MEMORY, retaining(new MemorySaver(), blobs, documentSpool));
+
+        String type = SaverConstant.MEMORY;
+        AppendLogCheckpointSaver appendLogSaver = appendLogCheckpointSaver.getIfAvailable();
+        if (appendLogSaver != null) {
+            // 重启后恢复的线程立即登记引用，避免等待人工审核期间被清理
+            for (String threadId : appendLogSaver.threadIds()) {
+                for (Checkpoint checkpoint : appendLogSaver.load(threadId)) {
+                    documentSpool.retain(threadId, checkpoint.getState().values());
+                    if (blobs != null) {
+                        blobs.retain(threadId, checkpoint.getState().values());
+                    }
+                }
+            }
+            builder.register(ReviewSaverConstant.APPEND_LOG, retaining(appendLogSaver, blobs, documentSpool));
+            type = ReviewSaverConstant.APPEND_LOG;
+        }
+        BoundedCheckpointSaver boundedSaver = boundedCheckpointSaver.getIfAvailable();
+        if (boundedSaver != null) {
+            boundedSaver.setDiscardListener(threadId -> {
+                documentSpool.release(threadId);
+                if (blobs != null) {
+                    blobs.release(threadId);
+                }
+            });
+            builder.register(ReviewSaverConstant.BOUNDED_MEMORY, retaining(boundedSaver, blobs, documentSpool));
+            type = ReviewSaverConstant.BOUNDED_MEMORY;
+        }
+
+        if (blobs != null && SaverConstant.MEMORY.equals(type)) {
+            logger.warn("Blob store is enabled with the memory checkpoint saver, which never clears threads; "
+                    + "stored blobs will not be collected. Use bounded_memory or append_log");
+        }
+        logger.info("Document review checkpoint saver: {}", type);
+        return builder.type(type).build();
+    }
+
+    /**
+     * 为检查点存储加上上传文档的引用登记，启用引用存储时再加上大字段引用登记
+     */
+    private static BaseCheckpointSaver retaining(BaseCheckpointSaver saver, BlobStore blobs, DocumentSpool spool) {
+        BaseCheckpointSaver documents = new DocumentRetainingCheckpointSaver(saver, spool);
+        return blobs == null ? documents : new BlobRetainingCheckpointSaver(documents, blobs);
+    }
+}
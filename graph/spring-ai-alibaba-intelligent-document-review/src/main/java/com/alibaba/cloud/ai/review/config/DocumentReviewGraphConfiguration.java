@@ -1,21 +1,53 @@
 package com.alibaba.cloud.ai.review.config;
 
+import com.alibaba.cloud.ai.graph.CompileConfig;
 import com.alibaba.cloud.ai.graph.GraphRepresentation;
 import com.alibaba.cloud.ai.graph.KeyStrategy;
 import com.alibaba.cloud.ai.graph.KeyStrategyFactory;
 import com.alibaba.cloud.ai.graph.StateGraph;
 import com.alibaba.cloud.ai.graph.action.AsyncEdgeAction;
+import com.alibaba.cloud.ai.graph.action.EdgeAction;
+import com.alibaba.cloud.ai.graph.action.NodeAction;
+import com.alibaba.cloud.ai.graph.checkpoint.config.SaverConfig;
 import com.alibaba.cloud.ai.graph.exception.GraphStateException;
 import com.alibaba.cloud.ai.graph.state.strategy.ReplaceStrategy;
+import com.alibaba.cloud.ai.review.blob.BlobKeyStrategy;
+import com.alibaba.cloud.ai.review.blob.BlobStore;
+import com.alibaba.cloud.ai.review.chunk.ChunkResultMerger;
+import com.alibaba.cloud.ai.review.chunk.ChunkedAnalysisRunner;
+import com.alibaba.cloud.ai.review.chunk.DocumentChunker;
+import com.alibaba.cloud.ai.review.chunk.SectionDiffPlanner;
+import com.alibaba.cloud.ai.review.dispatcher.FastPathDispatcher;
 import com.alibaba.cloud.ai.review.dispatcher.ReviewDecisionDispatcher;
+import com.alibaba.cloud.ai.review.llm.NodeChatClientFactory;
+import com.alibaba.cloud.ai.review.metrics.MeteredNodeAction;
+import com.alibaba.cloud.ai.review.metrics.ReviewMetrics;
 import com.alibaba.cloud.ai.review.node.*;
+import com.alibaba.cloud.ai.review.prescreen.PrescreenRuleSource;
+import com.alibaba.cloud.ai.review.result.ReviewContent;
+import com.alibaba.cloud.ai.review.result.ReviewResults;
+import com.alibaba.cloud.ai.review.similar.IndexingNodeAction;
+import com.alibaba.cloud.ai.review.similar.MinHasher;
+import com.alibaba.cloud.ai.review.similar.NearDuplicateIndex;
+import com.alibaba.cloud.ai.review.similar.ReusedResultNodeAction;
+import com.alibaba.cloud.ai.review.speculative.BranchPredictor;
+import com.alibaba.cloud.ai.review.speculative.SpeculativeBranchRunner;
+import com.alibaba.cloud.ai.review.speculative.SpeculativeNodeAction;
+import com.alibaba.cloud.ai.review.upload.DocumentSpool;
+import com.alibaba.cloud.ai.review.variant.ReviewGraphRegistry;
+import com.alibaba.cloud.ai.review.variant.ReviewVariant;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 import static com.alibaba.cloud.ai.graph.action.AsyncNodeAction.node_async;
@@ -23,24 +55,122 @@ import static com.alibaba.cloud.ai.graph.action.AsyncNodeAction.node_async;
 /**
  * 文档审核系统图形配置
  * 定义了完整的文档审核工作流：内容分析 -> 合规检查 -> 风险评估 -> 人工审核 -> 后续处理
+ * 默认内容分析与合规检查并行执行，在风险评估前汇合；可通过 document-review.graph.parallel-analysis=false 切回顺序拓扑
+ * 启用 document-review.prescreen 时，文档接收后先经规则预筛，发现项提供给合规检查
+ * 启用 document-review.near-duplicate 时，分析前先查询近重复索引，命中的文档直接复用参考文档的三个分析结果；
+ * 完成的审核在进入最终报告或自动审批时写入索引
+ * 启用 document-review.incremental-review 时分析按章节记录为单元，关联上一轮审核的修改后重审只分析内容有变化的章节
+ * 风险评估后满足 document-review.fast-path 规则的低风险文档进入自动审批，不经人工审核直接结束
+ * 启用 document-review.blob-store 时文档与分析结果等大字段写入状态前存入引用存储，状态中只保存引用
+ * 按 {@link ReviewVariant} 为每种文档类型构建各自的节点组合、提示词与拓扑（如技术文档不做内容分析），
+ * 启动时全部编译并登记到 {@link ReviewGraphRegistry}，由控制器按 document_type 选择
+ * 启用 document-review.speculative 时，分流到人工审核的文档在等待期间预先生成最可能的处理分支与最终报告，
+ * 审核员的决定一致时直接提交
  * 
  * @author Jast
  */
 @Configuration
+@EnableConfigurationProperties(DocumentReviewProperties.class)
 public class DocumentReviewGraphConfiguration {
 
     private static final Logger logger = LoggerFactory.getLogger(DocumentReviewGraphConfiguration.class);
 
     @Bean
-    public StateGraph documentReviewGraph(ChatClient.Builder chatClientBuilder) throws GraphStateException {
+    @ConditionalOnProperty(prefix = "document-review.near-duplicate", name = "enabled", havingValue = "true")
+    public NearDuplicateIndex nearDuplicateIndex(DocumentReviewProperties properties) {
+        DocumentReviewProperties.NearDuplicate config = properties.getNearDuplicate();
+        return new NearDuplicateIndex(new MinHasher(config.getShingleChars(), config.getNumHashes()),
+                config.getThreshold(), config.getBands(), config.getMaxEntries(), config.getMinChars());
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "document-review.speculative", name = "enabled", havingValue = "true")
+    public SpeculativeBranchRunner speculativeBranchRunner(NodeChatClientFactory chatClients,
+                                                           DocumentReviewProperties properties,
+                                                           ObjectProvider<ReviewMetrics> reviewMetrics) {
+        // 使用与图中节点相同的 ChatClient 配置，调用时以 speculative_ 前缀的节点名计量
+        Map<String, PrecomputableNode> nodes = new LinkedHashMap<>();
+        nodes.put(BranchPredictor.APPROVAL, new ApprovalProcessNode(chatClients.forNode(BranchPredictor.APPROVAL)));
+        nodes.put(BranchPredictor.REJECTION, new RejectionProcessNode(chatClients.forNode(BranchPredictor.REJECTION)));
+        nodes.put(BranchPredictor.MODIFICATION, new ModificationProcessNode(chatClients.forNode(BranchPredictor.MODIFICATION)));
+        nodes.put(SpeculativeBranchRunner.FINAL_REPORT, new FinalReportNode(chatClients.forNode(SpeculativeBranchRunner.FINAL_REPORT)));
+        return new SpeculativeBranchRunner(properties.getSpeculative(), nodes, reviewMetrics.getIfAvailable(),
+                properties.getRateLimit().getCharsPerToken());
+    }
+
+    /**
+     * 文档与大字段原文的读取入口，节点、状态事件与任务结果共用
+     */
+    @Bean
+    public ReviewContent reviewContent(DocumentSpool documentSpool, ObjectProvider<BlobStore> blobStore) {
+        return new ReviewContent(documentSpool, blobStore.getIfAvailable());
+    }
+
+    @Bean
+    public ReviewGraphRegistry reviewGraphRegistry(NodeChatClientFactory chatClients,
+                                                   DocumentReviewProperties properties,
+                                                   SaverConfig saverConfig,
+                                                   ObjectProvider<ReviewMetrics> reviewMetrics,
+                                                   ObjectProvider<PrescreenRuleSource> prescreenRules,
+                                                   ObjectProvider<NearDuplicateIndex> nearDuplicateIndex,
+                                                   ObjectProvider<BlobStore> blobStore,
+                                                   ReviewContent content,
+                                                   ObjectProvider<SpeculativeBranchRunner> speculativeBranchRunner) throws GraphStateException {
+        ReviewMetrics metrics = reviewMetrics.getIfAvailable();
+        ReviewGraphRegistry registry = new ReviewGraphRegistry(properties.getGraph().isDocumentTypeVariants(), metrics);
+        GraphParts parts = new GraphParts(chatClients, properties, metrics, prescreenRules.getIfAvailable(),
+                nearDuplicateIndex.getIfAvailable(), blobStore.getIfAvailable(), content,
+                chunkedAnalysisRunner(properties.getChunking(), properties.getIncrementalReview()),
+                new FastPathDispatcher(properties.getFastPath(), metrics), speculativeBranchRunner.getIfAvailable());
+        CompileConfig compileConfig = CompileConfig.builder().saverConfig(saverConfig).interruptBefore("human_review").build();
+        for (ReviewVariant variant : registry.variants()) {
+            List<String> nodes = new ArrayList<>();
+            StateGraph stateGraph = documentReviewGraph(variant, parts, registry, nodes);
+            registry.register(variant, stateGraph.compile(compileConfig), nodes);
+        }
+        return registry;
+    }
+
+    /**
+     * 构建审核图共用的组件
+     */
+    private record GraphParts(NodeChatClientFactory chatClients, DocumentReviewProperties properties,
+                              ReviewMetrics metrics, PrescreenRuleSource prescreen, NearDuplicateIndex nearDuplicates,
+                              BlobStore blobs, ReviewContent content, ChunkedAnalysisRunner chunkedAnalysis, FastPathDispatcher fastPath,
+                              SpeculativeBranchRunner speculation) {
+    }
+
+    /**
+     * 构建一个审核图变体
+     *
+     * @param nodes 输出参数，按执行顺序记录人工审核前的节点
+     */
+    private StateGraph documentReviewGraph(ReviewVariant variant, GraphParts parts, ReviewGraphRegistry registry,
+                                           List<String> nodes) throws GraphStateException {
+        NodeChatClientFactory chatClients = parts.chatClients();
+        ReviewMetrics metrics = parts.metrics();
+        PrescreenRuleSource prescreen = parts.prescreen();
+        NearDuplicateIndex nearDuplicates = parts.nearDuplicates();
+        BlobStore blobs = parts.blobs();
+        ReviewContent content = parts.content();
+        ChunkedAnalysisRunner chunkedAnalysis = parts.chunkedAnalysis();
+        FastPathDispatcher fastPath = parts.fastPath();
+        SpeculativeBranchRunner speculation = parts.speculation();
+        DocumentReviewProperties.FastPath fastPathConfig = parts.properties().getFastPath();
+        boolean contentAnalysis = variant.contentAnalysis();
+        boolean parallelAnalysis = contentAnalysis && parts.properties().getGraph().isParallelAnalysis();
+
         KeyStrategyFactory keyStrategyFactory = () -> {
             HashMap<String, KeyStrategy> keyStrategyHashMap = new HashMap<>();
             
             // 文档基本信息
             keyStrategyHashMap.put("document_content", new ReplaceStrategy());
+            keyStrategyHashMap.put(ReviewResults.DOCUMENT_REF, new ReplaceStrategy());
             keyStrategyHashMap.put("document_type", new ReplaceStrategy());
             keyStrategyHashMap.put("urgency_level", new ReplaceStrategy());
             keyStrategyHashMap.put("thread_id", new ReplaceStrategy());
+            keyStrategyHashMap.put("review_start_timestamp", new ReplaceStrategy());
+            keyStrategyHashMap.put(ReviewGraphRegistry.STATE_KEY, new ReplaceStrategy());
 
             // AI 分析结果
             keyStrategyHashMap.put("content_analysis_result", new ReplaceStrategy());
@@ -50,11 +180,24 @@ public class DocumentReviewGraphConfiguration {
             keyStrategyHashMap.put("issues_found", new ReplaceStrategy());
             keyStrategyHashMap.put("recommendations", new ReplaceStrategy());
 
+            // 类型化分析结果
+            keyStrategyHashMap.put(ReviewResults.CONTENT_ANALYSIS, new ReplaceStrategy());
+            keyStrategyHashMap.put(ReviewResults.COMPLIANCE, new ReplaceStrategy());
+            keyStrategyHashMap.put(ReviewResults.RISK_ASSESSMENT, new ReplaceStrategy());
+            keyStrategyHashMap.put(ReviewResults.PRESCREEN, new ReplaceStrategy());
+            keyStrategyHashMap.put(ReviewResults.CONTENT_ANALYSIS_UNITS, new ReplaceStrategy());
+            keyStrategyHashMap.put(ReviewResults.COMPLIANCE_UNITS, new ReplaceStrategy());
+            keyStrategyHashMap.put(ReviewResults.PREVIOUS_THREAD_ID, new ReplaceStrategy());
+            keyStrategyHashMap.put(ReviewResults.REVISION_ROUND, new ReplaceStrategy());
+            keyStrategyHashMap.put(ReviewResults.NEAR_DUPLICATE, new ReplaceStrategy());
+
             // 人工审核反馈
             keyStrategyHashMap.put("review_action", new ReplaceStrategy());
             keyStrategyHashMap.put("reviewer_comments", new ReplaceStrategy());
             keyStrategyHashMap.put("suggested_changes", new ReplaceStrategy());
             keyStrategyHashMap.put("human_next_node", new ReplaceStrategy());
+            keyStrategyHashMap.put("human_review_requested_at", new ReplaceStrategy());
+            keyStrategyHashMap.put("fast_path", new ReplaceStrategy());
 
             // 最终结果
             keyStrategyHashMap.put("final_status", new ReplaceStrategy());
@@ -62,26 +205,98 @@ public class DocumentReviewGraphConfiguration {
             keyStrategyHashMap.put("rejection_reason", new ReplaceStrategy());
             keyStrategyHashMap.put("final_report", new ReplaceStrategy());
 
+            // 大字段按引用保存
+            if (blobs != null) {
+                for (String key : blobs.keys()) {
+                    keyStrategyHashMap.put(key, new BlobKeyStrategy(blobs));
+                }
+            }
+
             return keyStrategyHashMap;
         };
 
         StateGraph stateGraph = new StateGraph(keyStrategyFactory)
                 // 添加所有节点
-                .addNode("content_analysis", node_async(new ContentAnalysisNode(chatClientBuilder)))
-                .addNode("compliance_check", node_async(new ComplianceCheckNode(chatClientBuilder)))
-                .addNode("risk_assessment", node_async(new RiskAssessmentNode(chatClientBuilder)))
-                .addNode("human_review", node_async(new HumanReviewNode()))
-                .addNode("approval_process", node_async(new ApprovalProcessNode(chatClientBuilder)))
-                .addNode("rejection_process", node_async(new RejectionProcessNode(chatClientBuilder)))
-                .addNode("modification_process", node_async(new ModificationProcessNode(chatClientBuilder)))
-                .addNode("final_report", node_async(new FinalReportNode(chatClientBuilder)))
+                .addNode("document_intake", node_async(metered(metrics, "document_intake", new DocumentIntakeNode())))
+                .addNode("compliance_check", node_async(metered(metrics, "compliance_check", reusable(nearDuplicates, "compliance_check", new ComplianceCheckNode(chatClients.forNode("compliance_check"), contentAnalysis && !parallelAnalysis, chunkedAnalysis, variant.complianceFocus(), content)))))
+                .addNode("risk_assessment", node_async(metered(metrics, "risk_assessment", reusable(nearDuplicates, "risk_assessment", new RiskAssessmentNode(chatClients.forNode("risk_assessment"), variant.riskDimensions())))))
+                .addNode("human_review", node_async(metered(metrics, "human_review", new HumanReviewNode())))
+                .addNode("approval_process", node_async(metered(metrics, "approval_process", speculative(speculation, "approval_process", new ApprovalProcessNode(chatClients.forNode("approval_process"))))))
+                .addNode("rejection_process", node_async(metered(metrics, "rejection_process", speculative(speculation, "rejection_process", new RejectionProcessNode(chatClients.forNode("rejection_process"))))))
+                .addNode("modification_process", node_async(metered(metrics, "modification_process", speculative(speculation, "modification_process", new ModificationProcessNode(chatClients.forNode("modification_process"))))))
+                .addNode("final_report", node_async(metered(metrics, "final_report", indexing(nearDuplicates, content, speculative(speculation, "final_report", new FinalReportNode(chatClients.forNode("final_report")))))))
 
                 // 定义流程路径
-                .addEdge(StateGraph.START, "content_analysis")           // 开始 -> 内容分析
-                .addEdge("content_analysis", "compliance_check")         // 内容分析 -> 合规检查
-                .addEdge("compliance_check", "risk_assessment")          // 合规检查 -> 风险评估
-                .addEdge("risk_assessment", "human_review")              // 风险评估 -> 人工审核
+                .addEdge(StateGraph.START, "document_intake");          // 开始 -> 文档接收
+        nodes.add("document_intake");
 
+        // 启用规则预筛时在所有大模型节点之前扫描文档
+        String analysisEntry = "document_intake";
+        if (prescreen != null) {
+            stateGraph
+                    .addNode("prescreen", node_async(metered(metrics, "prescreen", new PrescreenNode(prescreen, content))))
+                    .addEdge("document_intake", "prescreen");           // 文档接收 -> 规则预筛
+            analysisEntry = "prescreen";
+            nodes.add(analysisEntry);
+        }
+
+        // 启用近重复检测时在大模型节点之前查询索引
+        if (nearDuplicates != null) {
+            stateGraph
+                    .addNode("near_duplicate", node_async(metered(metrics, "near_duplicate", new NearDuplicateNode(nearDuplicates, metrics, content))))
+                    .addEdge(analysisEntry, "near_duplicate");          // 文档接收/预筛 -> 近重复检测
+            analysisEntry = "near_duplicate";
+            nodes.add(analysisEntry);
+        }
+
+        if (!contentAnalysis) {
+            logger.info("{} review graph skips content analysis", variant.id());
+            stateGraph
+                    .addEdge(analysisEntry, "compliance_check")          // 分析入口 -> 合规检查
+                    .addEdge("compliance_check", "risk_assessment");     // 合规检查 -> 风险评估
+            nodes.addAll(List.of("compliance_check", "risk_assessment"));
+        } else if (parallelAnalysis) {
+            logger.info("{} review graph uses parallel content analysis and compliance check", variant.id());
+            stateGraph
+                    .addNode("content_analysis", node_async(metered(metrics, "content_analysis", reusable(nearDuplicates, "content_analysis", new ContentAnalysisNode(chatClients.forNode("content_analysis"), chunkedAnalysis, content)))))
+                    .addEdge(analysisEntry, "content_analysis")          // 分析入口 -> 内容分析（并行分支）
+                    .addEdge(analysisEntry, "compliance_check")          // 分析入口 -> 合规检查（并行分支）
+                    .addEdge("content_analysis", "risk_assessment")      // 两个分支在风险评估前汇合
+                    .addEdge("compliance_check", "risk_assessment");
+            nodes.addAll(List.of("content_analysis", "compliance_check", "risk_assessment"));
+        } else {
+            logger.info("{} review graph uses sequential content analysis and compliance check", variant.id());
+            stateGraph
+                    .addNode("content_analysis", node_async(metered(metrics, "content_analysis", reusable(nearDuplicates, "content_analysis", new ContentAnalysisNode(chatClients.forNode("content_analysis"), chunkedAnalysis, content)))))
+                    .addEdge(analysisEntry, "content_analysis")          // 分析入口 -> 内容分析
+                    .addEdge("content_analysis", "compliance_check")     // 内容分析 -> 合规检查
+                    .addEdge("compliance_check", "risk_assessment");     // 合规检查 -> 风险评估
+            nodes.addAll(List.of("content_analysis", "compliance_check", "risk_assessment"));
+        }
+
+        if (fastPathConfig.isEnabled()) {
+            logger.info("{} review graph uses the low-risk fast path for document types: {}", variant.id(),
+                    fastPathConfig.getRules().keySet());
+            stateGraph
+                    .addNode("auto_approval", node_async(metered(metrics, "auto_approval", indexing(nearDuplicates, content, new AutoApprovalNode(fastPath)))))
+                    // 风险评估 -> 低风险文档自动审批，其余进入人工审核
+                    .addConditionalEdges("risk_assessment",
+                        AsyncEdgeAction.edge_async(registry.tracking(variant, speculating(speculation, fastPath))),
+                        Map.of(
+                            FastPathDispatcher.AUTO_APPROVAL, "auto_approval",
+                            FastPathDispatcher.HUMAN_REVIEW, "human_review"
+                        ))
+                    .addEdge("auto_approval", StateGraph.END);          // 自动审批已生成报告，直接结束
+        } else {
+            stateGraph
+                    // 风险评估 -> 人工审核，经条件边记录变体完成分析
+                    .addConditionalEdges("risk_assessment",
+                        AsyncEdgeAction.edge_async(registry.tracking(variant,
+                                speculating(speculation, state -> FastPathDispatcher.HUMAN_REVIEW))),
+                        Map.of(FastPathDispatcher.HUMAN_REVIEW, "human_review"));
+        }
+
+        stateGraph
                 // 人工审核后的条件分支
                 .addConditionalEdges("human_review", 
                     AsyncEdgeAction.edge_async(new ReviewDecisionDispatcher()), 
@@ -100,11 +315,61 @@ public class DocumentReviewGraphConfiguration {
 
         // 打印 PlantUML 流程图
         GraphRepresentation representation = stateGraph.getGraph(GraphRepresentation.Type.PLANTUML,
-                "Document Review Workflow");
-        logger.info("\n=== Document Review Workflow UML ===");
+                "Document Review Workflow (" + variant.id() + ")");
+        logger.info("\n=== Document Review Workflow UML ({}) ===", variant.id());
         logger.info(representation.content());
         logger.info("=======================================\n");
 
         return stateGraph;
     }
+
+    /**
+     * 为节点加上耗时指标，未启用指标时返回原节点
+     */
+    private static NodeAction metered(ReviewMetrics metrics, String nodeName, NodeAction action) {
+        return metrics == null ? action : new MeteredNodeAction(nodeName, action, metrics);
+    }
+
+    /**
+     * 启用近重复检测时，命中的文档复用参考文档在该节点的结果
+     */
+    private static NodeAction reusable(NearDuplicateIndex index, String nodeName, NodeAction action) {
+        return index == null ? action : new ReusedResultNodeAction(nodeName, action, index);
+    }
+
+    /**
+     * 启用近重复检测时，审核收尾前把分析结果写入索引
+     */
+    private static NodeAction indexing(NearDuplicateIndex index, ReviewContent content, NodeAction action) {
+        return index == null ? action : new IndexingNodeAction(action, index, content);
+    }
+
+    /**
+     * 启用推测执行时，人工审核后的节点优先提交预生成的结果
+     */
+    private static NodeAction speculative(SpeculativeBranchRunner runner, String nodeName, NodeAction action) {
+        return runner == null ? action : new SpeculativeNodeAction(nodeName, action, runner);
+    }
+
+    /**
+     * 启用推测执行时，分流到人工审核的文档提交推测
+     */
+    private static EdgeAction speculating(SpeculativeBranchRunner runner, EdgeAction route) {
+        return runner == null ? route : runner.speculating(route);
+    }
+
+    /**
+     * 创建大文档分块分析执行器，未启用时返回 null；启用修改后重审时附带章节差异规划器
+     */
+    private ChunkedAnalysisRunner chunkedAnalysisRunner(DocumentReviewProperties.Chunking chunking,
+                                                        DocumentReviewProperties.IncrementalReview incrementalReview) {
+        if (!chunking.isEnabled()) {
+            return null;
+        }
+        return new ChunkedAnalysisRunner(new DocumentChunker(chunking.getChunkChars(), chunking.getOverlapChars()),
+                new ChunkResultMerger(chunking.getMergeStrategy()), chunking.getThresholdChars(),
+                chunking.getParallelism(),
+                incrementalReview.isEnabled() ? new SectionDiffPlanner(incrementalReview.getUnitChars() > 0
+                        ? incrementalReview.getUnitChars() : chunking.getChunkChars(), chunking.getOverlapChars()) : null);
+    }
 }
@@ -0,0 +1,1425 @@
+package com.alibaba.cloud.ai.review.config;
+
+import com.alibaba.cloud.ai.review.chunk.ChunkResultMerger;
+import com.alibaba.cloud.ai.review.controller.process.ReviewEventEncoder;
+import com.alibaba.cloud.ai.review.controller.process.ReviewEventStream;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 文档审核系统配置项
+ * 对应 application.yml 中 document-review 前缀下的配置
+ *
+ * @author Jast
+ */
+@ConfigurationProperties(prefix = "document-review")
+public class DocumentReviewProperties {
+
+    private final Graph graph = new Graph();
+
+    private final Stream stream = new Stream();
+
+    private final Checkpoint checkpoint = new Checkpoint();
+
+    private final LlmCache llmCache = new LlmCache();
+
+    private final Chunking chunking = new Chunking();
+
+    private final Batch batch = new Batch();
+
+    private final Jobs jobs = new Jobs();
+
+    private final RateLimit rateLimit = new RateLimit();
+
+    private final FastPath fastPath = new FastPath();
+
+    private final Prescreen prescreen = new Prescreen();
+
+    private final NearDuplicate nearDuplicate = new NearDuplicate();
+
+    private final IncrementalReview incrementalReview = new IncrementalReview();
+
+    private final Upload upload = new Upload();
+
+    private final BlobStore blobStore = new BlobStore();
+
+    private final Speculative speculative = new Speculative();
+
+    public Graph getGraph() {
+        return graph;
+    }
+
+    public Stream getStream() {
+        return stream;
+    }
+
+    public Checkpoint getCheckpoint() {
+        return checkpoint;
+    }
+
+    public LlmCache getLlmCache() {
+        return llmCache;
+    }
+
+    public Chunking getChunking() {
+        return chunking;
+    }
+
+    public Batch getBatch() {
+        return batch;
+    }
+
+    public Jobs getJobs() {
+        return jobs;
+    }
+
+    public RateLimit getRateLimit() {
+        return rateLimit;
+    }
+
+    public FastPath getFastPath() {
+        return fastPath;
+    }
+
+    public Prescreen getPrescreen() {
+        return prescreen;
+    }
+
+    public NearDuplicate getNearDuplicate() {
+        return nearDuplicate;
+    }
+
+    public IncrementalReview getIncrementalReview() {
+        return incrementalReview;
+    }
+
+    public Upload getUpload() {
+        return upload;
+    }
+
+    public BlobStore getBlobStore() {
+        return blobStore;
+    }
+
+    public Speculative getSpeculative() {
+        return speculative;
+    }
+
+    /**
+     * 工作流拓扑配置
+     */
+    public static class Graph {
+
+        /**
+         * 是否并行执行内容分析与合规检查，并在风险评估前汇合
+         * 设置为 false 时保持原有的 内容分析 -> 合规检查 -> 风险评估 顺序拓扑，便于对比
+         */
+        private boolean parallelAnalysis = true;
+
+        /**
+         * 是否按 document_type 为合同、技术文档、财务报告、政策文件分别编译审核图变体
+         * 设置为 false 时所有文档都使用完整的通用审核图
+         */
+        private boolean documentTypeVariants = true;
+
+        public boolean isParallelAnalysis() {
+            return parallelAnalysis;
+        }
+
+        public void setParallelAnalysis(boolean parallelAnalysis) {
+            this.parallelAnalysis = parallelAnalysis;
+        }
+
+        public boolean isDocumentTypeVariants() {
+            return documentTypeVariants;
+        }
+
+        public void setDocumentTypeVariants(boolean documentTypeVariants) {
+            this.documentTypeVariants = documentTypeVariants;
+        }
+    }
+
+    /**
+     * SSE 流分发器配置，所有审核流共享同一个有界执行器
+     */
+    public static class Stream {
+
+        /**
+         * 同时执行的审核流上限
+         */
+        private int maxActiveStreams = 64;
+
+        /**
+         * 等待执行的审核流队列容量，超出后新的请求将被拒绝
+         */
+        private int queueCapacity = 256;
+
+        /**
+         * 运行在 Java 21+ 时是否使用虚拟线程
+         */
+        private boolean virtualThreads = true;
+
+        /**
+         * 应用关闭时等待进行中审核流结束的最长时间
+         */
+        private Duration shutdownTimeout = Duration.ofSeconds(30);
+
+        /**
+         * 节点完成事件的状态发送方式：delta 只发送变化的键（首个事件为完整快照），full 每个事件发送完整状态
+         */
+        private ReviewEventEncoder.StateEmission stateEmission = ReviewEventEncoder.StateEmission.DELTA;
+
+        /**
+         * 模型输出分片的合并窗口：同一节点在窗口内的分片合并为一个 SSE 事件，为 0 时不合并
+         */
+        private Duration coalesceWindow = Duration.ofMillis(50);
+
+        /**
+         * 单个节点缓存的分片字符数达到该值时立即发送，不等待窗口结束
+         */
+        private int coalesceMaxChars = 256;
+
+        /**
+         * 每个审核流尚未发送给客户端的最大事件数
+         */
+        private int bufferCapacity = 256;
+
+        /**
+         * 缓冲已满（客户端消费过慢）时的处理策略：drop_chunks、coalesce 或 disconnect
+         */
+        private ReviewEventStream.SlowConsumerPolicy slowConsumerPolicy = ReviewEventStream.SlowConsumerPolicy.DROP_CHUNKS;
+
+        public int getMaxActiveStreams() {
+            return maxActiveStreams;
+        }
+
+        public void setMaxActiveStreams(int maxActiveStreams) {
+            this.maxActiveStreams = maxActiveStreams;
+        }
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+
+        public boolean isVirtualThreads() {
+            return virtualThreads;
+        }
+
+        public void setVirtualThreads(boolean virtualThreads) {
+            this.virtualThreads = virtualThreads;
+        }
+
+        public Duration getShutdownTimeout() {
+            return shutdownTimeout;
+        }
+
+        public void setShutdownTimeout(Duration shutdownTimeout) {
+            this.shutdownTimeout = shutdownTimeout;
+        }
+
+        public ReviewEventEncoder.StateEmission getStateEmission() {
+            return stateEmission;
+        }
+
+        public void setStateEmission(ReviewEventEncoder.StateEmission stateEmission) {
+            this.stateEmission = stateEmission;
+        }
+
+        public Duration getCoalesceWindow() {
+            return coalesceWindow;
+        }
+
+        public void setCoalesceWindow(Duration coalesceWindow) {
+            this.coalesceWindow = coalesceWindow;
+        }
+
+        public int getCoalesceMaxChars() {
+            return coalesceMaxChars;
+        }
+
+        public void setCoalesceMaxChars(int coalesceMaxChars) {
+            this.coalesceMaxChars = coalesceMaxChars;
+        }
+
+        public int getBufferCapacity() {
+            return bufferCapacity;
+        }
+
+        public void setBufferCapacity(int bufferCapacity) {
+            this.bufferCapacity = bufferCapacity;
+        }
+
+        public ReviewEventStream.SlowConsumerPolicy getSlowConsumerPolicy() {
+            return slowConsumerPolicy;
+        }
+
+        public void setSlowConsumerPolicy(ReviewEventStream.SlowConsumerPolicy slowConsumerPolicy) {
+            this.slowConsumerPolicy = slowConsumerPolicy;
+        }
+    }
+
+    /**
+     * 检查点存储配置
+     */
+    public static class Checkpoint {
+
+        /**
+         * 使用的检查点存储类型：memory、bounded_memory 或 append_log
+         */
+        private String type = "memory";
+
+        /**
+         * 追加日志段文件所在目录
+         */
+        private String directory = "./data/checkpoints";
+
+        /**
+         * 单个段文件的滚动阈值（字节）
+         */
+        private long segmentBytes = 64L * 1024 * 1024;
+
+        /**
+         * 累计多少次写入后立即 fsync
+         */
+        private int fsyncBatchSize = 32;
+
+        /**
+         * 定时 fsync 间隔
+         */
+        private Duration fsyncInterval = Duration.ofMillis(200);
+
+        /**
+         * 后台压缩检查间隔
+         */
+        private Duration compactionInterval = Duration.ofMinutes(5);
+
+        /**
+         * 封存段存活数据比例低于该值时进行压缩
+         */
+        private double compactionLiveRatio = 0.5;
+
+        private final Bounded bounded = new Bounded();
+
+        public Bounded getBounded() {
+            return bounded;
+        }
+
+        public String getType() {
+            return type;
+        }
+
+        public void setType(String type) {
+            this.type = type;
+        }
+
+        public String getDirectory() {
+            return directory;
+        }
+
+        public void setDirectory(String directory) {
+            this.directory = directory;
+        }
+
+        public long getSegmentBytes() {
+            return segmentBytes;
+        }
+
+        public void setSegmentBytes(long segmentBytes) {
+            this.segmentBytes = segmentBytes;
+        }
+
+        public int getFsyncBatchSize() {
+            return fsyncBatchSize;
+        }
+
+        public void setFsyncBatchSize(int fsyncBatchSize) {
+            this.fsyncBatchSize = fsyncBatchSize;
+        }
+
+        public Duration getFsyncInterval() {
+            return fsyncInterval;
+        }
+
+        public void setFsyncInterval(Duration fsyncInterval) {
+            this.fsyncInterval = fsyncInterval;
+        }
+
+        public Duration getCompactionInterval() {
+            return compactionInterval;
+        }
+
+        public void setCompactionInterval(Duration compactionInterval) {
+            this.compactionInterval = compactionInterval;
+        }
+
+        public double getCompactionLiveRatio() {
+            return compactionLiveRatio;
+        }
+
+        public void setCompactionLiveRatio(double compactionLiveRatio) {
+            this.compactionLiveRatio = compactionLiveRatio;
+        }
+
+        /**
+         * 有界内存检查点存储配置（type=bounded_memory）
+         */
+        public static class Bounded {
+
+            /**
+             * 内存中最多保留的审核线程数
+             */
+            private int maxThreads = 1000;
+
+            /**
+             * 内存中检查点估算总字节数上限
+             */
+            private long maxBytes = 256L * 1024 * 1024;
+
+            /**
+             * 审核线程空闲超过该时间后淘汰
+             */
+            private Duration idleTtl = Duration.ofHours(24);
+
+            /**
+             * 淘汰仍停在人工审核节点的线程时是否溢出到磁盘，而不是直接丢弃
+             */
+            private boolean spillEnabled = true;
+
+            /**
+             * 溢出存储目录
+             */
+            private String spillDirectory = "./data/checkpoint-spill";
+
+            public int getMaxThreads() {
+                return maxThreads;
+            }
+
+            public void setMaxThreads(int maxThreads) {
+                this.maxThreads = maxThreads;
+            }
+
+            public long getMaxBytes() {
+                return maxBytes;
+            }
+
+            public void setMaxBytes(long maxBytes) {
+                this.maxBytes = maxBytes;
+            }
+
+            public Duration getIdleTtl() {
+                return idleTtl;
+            }
+
+            public void setIdleTtl(Duration idleTtl) {
+                this.idleTtl = idleTtl;
+            }
+
+            public boolean isSpillEnabled() {
+                return spillEnabled;
+            }
+
+            public void setSpillEnabled(boolean spillEnabled) {
+                this.spillEnabled = spillEnabled;
+            }
+
+            public String getSpillDirectory() {
+                return spillDirectory;
+            }
+
+            public void setSpillDirectory(String spillDirectory) {
+                this.spillDirectory = spillDirectory;
+            }
+        }
+    }
+
+    /**
+     * 大模型响应缓存配置
+     */
+    public static class LlmCache {
+
+        /**
+         * 是否启用响应缓存
+         */
+        private boolean enabled = false;
+
+        /**
+         * 内存层字节上限
+         */
+        private long maxMemoryBytes = 64L * 1024 * 1024;
+
+        /**
+         * 是否启用磁盘层
+         */
+        private boolean diskEnabled = false;
+
+        /**
+         * 磁盘层目录
+         */
+        private String diskDirectory = "./data/llm-cache";
+
+        /**
+         * 命中时回放的每个流式块的字符数
+         */
+        private int replayChunkChars = 16;
+
+        /**
+         * 不使用缓存的节点，默认排除提示词中带有时间戳、不会命中的后续处理节点
+         */
+        private Set<String> excludedNodes = new LinkedHashSet<>(Set.of(
+                "approval_process", "rejection_process", "modification_process", "final_report"));
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public long getMaxMemoryBytes() {
+            return maxMemoryBytes;
+        }
+
+        public void setMaxMemoryBytes(long maxMemoryBytes) {
+            this.maxMemoryBytes = maxMemoryBytes;
+        }
+
+        public boolean isDiskEnabled() {
+            return diskEnabled;
+        }
+
+        public void setDiskEnabled(boolean diskEnabled) {
+            this.diskEnabled = diskEnabled;
+        }
+
+        public String getDiskDirectory() {
+            return diskDirectory;
+        }
+
+        public void setDiskDirectory(String diskDirectory) {
+            this.diskDirectory = diskDirectory;
+        }
+
+        public int getReplayChunkChars() {
+            return replayChunkChars;
+        }
+
+        public void setReplayChunkChars(int replayChunkChars) {
+            this.replayChunkChars = replayChunkChars;
+        }
+
+        public Set<String> getExcludedNodes() {
+            return excludedNodes;
+        }
+
+        public void setExcludedNodes(Set<String> excludedNodes) {
+            this.excludedNodes = excludedNodes;
+        }
+    }
+
+    /**
+     * 大文档分块分析配置（内容分析与合规检查）
+     */
+    public static class Chunking {
+
+        /**
+         * 是否启用分块分析
+         */
+        private boolean enabled = true;
+
+        /**
+         * 文档超过该字符数时才分块
+         */
+        private int thresholdChars = 12000;
+
+        /**
+         * 单个分块的字符上限
+         */
+        private int chunkChars = 6000;
+
+        /**
+         * 相邻分块之间的重叠字符数
+         */
+        private int overlapChars = 300;
+
+        /**
+         * 同时分析的分块数上限
+         */
+        private int parallelism = 4;
+
+        /**
+         * 分块结果合并策略：average、conservative 或 concat
+         */
+        private ChunkResultMerger.Strategy mergeStrategy = ChunkResultMerger.Strategy.CONSERVATIVE;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getThresholdChars() {
+            return thresholdChars;
+        }
+
+        public void setThresholdChars(int thresholdChars) {
+            this.thresholdChars = thresholdChars;
+        }
+
+        public int getChunkChars() {
+            return chunkChars;
+        }
+
+        public void setChunkChars(int chunkChars) {
+            this.chunkChars = chunkChars;
+        }
+
+        public int getOverlapChars() {
+            return overlapChars;
+        }
+
+        public void setOverlapChars(int overlapChars) {
+            this.overlapChars = overlapChars;
+        }
+
+        public int getParallelism() {
+            return parallelism;
+        }
+
+        public void setParallelism(int parallelism) {
+            this.parallelism = parallelism;
+        }
+
+        public ChunkResultMerger.Strategy getMergeStrategy() {
+            return mergeStrategy;
+        }
+
+        public void setMergeStrategy(ChunkResultMerger.Strategy mergeStrategy) {
+            this.mergeStrategy = mergeStrategy;
+        }
+    }
+
+    /**
+     * 批量审核配置
+     */
+    public static class Batch {
+
+        /**
+         * 单个批次内同时审核的文档数上限（同时受共享审核流分发器的并发上限约束）
+         */
+        private int concurrency = 8;
+
+        /**
+         * 单个批次允许提交的最大文档数
+         */
+        private int maxDocuments = 1000;
+
+        public int getConcurrency() {
+            return concurrency;
+        }
+
+        public void setConcurrency(int concurrency) {
+            this.concurrency = concurrency;
+        }
+
+        public int getMaxDocuments() {
+            return maxDocuments;
+        }
+
+        public void setMaxDocuments(int maxDocuments) {
+            this.maxDocuments = maxDocuments;
+        }
+    }
+
+    /**
+     * 异步审核任务配置
+     */
+    public static class Jobs {
+
+        /**
+         * 同时保留的任务数上限（含已结束但未清理的任务），超出后拒绝新任务
+         */
+        private int maxJobs = 10000;
+
+        /**
+         * 已结束任务的保留时间，期间可查询结果或重新挂接事件流
+         */
+        private Duration retention = Duration.ofHours(1);
+
+        public int getMaxJobs() {
+            return maxJobs;
+        }
+
+        public void setMaxJobs(int maxJobs) {
+            this.maxJobs = maxJobs;
+        }
+
+        public Duration getRetention() {
+            return retention;
+        }
+
+        public void setRetention(Duration retention) {
+            this.retention = retention;
+        }
+    }
+
+    /**
+     * 大模型调用全局限流配置，所有节点共享
+     */
+    public static class RateLimit {
+
+        /**
+         * 是否启用限流
+         */
+        private boolean enabled = true;
+
+        /**
+         * 每分钟请求数上限，小于等于 0 时不限制
+         */
+        private int requestsPerMinute = 60;
+
+        /**
+         * 每分钟估算 token 数上限，小于等于 0 时不限制
+         */
+        private long tokensPerMinute = 100000;
+
+        /**
+         * 同时进行中的调用数上限
+         */
+        private int maxInFlight = 8;
+
+        /**
+         * 排队调用数上限，超出后调用直接失败
+         */
+        private int maxQueue = 1000;
+
+        /**
+         * 单次调用最长排队时间
+         */
+        private Duration maxWait = Duration.ofMinutes(2);
+
+        /**
+         * 排队调用按 urgency_level 优先，排队时间每超过该时长优先级提升一级，避免低紧急程度的调用饿死
+         */
+        private Duration agingInterval = Duration.ofSeconds(20);
+
+        /**
+         * 估算提示词 token 数时每个 token 对应的字符数（中文约 1.5）
+         */
+        private double charsPerToken = 1.5;
+
+        /**
+         * 提示词未指定 maxTokens 时预估的输出 token 数
+         */
+        private int expectedOutputTokens = 1000;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getRequestsPerMinute() {
+            return requestsPerMinute;
+        }
+
+        public void setRequestsPerMinute(int requestsPerMinute) {
+            this.requestsPerMinute = requestsPerMinute;
+        }
+
+        public long getTokensPerMinute() {
+            return tokensPerMinute;
+        }
+
+        public void setTokensPerMinute(long tokensPerMinute) {
+            this.tokensPerMinute = tokensPerMinute;
+        }
+
+        public int getMaxInFlight() {
+            return maxInFlight;
+        }
+
+        public void setMaxInFlight(int maxInFlight) {
+            this.maxInFlight = maxInFlight;
+        }
+
+        public int getMaxQueue() {
+            return maxQueue;
+        }
+
+        public void setMaxQueue(int maxQueue) {
+            this.maxQueue = maxQueue;
+        }
+
+        public Duration getMaxWait() {
+            return maxWait;
+        }
+
+        public void setMaxWait(Duration maxWait) {
+            this.maxWait = maxWait;
+        }
+
+        public Duration getAgingInterval() {
+            return agingInterval;
+        }
+
+        public void setAgingInterval(Duration agingInterval) {
+            this.agingInterval = agingInterval;
+        }
+
+        public double getCharsPerToken() {
+            return charsPerToken;
+        }
+
+        public void setCharsPerToken(double charsPerToken) {
+            this.charsPerToken = charsPerToken;
+        }
+
+        public int getExpectedOutputTokens() {
+            return expectedOutputTokens;
+        }
+
+        public void setExpectedOutputTokens(int expectedOutputTokens) {
+            this.expectedOutputTokens = expectedOutputTokens;
+        }
+    }
+
+    /**
+     * 低风险文档快速通道：风险评估结果满足文档类型对应的规则时跳过人工审核，按模板直接生成审批结果与最终报告
+     */
+    public static class FastPath {
+
+        /**
+         * 是否启用快速通道，默认关闭
+         */
+        private boolean enabled = false;
+
+        /**
+         * 按 document_type 配置的规则，未配置规则的文档类型总是进入人工审核
+         */
+        private Map<String, Rule> rules = new LinkedHashMap<>();
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public Map<String, Rule> getRules() {
+            return rules;
+        }
+
+        public void setRules(Map<String, Rule> rules) {
+            this.rules = rules;
+        }
+
+        /**
+         * 单个文档类型的快速通道规则，所有条件同时满足才自动通过
+         */
+        public static class Rule {
+
+            /**
+             * 总体风险评分上限（含）
+             */
+            private int maxRiskScore = 3;
+
+            /**
+             * 合规评分下限（含），合规检查未给出评分时不满足
+             */
+            private int minComplianceScore = 7;
+
+            /**
+             * 允许的合规总体状态
+             */
+            private Set<String> complianceStatuses = new LinkedHashSet<>(Set.of("compliant"));
+
+            /**
+             * 风险评估要求上级审批时是否仍允许自动通过
+             */
+            private boolean allowEscalation = false;
+
+            public int getMaxRiskScore() {
+                return maxRiskScore;
+            }
+
+            public void setMaxRiskScore(int maxRiskScore) {
+                this.maxRiskScore = maxRiskScore;
+            }
+
+            public int getMinComplianceScore() {
+                return minComplianceScore;
+            }
+
+            public void setMinComplianceScore(int minComplianceScore) {
+                this.minComplianceScore = minComplianceScore;
+            }
+
+            public Set<String> getComplianceStatuses() {
+                return complianceStatuses;
+            }
+
+            public void setComplianceStatuses(Set<String> complianceStatuses) {
+                this.complianceStatuses = complianceStatuses;
+            }
+
+            public boolean isAllowEscalation() {
+                return allowEscalation;
+            }
+
+            public void setAllowEscalation(boolean allowEscalation) {
+                this.allowEscalation = allowEscalation;
+            }
+        }
+    }
+
+    /**
+     * 规则预筛：在大模型节点之前用关键词与正则规则扫描文档，发现项提供给合规检查提示词
+     */
+    public static class Prescreen {
+
+        /**
+         * 是否启用预筛节点
+         */
+        private boolean enabled = true;
+
+        /**
+         * 规则文件位置，classpath: 前缀表示类路径资源（不热加载），否则为本地文件路径
+         */
+        private String rulesLocation = "classpath:prescreen-rules.json";
+
+        /**
+         * 检查本地规则文件是否变化的间隔，为 0 时不热加载
+         */
+        private Duration reloadInterval = Duration.ofSeconds(10);
+
+        /**
+         * 正则规则锚点窗口的默认大小（字符），规则文件可覆盖
+         */
+        private int defaultWindow = 100;
+
+        /**
+         * 每条规则最多保留的发现项数
+         */
+        private int maxFindingsPerRule = 20;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public String getRulesLocation() {
+            return rulesLocation;
+        }
+
+        public void setRulesLocation(String rulesLocation) {
+            this.rulesLocation = rulesLocation;
+        }
+
+        public Duration getReloadInterval() {
+            return reloadInterval;
+        }
+
+        public void setReloadInterval(Duration reloadInterval) {
+            this.reloadInterval = reloadInterval;
+        }
+
+        public int getDefaultWindow() {
+            return defaultWindow;
+        }
+
+        public void setDefaultWindow(int defaultWindow) {
+            this.defaultWindow = defaultWindow;
+        }
+
+        public int getMaxFindingsPerRule() {
+            return maxFindingsPerRule;
+        }
+
+        public void setMaxFindingsPerRule(int maxFindingsPerRule) {
+            this.maxFindingsPerRule = maxFindingsPerRule;
+        }
+    }
+
+    /**
+     * 近重复文档复用：已完成审核的文档按 MinHash 签名建立内存索引，相似度达到阈值的同类型新文档直接复用其分析结果
+     */
+    public static class NearDuplicate {
+
+        /**
+         * 是否启用近重复检测，默认关闭
+         */
+        private boolean enabled = false;
+
+        /**
+         * 复用分析结果的最低相似度（shingle 集合的 Jaccard 相似度估计值）
+         */
+        private double threshold = 0.85;
+
+        /**
+         * shingle 长度（字符，忽略空白与标点后计算）
+         */
+        private int shingleChars = 5;
+
+        /**
+         * MinHash 签名长度，需为 bands 的整数倍
+         */
+        private int numHashes = 128;
+
+        /**
+         * LSH 分段数，签名按段分桶，任一段完全相同的文档成为候选
+         */
+        private int bands = 16;
+
+        /**
+         * 索引保存的文档数上限，超出时按最近最少使用淘汰
+         */
+        private int maxEntries = 10000;
+
+        /**
+         * 短于该字符数的文档不参与检测
+         */
+        private int minChars = 200;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public double getThreshold() {
+            return threshold;
+        }
+
+        public void setThreshold(double threshold) {
+            this.threshold = threshold;
+        }
+
+        public int getShingleChars() {
+            return shingleChars;
+        }
+
+        public void setShingleChars(int shingleChars) {
+            this.shingleChars = shingleChars;
+        }
+
+        public int getNumHashes() {
+            return numHashes;
+        }
+
+        public void setNumHashes(int numHashes) {
+            this.numHashes = numHashes;
+        }
+
+        public int getBands() {
+            return bands;
+        }
+
+        public void setBands(int bands) {
+            this.bands = bands;
+        }
+
+        public int getMaxEntries() {
+            return maxEntries;
+        }
+
+        public void setMaxEntries(int maxEntries) {
+            this.maxEntries = maxEntries;
+        }
+
+        public int getMinChars() {
+            return minChars;
+        }
+
+        public void setMinChars(int minChars) {
+            this.minChars = minChars;
+        }
+    }
+
+    /**
+     * 修改后重审：分析按章节记录为单元，关联上一轮审核的重审只分析内容有变化的章节（需启用分块分析）
+     */
+    public static class IncrementalReview {
+
+        /**
+         * 是否按章节记录分析单元并支持增量重审
+         */
+        private boolean enabled = true;
+
+        /**
+         * 单个分析单元的字符上限，单元越小修改后需要重新分析的文本越少，但每个单元都要附带一份提示词；
+         * 为 0 时与分块上限 chunking.chunk-chars 相同
+         */
+        private int unitChars = 0;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getUnitChars() {
+            return unitChars;
+        }
+
+        public void setUnitChars(int unitChars) {
+            this.unitChars = unitChars;
+        }
+    }
+
+    /**
+     * 文档上传：请求体流式写入落盘目录，审核图按引用读取文档
+     */
+    public static class Upload {
+
+        /**
+         * 落盘目录，文件以内容 SHA-256 命名
+         */
+        private String spoolDirectory = "./data/uploads";
+
+        /**
+         * 单个文档的字节上限，超过时返回 413
+         */
+        private long maxBytes = 50L * 1024 * 1024;
+
+        /**
+         * 读写缓冲区大小
+         */
+        private int bufferBytes = 64 * 1024;
+
+        /**
+         * 文件保留时间：检查点仍引用的文件不清理，没有引用方且超过该时间未再上传、读取或释放的文件会被清理。
+         * 重启后 memory 检查点存储不再登记引用，需大于人工审核的最长等待时间
+         */
+        private Duration retention = Duration.ofDays(7);
+
+        public String getSpoolDirectory() {
+            return spoolDirectory;
+        }
+
+        public void setSpoolDirectory(String spoolDirectory) {
+            this.spoolDirectory = spoolDirectory;
+        }
+
+        public long getMaxBytes() {
+            return maxBytes;
+        }
+
+        public void setMaxBytes(long maxBytes) {
+            this.maxBytes = maxBytes;
+        }
+
+        public int getBufferBytes() {
+            return bufferBytes;
+        }
+
+        public void setBufferBytes(int bufferBytes) {
+            this.bufferBytes = bufferBytes;
+        }
+
+        public Duration getRetention() {
+            return retention;
+        }
+
+        public void setRetention(Duration retention) {
+            this.retention = retention;
+        }
+    }
+
+    /**
+     * 大字段引用存储：较长的文档与分析结果按内容哈希写入本地文件，状态与检查点中只保存引用
+     */
+    public static class BlobStore {
+
+        /**
+         * 是否启用
+         */
+        private boolean enabled = false;
+
+        /**
+         * 存储目录，文件以内容 SHA-256 命名
+         */
+        private String directory = "./data/blobs";
+
+        /**
+         * 字符数不少于该值的字符串才写入存储，较短的值仍直接保存在状态中
+         */
+        private int minChars = 1024;
+
+        /**
+         * 按引用保存的状态字段
+         */
+        private Set<String> keys = new LinkedHashSet<>(Set.of(
+                "document_content", "content_analysis_result", "compliance_result", "ai_analysis_result", "final_report"));
+
+        /**
+         * 引用计数归零后保留的时间，之后由后台清理删除
+         */
+        private Duration gcGrace = Duration.ofHours(24);
+
+        /**
+         * 后台清理间隔
+         */
+        private Duration gcInterval = Duration.ofMinutes(10);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public String getDirectory() {
+            return directory;
+        }
+
+        public void setDirectory(String directory) {
+            this.directory = directory;
+        }
+
+        public int getMinChars() {
+            return minChars;
+        }
+
+        public void setMinChars(int minChars) {
+            this.minChars = minChars;
+        }
+
+        public Set<String> getKeys() {
+            return keys;
+        }
+
+        public void setKeys(Set<String> keys) {
+            this.keys = keys;
+        }
+
+        public Duration getGcGrace() {
+            return gcGrace;
+        }
+
+        public void setGcGrace(Duration gcGrace) {
+            this.gcGrace = gcGrace;
+        }
+
+        public Duration getGcInterval() {
+            return gcInterval;
+        }
+
+        public void setGcInterval(Duration gcInterval) {
+            this.gcInterval = gcInterval;
+        }
+    }
+
+    /**
+     * 推测执行：审核在人工审核前暂停时，按风险评分与合规状态预测最可能的处理分支，在后台预先生成处理结果与最终报告；
+     * 审核员的决定与预测一致时直接提交预生成的结果，否则丢弃
+     */
+    public static class Speculative {
+
+        /**
+         * 是否启用
+         */
+        private boolean enabled = false;
+
+        /**
+         * 预测为审批通过的风险评分上限（含），还要求合规状态在 approve-compliance-statuses 内且风险评估未要求上级审批
+         */
+        private int approveMaxRiskScore = 4;
+
+        /**
+         * 预测为审批通过时允许的合规总体状态
+         */
+        private Set<String> approveComplianceStatuses = new LinkedHashSet<>(Set.of("compliant"));
+
+        /**
+         * 预测为拒绝的风险评分下限（含），介于两者之间的预测为要求修改
+         */
+        private int rejectMinRiskScore = 8;
+
+        /**
+         * 允许预先执行的分支节点，预测为其他分支时不执行
+         */
+        private Set<String> branches = new LinkedHashSet<>(List.of(
+                "approval_process", "rejection_process", "modification_process"));
+
+        /**
+         * 是否在分支结果之后继续预先生成最终报告
+         */
+        private boolean includeFinalReport = true;
+
+        /**
+         * 同时执行的推测数，超过时排队
+         */
+        private int maxConcurrent = 2;
+
+        /**
+         * 排队上限，队列已满时不再推测
+         */
+        private int maxQueue = 16;
+
+        /**
+         * 每个窗口内推测可消耗的 token 上限，按每次推测的预估值预留，完成后按实际用量结算
+         */
+        private long tokenBudget = 200_000;
+
+        /**
+         * token 上限的统计窗口
+         */
+        private Duration budgetWindow = Duration.ofHours(1);
+
+        /**
+         * 单次推测（分支结果与最终报告）预留的 token 数
+         */
+        private long estimatedTokensPerRun = 4000;
+
+        /**
+         * 审核员提交时推测仍在执行，最多等待的时间，超时后照常执行节点
+         */
+        private Duration commitWait = Duration.ofSeconds(30);
+
+        /**
+         * 预生成结果的保留时间，超时未提交的结果被丢弃
+         */
+        private Duration retention = Duration.ofHours(2);
+
+        /**
+         * 保留的预生成结果数上限，超过时丢弃最早的
+         */
+        private int maxEntries = 1000;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getApproveMaxRiskScore() {
+            return approveMaxRiskScore;
+        }
+
+        public void setApproveMaxRiskScore(int approveMaxRiskScore) {
+            this.approveMaxRiskScore = approveMaxRiskScore;
+        }
+
+        public Set<String> getApproveComplianceStatuses() {
+            return approveComplianceStatuses;
+        }
+
+        public void setApproveComplianceStatuses(Set<String> approveComplianceStatuses) {
+            this.approveComplianceStatuses = approveComplianceStatuses;
+        }
+
+        public int getRejectMinRiskScore() {
+            return rejectMinRiskScore;
+        }
+
+        public void setRejectMinRiskScore(int rejectMinRiskScore) {
+            this.rejectMinRiskScore = rejectMinRiskScore;
+        }
+
+        public Set<String> getBranches() {
+            return branches;
+        }
+
+        public void setBranches(Set<String> branches) {
+            this.branches = branches;
+        }
+
+        public boolean isIncludeFinalReport() {
+            return includeFinalReport;
+        }
+
+        public void setIncludeFinalReport(boolean includeFinalReport) {
+            this.includeFinalReport = includeFinalReport;
+        }
+
+        public int getMaxConcurrent() {
+            return maxConcurrent;
+        }
+
+        public void setMaxConcurrent(int maxConcurrent) {
+            this.maxConcurrent = maxConcurrent;
+        }
+
+        public int getMaxQueue() {
+            return maxQueue;
+        }
+
+        public void setMaxQueue(int maxQueue) {
+            this.maxQueue = maxQueue;
+        }
+
+        public long getTokenBudget() {
+            return tokenBudget;
+        }
+
+        public void setTokenBudget(long tokenBudget) {
+            this.tokenBudget = tokenBudget;
+        }
+
+        public Duration getBudgetWindow() {
+            return budgetWindow;
+        }
+
+        public void setBudgetWindow(Duration budgetWindow) {
+            this.budgetWindow = budgetWindow;
+        }
+
+        public long getEstimatedTokensPerRun() {
+            return estimatedTokensPerRun;
+        }
+
+        public void setEstimatedTokensPerRun(long estimatedTokensPerRun) {
+            this.estimatedTokensPerRun = estimatedTokensPerRun;
+        }
+
+        public Duration getCommitWait() {
+            return commitWait;
+        }
+
+        public void setCommitWait(Duration commitWait) {
+            this.commitWait = commitWait;
+        }
+
+        public Duration getRetention() {
+            return retention;
+        }
+
+        public void setRetention(Duration retention) {
+            this.retention = retention;
+        }
+
+        public int getMaxEntries() {
+            return maxEntries;
+        }
+
+        public void setMaxEntries(int maxEntries) {
+            this.maxEntries = maxEntries;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.alibaba.cloud.ai.review.config;
+
+import com.alibaba.cloud.ai.review.llm.LlmRateGovernor;
+import com.alibaba.cloud.ai.review.llm.LlmResponseCache;
+import com.alibaba.cloud.ai.review.llm.NodeChatClientFactory;
+import com.alibaba.cloud.ai.review.llm.RateLimitAdvisor;
+import com.alibaba.cloud.ai.review.metrics.MetricsAdvisor;
+import com.alibaba.cloud.ai.review.metrics.ReviewMetrics;
+import com.alibaba.cloud.ai.review.llm.ResponseCacheAdvisor;
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * 大模型调用配置
+ * 组装各节点共享的大模型调用基础设施：调用指标、响应缓存、全局限流以及按节点生成 ChatClient 的工厂
+ *
+ * @author Jast
+ */
+@Configuration
+public class LlmConfiguration {
+
+    @Bean
+    @ConditionalOnProperty(prefix = "document-review.llm-cache", name = "enabled", havingValue = "true")
+    public LlmResponseCache llmResponseCache(DocumentReviewProperties properties) throws IOException {
+        DocumentReviewProperties.LlmCache config = properties.getLlmCache();
+        Path diskDirectory = config.isDiskEnabled() ? Path.of(config.getDiskDirectory()) : null;
+        return new LlmResponseCache(config.getMaxMemoryBytes(), diskDirectory);
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "document-review.llm-cache", name = "enabled", havingValue = "true")
+    public ResponseCacheAdvisor responseCacheAdvisor(LlmResponseCache llmResponseCache,
+                                                     DocumentReviewProperties properties,
+                                                     @Value("${spring.ai.dashscope.chat.options.model:qwen-max}") String model) {
+        return new ResponseCacheAdvisor(llmResponseCache, model, properties.getLlmCache().getReplayChunkChars());
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "document-review.rate-limit", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public LlmRateGovernor llmRateGovernor(DocumentReviewProperties properties) {
+        DocumentReviewProperties.RateLimit config = properties.getRateLimit();
+        return new LlmRateGovernor(config.getRequestsPerMinute(), config.getTokensPerMinute(), config.getMaxInFlight(),
+                config.getMaxQueue(), config.getMaxWait(), config.getAgingInterval());
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "document-review.rate-limit", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public RateLimitAdvisor rateLimitAdvisor(LlmRateGovernor llmRateGovernor, DocumentReviewProperties properties,
+                                             ObjectProvider<ReviewMetrics> reviewMetrics) {
+        DocumentReviewProperties.RateLimit config = properties.getRateLimit();
+        return new RateLimitAdvisor(llmRateGovernor, config.getCharsPerToken(), config.getExpectedOutputTokens(),
+                reviewMetrics.getIfAvailable());
+    }
+
+    @Bean
+    public NodeChatClientFactory nodeChatClientFactory(ChatClient.Builder chatClientBuilder,
+                                                       DocumentReviewProperties properties,
+                                                       ObjectProvider<ResponseCacheAdvisor> responseCacheAdvisor,
+                                                       ObjectProvider<RateLimitAdvisor> rateLimitAdvisor,
+                                                       ObjectProvider<ReviewMetrics> reviewMetrics) {
+        ReviewMetrics metrics = reviewMetrics.getIfAvailable();
+        return new NodeChatClientFactory(chatClientBuilder, properties, responseCacheAdvisor.getIfAvailable(),
+                rateLimitAdvisor.getIfAvailable(), metrics == null ? null : new MetricsAdvisor(metrics));
+    }
+}
@@ -1,35 +1,62 @@
 package com.alibaba.cloud.ai.review.controller;
 
-import com.alibaba.cloud.ai.graph.CompileConfig;
 import com.alibaba.cloud.ai.graph.CompiledGraph;
 import com.alibaba.cloud.ai.graph.NodeOutput;
 import com.alibaba.cloud.ai.graph.OverAllState;
 import com.alibaba.cloud.ai.graph.RunnableConfig;
-import com.alibaba.cloud.ai.graph.StateGraph;
 import com.alibaba.cloud.ai.graph.async.AsyncGenerator;
-import com.alibaba.cloud.ai.graph.checkpoint.config.SaverConfig;
-import com.alibaba.cloud.ai.graph.checkpoint.constant.SaverConstant;
-import com.alibaba.cloud.ai.graph.checkpoint.savers.MemorySaver;
 import com.alibaba.cloud.ai.graph.exception.GraphRunnerException;
-import com.alibaba.cloud.ai.graph.exception.GraphStateException;
 import com.alibaba.cloud.ai.graph.state.StateSnapshot;
+import com.alibaba.cloud.ai.review.blob.BlobStore;
+import com.alibaba.cloud.ai.review.checkpoint.BoundedCheckpointSaver;
+import com.alibaba.cloud.ai.review.config.DocumentReviewProperties;
+import com.alibaba.cloud.ai.review.controller.process.BatchReviewProcess;
 import com.alibaba.cloud.ai.review.controller.process.DocumentReviewProcess;
+import com.alibaba.cloud.ai.review.controller.process.ReviewEventEncoder;
+import com.alibaba.cloud.ai.review.controller.process.ReviewEventStream;
+import com.alibaba.cloud.ai.review.controller.process.ReviewStreamDispatcher;
+import com.alibaba.cloud.ai.review.job.ReviewJob;
+import com.alibaba.cloud.ai.review.job.ReviewJobManager;
+import com.alibaba.cloud.ai.review.llm.LlmRateGovernor;
+import com.alibaba.cloud.ai.review.llm.LlmResponseCache;
+import com.alibaba.cloud.ai.review.metrics.ReviewMetrics;
+import com.alibaba.cloud.ai.review.prescreen.PrescreenRuleSource;
+import com.alibaba.cloud.ai.review.result.ReviewContent;
+import com.alibaba.cloud.ai.review.result.ReviewResults;
+import com.alibaba.cloud.ai.review.similar.NearDuplicateIndex;
+import com.alibaba.cloud.ai.review.speculative.SpeculativeBranchRunner;
+import com.alibaba.cloud.ai.review.upload.DocumentRef;
+import com.alibaba.cloud.ai.review.upload.DocumentSpool;
+import com.alibaba.cloud.ai.review.upload.DocumentTooLargeException;
+import com.alibaba.cloud.ai.review.variant.ReviewGraphRegistry;
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONObject;
+import jakarta.servlet.http.HttpServletRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
 import reactor.core.publisher.Flux;
-import reactor.core.publisher.Sinks;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
 
 /**
  * 智能文档审核系统控制器
@@ -43,41 +70,179 @@ public class DocumentReviewController {
 
     private static final Logger logger = LoggerFactory.getLogger(DocumentReviewController.class);
 
-    private final CompiledGraph compiledGraph;
+    private final ReviewGraphRegistry graphRegistry;
+
+    private final ReviewStreamDispatcher streamDispatcher;
+
+    private final ObjectProvider<BoundedCheckpointSaver> boundedCheckpointSaver;
+
+    private final ObjectProvider<LlmResponseCache> llmResponseCache;
+
+    private final ObjectProvider<LlmRateGovernor> llmRateGovernor;
+
+    private final ObjectProvider<PrescreenRuleSource> prescreenRules;
+
+    private final ObjectProvider<NearDuplicateIndex> nearDuplicateIndex;
+
+    private final ObjectProvider<BlobStore> blobStore;
+
+    private final ObjectProvider<SpeculativeBranchRunner> speculativeBranchRunner;
+
+    private final DocumentReviewProperties.Stream streamConfig;
+
+    private final DocumentReviewProperties.Batch batchConfig;
+
+    private final ReviewJobManager jobManager;
+
+    private final ReviewMetrics reviewMetrics;
+
+    private final DocumentSpool documentSpool;
+
+    private final ReviewContent content;
 
     @Value("classpath:/problematic-contract.md")
     private Resource contractResource;
 
     @Autowired
-    public DocumentReviewController(@Qualifier("documentReviewGraph") StateGraph stateGraph) throws GraphStateException {
-        SaverConfig saverConfig = SaverConfig.builder().register(SaverConstant.MEMORY, new MemorySaver()).build();
-        this.compiledGraph = stateGraph
-                .compile(CompileConfig.builder().saverConfig(saverConfig).interruptBefore("human_review").build());
+    public DocumentReviewController(ReviewGraphRegistry graphRegistry,
+                                    ReviewStreamDispatcher streamDispatcher,
+                                    ObjectProvider<BoundedCheckpointSaver> boundedCheckpointSaver,
+                                    ObjectProvider<LlmResponseCache> llmResponseCache,
+                                    ObjectProvider<LlmRateGovernor> llmRateGovernor,
+                                    ObjectProvider<PrescreenRuleSource> prescreenRules,
+                                    ObjectProvider<NearDuplicateIndex> nearDuplicateIndex,
+                                    ObjectProvider<BlobStore> blobStore,
+                                    ObjectProvider<SpeculativeBranchRunner> speculativeBranchRunner,
+                                    DocumentReviewProperties properties,
+                                    ReviewJobManager jobManager,
+                                    ReviewMetrics reviewMetrics,
+                                    DocumentSpool documentSpool,
+                                    ReviewContent content) {
+        this.graphRegistry = graphRegistry;
+        this.streamDispatcher = streamDispatcher;
+        this.boundedCheckpointSaver = boundedCheckpointSaver;
+        this.llmResponseCache = llmResponseCache;
+        this.llmRateGovernor = llmRateGovernor;
+        this.prescreenRules = prescreenRules;
+        this.nearDuplicateIndex = nearDuplicateIndex;
+        this.blobStore = blobStore;
+        this.speculativeBranchRunner = speculativeBranchRunner;
+        this.streamConfig = properties.getStream();
+        this.batchConfig = properties.getBatch();
+        this.jobManager = jobManager;
+        this.reviewMetrics = reviewMetrics;
+        this.documentSpool = documentSpool;
+        this.content = content;
     }
 
     /**
      * 开始文档审核流程
      * 示例请求：GET /document/review/start?document_content=这是一份合同，请审核其中的条款是否合规&document_type=contract&thread_id=review123
+     * 修改后重新提交时传入 previous_thread_id，只分析与上一轮相比内容有变化的章节
      */
     @GetMapping(value = "/start", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
     public Flux<ServerSentEvent<String>> startReview(
             @RequestParam(value = "document_content", defaultValue = "这是一份技术文档，请审核其内容的准确性和完整性。", required = false) String documentContent,
             @RequestParam(value = "document_type", defaultValue = "technical", required = false) String documentType,
             @RequestParam(value = "urgency_level", defaultValue = "normal", required = false) String urgencyLevel,
-            @RequestParam(value = "thread_id", defaultValue = "review_session", required = false) String threadId) throws GraphRunnerException {
+            @RequestParam(value = "thread_id", defaultValue = "review_session", required = false) String threadId,
+            @RequestParam(value = "previous_thread_id", required = false) String previousThreadId,
+            @RequestParam(value = "state_emission", required = false) String stateEmission) throws GraphRunnerException {
 
-        RunnableConfig runnableConfig = RunnableConfig.builder().threadId(threadId).build();
         Map<String, Object> objectMap = new HashMap<>();
         objectMap.put("document_content", documentContent);
+        return startReview(objectMap, documentType, urgencyLevel, threadId, previousThreadId, stateEmission);
+    }
+
+    /**
+     * 上传文档开始审核：请求体为文档原文（纯文本或 Markdown），流式写入落盘文件后按引用传入审核图
+     * 示例请求：curl -X POST --data-binary @contract.md -H 'Content-Type: text/markdown; charset=UTF-8' \
+     * 'http://localhost:8080/document/review/start?document_type=contract&thread_id=review123'
+     */
+    @PostMapping(value = "/start",
+            consumes = {MediaType.TEXT_PLAIN_VALUE, MediaType.TEXT_MARKDOWN_VALUE, MediaType.APPLICATION_OCTET_STREAM_VALUE},
+            produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<String>> uploadAndStartReview(
+            HttpServletRequest request,
+            @RequestParam(value = "document_type", defaultValue = "technical", required = false) String documentType,
+            @RequestParam(value = "urgency_level", defaultValue = "normal", required = false) String urgencyLevel,
+            @RequestParam(value = "thread_id", defaultValue = "review_session", required = false) String threadId,
+            @RequestParam(value = "previous_thread_id", required = false) String previousThreadId,
+            @RequestParam(value = "state_emission", required = false) String stateEmission) throws GraphRunnerException, IOException {
+
+        if (request.getContentLengthLong() > documentSpool.maxBytes()) {
+            throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE,
+                    "Document exceeds " + documentSpool.maxBytes() + " bytes");
+        }
+        Charset charset = request.getCharacterEncoding() == null
+                ? StandardCharsets.UTF_8 : Charset.forName(request.getCharacterEncoding());
+        Map<String, Object> objectMap = new HashMap<>();
+        try (InputStream in = request.getInputStream()) {
+            objectMap.put(ReviewResults.DOCUMENT_REF, spool(in, charset));
+        }
+        return startReview(objectMap, documentType, urgencyLevel, threadId, previousThreadId, stateEmission);
+    }
+
+    /**
+     * 上传文档文件开始审核，表单字段 file 为文档文件，其余参数与原文上传相同
+     * 示例请求：curl -F file=@contract.md 'http://localhost:8080/document/review/start?document_type=contract'
+     */
+    @PostMapping(value = "/start", consumes = MediaType.MULTIPART_FORM_DATA_VALUE,
+            produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<String>> uploadFileAndStartReview(
+            @RequestPart("file") MultipartFile file,
+            @RequestParam(value = "charset", defaultValue = "UTF-8", required = false) String charset,
+            @RequestParam(value = "document_type", defaultValue = "technical", required = false) String documentType,
+            @RequestParam(value = "urgency_level", defaultValue = "normal", required = false) String urgencyLevel,
+            @RequestParam(value = "thread_id", defaultValue = "review_session", required = false) String threadId,
+            @RequestParam(value = "previous_thread_id", required = false) String previousThreadId,
+            @RequestParam(value = "state_emission", required = false) String stateEmission) throws GraphRunnerException, IOException {
+
+        Map<String, Object> objectMap = new HashMap<>();
+        try (InputStream in = file.getInputStream()) {
+            objectMap.put(ReviewResults.DOCUMENT_REF, spool(in, Charset.forName(charset)));
+        }
+        return startReview(objectMap, documentType, urgencyLevel, threadId, previousThreadId, stateEmission);
+    }
+
+    /**
+     * 获取文档上传统计：上传次数、字节数、内容去重次数与写入吞吐
+     */
+    @GetMapping("/upload/stats")
+    public Map<String, Object> getUploadStats() {
+        return documentSpool.stats();
+    }
+
+    private DocumentRef spool(InputStream in, Charset charset) throws IOException {
+        try {
+            return documentSpool.spool(in, charset);
+        } catch (DocumentTooLargeException e) {
+            throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE, e.getMessage(), e);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 写入文档公共信息并启动审核流，objectMap 中已有 document_content 或 document_ref
+     */
+    private Flux<ServerSentEvent<String>> startReview(Map<String, Object> objectMap, String documentType,
+                                                      String urgencyLevel, String threadId, String previousThreadId,
+                                                      String stateEmission) throws GraphRunnerException {
+        ReviewEventEncoder.StateEmission emission = stateEmission(stateEmission);
+        RunnableConfig runnableConfig = RunnableConfig.builder().threadId(threadId).build();
         objectMap.put("document_type", documentType);
         objectMap.put("urgency_level", urgencyLevel);
+        objectMap.put("thread_id", threadId);
+        linkPreviousReview(objectMap, threadId, previousThreadId);
 
-        DocumentReviewProcess reviewProcess = new DocumentReviewProcess(this.compiledGraph);
-        Sinks.Many<ServerSentEvent<String>> sink = Sinks.many().unicast().onBackpressureBuffer();
+        CompiledGraph compiledGraph = graphRegistry.start(objectMap);
+        DocumentReviewProcess reviewProcess = newReviewProcess(compiledGraph, emission);
+        ReviewEventStream events = reviewProcess.newEventStream();
         AsyncGenerator<NodeOutput> resultFuture = compiledGraph.stream(objectMap, runnableConfig);
-        reviewProcess.processStream(resultFuture, sink);
+        reviewProcess.processStream(resultFuture, events);
 
-        return sink.asFlux()
+        return events.asFlux()
                 .doOnCancel(() -> logger.info("Client disconnected from document review stream"))
                 .doOnError(e -> logger.error("Error occurred during document review streaming", e));
     }
@@ -91,29 +256,211 @@ public class DocumentReviewController {
             @RequestParam(value = "thread_id", defaultValue = "review_session", required = false) String threadId,
             @RequestParam(value = "action", defaultValue = "approve", required = false) String action,
             @RequestParam(value = "comments", defaultValue = "", required = false) String comments,
-            @RequestParam(value = "suggested_changes", defaultValue = "", required = false) String suggestedChanges) throws GraphRunnerException {
+            @RequestParam(value = "suggested_changes", defaultValue = "", required = false) String suggestedChanges,
+            @RequestParam(value = "state_emission", required = false) String stateEmission) throws GraphRunnerException {
 
+        ReviewEventEncoder.StateEmission emission = stateEmission(stateEmission);
         RunnableConfig runnableConfig = RunnableConfig.builder().threadId(threadId).build();
-        StateSnapshot stateSnapshot = this.compiledGraph.getState(runnableConfig);
+        OverAllState state = resumeState(runnableConfig, action, comments, suggestedChanges);
+
+        // 使用线程开始时选择的审核图变体，创建有界事件缓冲并处理流式输出
+        CompiledGraph compiledGraph = graphRegistry.resume(state);
+        DocumentReviewProcess reviewProcess = newReviewProcess(compiledGraph, emission);
+        ReviewEventStream events = reviewProcess.newEventStream();
+        AsyncGenerator<NodeOutput> resultFuture = compiledGraph.streamFromInitialNode(state, runnableConfig);
+        reviewProcess.processStream(resultFuture, events);
+
+        return events.asFlux()
+                .doOnCancel(() -> logger.info("Client disconnected from document review continuation stream"))
+                .doOnError(e -> logger.error("Error occurred during document review continuation streaming", e));
+    }
+
+    /**
+     * 批量审核：请求体为文档 JSON 数组或 NDJSON，每个文档运行到人工审核前暂停，
+     * 所有文档的进度合并为一个按 thread_id 标记的 SSE 流，最后一个 summary 事件给出吞吐量与耗时统计
+     * 示例请求：POST /document/review/batch  [{"document_content":"...","document_type":"contract","thread_id":"c1"}]
+     */
+    @PostMapping(value = "/batch",
+            consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE},
+            produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<String>> batchReview(
+            @RequestBody String body,
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            @RequestParam(value = "include_chunks", defaultValue = "false", required = false) boolean includeChunks) {
+        return runBatch(body, contentType, includeChunks)
+                .map(event -> ServerSentEvent.builder(JSON.toJSONString(event)).event(event.getString("type")).build());
+    }
+
+    /**
+     * 批量审核，以 NDJSON 返回进度（每行一个事件），参数与 SSE 版本相同
+     */
+    @PostMapping(value = "/batch",
+            consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE},
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<Map<String, Object>> batchReviewNdjson(
+            @RequestBody String body,
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            @RequestParam(value = "include_chunks", defaultValue = "false", required = false) boolean includeChunks) {
+        return runBatch(body, contentType, includeChunks).map(event -> event);
+    }
+
+    private Flux<JSONObject> runBatch(String body, String contentType, boolean includeChunks) {
+        boolean ndjson = MediaType.parseMediaType(contentType).isCompatibleWith(MediaType.APPLICATION_NDJSON);
+        String batchId = "batch-" + UUID.randomUUID().toString().substring(0, 8);
+        List<BatchReviewProcess.BatchDocument> documents;
+        try {
+            documents = BatchReviewProcess.parseDocuments(body, ndjson, batchId, batchConfig.getMaxDocuments());
+        } catch (RuntimeException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid batch request: " + e.getMessage(), e);
+        }
+        logger.info("Received batch review {} with {} documents", batchId, documents.size());
+        return new BatchReviewProcess(this.graphRegistry, this.streamDispatcher, batchConfig.getConcurrency(),
+                includeChunks).run(documents);
+    }
+
+    /**
+     * 创建审核流程处理器，emission 为 null 时使用配置的状态发送方式
+     */
+    private DocumentReviewProcess newReviewProcess(CompiledGraph compiledGraph,
+                                                   ReviewEventEncoder.StateEmission emission) {
+        return new DocumentReviewProcess(compiledGraph, this.streamDispatcher, this.streamConfig, emission, this.content);
+    }
+
+    /**
+     * 解析 state_emission 参数（full/delta），在启动审核前校验，取值无效时返回 400
+     */
+    private static ReviewEventEncoder.StateEmission stateEmission(String stateEmission) {
+        try {
+            return ReviewEventEncoder.StateEmission.parse(stateEmission);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 修改后重审：从上一轮审核线程的最新状态取出按章节记录的分析单元，写入本轮的初始状态
+     */
+    private void linkPreviousReview(Map<String, Object> objectMap, String threadId, String previousThreadId) {
+        if (previousThreadId == null || previousThreadId.isBlank()) {
+            return;
+        }
+        if (previousThreadId.equals(threadId)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "previous_thread_id must differ from thread_id");
+        }
+        OverAllState previous;
+        try {
+            previous = graphRegistry.stateReader().getState(RunnableConfig.builder().threadId(previousThreadId).build()).state();
+        } catch (IllegalStateException e) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Review " + previousThreadId + " not found", e);
+        }
+        objectMap.put(ReviewResults.PREVIOUS_THREAD_ID, previousThreadId);
+        objectMap.put(ReviewResults.REVISION_ROUND, ReviewResults.revisionRound(previous) + 1);
+        for (String key : List.of(ReviewResults.CONTENT_ANALYSIS_UNITS, ReviewResults.COMPLIANCE_UNITS)) {
+            previous.value(key).ifPresent(units -> objectMap.put(key, units));
+        }
+        logger.info("Review {} linked to previous review {} - round: {}, recorded units: {}", threadId,
+                previousThreadId, objectMap.get(ReviewResults.REVISION_ROUND),
+                ReviewResults.analysisUnits(previous, ReviewResults.CONTENT_ANALYSIS_UNITS).size());
+    }
+
+    /**
+     * 从暂停的人工审核节点恢复：读取线程状态并写入人类反馈
+     */
+    private OverAllState resumeState(RunnableConfig runnableConfig, String action, String comments,
+                                     String suggestedChanges) {
+        StateSnapshot stateSnapshot = graphRegistry.stateReader().getState(runnableConfig);
         OverAllState state = stateSnapshot.state();
         state.withResume();
 
+        Object requestedAt = state.value("human_review_requested_at").orElse(null);
+        if (requestedAt instanceof Number since) {
+            reviewMetrics.recordHumanWait(state.value("document_type", "general"), action,
+                    System.currentTimeMillis() - since.longValue());
+        }
+
         Map<String, Object> objectMap = new HashMap<>();
         objectMap.put("review_action", action);
         objectMap.put("reviewer_comments", comments);
         objectMap.put("suggested_changes", suggestedChanges);
 
         state.withHumanFeedback(new OverAllState.HumanFeedback(objectMap, ""));
+        return state;
+    }
 
-        // 创建 sink 并处理流式输出
-        Sinks.Many<ServerSentEvent<String>> sink = Sinks.many().unicast().onBackpressureBuffer();
-        DocumentReviewProcess reviewProcess = new DocumentReviewProcess(this.compiledGraph);
-        AsyncGenerator<NodeOutput> resultFuture = compiledGraph.streamFromInitialNode(state, runnableConfig);
-        reviewProcess.processStream(resultFuture, sink);
+    /**
+     * 提交异步审核任务，立即返回任务 id，审核在服务端执行到人工审核前暂停
+     * 示例请求：POST /document/review/jobs  {"document_content":"...","document_type":"contract","thread_id":"review123"}
+     * 修改后重新提交时可传入 previous_thread_id
+     */
+    @PostMapping("/jobs")
+    public ResponseEntity<Map<String, Object>> submitJob(@RequestBody Map<String, String> request) {
+        String documentContent = request.get("document_content");
+        if (documentContent == null || documentContent.isBlank()) {
+            return ResponseEntity.badRequest().body(Map.of("error", "document_content is required"));
+        }
+        String threadId = request.getOrDefault("thread_id", "job-" + UUID.randomUUID().toString().substring(0, 8));
+        Map<String, Object> objectMap = new HashMap<>();
+        objectMap.put("document_content", documentContent);
+        objectMap.put("document_type", request.getOrDefault("document_type", "general"));
+        objectMap.put("urgency_level", request.getOrDefault("urgency_level", "normal"));
+        objectMap.put("thread_id", threadId);
+        linkPreviousReview(objectMap, threadId, request.get("previous_thread_id"));
 
-        return sink.asFlux()
-                .doOnCancel(() -> logger.info("Client disconnected from document review continuation stream"))
-                .doOnError(e -> logger.error("Error occurred during document review continuation streaming", e));
+        RunnableConfig runnableConfig = RunnableConfig.builder().threadId(threadId).build();
+        return accepted(jobManager.submit(threadId, () -> graphRegistry.start(objectMap).stream(objectMap, runnableConfig)));
+    }
+
+    /**
+     * 提交继续审核任务：人类审核员给出反馈后，在服务端执行后续流程
+     * 示例请求：POST /document/review/jobs/continue  {"thread_id":"review123","action":"approve","comments":"..."}
+     */
+    @PostMapping("/jobs/continue")
+    public ResponseEntity<Map<String, Object>> submitContinueJob(@RequestBody Map<String, String> request) {
+        String threadId = request.get("thread_id");
+        if (threadId == null || threadId.isBlank()) {
+            return ResponseEntity.badRequest().body(Map.of("error", "thread_id is required"));
+        }
+        RunnableConfig runnableConfig = RunnableConfig.builder().threadId(threadId).build();
+        return accepted(jobManager.submit(threadId, () -> {
+            OverAllState state = resumeState(runnableConfig, request.getOrDefault("action", "approve"),
+                    request.getOrDefault("comments", ""), request.getOrDefault("suggested_changes", ""));
+            return graphRegistry.resume(state).streamFromInitialNode(state, runnableConfig);
+        }));
+    }
+
+    private ResponseEntity<Map<String, Object>> accepted(Optional<ReviewJob> submitted) {
+        if (submitted.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body(Map.of("error", "任务数已达上限，请稍后重试"));
+        }
+        ReviewJob job = submitted.get();
+        JSONObject body = job.summary(false);
+        body.put("status_url", "/document/review/jobs/" + job.getJobId());
+        body.put("stream_url", "/document/review/jobs/" + job.getJobId() + "/stream");
+        return ResponseEntity.accepted().body(body);
+    }
+
+    /**
+     * 查询任务状态与结果（最近一次节点完成时的完整状态）
+     */
+    @GetMapping("/jobs/{jobId}")
+    public ResponseEntity<Map<String, Object>> getJob(@PathVariable String jobId) {
+        return jobManager.get(jobId)
+                .<ResponseEntity<Map<String, Object>>>map(job -> ResponseEntity.ok(job.summary(true)))
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    /**
+     * 挂接或重新挂接任务的事件流：先收到当前状态快照，之后为实时事件，任务结束时收到 job 事件
+     * state_emission 与 /start 相同，未传时使用配置的状态发送方式
+     */
+    @GetMapping(value = "/jobs/{jobId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<String>> streamJob(@PathVariable String jobId,
+                                                   @RequestParam(value = "state_emission", required = false) String stateEmission) {
+        ReviewEventEncoder.StateEmission emission = stateEmission(stateEmission);
+        ReviewJob job = jobManager.get(jobId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Unknown job " + jobId));
+        return jobManager.attach(job, emission).asFlux()
+                .doOnCancel(() -> logger.info("Client detached from review job {}", jobId));
     }
 
     /**
@@ -123,16 +470,18 @@ public class DocumentReviewController {
     public Map<String, Object> getReviewStatus(@RequestParam(value = "thread_id", defaultValue = "review_session") String threadId) {
         try {
             RunnableConfig runnableConfig = RunnableConfig.builder().threadId(threadId).build();
-            StateSnapshot stateSnapshot = this.compiledGraph.getState(runnableConfig);
+            StateSnapshot stateSnapshot = graphRegistry.stateReader().getState(runnableConfig);
             OverAllState state = stateSnapshot.state();
 
             Map<String, Object> status = new HashMap<>();
             status.put("thread_id", threadId);
             status.put("current_step", stateSnapshot.next().isEmpty() ? "completed" : stateSnapshot.next());
-            status.put("document_content", state.value("document_content", ""));
-            status.put("ai_analysis", state.value("ai_analysis_result", ""));
+            status.put("document_content", content.text(state, "document_content"));
+            state.value(ReviewResults.DOCUMENT_REF).ifPresent(ref -> status.put("document_ref", ref));
+            status.put("ai_analysis", content.text(state, "ai_analysis_result"));
             status.put("risk_score", state.value("risk_score", 0));
             status.put("final_status", state.value("final_status", "pending"));
+            status.put(ReviewGraphRegistry.STATE_KEY, graphRegistry.variant(state).id());
 
             return status;
         } catch (Exception e) {
@@ -143,12 +492,135 @@ public class DocumentReviewController {
         }
     }
 
+    /**
+     * 获取各审核图变体的节点组合、风险维度、启动/完成分析/自动审批/继续的审核数以及分析耗时与吞吐
+     */
+    @GetMapping("/variants/stats")
+    public Map<String, Object> getVariantStats() {
+        return graphRegistry.stats();
+    }
+
+    /**
+     * 获取审核流分发器统计：活跃流、排队深度、拒绝次数
+     */
+    @GetMapping("/stream/stats")
+    public Map<String, Object> getStreamStats() {
+        return streamDispatcher.stats();
+    }
+
+    /**
+     * 获取有界检查点存储统计：内存线程数、淘汰、溢出与加载次数
+     * 仅在 document-review.checkpoint.type=bounded_memory 时可用
+     */
+    @GetMapping("/checkpoint/stats")
+    public ResponseEntity<Map<String, Object>> getCheckpointStats() {
+        BoundedCheckpointSaver saver = boundedCheckpointSaver.getIfAvailable();
+        if (saver == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(saver.stats());
+    }
+
+    /**
+     * 获取大模型响应缓存统计：命中、未命中与字节数
+     * 仅在 document-review.llm-cache.enabled=true 时可用
+     */
+    @GetMapping("/cache/stats")
+    public ResponseEntity<Map<String, Object>> getCacheStats() {
+        LlmResponseCache cache = llmResponseCache.getIfAvailable();
+        if (cache == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(cache.stats());
+    }
+
+    /**
+     * 获取大模型调用限流统计：进行中与排队的调用数、剩余额度以及排队等待时间
+     * 仅在 document-review.rate-limit.enabled=true 时可用
+     */
+    @GetMapping("/rate-limit/stats")
+    public ResponseEntity<Map<String, Object>> getRateLimitStats() {
+        LlmRateGovernor governor = llmRateGovernor.getIfAvailable();
+        if (governor == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(governor.stats());
+    }
+
+    /**
+     * 获取规则预筛的当前规则版本、规则数与最近一次加载错误
+     * 仅在 document-review.prescreen.enabled=true 时可用
+     */
+    @GetMapping("/prescreen/rules")
+    public ResponseEntity<Map<String, Object>> getPrescreenRules() {
+        PrescreenRuleSource rules = prescreenRules.getIfAvailable();
+        if (rules == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(rules.stats());
+    }
+
+    /**
+     * 立即重新加载预筛规则，加载失败时继续使用原有规则并返回 422
+     */
+    @PostMapping("/prescreen/reload")
+    public ResponseEntity<Map<String, Object>> reloadPrescreenRules() {
+        PrescreenRuleSource rules = prescreenRules.getIfAvailable();
+        if (rules == null) {
+            return ResponseEntity.notFound().build();
+        }
+        boolean reloaded = rules.reload();
+        return ResponseEntity.status(reloaded ? HttpStatus.OK : HttpStatus.UNPROCESSABLE_ENTITY).body(rules.stats());
+    }
+
+    /**
+     * 获取近重复索引的文档数、查询次数、命中率与查询耗时
+     * 仅在 document-review.near-duplicate.enabled=true 时可用
+     */
+    @GetMapping("/near-duplicate/stats")
+    public ResponseEntity<Map<String, Object>> getNearDuplicateStats() {
+        NearDuplicateIndex index = nearDuplicateIndex.getIfAvailable();
+        if (index == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(index.stats());
+    }
+
+    /**
+     * 获取大字段引用存储统计：文件数、被引用的文件数、引用方数、存储字节数与清理数量
+     * 仅在 document-review.blob-store.enabled=true（默认）时可用
+     */
+    @GetMapping("/blob/stats")
+    public ResponseEntity<Map<String, Object>> getBlobStats() {
+        BlobStore store = blobStore.getIfAvailable();
+        if (store == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(store.stats());
+    }
+
+    /**
+     * 获取推测执行统计：命中率、各结果（提交、命中、未命中原因、预算不足等）的次数、token 消耗与剩余预算
+     * 仅在 document-review.speculative.enabled=true 时可用
+     */
+    @GetMapping("/speculative/stats")
+    public ResponseEntity<Map<String, Object>> getSpeculativeStats() {
+        SpeculativeBranchRunner runner = speculativeBranchRunner.getIfAvailable();
+        if (runner == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(runner.stats());
+    }
+
     /**
      * 使用预设的问题合同进行审核
      * 示例请求：GET /document/review/contract?thread_id=contract123
      */
     @GetMapping(value = "/contract", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
-    public Flux<ServerSentEvent<String>> reviewContract(@RequestParam(value = "thread_id", defaultValue = "contract_review", required = false) String threadId) throws Exception {
+    public Flux<ServerSentEvent<String>> reviewContract(@RequestParam(value = "thread_id", defaultValue = "contract_review", required = false) String threadId,
+                                                        @RequestParam(value = "state_emission", required = false) String stateEmission) throws Exception {
+
+        ReviewEventEncoder.StateEmission emission = stateEmission(stateEmission);
 
         // 读取合同文档内容
         String contractContent = contractResource.getContentAsString(StandardCharsets.UTF_8);
@@ -158,15 +630,17 @@ public class DocumentReviewController {
         objectMap.put("document_content", contractContent);
         objectMap.put("document_type", "contract");
         objectMap.put("urgency_level", "high");
+        objectMap.put("thread_id", threadId);
 
         logger.info("Starting contract review with thread_id: {}, content length: {}", threadId, contractContent.length());
 
-        DocumentReviewProcess reviewProcess = new DocumentReviewProcess(this.compiledGraph);
-        Sinks.Many<ServerSentEvent<String>> sink = Sinks.many().unicast().onBackpressureBuffer();
+        CompiledGraph compiledGraph = graphRegistry.start(objectMap);
+        DocumentReviewProcess reviewProcess = newReviewProcess(compiledGraph, emission);
+        ReviewEventStream events = reviewProcess.newEventStream();
         AsyncGenerator<NodeOutput> resultFuture = compiledGraph.stream(objectMap, runnableConfig);
-        reviewProcess.processStream(resultFuture, sink);
+        reviewProcess.processStream(resultFuture, events);
 
-        return sink.asFlux()
+        return events.asFlux()
                 .doOnCancel(() -> logger.info("Client disconnected from contract review stream"))
                 .doOnError(e -> logger.error("Error occurred during contract review streaming", e));
     }
@@ -0,0 +1,238 @@
+package com.alibaba.cloud.ai.review.controller.process;
+
+import com.alibaba.cloud.ai.graph.NodeOutput;
+import com.alibaba.cloud.ai.graph.RunnableConfig;
+import com.alibaba.cloud.ai.graph.StateGraph;
+import com.alibaba.cloud.ai.graph.async.AsyncGenerator;
+import com.alibaba.cloud.ai.graph.streaming.StreamingOutput;
+import com.alibaba.cloud.ai.review.variant.ReviewGraphRegistry;
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONArray;
+import com.alibaba.fastjson.JSONObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 批量审核流程处理器
+ * 一个批次内的文档以有限并发依次通过审核图（每个文档占用共享分发器的一个执行槽位），
+ * 运行到 human_review 中断点为止（快速通道自动审批的文档直接完成）；所有文档的进度合并为一个按 thread_id 标记的事件流，
+ * 批次结束时追加一个汇总事件，包含吞吐量以及每个文档的耗时与排队等待时间分布。
+ *
+ * @author Jast
+ */
+public class BatchReviewProcess {
+
+    private static final Logger logger = LoggerFactory.getLogger(BatchReviewProcess.class);
+
+    private final ReviewGraphRegistry graphRegistry;
+    private final ReviewStreamDispatcher dispatcher;
+    private final int concurrency;
+    private final boolean includeChunks;
+
+    /**
+     * @param graphRegistry 审核图变体，每个文档按自身的 document_type 选择
+     * @param concurrency   批次内同时审核的文档数
+     * @param includeChunks 是否转发模型输出分片，大批量时关闭可显著减少事件量
+     */
+    public BatchReviewProcess(ReviewGraphRegistry graphRegistry, ReviewStreamDispatcher dispatcher, int concurrency,
+                              boolean includeChunks) {
+        this.graphRegistry = graphRegistry;
+        this.dispatcher = dispatcher;
+        this.concurrency = Math.max(1, concurrency);
+        this.includeChunks = includeChunks;
+    }
+
+    /**
+     * 批量审核中的一个文档
+     */
+    public record BatchDocument(int index, String threadId, String documentContent, String documentType,
+                                String urgencyLevel) {
+
+        Map<String, Object> toInput() {
+            Map<String, Object> input = new HashMap<>();
+            input.put("document_content", documentContent);
+            input.put("document_type", documentType);
+            input.put("urgency_level", urgencyLevel);
+            input.put("thread_id", threadId);
+            return input;
+        }
+    }
+
+    /**
+     * 解析批量请求体：JSON 数组或每行一个 JSON 对象（NDJSON）
+     * 每个对象包含 document_content（必填）、document_type、urgency_level、thread_id
+     *
+     * @throws IllegalArgumentException 请求体格式错误、缺少文档内容或超过最大文档数
+     */
+    public static List<BatchDocument> parseDocuments(String body, boolean ndjson, String batchId, int maxDocuments) {
+        List<JSONObject> items = new ArrayList<>();
+        if (ndjson) {
+            for (String line : body.split("\\r?\\n")) {
+                if (!line.isBlank()) {
+                    items.add(JSON.parseObject(line));
+                }
+            }
+        } else {
+            JSONArray array = JSON.parseArray(body);
+            for (int i = 0; i < array.size(); i++) {
+                items.add(array.getJSONObject(i));
+            }
+        }
+        if (items.isEmpty()) {
+            throw new IllegalArgumentException("batch contains no documents");
+        }
+        if (items.size() > maxDocuments) {
+            throw new IllegalArgumentException("batch contains " + items.size() + " documents, limit is " + maxDocuments);
+        }
+
+        List<BatchDocument> documents = new ArrayList<>(items.size());
+        for (int i = 0; i < items.size(); i++) {
+            JSONObject item = items.get(i);
+            String content = item.getString("document_content");
+            if (content == null || content.isBlank()) {
+                throw new IllegalArgumentException("document " + i + " has no document_content");
+            }
+            String threadId = item.getString("thread_id");
+            documents.add(new BatchDocument(i,
+                    threadId == null || threadId.isBlank() ? batchId + "-" + i : threadId,
+                    content,
+                    item.getString("document_type") == null ? "general" : item.getString("document_type"),
+                    item.getString("urgency_level") == null ? "normal" : item.getString("urgency_level")));
+        }
+        return documents;
+    }
+
+    /**
+     * 执行批量审核，返回合并后的进度事件流；订阅时才开始执行
+     */
+    public Flux<JSONObject> run(List<BatchDocument> documents) {
+        return Flux.defer(() -> {
+            long batchStart = System.nanoTime();
+            Queue<DocumentResult> results = new ConcurrentLinkedQueue<>();
+            logger.info("Starting batch review - documents: {}, concurrency: {}", documents.size(), concurrency);
+            return Flux.fromIterable(documents)
+                    .flatMap(document -> review(document, batchStart, results), concurrency)
+                    .concatWith(Mono.fromSupplier(() -> summary(documents.size(), results, batchStart)));
+        });
+    }
+
+    private Flux<JSONObject> review(BatchDocument document, long batchStart, Queue<DocumentResult> results) {
+        return Flux.create(sink -> dispatcher.dispatch(() -> {
+            long start = System.nanoTime();
+            long queueWait = start - batchStart;
+            Object[] riskScore = {null};
+            boolean[] completed = {false};
+            try {
+                RunnableConfig config = RunnableConfig.builder().threadId(document.threadId()).build();
+                Map<String, Object> input = document.toInput();
+                AsyncGenerator<NodeOutput> generator = graphRegistry.start(input).stream(input, config);
+                generator.forEachAsync(output -> {
+                    if (output instanceof StreamingOutput streamingOutput) {
+                        if (includeChunks) {
+                            JSONObject chunk = event("chunk", document);
+                            chunk.put("node", output.node());
+                            chunk.put("text", streamingOutput.chunk());
+                            sink.next(chunk);
+                        }
+                        return;
+                    }
+                    output.state().value("risk_score").ifPresent(score -> riskScore[0] = score);
+                    // 快速通道自动审批的文档不会在人工审核前中断，而是直接结束
+                    completed[0] |= StateGraph.END.equals(output.node());
+                    JSONObject node = event("node", document);
+                    node.put("node", output.node());
+                    sink.next(node);
+                }).join();
+
+                long latency = System.nanoTime() - start;
+                results.add(new DocumentResult(true, queueWait, latency));
+                JSONObject done = event("done", document);
+                done.put("status", completed[0] ? "completed" : "awaiting_human_review");
+                done.put("risk_score", riskScore[0]);
+                done.put("queue_wait_ms", TimeUnit.NANOSECONDS.toMillis(queueWait));
+                done.put("latency_ms", TimeUnit.NANOSECONDS.toMillis(latency));
+                sink.next(done);
+            } catch (Exception e) {
+                logger.error("Batch review failed for thread {}", document.threadId(), e);
+                results.add(new DocumentResult(false, queueWait, System.nanoTime() - start));
+                JSONObject error = event("error", document);
+                error.put("error", e.getMessage());
+                error.put("queue_wait_ms", TimeUnit.NANOSECONDS.toMillis(queueWait));
+                sink.next(error);
+            }
+            sink.complete();
+        }, () -> {
+            // 共享分发器已满
+            results.add(new DocumentResult(false, System.nanoTime() - batchStart, 0));
+            JSONObject error = event("error", document);
+            error.put("error", "审核流繁忙，该文档未执行");
+            sink.next(error);
+            sink.complete();
+        }), FluxSink.OverflowStrategy.BUFFER);
+    }
+
+    private static JSONObject event(String type, BatchDocument document) {
+        JSONObject event = new JSONObject();
+        event.put("type", type);
+        event.put("thread_id", document.threadId());
+        event.put("index", document.index());
+        event.put("timestamp", System.currentTimeMillis());
+        return event;
+    }
+
+    private static JSONObject summary(int documents, Queue<DocumentResult> results, long batchStart) {
+        long elapsed = System.nanoTime() - batchStart;
+        List<Long> latencies = new ArrayList<>();
+        List<Long> queueWaits = new ArrayList<>();
+        int completed = 0;
+        for (DocumentResult result : results) {
+            queueWaits.add(result.queueWaitNanos());
+            if (result.completed()) {
+                completed++;
+                latencies.add(result.latencyNanos());
+            }
+        }
+
+        JSONObject summary = new JSONObject();
+        summary.put("type", "summary");
+        summary.put("documents", documents);
+        summary.put("completed", completed);
+        summary.put("failed", results.size() - completed);
+        summary.put("elapsed_ms", TimeUnit.NANOSECONDS.toMillis(elapsed));
+        summary.put("throughput_per_minute", elapsed == 0 ? 0 : Math.round(completed * 60e9 / elapsed * 10) / 10.0);
+        summary.put("latency_ms", distribution(latencies));
+        summary.put("queue_wait_ms", distribution(queueWaits));
+        summary.put("timestamp", System.currentTimeMillis());
+        logger.info("Batch review finished - {}", summary);
+        return summary;
+    }
+
+    /**
+     * 毫秒分布：p50、p95、最大值
+     */
+    private static JSONObject distribution(List<Long> nanos) {
+        JSONObject distribution = new JSONObject();
+        if (nanos.isEmpty()) {
+            return distribution;
+        }
+        nanos.sort(null);
+        distribution.put("p50", TimeUnit.NANOSECONDS.toMillis(nanos.get((nanos.size() - 1) / 2)));
+        distribution.put("p95", TimeUnit.NANOSECONDS.toMillis(nanos.get((int) Math.ceil(nanos.size() * 0.95) - 1)));
+        distribution.put("max", TimeUnit.NANOSECONDS.toMillis(nanos.get(nanos.size() - 1)));
+        return distribution;
+    }
+
+    private record DocumentResult(boolean completed, long queueWaitNanos, long latencyNanos) {
+    }
+}
@@ -4,21 +4,18 @@ import com.alibaba.cloud.ai.graph.CompiledGraph;
 import com.alibaba.cloud.ai.graph.NodeOutput;
 import com.alibaba.cloud.ai.graph.async.AsyncGenerator;
 import com.alibaba.cloud.ai.graph.streaming.StreamingOutput;
+import com.alibaba.cloud.ai.review.config.DocumentReviewProperties;
+import com.alibaba.cloud.ai.review.result.ReviewContent;
 import com.alibaba.fastjson.JSON;
 import com.alibaba.fastjson.JSONObject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.http.codec.ServerSentEvent;
-import reactor.core.publisher.Sinks;
 
-import java.util.Map;
 import java.util.concurrent.CompletionException;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 /**
  * 文档审核流程处理器
- * 负责处理审核流程中的流式输出
+ * 负责处理审核流程中的流式输出，流的执行交由共享的 {@link ReviewStreamDispatcher}，事件格式见 {@link ReviewEventEncoder}
  * 
  * @author Jast
  */
@@ -26,73 +23,86 @@ public class DocumentReviewProcess {
 
     private static final Logger logger = LoggerFactory.getLogger(DocumentReviewProcess.class);
 
-    private final ExecutorService executor = Executors.newSingleThreadExecutor();
     private final CompiledGraph compiledGraph;
+    private final ReviewStreamDispatcher dispatcher;
+    private final DocumentReviewProperties.Stream streamConfig;
+    private final ReviewEventEncoder.StateEmission stateEmission;
+    private final ReviewContent content;
 
-    public DocumentReviewProcess(CompiledGraph compiledGraph) {
+    public DocumentReviewProcess(CompiledGraph compiledGraph, ReviewStreamDispatcher dispatcher) {
+        this(compiledGraph, dispatcher, new DocumentReviewProperties.Stream(), null, ReviewContent.INLINE);
+    }
+
+    /**
+     * @param streamConfig  流配置（分片合并窗口等）
+     * @param stateEmission 本次请求的状态发送方式，为 null 时使用配置的默认值
+     * @param content       发送事件前解析状态中的引用
+     */
+    public DocumentReviewProcess(CompiledGraph compiledGraph, ReviewStreamDispatcher dispatcher,
+                                 DocumentReviewProperties.Stream streamConfig,
+                                 ReviewEventEncoder.StateEmission stateEmission, ReviewContent content) {
         this.compiledGraph = compiledGraph;
+        this.dispatcher = dispatcher;
+        this.streamConfig = streamConfig;
+        this.stateEmission = stateEmission != null ? stateEmission : streamConfig.getStateEmission();
+        this.content = content;
+    }
+
+    /**
+     * 创建本流程使用的有界事件缓冲，统计在流结束时汇总到分发器
+     */
+    public ReviewEventStream newEventStream() {
+        return new ReviewEventStream(new ReviewEventEncoder(stateEmission, content::resolve), streamConfig.getBufferCapacity(),
+                streamConfig.getSlowConsumerPolicy(), dispatcher::recordBuffer);
     }
 
-    public void processStream(AsyncGenerator<NodeOutput> generator, Sinks.Many<ServerSentEvent<String>> sink) {
-        executor.submit(() -> {
+    public void processStream(AsyncGenerator<NodeOutput> generator, ReviewEventStream events) {
+        StreamChunkCoalescer coalescer = new StreamChunkCoalescer(events, streamConfig.getCoalesceWindow(),
+                streamConfig.getCoalesceMaxChars());
+        dispatcher.dispatch(() -> {
+            // 等待整个流结束，使分发器的执行槽位与活跃流一一对应
             generator.forEachAsync(output -> {
                 try {
-                    logger.info("Document review output = {}", output);
-                    String nodeName = output.node();
-                    String content;
-                    
+                    // 每个模型输出分片都会经过这里，按 debug 级别记录，避免大量日志
+                    logger.debug("Document review output = {}", output);
                     if (output instanceof StreamingOutput streamingOutput) {
-                        // 流式输出（如AI分析过程）
-                        content = JSON.toJSONString(Map.of(nodeName, streamingOutput.chunk()));
+                        // 流式输出（如AI分析过程），按窗口合并后发送
+                        coalescer.chunk(output.node(), streamingOutput.chunk());
                     } else {
                         // 节点完成输出
-                        JSONObject nodeOutput = new JSONObject();
-                        nodeOutput.put("data", output.state().data());
-                        nodeOutput.put("node", nodeName);
-                        nodeOutput.put("timestamp", System.currentTimeMillis());
-                        
-                        // 为不同节点添加特定信息
-                        switch (nodeName) {
-                            case "content_analysis":
-                                nodeOutput.put("message", "正在分析文档内容...");
-                                break;
-                            case "compliance_check":
-                                nodeOutput.put("message", "正在进行合规性检查...");
-                                break;
-                            case "risk_assessment":
-                                nodeOutput.put("message", "正在评估风险等级...");
-                                break;
-                            case "human_review":
-                                nodeOutput.put("message", "等待人工审核...");
-                                nodeOutput.put("action_required", "人工审核员需要确认AI分析结果");
-                                break;
-                            case "approval_process":
-                                nodeOutput.put("message", "正在处理审核结果...");
-                                break;
-                            case "final_report":
-                                nodeOutput.put("message", "生成最终审核报告...");
-                                break;
-                            default:
-                                nodeOutput.put("message", "处理中...");
-                        }
-                        
-                        content = JSON.toJSONString(nodeOutput);
+                        coalescer.nodeOutput(output.node(), output.state().data());
                     }
-                    
-                    sink.tryEmitNext(ServerSentEvent.builder(content).build());
                 } catch (Exception e) {
                     logger.error("Error processing stream output", e);
                     throw new CompletionException(e);
                 }
             }).thenAccept(v -> {
                 // 流程正常完成
-                logger.info("Document review stream completed successfully");
-                sink.tryEmitComplete();
+                coalescer.flush();
+                logStats(coalescer.stats());
+                events.complete();
             }).exceptionally(e -> {
                 logger.error("Document review stream failed", e);
-                sink.tryEmitError(e);
+                coalescer.flush();
+                events.error(e);
                 return null;
-            });
+            }).join();
+        }, () -> {
+            // 分发器队列已满，通知客户端稍后重试
+            JSONObject rejection = new JSONObject();
+            rejection.put("error", "审核流繁忙，请稍后重试");
+            rejection.put("timestamp", System.currentTimeMillis());
+            events.event(JSON.toJSONString(rejection), "rejected");
+            events.complete();
         });
     }
+
+    private void logStats(StreamChunkCoalescer.Stats stats) {
+        dispatcher.recordChunkEvents(stats);
+        logger.info("Document review stream completed successfully - chunks: {} ({} events/s, {} bytes/event), "
+                        + "coalesced events: {} ({} events/s, {} bytes/event)",
+                stats.chunks(), String.format("%.1f", stats.eventsPerSecondBefore()),
+                String.format("%.1f", stats.bytesPerEventBefore()), stats.chunkEvents(),
+                String.format("%.1f", stats.eventsPerSecondAfter()), String.format("%.1f", stats.bytesPerEventAfter()));
+    }
 }
@@ -0,0 +1,152 @@
+package com.alibaba.cloud.ai.review.controller.process;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONObject;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.UnaryOperator;
+
+/**
+ * 审核流 SSE 事件编码器，每个审核流一个实例
+ * <p>
+ * 节点完成事件默认只发送该节点改变的状态键（delta），每个流的第一个节点事件发送完整快照，
+ * 客户端据此在本地合并出完整状态；也可按请求切换为每个事件都发送完整状态（full）。
+ * 所有节点事件都带有 {@code protocol_version} 字段，便于客户端识别事件格式。
+ * 状态中以引用保存的值在发送前解析为原文，客户端看到的字段与未启用引用存储时相同。
+ *
+ * @author Jast
+ */
+public class ReviewEventEncoder {
+
+    /**
+     * 事件协议版本：2 表示支持 delta 状态
+     */
+    public static final int PROTOCOL_VERSION = 2;
+
+    /**
+     * 节点完成事件的状态发送方式
+     */
+    public enum StateEmission {
+
+        /**
+         * 每个事件都发送完整状态
+         */
+        FULL,
+
+        /**
+         * 第一个事件发送完整快照，之后只发送变化的键
+         */
+        DELTA;
+
+        /**
+         * 解析请求参数，忽略大小写与首尾空白；为空时返回 null，表示使用配置的发送方式
+         *
+         * @throws IllegalArgumentException 取值不是 full 或 delta
+         */
+        public static StateEmission parse(String value) {
+            if (value == null || value.isBlank()) {
+                return null;
+            }
+            for (StateEmission emission : values()) {
+                if (emission.name().equalsIgnoreCase(value.strip())) {
+                    return emission;
+                }
+            }
+            throw new IllegalArgumentException("state_emission must be full or delta, got: " + value);
+        }
+    }
+
+    private final StateEmission emission;
+
+    private final UnaryOperator<Object> resolver;
+
+    /**
+     * 上一次发送给客户端的状态（浅拷贝），尚未发送快照时为 null
+     */
+    private Map<String, Object> lastEmitted;
+
+    public ReviewEventEncoder(StateEmission emission) {
+        this(emission, UnaryOperator.identity());
+    }
+
+    /**
+     * @param resolver 发送前把状态中以引用保存的值解析为原文
+     */
+    public ReviewEventEncoder(StateEmission emission, UnaryOperator<Object> resolver) {
+        this.emission = emission;
+        this.resolver = resolver;
+    }
+
+    /**
+     * 编码流式输出分片
+     */
+    public static String encodeChunk(String nodeName, String chunk) {
+        return JSON.toJSONString(Map.of(nodeName, chunk));
+    }
+
+    /**
+     * 编码节点完成事件
+     */
+    public String encodeNodeOutput(String nodeName, Map<String, Object> state) {
+        JSONObject nodeOutput = new JSONObject();
+        nodeOutput.put("protocol_version", PROTOCOL_VERSION);
+        if (emission == StateEmission.FULL || lastEmitted == null) {
+            Map<String, Object> data = new LinkedHashMap<>();
+            state.forEach((key, value) -> data.put(key, resolver.apply(value)));
+            nodeOutput.put("snapshot", true);
+            nodeOutput.put("data", data);
+        } else {
+            Map<String, Object> delta = new HashMap<>();
+            for (Map.Entry<String, Object> entry : state.entrySet()) {
+                // 未修改的大字段通常是同一个对象（或同一个引用），equals 在引用相同时直接返回
+                if (!Objects.equals(lastEmitted.get(entry.getKey()), entry.getValue())) {
+                    delta.put(entry.getKey(), resolver.apply(entry.getValue()));
+                }
+            }
+            List<String> removed = new ArrayList<>();
+            for (String key : lastEmitted.keySet()) {
+                if (!state.containsKey(key)) {
+                    removed.add(key);
+                }
+            }
+            nodeOutput.put("snapshot", false);
+            nodeOutput.put("delta", delta);
+            if (!removed.isEmpty()) {
+                nodeOutput.put("removed", removed);
+            }
+        }
+        lastEmitted = new HashMap<>(state);
+
+        nodeOutput.put("node", nodeName);
+        nodeOutput.put("timestamp", System.currentTimeMillis());
+        nodeOutput.put("message", message(nodeName));
+        if ("human_review".equals(nodeName)) {
+            nodeOutput.put("action_required", "人工审核员需要确认AI分析结果");
+        }
+        return JSON.toJSONString(nodeOutput);
+    }
+
+    /**
+     * 为不同节点添加特定信息
+     */
+    private static String message(String nodeName) {
+        return switch (nodeName) {
+            case "document_intake" -> "已接收文档，开始分析...";
+            case "prescreen" -> "正在进行规则预筛...";
+            case "near_duplicate" -> "正在查找近重复文档...";
+            case "content_analysis" -> "正在分析文档内容...";
+            case "compliance_check" -> "正在进行合规性检查...";
+            case "risk_assessment" -> "正在评估风险等级...";
+            case "human_review" -> "等待人工审核...";
+            case "auto_approval" -> "低风险文档已按规则自动通过";
+            case "approval_process" -> "正在处理审核结果...";
+            case "final_report" -> "生成最终审核报告...";
+            default -> "处理中...";
+        };
+    }
+}
@@ -0,0 +1,29 @@
+package com.alibaba.cloud.ai.review.controller.process;
+
+import java.util.Map;
+
+/**
+ * 审核流事件的发送目标
+ *
+ * @author Jast
+ */
+public interface ReviewEventSink {
+
+    /**
+     * 发送某个节点的模型输出分片（可能已合并多个分片）
+     */
+    void chunk(String nodeName, String text);
+
+    /**
+     * 发送节点完成事件，由发送目标按自己的状态发送方式编码
+     */
+    void nodeOutput(String nodeName, Map<String, Object> state);
+
+    /**
+     * 发送其他不可丢弃的事件
+     *
+     * @param content   编码后的事件内容
+     * @param eventName SSE 事件名，为 null 时使用默认的 message 事件
+     */
+    void event(String content, String eventName);
+}
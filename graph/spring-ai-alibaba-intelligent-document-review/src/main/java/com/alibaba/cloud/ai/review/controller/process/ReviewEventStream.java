@@ -0,0 +1,287 @@
+package com.alibaba.cloud.ai.review.controller.process;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.codec.ServerSentEvent;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * 有界的审核流 SSE 缓冲，每个审核流一个实例
+ * <p>
+ * 事件按客户端的请求量（背压）发送，未发送的事件最多缓存 {@code capacity} 个。
+ * 客户端消费过慢导致缓冲已满时按 {@link SlowConsumerPolicy} 处理模型输出分片；
+ * 节点完成事件携带该节点的完整结果，永远不会被丢弃，必要时挤掉缓冲中的分片。
+ * 节点完成事件在进入缓冲时即由本流自己的 {@link ReviewEventEncoder} 编码，delta 的基准与该客户端收到的事件一致。
+ *
+ * @author Jast
+ */
+public class ReviewEventStream implements ReviewEventSink {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReviewEventStream.class);
+
+    /**
+     * 慢消费者处理策略
+     */
+    public enum SlowConsumerPolicy {
+
+        /**
+         * 丢弃新的模型输出分片，保留节点完成事件（其中已包含完整结果）
+         */
+        DROP_CHUNKS,
+
+        /**
+         * 把新的分片合并进缓冲中同一节点尚未发送的分片，无可合并的分片时丢弃
+         */
+        COALESCE,
+
+        /**
+         * 断开客户端连接，审核流程继续执行，结果可通过 /status 查询
+         */
+        DISCONNECT
+    }
+
+    private final ReviewEventEncoder encoder;
+
+    private final int capacity;
+
+    private final SlowConsumerPolicy policy;
+
+    private final Consumer<Stats> onTerminate;
+
+    private final Deque<Entry> buffer = new ArrayDeque<>();
+
+    private FluxSink<ServerSentEvent<String>> downstream;
+
+    private boolean draining;
+
+    private boolean completing;
+
+    private Throwable error;
+
+    private boolean terminated;
+
+    private long droppedChunks;
+
+    private long coalescedChunks;
+
+    private int peakDepth;
+
+    private boolean disconnected;
+
+    /**
+     * @param encoder     节点完成事件编码器
+     * @param capacity    缓冲的最大事件数
+     * @param policy      缓冲已满时的处理策略
+     * @param onTerminate 流结束（完成、出错、客户端断开或被断开）时回调本流的缓冲统计
+     */
+    public ReviewEventStream(ReviewEventEncoder encoder, int capacity, SlowConsumerPolicy policy,
+                             Consumer<Stats> onTerminate) {
+        this.encoder = encoder;
+        this.capacity = Math.max(1, capacity);
+        this.policy = policy;
+        this.onTerminate = onTerminate;
+    }
+
+    /**
+     * 返回发送给客户端的事件流，只能订阅一次
+     */
+    public Flux<ServerSentEvent<String>> asFlux() {
+        return Flux.create(sink -> {
+            synchronized (this) {
+                downstream = sink;
+            }
+            sink.onRequest(n -> drain());
+            sink.onCancel(this::cancel);
+        }, FluxSink.OverflowStrategy.ERROR);
+    }
+
+    @Override
+    public synchronized void chunk(String nodeName, String text) {
+        if (terminated || completing) {
+            return;
+        }
+        if (buffer.size() < capacity) {
+            add(new Entry(nodeName, new StringBuilder(text), null, null));
+        } else {
+            overflow(nodeName, text);
+        }
+        drain();
+    }
+
+    @Override
+    public synchronized void nodeOutput(String nodeName, Map<String, Object> state) {
+        if (terminated || completing) {
+            return;
+        }
+        event(encoder.encodeNodeOutput(nodeName, state), null);
+    }
+
+    @Override
+    public synchronized void event(String content, String eventName) {
+        if (terminated || completing) {
+            return;
+        }
+        if (buffer.size() >= capacity && !removeOldestChunk()) {
+            logger.debug("Event buffer full without droppable chunks, keeping node event beyond capacity");
+        }
+        add(new Entry(null, null, content, eventName));
+        drain();
+    }
+
+    /**
+     * 发送完缓冲中的事件后正常结束
+     */
+    public synchronized void complete() {
+        completing = true;
+        drain();
+    }
+
+    /**
+     * 发送完缓冲中的事件后以错误结束
+     */
+    public synchronized void error(Throwable e) {
+        completing = true;
+        error = e;
+        drain();
+    }
+
+    private void overflow(String nodeName, String text) {
+        switch (policy) {
+            case DROP_CHUNKS -> droppedChunks++;
+            case COALESCE -> {
+                Entry pending = lastPendingChunk(nodeName);
+                if (pending != null) {
+                    pending.text.append(text);
+                    coalescedChunks++;
+                } else {
+                    droppedChunks++;
+                }
+            }
+            case DISCONNECT -> {
+                logger.warn("Disconnecting slow review stream client - buffered events: {}", buffer.size());
+                disconnected = true;
+                buffer.clear();
+                if (downstream != null) {
+                    downstream.error(new IllegalStateException("SSE client is too slow, buffer capacity "
+                            + capacity + " exceeded"));
+                }
+                terminate();
+            }
+        }
+    }
+
+    /**
+     * 查找同一节点尚未发送的最后一个分片，不越过节点完成事件以保持顺序
+     */
+    private Entry lastPendingChunk(String nodeName) {
+        Iterator<Entry> iterator = buffer.descendingIterator();
+        while (iterator.hasNext()) {
+            Entry entry = iterator.next();
+            if (!entry.isChunk()) {
+                return null;
+            }
+            if (entry.nodeName.equals(nodeName)) {
+                return entry;
+            }
+        }
+        return null;
+    }
+
+    private boolean removeOldestChunk() {
+        Iterator<Entry> iterator = buffer.iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().isChunk()) {
+                iterator.remove();
+                droppedChunks++;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void add(Entry entry) {
+        buffer.addLast(entry);
+        peakDepth = Math.max(peakDepth, buffer.size());
+    }
+
+    private synchronized void drain() {
+        if (draining || terminated || downstream == null) {
+            return;
+        }
+        draining = true;
+        try {
+            while (!buffer.isEmpty() && downstream.requestedFromDownstream() > 0) {
+                downstream.next(buffer.pollFirst().toEvent());
+            }
+            if (completing && buffer.isEmpty()) {
+                if (error != null) {
+                    downstream.error(error);
+                } else {
+                    downstream.complete();
+                }
+                terminate();
+            }
+        } finally {
+            draining = false;
+        }
+    }
+
+    private synchronized void cancel() {
+        if (!terminated) {
+            logger.info("Client disconnected from review stream - undelivered events: {}", buffer.size());
+            buffer.clear();
+            terminate();
+        }
+    }
+
+    private void terminate() {
+        terminated = true;
+        Stats stats = stats();
+        if (stats.droppedChunks() > 0 || stats.coalescedChunks() > 0 || stats.disconnected()) {
+            logger.info("Review stream buffer - dropped chunks: {}, coalesced chunks: {}, peak depth: {}, "
+                    + "disconnected: {}", droppedChunks, coalescedChunks, peakDepth, disconnected);
+        }
+        onTerminate.accept(stats);
+    }
+
+    /**
+     * 当前的缓冲统计
+     */
+    public synchronized Stats stats() {
+        return new Stats(droppedChunks, coalescedChunks, peakDepth, disconnected);
+    }
+
+    /**
+     * 缓冲中的一个事件：分片保留节点名与原文以便合并，发送时才编码
+     */
+    private record Entry(String nodeName, StringBuilder text, String content, String eventName) {
+
+        boolean isChunk() {
+            return text != null;
+        }
+
+        ServerSentEvent<String> toEvent() {
+            String data = isChunk() ? ReviewEventEncoder.encodeChunk(nodeName, text.toString()) : content;
+            ServerSentEvent.Builder<String> builder = ServerSentEvent.builder(data);
+            return eventName == null ? builder.build() : builder.event(eventName).build();
+        }
+    }
+
+    /**
+     * 单个流的缓冲统计
+     *
+     * @param droppedChunks   被丢弃的分片数
+     * @param coalescedChunks 被合并进已缓冲分片的分片数
+     * @param peakDepth       缓冲的最大深度
+     * @param disconnected    是否因消费过慢被断开
+     */
+    public record Stats(long droppedChunks, long coalescedChunks, int peakDepth, boolean disconnected) {
+    }
+}
@@ -0,0 +1,202 @@
+package com.alibaba.cloud.ai.review.controller.process;
+
+import com.alibaba.cloud.ai.review.config.DocumentReviewProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 审核流分发器
+ * 应用级共享的有界执行器，所有 /start、/continue、/contract 的 SSE 流都在这里执行，
+ * 取代每个请求各自创建且从不关闭的单线程执行器。
+ * Java 21+ 上使用虚拟线程承载流，否则使用有界的平台线程池；应用关闭时等待进行中的流结束。
+ *
+ * @author Jast
+ */
+@Component
+public class ReviewStreamDispatcher implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReviewStreamDispatcher.class);
+
+    private static final String THREAD_NAME_PREFIX = "review-stream-";
+
+    private final ThreadPoolExecutor executor;
+
+    private final long shutdownTimeoutMillis;
+
+    private final AtomicInteger activeStreams = new AtomicInteger();
+
+    private final AtomicLong completedStreams = new AtomicLong();
+
+    private final AtomicLong rejectedStreams = new AtomicLong();
+
+    private final boolean virtualThreads;
+
+    private final AtomicLong tokenChunks = new AtomicLong();
+
+    private final AtomicLong tokenChunkBytes = new AtomicLong();
+
+    private final AtomicLong chunkEvents = new AtomicLong();
+
+    private final AtomicLong chunkEventBytes = new AtomicLong();
+
+    private final AtomicLong droppedChunks = new AtomicLong();
+
+    private final AtomicLong coalescedChunks = new AtomicLong();
+
+    private final AtomicLong slowConsumerDisconnects = new AtomicLong();
+
+    private final AtomicInteger peakBufferDepth = new AtomicInteger();
+
+    public ReviewStreamDispatcher(DocumentReviewProperties properties) {
+        DocumentReviewProperties.Stream config = properties.getStream();
+        ThreadFactory virtualThreadFactory = config.isVirtualThreads() ? virtualThreadFactory() : null;
+        this.virtualThreads = virtualThreadFactory != null;
+        ThreadFactory threadFactory = virtualThreads ? virtualThreadFactory : platformThreadFactory();
+
+        this.executor = new ThreadPoolExecutor(config.getMaxActiveStreams(), config.getMaxActiveStreams(),
+                60L, TimeUnit.SECONDS, new ArrayBlockingQueue<>(config.getQueueCapacity()), threadFactory,
+                new ThreadPoolExecutor.AbortPolicy());
+        this.executor.allowCoreThreadTimeOut(true);
+        this.shutdownTimeoutMillis = config.getShutdownTimeout().toMillis();
+
+        logger.info("Review stream dispatcher started - virtual threads: {}, max active streams: {}, queue capacity: {}",
+                virtualThreads, config.getMaxActiveStreams(), config.getQueueCapacity());
+    }
+
+    /**
+     * 提交一个审核流任务，任务应阻塞直至整个流结束，以便占用的执行槽位与活跃流一一对应
+     *
+     * @param streamTask 审核流任务
+     * @param onRejected 队列已满或分发器已关闭时的回调
+     * @return 是否成功提交
+     */
+    public boolean dispatch(Runnable streamTask, Runnable onRejected) {
+        try {
+            executor.execute(() -> {
+                activeStreams.incrementAndGet();
+                try {
+                    streamTask.run();
+                } finally {
+                    activeStreams.decrementAndGet();
+                    completedStreams.incrementAndGet();
+                }
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            rejectedStreams.incrementAndGet();
+            logger.warn("Review stream rejected - active: {}, queued: {}", activeStreams.get(), getQueueDepth());
+            onRejected.run();
+            return false;
+        }
+    }
+
+    public int getActiveStreams() {
+        return activeStreams.get();
+    }
+
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+
+    public long getCompletedStreams() {
+        return completedStreams.get();
+    }
+
+    public long getRejectedStreams() {
+        return rejectedStreams.get();
+    }
+
+    /**
+     * 累计一个已完成流的分片合并统计
+     */
+    public void recordChunkEvents(StreamChunkCoalescer.Stats stats) {
+        tokenChunks.addAndGet(stats.chunks());
+        tokenChunkBytes.addAndGet(stats.chunkBytes());
+        chunkEvents.addAndGet(stats.chunkEvents());
+        chunkEventBytes.addAndGet(stats.chunkEventBytes());
+    }
+
+    /**
+     * 累计一个已结束流的 SSE 缓冲统计
+     */
+    public void recordBuffer(ReviewEventStream.Stats stats) {
+        droppedChunks.addAndGet(stats.droppedChunks());
+        coalescedChunks.addAndGet(stats.coalescedChunks());
+        if (stats.disconnected()) {
+            slowConsumerDisconnects.incrementAndGet();
+        }
+        peakBufferDepth.accumulateAndGet(stats.peakDepth(), Math::max);
+    }
+
+    /**
+     * 获取分发器运行统计
+     */
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("virtual_threads", virtualThreads);
+        stats.put("max_active_streams", executor.getMaximumPoolSize());
+        stats.put("active_streams", getActiveStreams());
+        stats.put("queue_depth", getQueueDepth());
+        stats.put("queue_remaining_capacity", executor.getQueue().remainingCapacity());
+        stats.put("completed_streams", getCompletedStreams());
+        stats.put("rejected_streams", getRejectedStreams());
+        long chunks = tokenChunks.get();
+        long events = chunkEvents.get();
+        stats.put("token_chunks", chunks);
+        stats.put("chunk_events", events);
+        stats.put("bytes_per_chunk", chunks == 0 ? 0 : tokenChunkBytes.get() / chunks);
+        stats.put("bytes_per_chunk_event", events == 0 ? 0 : chunkEventBytes.get() / events);
+        stats.put("dropped_chunks", droppedChunks.get());
+        stats.put("coalesced_chunks", coalescedChunks.get());
+        stats.put("slow_consumer_disconnects", slowConsumerDisconnects.get());
+        stats.put("peak_buffer_depth", peakBufferDepth.get());
+        return stats;
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        logger.info("Draining review streams - active: {}, queued: {}", getActiveStreams(), getQueueDepth());
+        executor.shutdown();
+        if (!executor.awaitTermination(shutdownTimeoutMillis, TimeUnit.MILLISECONDS)) {
+            logger.warn("Review streams did not drain within {} ms, interrupting {} remaining",
+                    shutdownTimeoutMillis, getActiveStreams());
+            executor.shutdownNow();
+        }
+    }
+
+    private static ThreadFactory platformThreadFactory() {
+        AtomicInteger threadIndex = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, THREAD_NAME_PREFIX + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * 通过反射获取虚拟线程工厂，编译目标为 Java 17，运行在 Java 21+ 时才可用
+     */
+    private static ThreadFactory virtualThreadFactory() {
+        try {
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            builder = builderClass.getMethod("name", String.class, long.class).invoke(builder, THREAD_NAME_PREFIX, 0L);
+            return (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+        } catch (ReflectiveOperationException e) {
+            logger.info("Virtual threads are not available on this JVM, using platform threads");
+            return null;
+        }
+    }
+}
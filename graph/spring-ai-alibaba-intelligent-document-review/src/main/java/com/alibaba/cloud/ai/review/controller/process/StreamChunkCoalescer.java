@@ -0,0 +1,190 @@
+package com.alibaba.cloud.ai.review.controller.process;
+
+import reactor.core.Disposable;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 流式分片合并器，每个审核流一个实例
+ * <p>
+ * 各 *_stream 节点的模型输出分片按节点缓存，缓存时间达到窗口或字符数达到上限时合并为一个 SSE 事件发送；
+ * 节点完成事件发送前先发送所有缓存的分片，保证事件顺序与节点边界不变。
+ * 所有事件（分片与节点完成）都经由本类串行发送到 {@link ReviewEventSink}。
+ * 窗口为 0 时不合并，每个分片直接发送。
+ *
+ * @author Jast
+ */
+public class StreamChunkCoalescer {
+
+    private final ReviewEventSink sink;
+
+    private final long windowMillis;
+
+    private final int maxChars;
+
+    private final Scheduler scheduler;
+
+    /**
+     * 各节点尚未发送的分片文本，保持首次出现的顺序
+     */
+    private final Map<String, StringBuilder> pending = new LinkedHashMap<>();
+
+    private Disposable flushTask;
+
+    private final long startNanos = System.nanoTime();
+
+    private long chunks;
+
+    private long chunkBytes;
+
+    private long chunkEvents;
+
+    private long chunkEventBytes;
+
+    /**
+     * @param sink     事件发送目标
+     * @param window   合并窗口，为 0 时不合并
+     * @param maxChars 单个节点缓存的字符数达到该值时立即发送
+     */
+    public StreamChunkCoalescer(ReviewEventSink sink, Duration window, int maxChars) {
+        this(sink, window, maxChars, Schedulers.parallel());
+    }
+
+    StreamChunkCoalescer(ReviewEventSink sink, Duration window, int maxChars, Scheduler scheduler) {
+        this.sink = sink;
+        this.windowMillis = window.toMillis();
+        this.maxChars = Math.max(1, maxChars);
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * 接收一个流式输出分片
+     */
+    public synchronized void chunk(String nodeName, String text) {
+        if (text == null || text.isEmpty()) {
+            return;
+        }
+        chunks++;
+        // 未合并时每个分片单独成为一个事件的大小（{"node":"text"}）
+        chunkBytes += eventBytes(nodeName, text);
+
+        if (windowMillis <= 0) {
+            emitChunk(nodeName, text);
+            return;
+        }
+        StringBuilder buffer = pending.computeIfAbsent(nodeName, key -> new StringBuilder());
+        buffer.append(text);
+        if (buffer.length() >= maxChars) {
+            pending.remove(nodeName);
+            emitChunk(nodeName, buffer);
+        } else if (flushTask == null) {
+            flushTask = scheduler.schedule(this::timedFlush, windowMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * 发送节点完成事件，先发送所有缓存的分片
+     */
+    public synchronized void nodeOutput(String nodeName, Map<String, Object> state) {
+        flush();
+        sink.nodeOutput(nodeName, state);
+    }
+
+    /**
+     * 发送所有缓存的分片
+     */
+    public synchronized void flush() {
+        if (flushTask != null) {
+            flushTask.dispose();
+            flushTask = null;
+        }
+        Iterator<Map.Entry<String, StringBuilder>> iterator = pending.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, StringBuilder> entry = iterator.next();
+            iterator.remove();
+            emitChunk(entry.getKey(), entry.getValue());
+        }
+    }
+
+    private synchronized void timedFlush() {
+        flushTask = null;
+        flush();
+    }
+
+    private void emitChunk(String nodeName, CharSequence text) {
+        chunkEvents++;
+        chunkEventBytes += eventBytes(nodeName, text);
+        sink.chunk(nodeName, text.toString());
+    }
+
+    /**
+     * 分片事件（{"node":"text"}）的字节数，不计转义字符
+     */
+    private static long eventBytes(String nodeName, CharSequence text) {
+        return utf8Length(nodeName) + utf8Length(text) + 7;
+    }
+
+    /**
+     * 当前的合并统计
+     */
+    public synchronized Stats stats() {
+        return new Stats(chunks, chunkBytes, chunkEvents, chunkEventBytes,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+    }
+
+    static long utf8Length(CharSequence text) {
+        long length = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c < 0x80) {
+                length++;
+            } else if (c < 0x800) {
+                length += 2;
+            } else if (Character.isHighSurrogate(c)) {
+                length += 4;
+                i++;
+            } else {
+                length += 3;
+            }
+        }
+        return length;
+    }
+
+    /**
+     * 合并统计
+     *
+     * @param chunks          收到的模型输出分片数，即未合并时的事件数
+     * @param chunkBytes      未合并时分片事件的总字节数（估算）
+     * @param chunkEvents     合并后实际发送的分片事件数
+     * @param chunkEventBytes 合并后分片事件的总字节数（估算）
+     * @param elapsedMillis   流已持续的时间
+     */
+    public record Stats(long chunks, long chunkBytes, long chunkEvents, long chunkEventBytes, long elapsedMillis) {
+
+        public double eventsPerSecondBefore() {
+            return perSecond(chunks);
+        }
+
+        public double eventsPerSecondAfter() {
+            return perSecond(chunkEvents);
+        }
+
+        public double bytesPerEventBefore() {
+            return chunks == 0 ? 0 : (double) chunkBytes / chunks;
+        }
+
+        public double bytesPerEventAfter() {
+            return chunkEvents == 0 ? 0 : (double) chunkEventBytes / chunkEvents;
+        }
+
+        private double perSecond(long events) {
+            return elapsedMillis == 0 ? 0 : events * 1000.0 / elapsedMillis;
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.alibaba.cloud.ai.review.dispatcher;
+
+import com.alibaba.cloud.ai.graph.OverAllState;
+import com.alibaba.cloud.ai.graph.action.EdgeAction;
+import com.alibaba.cloud.ai.review.config.DocumentReviewProperties;
+import com.alibaba.cloud.ai.review.metrics.ReviewMetrics;
+import com.alibaba.cloud.ai.review.result.ComplianceResult;
+import com.alibaba.cloud.ai.review.result.ReviewResults;
+import com.alibaba.cloud.ai.review.result.RiskAssessment;
+import com.alibaba.cloud.ai.review.similar.NearDuplicateMatch;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Locale;
+
+/**
+ * 快速通道分发器
+ * 风险评估后按文档类型的规则判断是否为低风险文档：满足规则时进入自动审批节点，不再中断等待人工审核，
+ * 也不再调用大模型生成审批结果与报告；否则进入人工审核
+ *
+ * @author Jast
+ */
+public class FastPathDispatcher implements EdgeAction {
+
+    private static final Logger logger = LoggerFactory.getLogger(FastPathDispatcher.class);
+
+    public static final String AUTO_APPROVAL = "auto_approval";
+
+    public static final String HUMAN_REVIEW = "human_review";
+
+    public static final String HIT = "hit";
+
+    private final DocumentReviewProperties.FastPath config;
+
+    private final ReviewMetrics metrics;
+
+    /**
+     * @param config  快速通道配置
+     * @param metrics 审核指标，未启用指标时为 null
+     */
+    public FastPathDispatcher(DocumentReviewProperties.FastPath config, ReviewMetrics metrics) {
+        this.config = config;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public String apply(OverAllState state) {
+        String documentType = state.value("document_type", "general");
+        NearDuplicateMatch nearDuplicate = ReviewResults.nearDuplicate(state);
+        // 复用的是另一份文档的分析结果，有章节内容不同时必须由人工核对
+        String outcome = nearDuplicate != null && !nearDuplicate.changedSections().isEmpty() ? "near_duplicate_changed"
+                : evaluate(documentType, ReviewResults.riskAssessment(state), ReviewResults.compliance(state));
+        if (metrics != null) {
+            metrics.recordFastPath(documentType, outcome);
+        }
+        if (HIT.equals(outcome)) {
+            logger.info("FastPathDispatcher: low-risk {} document, auto approving", documentType);
+            return AUTO_APPROVAL;
+        }
+        logger.info("FastPathDispatcher: {} document requires human review ({})", documentType, outcome);
+        return HUMAN_REVIEW;
+    }
+
+    /**
+     * 按规则判定，满足时返回 {@link #HIT}，否则返回第一个不满足的条件
+     */
+    public String evaluate(String documentType, RiskAssessment risk, ComplianceResult compliance) {
+        if (!config.isEnabled()) {
+            return "disabled";
+        }
+        DocumentReviewProperties.FastPath.Rule rule = rule(documentType);
+        if (rule == null) {
+            return "no_rule";
+        }
+        // 模型输出无法解析时没有类型化结果，风险评分只是默认值，不能据此自动通过
+        if (risk == null) {
+            return "risk_unavailable";
+        }
+        if (risk.overallRiskScore() > rule.getMaxRiskScore()) {
+            return "risk_score";
+        }
+        if (risk.escalationRequired() && !rule.isAllowEscalation()) {
+            return "escalation";
+        }
+        if (compliance == null) {
+            return "compliance_unavailable";
+        }
+        String status = compliance.overallStatus() == null ? "" : compliance.overallStatus().trim();
+        if (rule.getComplianceStatuses().stream().noneMatch(status::equalsIgnoreCase)) {
+            return "compliance_status";
+        }
+        if (compliance.complianceScore() == null || compliance.complianceScore() < rule.getMinComplianceScore()) {
+            return "compliance_score";
+        }
+        return HIT;
+    }
+
+    /**
+     * 文档类型对应的规则，不区分大小写
+     */
+    public DocumentReviewProperties.FastPath.Rule rule(String documentType) {
+        if (documentType == null) {
+            return null;
+        }
+        DocumentReviewProperties.FastPath.Rule rule = config.getRules().get(documentType);
+        return rule != null ? rule : config.getRules().get(documentType.toLowerCase(Locale.ROOT));
+    }
+}
@@ -0,0 +1,198 @@
+package com.alibaba.cloud.ai.review.job;
+
+import com.alibaba.cloud.ai.review.controller.process.ReviewEventSink;
+import com.alibaba.cloud.ai.review.controller.process.ReviewEventStream;
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONObject;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.UnaryOperator;
+
+/**
+ * 异步审核任务
+ * 任务在服务端工作线程上执行，与提交它的 HTTP 连接无关；执行过程中的事件分发给当前挂接的所有客户端流，
+ * 客户端可以随时挂接或重新挂接，挂接时先收到最近一次节点完成时的完整状态快照，之后接收实时事件。
+ *
+ * @author Jast
+ */
+public class ReviewJob implements ReviewEventSink {
+
+    /**
+     * 任务状态
+     */
+    public enum Status {
+
+        /**
+         * 已提交，等待工作线程
+         */
+        QUEUED,
+
+        RUNNING,
+
+        /**
+         * 已运行到人工审核节点前暂停，可通过继续审核任务恢复
+         */
+        AWAITING_HUMAN_REVIEW,
+
+        COMPLETED,
+
+        FAILED,
+
+        /**
+         * 工作线程队列已满，任务未执行
+         */
+        REJECTED;
+
+        public boolean isFinished() {
+            return this != QUEUED && this != RUNNING;
+        }
+    }
+
+    private final String jobId;
+
+    private final String threadId;
+
+    private final UnaryOperator<Object> resolver;
+
+    private final long submittedAt = System.currentTimeMillis();
+
+    private final List<ReviewEventStream> subscribers = new CopyOnWriteArrayList<>();
+
+    private volatile Status status = Status.QUEUED;
+
+    private volatile long startedAt;
+
+    private volatile long finishedAt;
+
+    private volatile String error;
+
+    private String lastNode;
+
+    private Map<String, Object> lastState;
+
+    public ReviewJob(String jobId, String threadId) {
+        this(jobId, threadId, UnaryOperator.identity());
+    }
+
+    /**
+     * @param resolver 返回任务结果前把状态中以引用保存的值解析为原文
+     */
+    public ReviewJob(String jobId, String threadId, UnaryOperator<Object> resolver) {
+        this.jobId = jobId;
+        this.threadId = threadId;
+        this.resolver = resolver;
+    }
+
+    public String getJobId() {
+        return jobId;
+    }
+
+    public String getThreadId() {
+        return threadId;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public long getFinishedAt() {
+        return finishedAt;
+    }
+
+    /**
+     * 挂接一个客户端流：已有节点完成时先发送完整快照；任务已结束时发送状态事件后结束该流
+     */
+    public synchronized void attach(ReviewEventStream stream) {
+        if (lastState != null) {
+            stream.nodeOutput(lastNode, lastState);
+        }
+        if (status.isFinished()) {
+            stream.event(JSON.toJSONString(summary(false)), "job");
+            stream.complete();
+        } else {
+            subscribers.add(stream);
+        }
+    }
+
+    /**
+     * 客户端流结束时移除，不持有任务锁，避免与事件分发的锁顺序相反
+     */
+    public void detach(ReviewEventStream stream) {
+        subscribers.remove(stream);
+    }
+
+    synchronized void started() {
+        status = Status.RUNNING;
+        startedAt = System.currentTimeMillis();
+    }
+
+    synchronized void finished(Status finalStatus, String errorMessage) {
+        status = finalStatus;
+        error = errorMessage;
+        finishedAt = System.currentTimeMillis();
+        String content = JSON.toJSONString(summary(false));
+        for (ReviewEventStream subscriber : subscribers) {
+            subscriber.event(content, "job");
+            subscriber.complete();
+        }
+        subscribers.clear();
+    }
+
+    synchronized String lastNode() {
+        return lastNode;
+    }
+
+    @Override
+    public synchronized void chunk(String nodeName, String text) {
+        for (ReviewEventStream subscriber : subscribers) {
+            subscriber.chunk(nodeName, text);
+        }
+    }
+
+    @Override
+    public synchronized void nodeOutput(String nodeName, Map<String, Object> state) {
+        lastNode = nodeName;
+        lastState = new LinkedHashMap<>(state);
+        for (ReviewEventStream subscriber : subscribers) {
+            subscriber.nodeOutput(nodeName, state);
+        }
+    }
+
+    @Override
+    public synchronized void event(String content, String eventName) {
+        for (ReviewEventStream subscriber : subscribers) {
+            subscriber.event(content, eventName);
+        }
+    }
+
+    /**
+     * 任务概要，includeState 为 true 时包含最近一次节点完成时的完整状态
+     */
+    public synchronized JSONObject summary(boolean includeState) {
+        JSONObject summary = new JSONObject(new LinkedHashMap<>());
+        summary.put("job_id", jobId);
+        summary.put("thread_id", threadId);
+        summary.put("status", status.name().toLowerCase());
+        summary.put("current_node", lastNode);
+        summary.put("submitted_at", submittedAt);
+        summary.put("started_at", startedAt == 0 ? null : startedAt);
+        summary.put("finished_at", finishedAt == 0 ? null : finishedAt);
+        summary.put("subscribers", subscribers.size());
+        if (error != null) {
+            summary.put("error", error);
+        }
+        if (includeState) {
+            summary.put("state", lastState == null ? null : resolved(lastState));
+        }
+        return summary;
+    }
+
+    private Map<String, Object> resolved(Map<String, Object> state) {
+        Map<String, Object> resolved = new LinkedHashMap<>();
+        state.forEach((key, value) -> resolved.put(key, resolver.apply(value)));
+        return resolved;
+    }
+}
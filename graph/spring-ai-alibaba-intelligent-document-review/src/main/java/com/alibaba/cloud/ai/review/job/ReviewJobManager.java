@@ -0,0 +1,147 @@
+package com.alibaba.cloud.ai.review.job;
+
+import com.alibaba.cloud.ai.graph.NodeOutput;
+import com.alibaba.cloud.ai.graph.StateGraph;
+import com.alibaba.cloud.ai.graph.async.AsyncGenerator;
+import com.alibaba.cloud.ai.graph.streaming.StreamingOutput;
+import com.alibaba.cloud.ai.review.config.DocumentReviewProperties;
+import com.alibaba.cloud.ai.review.controller.process.ReviewEventEncoder;
+import com.alibaba.cloud.ai.review.controller.process.ReviewEventStream;
+import com.alibaba.cloud.ai.review.controller.process.ReviewStreamDispatcher;
+import com.alibaba.cloud.ai.review.controller.process.StreamChunkCoalescer;
+import com.alibaba.cloud.ai.review.result.ReviewContent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 异步审核任务管理器
+ * 提交即返回任务 id，任务在共享的 {@link ReviewStreamDispatcher} 工作线程上执行，
+ * 客户端可以轮询任务概要、获取结果或随时挂接事件流；已结束的任务保留一段时间后清理。
+ *
+ * @author Jast
+ */
+@Component
+public class ReviewJobManager implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReviewJobManager.class);
+
+    private final ReviewStreamDispatcher dispatcher;
+
+    private final DocumentReviewProperties.Stream streamConfig;
+
+    private final DocumentReviewProperties.Jobs jobsConfig;
+
+    private final ReviewContent content;
+
+    private final Map<String, ReviewJob> jobs = new ConcurrentHashMap<>();
+
+    private final ScheduledExecutorService cleaner;
+
+    public ReviewJobManager(ReviewStreamDispatcher dispatcher, DocumentReviewProperties properties,
+                            ReviewContent content) {
+        this.dispatcher = dispatcher;
+        this.content = content;
+        this.streamConfig = properties.getStream();
+        this.jobsConfig = properties.getJobs();
+        this.cleaner = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "review-job-cleaner");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = Math.max(1000, jobsConfig.getRetention().toMillis() / 4);
+        this.cleaner.scheduleWithFixedDelay(this::evictFinished, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 提交审核任务
+     *
+     * @param threadId  任务对应的图线程 id
+     * @param execution 在工作线程上调用，启动图执行并返回输出流
+     * @return 新任务；任务数已达上限时返回空
+     */
+    public Optional<ReviewJob> submit(String threadId, Callable<AsyncGenerator<NodeOutput>> execution) {
+        if (jobs.size() >= jobsConfig.getMaxJobs()) {
+            evictFinished();
+            if (jobs.size() >= jobsConfig.getMaxJobs()) {
+                logger.warn("Review job rejected - job limit {} reached", jobsConfig.getMaxJobs());
+                return Optional.empty();
+            }
+        }
+        ReviewJob job = new ReviewJob(UUID.randomUUID().toString(), threadId, content::resolve);
+        jobs.put(job.getJobId(), job);
+
+        dispatcher.dispatch(() -> run(job, execution),
+                () -> job.finished(ReviewJob.Status.REJECTED, "审核流繁忙，任务未执行"));
+        logger.info("Review job {} submitted for thread {}", job.getJobId(), threadId);
+        return Optional.of(job);
+    }
+
+    public Optional<ReviewJob> get(String jobId) {
+        return Optional.ofNullable(jobs.get(jobId));
+    }
+
+    /**
+     * 为任务创建一个客户端事件流并挂接
+     *
+     * @param emission 该客户端的状态发送方式，为 null 时使用配置的默认值
+     */
+    public ReviewEventStream attach(ReviewJob job, ReviewEventEncoder.StateEmission emission) {
+        ReviewEventStream[] holder = new ReviewEventStream[1];
+        holder[0] = new ReviewEventStream(new ReviewEventEncoder(emission != null ? emission : streamConfig.getStateEmission(),
+                content::resolve),
+                streamConfig.getBufferCapacity(), streamConfig.getSlowConsumerPolicy(), stats -> {
+                    job.detach(holder[0]);
+                    dispatcher.recordBuffer(stats);
+                });
+        job.attach(holder[0]);
+        return holder[0];
+    }
+
+    private void run(ReviewJob job, Callable<AsyncGenerator<NodeOutput>> execution) {
+        job.started();
+        StreamChunkCoalescer coalescer = new StreamChunkCoalescer(job, streamConfig.getCoalesceWindow(),
+                streamConfig.getCoalesceMaxChars());
+        try {
+            execution.call().forEachAsync(output -> {
+                if (output instanceof StreamingOutput streamingOutput) {
+                    coalescer.chunk(output.node(), streamingOutput.chunk());
+                } else {
+                    coalescer.nodeOutput(output.node(), output.state().data());
+                }
+            }).join();
+            coalescer.flush();
+            // 在人工审核前中断时流不会输出结束节点
+            boolean completed = StateGraph.END.equals(job.lastNode());
+            job.finished(completed ? ReviewJob.Status.COMPLETED : ReviewJob.Status.AWAITING_HUMAN_REVIEW, null);
+            logger.info("Review job {} finished with status {}", job.getJobId(), job.getStatus());
+        } catch (Exception e) {
+            logger.error("Review job {} failed", job.getJobId(), e);
+            coalescer.flush();
+            job.finished(ReviewJob.Status.FAILED, e.getMessage());
+        }
+    }
+
+    /**
+     * 清理超过保留时间的已结束任务
+     */
+    private void evictFinished() {
+        long expireBefore = System.currentTimeMillis() - jobsConfig.getRetention().toMillis();
+        jobs.values().removeIf(job -> job.getStatus().isFinished() && job.getFinishedAt() < expireBefore);
+    }
+
+    @Override
+    public void destroy() {
+        cleaner.shutdownNow();
+    }
+}
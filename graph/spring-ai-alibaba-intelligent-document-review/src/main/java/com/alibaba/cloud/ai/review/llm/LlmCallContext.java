@@ -0,0 +1,69 @@
+package com.alibaba.cloud.ai.review.llm;
+
+import com.alibaba.cloud.ai.review.metrics.MeteredNodeAction;
+import com.alibaba.cloud.ai.review.metrics.NodeSpan;
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.chat.client.ChatClientRequest;
+
+import java.util.function.Consumer;
+
+/**
+ * 大模型调用上下文
+ * 节点发起调用时通过 Advisor 参数声明所属节点、文档类型与紧急程度，供限流排队（见 {@link LlmPriority}）与指标标签使用。
+ * 节点名由 {@link NodeChatClientFactory} 作为默认参数设置，其余由节点在调用上声明：
+ * {@code chatClient.prompt().advisors(LlmCallContext.of(documentType, urgencyLevel))}
+ *
+ * @author Jast
+ */
+public final class LlmCallContext {
+
+    public static final String NODE_KEY = "review_node";
+
+    public static final String DOCUMENT_TYPE_KEY = "review_document_type";
+
+    public static final String URGENCY_KEY = "review_urgency_level";
+
+    public static final String NODE_SPAN_KEY = "review_node_span";
+
+    private LlmCallContext() {
+    }
+
+    /**
+     * 在节点的 apply 中调用，同时捕获当前节点计时；分块分析等多次调用应复用同一个返回值
+     */
+    public static Consumer<ChatClient.AdvisorSpec> of(String documentType, String urgencyLevel) {
+        NodeSpan span = MeteredNodeAction.currentSpan();
+        return advisor -> {
+            advisor.param(DOCUMENT_TYPE_KEY, documentType == null ? "general" : documentType);
+            advisor.param(URGENCY_KEY, urgencyLevel == null ? "normal" : urgencyLevel);
+            if (span != null) {
+                advisor.param(NODE_SPAN_KEY, span);
+            }
+        };
+    }
+
+    /**
+     * 推测执行的调用：以 speculative_ 前缀的节点名单独计量，并按低紧急程度排在实时审核的调用之后
+     */
+    public static Consumer<ChatClient.AdvisorSpec> speculative(String node, String documentType) {
+        return advisor -> {
+            advisor.param(NODE_KEY, "speculative_" + node);
+            advisor.param(DOCUMENT_TYPE_KEY, documentType == null ? "general" : documentType);
+            advisor.param(URGENCY_KEY, "low");
+        };
+    }
+
+    public static String node(ChatClientRequest request) {
+        Object node = request.context().get(NODE_KEY);
+        return node == null ? null : node.toString();
+    }
+
+    public static String documentType(ChatClientRequest request) {
+        Object documentType = request.context().get(DOCUMENT_TYPE_KEY);
+        return documentType == null ? null : documentType.toString();
+    }
+
+    public static NodeSpan nodeSpan(ChatClientRequest request) {
+        return request.context().get(NODE_SPAN_KEY) instanceof NodeSpan span ? span : null;
+    }
+}
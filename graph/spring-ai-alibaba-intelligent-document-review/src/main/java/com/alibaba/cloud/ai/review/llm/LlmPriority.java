@@ -0,0 +1,38 @@
+package com.alibaba.cloud.ai.review.llm;
+
+import java.util.Locale;
+
+/**
+ * 大模型调用优先级
+ * 节点发起调用时经 {@link LlmCallContext} 把文档的紧急程度放入 Advisor 上下文，{@link RateLimitAdvisor} 据此决定排队顺序
+ *
+ * @author Jast
+ */
+public final class LlmPriority {
+
+    public static final int LOW = 0;
+
+    public static final int NORMAL = 1;
+
+    public static final int HIGH = 2;
+
+    public static final int URGENT = 3;
+
+    private LlmPriority() {
+    }
+
+    /**
+     * 紧急程度对应的优先级，数值越大越先执行；未知取值按 normal 处理
+     */
+    public static int levelOf(Object urgencyLevel) {
+        if (urgencyLevel == null) {
+            return NORMAL;
+        }
+        return switch (urgencyLevel.toString().trim().toLowerCase(Locale.ROOT)) {
+            case "urgent", "critical", "紧急" -> URGENT;
+            case "high", "高" -> HIGH;
+            case "low", "低" -> LOW;
+            default -> NORMAL;
+        };
+    }
+}
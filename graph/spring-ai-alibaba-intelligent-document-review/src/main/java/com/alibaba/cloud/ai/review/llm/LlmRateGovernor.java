@@ -0,0 +1,398 @@
+package com.alibaba.cloud.ai.review.llm;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongSupplier;
+
+/**
+ * 大模型调用全局限流器
+ * 所有节点共享：以令牌桶限制每分钟请求数与每分钟估算 token 数，并限制同时进行中的流式调用数。
+ * 超出限制的调用排队：优先级高的先获准，同优先级按到达顺序；排队时间每超过一个老化周期优先级提升一级，
+ * 低优先级调用不会一直被后来的高优先级调用插队。排队超过最长等待时间或队列已满时失败。
+ * 调用结束后按实际 token 数修正预估值，多扣的退回、少扣的从后续额度中扣除。
+ *
+ * @author Jast
+ */
+public class LlmRateGovernor {
+
+    private static final Logger logger = LoggerFactory.getLogger(LlmRateGovernor.class);
+
+    private static final long NANOS_PER_MINUTE = TimeUnit.MINUTES.toNanos(1);
+
+    /**
+     * 保留最近多少次排队等待时间用于计算分位数
+     */
+    private static final int WAIT_SAMPLES = 1024;
+
+    private final Bucket requests;
+
+    private final Bucket tokens;
+
+    private final int maxInFlight;
+
+    private final int maxQueue;
+
+    private final Duration maxWait;
+
+    private final long agingNanos;
+
+    private final LongSupplier nanoClock;
+
+    private final Scheduler scheduler;
+
+    private final List<Waiter> queue = new ArrayList<>();
+
+    private final long[] waitSamples = new long[WAIT_SAMPLES];
+
+    private int inFlight;
+
+    private long granted;
+
+    private long rejected;
+
+    private long timedOut;
+
+    private long totalWaitNanos;
+
+    private long maxWaitNanos;
+
+    private boolean refillPending;
+
+    /**
+     * @param requestsPerMinute 每分钟请求数上限，小于等于 0 时不限制
+     * @param tokensPerMinute   每分钟估算 token 数上限，小于等于 0 时不限制
+     * @param maxInFlight       同时进行中的调用数上限
+     * @param maxQueue          排队调用数上限
+     * @param maxWait           单次调用最长排队时间
+     * @param agingInterval     排队时间每超过该时长优先级提升一级，为 null 或 0 时不老化
+     */
+    public LlmRateGovernor(int requestsPerMinute, long tokensPerMinute, int maxInFlight, int maxQueue, Duration maxWait,
+                           Duration agingInterval) {
+        this(requestsPerMinute, tokensPerMinute, maxInFlight, maxQueue, maxWait, agingInterval, System::nanoTime,
+                Schedulers.parallel());
+    }
+
+    LlmRateGovernor(int requestsPerMinute, long tokensPerMinute, int maxInFlight, int maxQueue, Duration maxWait,
+                    Duration agingInterval, LongSupplier nanoClock, Scheduler scheduler) {
+        this.nanoClock = nanoClock;
+        this.requests = new Bucket(requestsPerMinute, nanoClock.getAsLong());
+        this.tokens = new Bucket(tokensPerMinute, nanoClock.getAsLong());
+        this.maxInFlight = Math.max(1, maxInFlight);
+        this.maxQueue = Math.max(0, maxQueue);
+        this.maxWait = maxWait;
+        this.agingNanos = agingInterval == null || agingInterval.isNegative() ? 0 : agingInterval.toNanos();
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * 以 normal 优先级申请一次调用许可
+     */
+    public Mono<Permit> acquire(long estimatedTokens) {
+        return acquire(estimatedTokens, LlmPriority.NORMAL);
+    }
+
+    /**
+     * 申请一次调用许可，订阅时排队，获准后发出许可；调用结束时必须释放许可
+     *
+     * @param estimatedTokens 本次调用的估算 token 数（提示词 + 预期输出）
+     * @param priority        优先级，数值越大越先获准，见 {@link LlmPriority}
+     */
+    public Mono<Permit> acquire(long estimatedTokens, int priority) {
+        return Mono.create(sink -> {
+            Waiter waiter = new Waiter(sink, tokens.clamp(estimatedTokens), priority, nanoClock.getAsLong());
+            boolean queued;
+            synchronized (this) {
+                queued = queue.size() < maxQueue || (queue.isEmpty() && canGrant(waiter));
+                if (queued) {
+                    queue.add(waiter);
+                } else {
+                    rejected++;
+                }
+            }
+            if (!queued) {
+                sink.error(new LlmRateLimitException("大模型调用排队已满（" + maxQueue + "），请稍后重试"));
+                return;
+            }
+            sink.onCancel(() -> cancel(waiter));
+            if (maxWait != null && !maxWait.isZero() && !maxWait.isNegative()) {
+                waiter.timeout = scheduler.schedule(() -> expire(waiter), maxWait.toMillis(), TimeUnit.MILLISECONDS);
+            }
+            drain();
+        });
+    }
+
+    /**
+     * 依次放行当前优先级最高的调用；它受令牌桶限制时在额度恢复后重新检查，期间不放行其他调用，
+     * 避免估算 token 数大的调用一直被小调用抢占额度
+     */
+    private void drain() {
+        List<Waiter> grantedWaiters = new ArrayList<>();
+        synchronized (this) {
+            long now = nanoClock.getAsLong();
+            requests.refill(now);
+            tokens.refill(now);
+            while (!queue.isEmpty() && inFlight < maxInFlight) {
+                int headIndex = nextIndex(now);
+                Waiter head = queue.get(headIndex);
+                if (!requests.has(1) || !tokens.has(head.estimatedTokens)) {
+                    scheduleRefill(Math.max(requests.nanosUntil(1), tokens.nanosUntil(head.estimatedTokens)));
+                    break;
+                }
+                queue.remove(headIndex);
+                requests.take(1);
+                tokens.take(head.estimatedTokens);
+                inFlight++;
+                long waitNanos = now - head.enqueuedAt;
+                recordWait(waitNanos);
+                head.permit = new Permit(head.estimatedTokens, waitNanos);
+                grantedWaiters.add(head);
+            }
+        }
+        // 在锁外发出许可，下游的模型调用不会在持有锁时启动
+        for (Waiter waiter : grantedWaiters) {
+            if (waiter.timeout != null) {
+                waiter.timeout.dispose();
+            }
+            waiter.sink.success(waiter.permit);
+        }
+    }
+
+    /**
+     * 有效优先级最高的等待者，有效优先级 = 优先级 + 排队时长 / 老化周期；相同时取先到达的
+     */
+    private int nextIndex(long now) {
+        int best = 0;
+        long bestPriority = Long.MIN_VALUE;
+        for (int i = 0; i < queue.size(); i++) {
+            Waiter waiter = queue.get(i);
+            long effective = waiter.priority + (agingNanos == 0 ? 0 : (now - waiter.enqueuedAt) / agingNanos);
+            if (effective > bestPriority) {
+                best = i;
+                bestPriority = effective;
+            }
+        }
+        return best;
+    }
+
+    private boolean canGrant(Waiter waiter) {
+        long now = nanoClock.getAsLong();
+        requests.refill(now);
+        tokens.refill(now);
+        return inFlight < maxInFlight && requests.has(1) && tokens.has(waiter.estimatedTokens);
+    }
+
+    private void scheduleRefill(long delayNanos) {
+        if (refillPending) {
+            return;
+        }
+        refillPending = true;
+        long delayMillis = Math.max(1, TimeUnit.NANOSECONDS.toMillis(delayNanos) + 1);
+        scheduler.schedule(() -> {
+            synchronized (this) {
+                refillPending = false;
+            }
+            drain();
+        }, delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void expire(Waiter waiter) {
+        synchronized (this) {
+            if (!queue.remove(waiter)) {
+                return;
+            }
+            timedOut++;
+        }
+        logger.warn("LLM call waited longer than {} for rate limit, giving up", maxWait);
+        waiter.sink.error(new LlmRateLimitException("大模型调用排队超过 " + maxWait.toSeconds() + " 秒，请稍后重试"));
+        drain();
+    }
+
+    private void cancel(Waiter waiter) {
+        if (waiter.timeout != null) {
+            waiter.timeout.dispose();
+        }
+        Permit permit;
+        synchronized (this) {
+            if (queue.remove(waiter)) {
+                permit = null;
+            } else {
+                permit = waiter.permit;
+            }
+        }
+        // 获准后、送达前被取消时许可无人持有，在此归还
+        if (permit != null) {
+            permit.release(0);
+        } else {
+            drain();
+        }
+    }
+
+    private void recordWait(long waitNanos) {
+        waitSamples[(int) (granted % WAIT_SAMPLES)] = waitNanos;
+        granted++;
+        totalWaitNanos += waitNanos;
+        maxWaitNanos = Math.max(maxWaitNanos, waitNanos);
+    }
+
+    /**
+     * 限流统计：进行中与排队的调用数、放行/拒绝/超时次数，以及排队等待时间（平均、最近样本的 p50/p95、最大）
+     */
+    public synchronized Map<String, Object> stats() {
+        long now = nanoClock.getAsLong();
+        requests.refill(now);
+        tokens.refill(now);
+        int samples = (int) Math.min(granted, WAIT_SAMPLES);
+        long[] recent = Arrays.copyOf(waitSamples, samples);
+        Arrays.sort(recent);
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("inFlight", inFlight);
+        stats.put("queued", queue.size());
+        stats.put("granted", granted);
+        stats.put("rejected", rejected);
+        stats.put("timedOut", timedOut);
+        stats.put("availableRequests", requests.limited() ? (long) requests.available : null);
+        stats.put("availableTokens", tokens.limited() ? (long) tokens.available : null);
+        stats.put("avgWaitMillis", granted == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(totalWaitNanos / granted));
+        stats.put("p50WaitMillis", samples == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(recent[(samples - 1) / 2]));
+        stats.put("p95WaitMillis", samples == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(recent[(int) Math.ceil(samples * 0.95) - 1]));
+        stats.put("maxWaitMillis", TimeUnit.NANOSECONDS.toMillis(maxWaitNanos));
+        return stats;
+    }
+
+    /**
+     * 调用许可，调用结束（完成、出错或取消）时释放一次，重复释放无效
+     */
+    public final class Permit {
+
+        private final long estimatedTokens;
+
+        private final long waitNanos;
+
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit(long estimatedTokens, long waitNanos) {
+            this.estimatedTokens = estimatedTokens;
+            this.waitNanos = waitNanos;
+        }
+
+        /**
+         * 获准前的排队时间
+         */
+        public long getWaitNanos() {
+            return waitNanos;
+        }
+
+        /**
+         * @param actualTokens 实际消耗的 token 数，小于等于 0 时不修正预估值
+         */
+        public void release(long actualTokens) {
+            if (!released.compareAndSet(false, true)) {
+                return;
+            }
+            synchronized (LlmRateGovernor.this) {
+                inFlight--;
+                if (actualTokens > 0) {
+                    tokens.adjust(estimatedTokens - actualTokens);
+                }
+            }
+            drain();
+        }
+    }
+
+    private static final class Waiter {
+
+        private final MonoSink<Permit> sink;
+
+        private final long estimatedTokens;
+
+        private final int priority;
+
+        private final long enqueuedAt;
+
+        private Disposable timeout;
+
+        private Permit permit;
+
+        private Waiter(MonoSink<Permit> sink, long estimatedTokens, int priority, long enqueuedAt) {
+            this.sink = sink;
+            this.estimatedTokens = estimatedTokens;
+            this.priority = priority;
+            this.enqueuedAt = enqueuedAt;
+        }
+    }
+
+    /**
+     * 令牌桶：容量为每分钟额度，按时间连续补充；额度可以因实际消耗超出预估而暂时为负
+     */
+    private static final class Bucket {
+
+        private final long perMinute;
+
+        private double available;
+
+        private long lastRefill;
+
+        private Bucket(long perMinute, long now) {
+            this.perMinute = perMinute;
+            this.available = perMinute;
+            this.lastRefill = now;
+        }
+
+        boolean limited() {
+            return perMinute > 0;
+        }
+
+        /**
+         * 单次申请不超过桶容量，否则永远无法获准
+         */
+        long clamp(long amount) {
+            return limited() ? Math.min(Math.max(0, amount), perMinute) : Math.max(0, amount);
+        }
+
+        void refill(long now) {
+            if (!limited()) {
+                return;
+            }
+            available = Math.min(perMinute, available + (double) (now - lastRefill) * perMinute / NANOS_PER_MINUTE);
+            lastRefill = now;
+        }
+
+        boolean has(long amount) {
+            return !limited() || available >= amount;
+        }
+
+        void take(long amount) {
+            if (limited()) {
+                available -= amount;
+            }
+        }
+
+        void adjust(long refund) {
+            if (limited()) {
+                available = Math.min(perMinute, available + refund);
+            }
+        }
+
+        long nanosUntil(long amount) {
+            if (has(amount)) {
+                return 0;
+            }
+            return (long) Math.ceil((amount - available) * NANOS_PER_MINUTE / perMinute);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.alibaba.cloud.ai.review.llm;
+
+/**
+ * 大模型调用因全局限流排队已满或排队超时而未执行
+ *
+ * @author Jast
+ */
+public class LlmRateLimitException extends RuntimeException {
+
+    public LlmRateLimitException(String message) {
+        super(message);
+    }
+}
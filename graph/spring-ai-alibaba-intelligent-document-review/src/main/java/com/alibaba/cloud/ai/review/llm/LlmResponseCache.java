@@ -0,0 +1,163 @@
+package com.alibaba.cloud.ai.review.llm;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 大模型响应缓存
+ * 以内容哈希为键，内存层按 LRU 淘汰并限制总字节数，可选的磁盘层以 哈希.txt 文件持久保存，
+ * 内存未命中时回落到磁盘并回填内存
+ *
+ * @author Jast
+ */
+public class LlmResponseCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(LlmResponseCache.class);
+
+    private final long maxMemoryBytes;
+
+    private final Path diskDirectory;
+
+    private final LinkedHashMap<String, String> memory = new LinkedHashMap<>(64, 0.75f, true);
+
+    private long memoryBytes;
+
+    private final AtomicLong memoryHits = new AtomicLong();
+
+    private final AtomicLong diskHits = new AtomicLong();
+
+    private final AtomicLong misses = new AtomicLong();
+
+    private final AtomicLong stores = new AtomicLong();
+
+    private final AtomicLong evictions = new AtomicLong();
+
+    private final AtomicLong diskBytesWritten = new AtomicLong();
+
+    private final AtomicLong charsServed = new AtomicLong();
+
+    /**
+     * @param maxMemoryBytes 内存层字节上限（按 UTF-16 估算）
+     * @param diskDirectory  磁盘层目录，为 null 时不启用磁盘层
+     */
+    public LlmResponseCache(long maxMemoryBytes, Path diskDirectory) throws IOException {
+        this.maxMemoryBytes = maxMemoryBytes;
+        this.diskDirectory = diskDirectory;
+        if (diskDirectory != null) {
+            Files.createDirectories(diskDirectory);
+        }
+    }
+
+    /**
+     * 查询缓存，未命中返回 null
+     */
+    public String get(String key) {
+        String value;
+        synchronized (memory) {
+            value = memory.get(key);
+        }
+        if (value != null) {
+            memoryHits.incrementAndGet();
+            charsServed.addAndGet(value.length());
+            return value;
+        }
+
+        if (diskDirectory != null) {
+            Path file = diskDirectory.resolve(key + ".txt");
+            if (Files.isRegularFile(file)) {
+                try {
+                    value = Files.readString(file, StandardCharsets.UTF_8);
+                    diskHits.incrementAndGet();
+                    charsServed.addAndGet(value.length());
+                    putMemory(key, value);
+                    return value;
+                } catch (IOException e) {
+                    logger.warn("Failed to read cached LLM response {}", file, e);
+                }
+            }
+        }
+
+        misses.incrementAndGet();
+        return null;
+    }
+
+    /**
+     * 写入缓存，磁盘层通过临时文件原子替换
+     */
+    public void put(String key, String value) {
+        stores.incrementAndGet();
+        putMemory(key, value);
+
+        if (diskDirectory != null) {
+            Path file = diskDirectory.resolve(key + ".txt");
+            try {
+                Path temp = Files.createTempFile(diskDirectory, key, ".tmp");
+                Files.writeString(temp, value, StandardCharsets.UTF_8);
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                diskBytesWritten.addAndGet(Files.size(file));
+            } catch (IOException e) {
+                logger.warn("Failed to write cached LLM response {}", file, e);
+            }
+        }
+    }
+
+    /**
+     * 获取缓存统计：命中、未命中、内存字节数与磁盘写入字节数
+     */
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        synchronized (memory) {
+            stats.put("memory_entries", memory.size());
+            stats.put("memory_bytes", memoryBytes);
+        }
+        long hits = memoryHits.get() + diskHits.get();
+        long lookups = hits + misses.get();
+        stats.put("max_memory_bytes", maxMemoryBytes);
+        stats.put("memory_hits", memoryHits.get());
+        stats.put("disk_hits", diskHits.get());
+        stats.put("misses", misses.get());
+        stats.put("hit_ratio", lookups == 0 ? 0.0 : (double) hits / lookups);
+        stats.put("stores", stores.get());
+        stats.put("evictions", evictions.get());
+        stats.put("chars_served", charsServed.get());
+        stats.put("disk_enabled", diskDirectory != null);
+        stats.put("disk_bytes_written", diskBytesWritten.get());
+        return stats;
+    }
+
+    private void putMemory(String key, String value) {
+        long size = entryBytes(key, value);
+        if (size > maxMemoryBytes) {
+            return;
+        }
+        synchronized (memory) {
+            String previous = memory.put(key, value);
+            if (previous != null) {
+                memoryBytes -= entryBytes(key, previous);
+            }
+            memoryBytes += size;
+
+            Iterator<Map.Entry<String, String>> iterator = memory.entrySet().iterator();
+            while (memoryBytes > maxMemoryBytes && iterator.hasNext()) {
+                Map.Entry<String, String> eldest = iterator.next();
+                iterator.remove();
+                memoryBytes -= entryBytes(eldest.getKey(), eldest.getValue());
+                evictions.incrementAndGet();
+            }
+        }
+    }
+
+    private static long entryBytes(String key, String value) {
+        return 2L * (key.length() + value.length()) + 96;
+    }
+}
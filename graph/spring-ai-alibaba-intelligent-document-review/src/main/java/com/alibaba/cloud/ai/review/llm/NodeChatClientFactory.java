@@ -0,0 +1,72 @@
+package com.alibaba.cloud.ai.review.llm;
+
+import com.alibaba.cloud.ai.review.config.DocumentReviewProperties;
+import com.alibaba.cloud.ai.review.metrics.MetricsAdvisor;
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.chat.client.advisor.api.Advisor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 节点 ChatClient 工厂
+ * 为每个调用大模型的节点生成独立的 ChatClient.Builder，并按节点配置挂载指标、缓存、限流等 Advisor
+ *
+ * @author Jast
+ */
+public class NodeChatClientFactory {
+
+    private final ChatClient.Builder chatClientBuilder;
+
+    private final DocumentReviewProperties properties;
+
+    private final ResponseCacheAdvisor responseCacheAdvisor;
+
+    private final RateLimitAdvisor rateLimitAdvisor;
+
+    private final MetricsAdvisor metricsAdvisor;
+
+    /**
+     * @param chatClientBuilder    基础 ChatClient.Builder
+     * @param properties           审核系统配置
+     * @param responseCacheAdvisor 响应缓存 Advisor，未启用缓存时为 null
+     * @param rateLimitAdvisor     全局限流 Advisor，未启用限流时为 null
+     * @param metricsAdvisor       调用指标 Advisor，可以为 null
+     */
+    public NodeChatClientFactory(ChatClient.Builder chatClientBuilder, DocumentReviewProperties properties,
+                                 ResponseCacheAdvisor responseCacheAdvisor, RateLimitAdvisor rateLimitAdvisor,
+                                 MetricsAdvisor metricsAdvisor) {
+        this.chatClientBuilder = chatClientBuilder;
+        this.properties = properties;
+        this.responseCacheAdvisor = responseCacheAdvisor;
+        this.rateLimitAdvisor = rateLimitAdvisor;
+        this.metricsAdvisor = metricsAdvisor;
+    }
+
+    /**
+     * 获取指定节点使用的 ChatClient.Builder
+     *
+     * @param nodeName 图中的节点名
+     */
+    public ChatClient.Builder forNode(String nodeName) {
+        List<Advisor> advisors = new ArrayList<>();
+        if (metricsAdvisor != null) {
+            advisors.add(metricsAdvisor);
+        }
+        if (responseCacheAdvisor != null && !properties.getLlmCache().getExcludedNodes().contains(nodeName)) {
+            advisors.add(responseCacheAdvisor);
+        }
+        // 所有节点共享同一个限流器
+        if (rateLimitAdvisor != null) {
+            advisors.add(rateLimitAdvisor);
+        }
+
+        ChatClient.Builder builder = chatClientBuilder.clone();
+        if (!advisors.isEmpty()) {
+            builder.defaultAdvisors(advisors);
+        }
+        // 调用上下文中的节点名，用于指标标签
+        builder.defaultAdvisors(advisor -> advisor.param(LlmCallContext.NODE_KEY, nodeName));
+        return builder;
+    }
+}
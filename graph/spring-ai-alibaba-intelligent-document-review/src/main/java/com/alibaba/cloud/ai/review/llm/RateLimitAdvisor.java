@@ -0,0 +1,148 @@
+package com.alibaba.cloud.ai.review.llm;
+
+import com.alibaba.cloud.ai.review.metrics.ReviewMetrics;
+import org.springframework.ai.chat.client.ChatClientRequest;
+import org.springframework.ai.chat.client.ChatClientResponse;
+import org.springframework.ai.chat.client.advisor.api.CallAdvisor;
+import org.springframework.ai.chat.client.advisor.api.CallAdvisorChain;
+import org.springframework.ai.chat.client.advisor.api.StreamAdvisor;
+import org.springframework.ai.chat.client.advisor.api.StreamAdvisorChain;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.metadata.Usage;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.prompt.ChatOptions;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.core.Ordered;
+import reactor.core.publisher.Flux;
+
+/**
+ * 大模型调用限流 Advisor
+ * 每次调用前按上下文中的紧急程度（见 {@link LlmCallContext}）向共享的 {@link LlmRateGovernor} 申请许可（排队不占用线程），流结束、出错或被取消时释放许可，
+ * 并以响应中的用量（没有用量时按输出字符数估算）修正预估 token 数。
+ * 排在响应缓存之后，缓存命中的调用不消耗额度。
+ *
+ * @author Jast
+ */
+public class RateLimitAdvisor implements CallAdvisor, StreamAdvisor {
+
+    private final LlmRateGovernor governor;
+
+    private final double charsPerToken;
+
+    private final int expectedOutputTokens;
+
+    private final ReviewMetrics metrics;
+
+    public RateLimitAdvisor(LlmRateGovernor governor, double charsPerToken, int expectedOutputTokens) {
+        this(governor, charsPerToken, expectedOutputTokens, null);
+    }
+
+    /**
+     * @param governor             全局限流器
+     * @param charsPerToken        估算 token 数时每个 token 对应的字符数
+     * @param expectedOutputTokens 提示词未指定 maxTokens 时预估的输出 token 数
+     * @param metrics              记录排队等待时间，可以为 null
+     */
+    public RateLimitAdvisor(LlmRateGovernor governor, double charsPerToken, int expectedOutputTokens,
+                            ReviewMetrics metrics) {
+        this.governor = governor;
+        this.charsPerToken = charsPerToken > 0 ? charsPerToken : 1;
+        this.expectedOutputTokens = Math.max(0, expectedOutputTokens);
+        this.metrics = metrics;
+    }
+
+    @Override
+    public ChatClientResponse adviseCall(ChatClientRequest chatClientRequest, CallAdvisorChain callAdvisorChain) {
+        LlmRateGovernor.Permit permit = governor.acquire(estimateTokens(chatClientRequest.prompt()),
+                priorityOf(chatClientRequest)).block();
+        recordWait(chatClientRequest, permit);
+        long actualTokens = 0;
+        try {
+            ChatClientResponse response = callAdvisorChain.nextCall(chatClientRequest);
+            actualTokens = usedTokens(response.chatResponse());
+            return response;
+        } finally {
+            permit.release(actualTokens);
+        }
+    }
+
+    @Override
+    public Flux<ChatClientResponse> adviseStream(ChatClientRequest chatClientRequest,
+                                                 StreamAdvisorChain streamAdvisorChain) {
+        long promptTokens = promptTokens(chatClientRequest.prompt());
+        return governor.acquire(estimateTokens(chatClientRequest.prompt()), priorityOf(chatClientRequest))
+                .flatMapMany(permit -> {
+                    recordWait(chatClientRequest, permit);
+                    long[] outputChars = {0};
+                    long[] reportedTokens = {0};
+                    return streamAdvisorChain.nextStream(chatClientRequest)
+                            .doOnNext(response -> {
+                                ChatResponse chatResponse = response.chatResponse();
+                                if (chatResponse != null && chatResponse.getResult() != null
+                                        && chatResponse.getResult().getOutput() != null
+                                        && chatResponse.getResult().getOutput().getText() != null) {
+                                    outputChars[0] += chatResponse.getResult().getOutput().getText().length();
+                                }
+                                // 流式响应的用量为累计值，取最大值
+                                reportedTokens[0] = Math.max(reportedTokens[0], usedTokens(chatResponse));
+                            })
+                            .doFinally(signal -> permit.release(reportedTokens[0] > 0 ? reportedTokens[0]
+                                    : promptTokens + (long) Math.ceil(outputChars[0] / charsPerToken)));
+                });
+    }
+
+    @Override
+    public String getName() {
+        return "RateLimitAdvisor";
+    }
+
+    @Override
+    public int getOrder() {
+        // 在响应缓存之后执行
+        return Ordered.HIGHEST_PRECEDENCE + 200;
+    }
+
+    /**
+     * 预估本次调用的 token 数：提示词按字符数估算，输出取 maxTokens 或默认预估值
+     */
+    long estimateTokens(Prompt prompt) {
+        ChatOptions options = prompt.getOptions();
+        Integer maxTokens = options != null ? options.getMaxTokens() : null;
+        return promptTokens(prompt) + (maxTokens != null ? maxTokens : expectedOutputTokens);
+    }
+
+    private void recordWait(ChatClientRequest chatClientRequest, LlmRateGovernor.Permit permit) {
+        if (metrics != null) {
+            metrics.recordQueueWait(LlmCallContext.node(chatClientRequest), LlmCallContext.documentType(chatClientRequest),
+                    permit.getWaitNanos());
+        }
+    }
+
+    private static int priorityOf(ChatClientRequest chatClientRequest) {
+        return LlmPriority.levelOf(chatClientRequest.context().get(LlmCallContext.URGENCY_KEY));
+    }
+
+    private long promptTokens(Prompt prompt) {
+        long chars = 0;
+        for (Message message : prompt.getInstructions()) {
+            if (message.getText() != null) {
+                chars += message.getText().length();
+            }
+        }
+        return (long) Math.ceil(chars / charsPerToken);
+    }
+
+    /**
+     * 响应中报告的总 token 数，没有用量信息时返回 0
+     */
+    private static long usedTokens(ChatResponse chatResponse) {
+        if (chatResponse == null || chatResponse.getMetadata() == null) {
+            return 0;
+        }
+        Usage usage = chatResponse.getMetadata().getUsage();
+        if (usage == null || usage.getTotalTokens() == null) {
+            return 0;
+        }
+        return Math.max(0, usage.getTotalTokens());
+    }
+}
@@ -0,0 +1,198 @@
+package com.alibaba.cloud.ai.review.llm;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.chat.client.ChatClientRequest;
+import org.springframework.ai.chat.client.ChatClientResponse;
+import org.springframework.ai.chat.client.advisor.api.CallAdvisor;
+import org.springframework.ai.chat.client.advisor.api.CallAdvisorChain;
+import org.springframework.ai.chat.client.advisor.api.StreamAdvisor;
+import org.springframework.ai.chat.client.advisor.api.StreamAdvisorChain;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.metadata.ChatGenerationMetadata;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.ChatOptions;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.core.Ordered;
+import org.springframework.util.StringUtils;
+import reactor.core.publisher.Flux;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 大模型响应缓存 Advisor
+ * 以 渲染后的提示词 + 模型 + 生成参数 的 SHA-256 作为键，命中时不再调用模型；
+ * 流式调用命中时把缓存文本切分为小块重新以 Flux 回放，StreamingChatGenerator 与 SSE 客户端仍能看到流式输出。
+ * 只有带结束原因（finish reason）且文本非空的响应才会写入缓存，出错、被取消或未正常结束的流以及空响应不会缓存。
+ *
+ * @author Jast
+ */
+public class ResponseCacheAdvisor implements CallAdvisor, StreamAdvisor {
+
+    private static final Logger logger = LoggerFactory.getLogger(ResponseCacheAdvisor.class);
+
+    /**
+     * 回放缓存内容时最后一块携带的结束原因
+     */
+    private static final String REPLAY_FINISH_REASON = "STOP";
+
+    private final LlmResponseCache cache;
+
+    private final String defaultModel;
+
+    private final int replayChunkChars;
+
+    /**
+     * @param cache            缓存存储
+     * @param defaultModel     提示词未显式指定模型时使用的模型名，参与键计算
+     * @param replayChunkChars 命中时回放的每个流式块的字符数
+     */
+    public ResponseCacheAdvisor(LlmResponseCache cache, String defaultModel, int replayChunkChars) {
+        this.cache = cache;
+        this.defaultModel = defaultModel;
+        this.replayChunkChars = Math.max(1, replayChunkChars);
+    }
+
+    @Override
+    public ChatClientResponse adviseCall(ChatClientRequest chatClientRequest, CallAdvisorChain callAdvisorChain) {
+        String key = cacheKey(chatClientRequest.prompt());
+        String cached = cache.get(key);
+        if (StringUtils.hasText(cached)) {
+            logger.info("LLM response cache hit: {}", key);
+            return new ChatClientResponse(toChatResponse(cached, REPLAY_FINISH_REASON),
+                    new HashMap<>(chatClientRequest.context()));
+        }
+
+        ChatClientResponse response = callAdvisorChain.nextCall(chatClientRequest);
+        store(key, textOf(response.chatResponse()), finishReasonOf(response.chatResponse()));
+        return response;
+    }
+
+    @Override
+    public Flux<ChatClientResponse> adviseStream(ChatClientRequest chatClientRequest,
+                                                 StreamAdvisorChain streamAdvisorChain) {
+        String key = cacheKey(chatClientRequest.prompt());
+        String cached = cache.get(key);
+        if (StringUtils.hasText(cached)) {
+            logger.info("LLM response cache hit, replaying as stream: {}", key);
+            List<String> chunks = split(cached);
+            return Flux.range(0, chunks.size())
+                    .map(i -> new ChatClientResponse(
+                            toChatResponse(chunks.get(i), i == chunks.size() - 1 ? REPLAY_FINISH_REASON : null),
+                            new HashMap<>(chatClientRequest.context())));
+        }
+
+        StringBuilder aggregated = new StringBuilder();
+        AtomicReference<String> finishReason = new AtomicReference<>();
+        return streamAdvisorChain.nextStream(chatClientRequest)
+                .doOnNext(response -> {
+                    String text = textOf(response.chatResponse());
+                    if (text != null) {
+                        aggregated.append(text);
+                    }
+                    String reason = finishReasonOf(response.chatResponse());
+                    if (reason != null) {
+                        finishReason.set(reason);
+                    }
+                })
+                .doOnComplete(() -> store(key, aggregated.toString(), finishReason.get()));
+    }
+
+    @Override
+    public String getName() {
+        return "ResponseCacheAdvisor";
+    }
+
+    @Override
+    public int getOrder() {
+        // 尽量靠前执行，命中时跳过后续所有 Advisor 与模型调用
+        return Ordered.HIGHEST_PRECEDENCE + 100;
+    }
+
+    /**
+     * 计算缓存键：消息类型与文本、模型及所有影响输出的生成参数
+     */
+    String cacheKey(Prompt prompt) {
+        StringBuilder material = new StringBuilder();
+        for (Message message : prompt.getInstructions()) {
+            material.append(message.getMessageType()).append('\u0000').append(message.getText()).append('\u0001');
+        }
+        ChatOptions options = prompt.getOptions();
+        String model = options != null && options.getModel() != null ? options.getModel() : defaultModel;
+        material.append("model=").append(model);
+        if (options != null) {
+            material.append(";temperature=").append(options.getTemperature())
+                    .append(";topP=").append(options.getTopP())
+                    .append(";topK=").append(options.getTopK())
+                    .append(";maxTokens=").append(options.getMaxTokens())
+                    .append(";frequencyPenalty=").append(options.getFrequencyPenalty())
+                    .append(";presencePenalty=").append(options.getPresencePenalty())
+                    .append(";stop=").append(options.getStopSequences());
+        }
+        return sha256(material.toString());
+    }
+
+    /**
+     * 只缓存正常结束且文本非空的响应，避免把空结果或中途截断的流回放给之后的每次调用
+     */
+    private void store(String key, String text, String finishReason) {
+        if (!StringUtils.hasText(text) || finishReason == null) {
+            logger.debug("Skip caching LLM response {} (finish reason: {}, empty: {})", key, finishReason,
+                    !StringUtils.hasText(text));
+            return;
+        }
+        cache.put(key, text);
+    }
+
+    private List<String> split(String text) {
+        List<String> chunks = new ArrayList<>(text.length() / replayChunkChars + 1);
+        for (int start = 0; start < text.length(); start += replayChunkChars) {
+            chunks.add(text.substring(start, Math.min(text.length(), start + replayChunkChars)));
+        }
+        return chunks;
+    }
+
+    private static ChatResponse toChatResponse(String text, String finishReason) {
+        if (finishReason == null) {
+            return new ChatResponse(List.of(new Generation(new AssistantMessage(text))));
+        }
+        return new ChatResponse(List.of(new Generation(new AssistantMessage(text),
+                ChatGenerationMetadata.builder().finishReason(finishReason).build())));
+    }
+
+    private static String textOf(ChatResponse chatResponse) {
+        if (chatResponse == null || chatResponse.getResult() == null || chatResponse.getResult().getOutput() == null) {
+            return null;
+        }
+        return chatResponse.getResult().getOutput().getText();
+    }
+
+    /**
+     * 响应的结束原因；流式中间块没有结束原因，部分模型以 "null" 字符串表示
+     */
+    private static String finishReasonOf(ChatResponse chatResponse) {
+        if (chatResponse == null || chatResponse.getResult() == null || chatResponse.getResult().getMetadata() == null) {
+            return null;
+        }
+        String finishReason = chatResponse.getResult().getMetadata().getFinishReason();
+        return StringUtils.hasText(finishReason) && !"null".equalsIgnoreCase(finishReason.trim()) ? finishReason : null;
+    }
+
+    private static String sha256(String material) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(material.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.alibaba.cloud.ai.review.metrics;
+
+import com.alibaba.cloud.ai.graph.OverAllState;
+import com.alibaba.cloud.ai.graph.action.NodeAction;
+import com.alibaba.cloud.ai.graph.async.AsyncGenerator;
+
+import java.util.Map;
+
+/**
+ * 为节点计时的包装
+ * 执行期间把节点计时放在当前线程上，节点构建模型调用时经 {@link com.alibaba.cloud.ai.review.llm.LlmCallContext}
+ * 带入调用上下文；返回流式结果的节点在模型调用结束后才记录耗时
+ *
+ * @author Jast
+ */
+public class MeteredNodeAction implements NodeAction {
+
+    private static final ThreadLocal<NodeSpan> CURRENT = new ThreadLocal<>();
+
+    private final String node;
+
+    private final NodeAction delegate;
+
+    private final ReviewMetrics metrics;
+
+    public MeteredNodeAction(String node, NodeAction delegate, ReviewMetrics metrics) {
+        this.node = node;
+        this.delegate = delegate;
+        this.metrics = metrics;
+    }
+
+    /**
+     * 当前线程上正在执行的节点计时，不在节点执行中时为 null
+     */
+    public static NodeSpan currentSpan() {
+        return CURRENT.get();
+    }
+
+    @Override
+    public Map<String, Object> apply(OverAllState state) throws Exception {
+        NodeSpan span = new NodeSpan(metrics, node, state.value("document_type", "general"));
+        NodeSpan previous = CURRENT.get();
+        CURRENT.set(span);
+        try {
+            Map<String, Object> result = delegate.apply(state);
+            if (result != null && result.values().stream().anyMatch(AsyncGenerator.class::isInstance)) {
+                span.streaming();
+            } else {
+                span.finish(ReviewMetrics.OUTCOME_SUCCESS);
+            }
+            return result;
+        } catch (Exception | Error e) {
+            span.finish(ReviewMetrics.OUTCOME_ERROR);
+            throw e;
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+}
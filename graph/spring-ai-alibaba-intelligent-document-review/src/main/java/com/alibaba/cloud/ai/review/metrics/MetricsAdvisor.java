@@ -0,0 +1,121 @@
+package com.alibaba.cloud.ai.review.metrics;
+
+import com.alibaba.cloud.ai.review.llm.LlmCallContext;
+import org.springframework.ai.chat.client.ChatClientRequest;
+import org.springframework.ai.chat.client.ChatClientResponse;
+import org.springframework.ai.chat.client.advisor.api.CallAdvisor;
+import org.springframework.ai.chat.client.advisor.api.CallAdvisorChain;
+import org.springframework.ai.chat.client.advisor.api.StreamAdvisor;
+import org.springframework.ai.chat.client.advisor.api.StreamAdvisorChain;
+import org.springframework.ai.chat.metadata.Usage;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.core.Ordered;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.SignalType;
+
+/**
+ * 大模型调用指标 Advisor
+ * 排在所有 Advisor 之前，记录每次调用的总耗时（含限流排队）、首字延迟、流式分片数以及响应用量中的输入/输出 token 数；
+ * 缓存命中的调用同样计入，可以直接看到缓存对首字延迟的影响。调用结束时通知所属节点的计时。
+ *
+ * @author Jast
+ */
+public class MetricsAdvisor implements CallAdvisor, StreamAdvisor {
+
+    private final ReviewMetrics metrics;
+
+    public MetricsAdvisor(ReviewMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public ChatClientResponse adviseCall(ChatClientRequest chatClientRequest, CallAdvisorChain callAdvisorChain) {
+        String node = LlmCallContext.node(chatClientRequest);
+        String documentType = LlmCallContext.documentType(chatClientRequest);
+        NodeSpan span = LlmCallContext.nodeSpan(chatClientRequest);
+        if (span != null) {
+            span.callStarted();
+        }
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            ChatClientResponse response = callAdvisorChain.nextCall(chatClientRequest);
+            failed = false;
+            long elapsed = System.nanoTime() - start;
+            metrics.recordFirstToken(node, documentType, elapsed);
+            long[] usage = usage(response.chatResponse());
+            metrics.recordLlmCall(node, documentType, ReviewMetrics.OUTCOME_SUCCESS, elapsed, usage[0], usage[1], 1);
+            return response;
+        } finally {
+            if (failed) {
+                metrics.recordLlmCall(node, documentType, ReviewMetrics.OUTCOME_ERROR, System.nanoTime() - start,
+                        0, 0, 0);
+            }
+            if (span != null) {
+                span.callFinished(failed);
+            }
+        }
+    }
+
+    @Override
+    public Flux<ChatClientResponse> adviseStream(ChatClientRequest chatClientRequest,
+                                                 StreamAdvisorChain streamAdvisorChain) {
+        String node = LlmCallContext.node(chatClientRequest);
+        String documentType = LlmCallContext.documentType(chatClientRequest);
+        NodeSpan span = LlmCallContext.nodeSpan(chatClientRequest);
+        return Flux.defer(() -> {
+            if (span != null) {
+                span.callStarted();
+            }
+            long start = System.nanoTime();
+            long[] chunks = {0};
+            // 流式响应的用量为累计值，取最大值
+            long[] tokens = {0, 0};
+            return streamAdvisorChain.nextStream(chatClientRequest)
+                    .doOnNext(response -> {
+                        if (chunks[0]++ == 0) {
+                            metrics.recordFirstToken(node, documentType, System.nanoTime() - start);
+                        }
+                        long[] usage = usage(response.chatResponse());
+                        tokens[0] = Math.max(tokens[0], usage[0]);
+                        tokens[1] = Math.max(tokens[1], usage[1]);
+                    })
+                    .doFinally(signal -> {
+                        String outcome = signal == SignalType.ON_COMPLETE ? ReviewMetrics.OUTCOME_SUCCESS
+                                : signal == SignalType.ON_ERROR ? ReviewMetrics.OUTCOME_ERROR
+                                : ReviewMetrics.OUTCOME_CANCELLED;
+                        metrics.recordLlmCall(node, documentType, outcome, System.nanoTime() - start, tokens[0],
+                                tokens[1], chunks[0]);
+                        if (span != null) {
+                            span.callFinished(signal != SignalType.ON_COMPLETE);
+                        }
+                    });
+        });
+    }
+
+    @Override
+    public String getName() {
+        return "MetricsAdvisor";
+    }
+
+    @Override
+    public int getOrder() {
+        // 在响应缓存与限流之前执行
+        return Ordered.HIGHEST_PRECEDENCE + 50;
+    }
+
+    /**
+     * 响应用量中的 [输入 token, 输出 token]，没有用量信息时为 0
+     */
+    private static long[] usage(ChatResponse chatResponse) {
+        if (chatResponse == null || chatResponse.getMetadata() == null) {
+            return new long[]{0, 0};
+        }
+        Usage usage = chatResponse.getMetadata().getUsage();
+        if (usage == null) {
+            return new long[]{0, 0};
+        }
+        return new long[]{usage.getPromptTokens() == null ? 0 : usage.getPromptTokens(),
+                usage.getCompletionTokens() == null ? 0 : usage.getCompletionTokens()};
+    }
+}
@@ -0,0 +1,76 @@
+package com.alibaba.cloud.ai.review.metrics;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 一次节点执行的计时
+ * 普通节点在 apply 返回时结束；流式节点的 apply 只构建了模型调用，节点在它发起的所有模型调用结束后才结束，
+ * 由 {@link MetricsAdvisor} 通过调用上下文找到所属的节点计时
+ *
+ * @author Jast
+ */
+public class NodeSpan {
+
+    private final ReviewMetrics metrics;
+
+    private final String node;
+
+    private final String documentType;
+
+    private final long startNanos = System.nanoTime();
+
+    private final AtomicInteger pendingCalls = new AtomicInteger();
+
+    private final AtomicBoolean anyCallStarted = new AtomicBoolean();
+
+    private final AtomicBoolean finished = new AtomicBoolean();
+
+    private volatile boolean streaming;
+
+    private volatile boolean failed;
+
+    NodeSpan(ReviewMetrics metrics, String node, String documentType) {
+        this.metrics = metrics;
+        this.node = node;
+        this.documentType = documentType;
+    }
+
+    public String getNode() {
+        return node;
+    }
+
+    public String getDocumentType() {
+        return documentType;
+    }
+
+    void callStarted() {
+        anyCallStarted.set(true);
+        pendingCalls.incrementAndGet();
+    }
+
+    void callFinished(boolean error) {
+        if (error) {
+            failed = true;
+        }
+        if (pendingCalls.decrementAndGet() == 0 && streaming) {
+            finish(failed ? ReviewMetrics.OUTCOME_ERROR : ReviewMetrics.OUTCOME_SUCCESS);
+        }
+    }
+
+    /**
+     * apply 返回了流式结果，节点在模型调用结束后结束；调用已全部结束（如缓存回放）时立即结束
+     */
+    void streaming() {
+        streaming = true;
+        if (anyCallStarted.get() && pendingCalls.get() == 0) {
+            finish(failed ? ReviewMetrics.OUTCOME_ERROR : ReviewMetrics.OUTCOME_SUCCESS);
+        }
+    }
+
+    void finish(String outcome) {
+        if (finished.compareAndSet(false, true)) {
+            metrics.recordNode(node, documentType, outcome, System.nanoTime() - startNanos);
+        }
+    }
+}
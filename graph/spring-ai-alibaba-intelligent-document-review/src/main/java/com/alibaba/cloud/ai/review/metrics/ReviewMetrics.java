@@ -0,0 +1,194 @@
+package com.alibaba.cloud.ai.review.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 审核流程指标
+ * 通过 Micrometer 记录节点耗时、大模型排队等待、首字延迟、token 用量、流式分片数、人工审核等待时间、快速通道与近重复复用的命中，
+ * 各审核图变体的分析耗时，以及推测执行的命中与 token 消耗，由 Actuator 以 /actuator/prometheus 暴露。标签统一为 node、document_type、variant、outcome，
+ * 取值都是有限集合。
+ *
+ * @author Jast
+ */
+@Component
+public class ReviewMetrics {
+
+    public static final String OUTCOME_SUCCESS = "success";
+
+    public static final String OUTCOME_ERROR = "error";
+
+    public static final String OUTCOME_CANCELLED = "cancelled";
+
+    private static final Duration[] SLO = {Duration.ofMillis(500), Duration.ofSeconds(1), Duration.ofSeconds(2),
+            Duration.ofSeconds(5), Duration.ofSeconds(10), Duration.ofSeconds(30), Duration.ofMinutes(1),
+            Duration.ofMinutes(2)};
+
+    private final MeterRegistry registry;
+
+    public ReviewMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * 节点从开始执行到产出结果（流式节点为模型输出结束）的耗时
+     */
+    public void recordNode(String node, String documentType, String outcome, long nanos) {
+        Timer.builder("review.node.duration")
+                .description("Node wall time, including the streamed LLM call for LLM nodes")
+                .tags("node", node, "document_type", tag(documentType), "outcome", outcome)
+                .serviceLevelObjectives(SLO)
+                .register(registry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * 大模型调用在全局限流器中的排队等待时间
+     */
+    public void recordQueueWait(String node, String documentType, long nanos) {
+        Timer.builder("review.llm.queue.wait")
+                .description("Time an LLM call waited for a rate-limit slot")
+                .tags("node", tag(node), "document_type", tag(documentType))
+                .serviceLevelObjectives(SLO)
+                .register(registry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * 从发起调用到收到第一个输出分片的时间（含排队等待）
+     */
+    public void recordFirstToken(String node, String documentType, long nanos) {
+        Timer.builder("review.llm.first.token")
+                .description("Time from LLM call start to the first streamed chunk")
+                .tags("node", tag(node), "document_type", tag(documentType))
+                .serviceLevelObjectives(SLO)
+                .register(registry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * 一次大模型调用结束：总耗时、输入/输出 token 数与流式分片数
+     */
+    public void recordLlmCall(String node, String documentType, String outcome, long nanos, long inputTokens,
+                              long outputTokens, long chunks) {
+        String nodeTag = tag(node);
+        String typeTag = tag(documentType);
+        Timer.builder("review.llm.call.duration")
+                .description("LLM call wall time, including rate-limit queueing")
+                .tags("node", nodeTag, "document_type", typeTag, "outcome", outcome)
+                .serviceLevelObjectives(SLO)
+                .register(registry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+        if (inputTokens > 0) {
+            tokens(nodeTag, typeTag, "input").increment(inputTokens);
+        }
+        if (outputTokens > 0) {
+            tokens(nodeTag, typeTag, "output").increment(outputTokens);
+        }
+        DistributionSummary.builder("review.llm.stream.chunks")
+                .description("Streamed chunks per LLM call")
+                .tags("node", nodeTag, "document_type", typeTag)
+                .register(registry)
+                .record(chunks);
+    }
+
+    /**
+     * 流程在人工审核前暂停到审核员提交反馈之间的时间，outcome 为审核动作（approve / reject / modify / other）
+     */
+    public void recordHumanWait(String documentType, String action, long millis) {
+        Timer.builder("review.human.wait")
+                .description("Time between interrupting for human review and resuming")
+                .tags("document_type", tag(documentType), "outcome", reviewAction(action))
+                .register(registry)
+                .record(millis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 快速通道判定结果，outcome 为 hit 或未命中的原因（见 FastPathDispatcher）
+     */
+    public void recordFastPath(String documentType, String outcome) {
+        Counter.builder("review.fast.path")
+                .description("Fast-path decisions after risk assessment")
+                .tags("document_type", tag(documentType), "outcome", outcome)
+                .register(registry)
+                .increment();
+    }
+
+    /**
+     * 近重复检测结果，outcome 为 hit / miss / skipped（文档过短）/ revision（修改后重审，不做检测）
+     */
+    public void recordNearDuplicate(String documentType, String outcome) {
+        Counter.builder("review.near.duplicate")
+                .description("Near-duplicate lookups before the LLM nodes")
+                .tags("document_type", tag(documentType), "outcome", outcome)
+                .register(registry)
+                .increment();
+    }
+
+    /**
+     * 审核图变体从文档接收到风险评估后分流的耗时，outcome 为分流去向（auto_approval / human_review）
+     */
+    public void recordVariantAnalysis(String variant, String outcome, long millis) {
+        Timer.builder("review.variant.analysis")
+                .description("Time from document intake to the post-assessment route, per graph variant")
+                .tags("variant", tag(variant), "outcome", tag(outcome))
+                .serviceLevelObjectives(SLO)
+                .register(registry)
+                .record(millis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 推测执行的结果，outcome 为 submitted、未提交的原因（budget_exhausted / busy / failed），
+     * 或审核员提交后的 hit 与丢弃原因（branch_mismatch / feedback_changed / not_started / timeout / expired 等）
+     */
+    public void recordSpeculation(String branch, String outcome) {
+        Counter.builder("review.speculation")
+                .description("Speculative post-review branch precomputations and their outcome")
+                .tags("node", tag(branch), "outcome", outcome)
+                .register(registry)
+                .increment();
+    }
+
+    /**
+     * 推测执行消耗的 token，outcome 为 committed（结果被采用）或 discarded
+     */
+    public void recordSpeculationTokens(String node, String outcome, long tokens) {
+        Counter.builder("review.speculation.tokens")
+                .description("Tokens spent on speculative precomputation, by whether the result was used")
+                .tags("node", tag(node), "outcome", outcome)
+                .register(registry)
+                .increment(tokens);
+    }
+
+    private Counter tokens(String node, String documentType, String direction) {
+        return Counter.builder("review.llm.tokens")
+                .description("LLM tokens reported in response usage metadata")
+                .tags("node", node, "document_type", documentType, "direction", direction)
+                .register(registry);
+    }
+
+    /**
+     * 审核动作来自请求参数，归一为固定取值，避免标签基数失控
+     */
+    private static String reviewAction(String action) {
+        if (action == null) {
+            return "other";
+        }
+        return switch (action.trim()) {
+            case "approve", "通过" -> "approve";
+            case "reject", "拒绝" -> "reject";
+            case "modify", "修改" -> "modify";
+            default -> "other";
+        };
+    }
+
+    private static String tag(String value) {
+        return value == null || value.isBlank() ? "unknown" : value;
+    }
+}
@@ -2,9 +2,10 @@ package com.alibaba.cloud.ai.review.node;
 
 import com.alibaba.cloud.ai.graph.NodeOutput;
 import com.alibaba.cloud.ai.graph.OverAllState;
-import com.alibaba.cloud.ai.graph.action.NodeAction;
 import com.alibaba.cloud.ai.graph.async.AsyncGenerator;
 import com.alibaba.cloud.ai.graph.streaming.StreamingChatGenerator;
+import com.alibaba.cloud.ai.review.llm.LlmCallContext;
+import com.alibaba.cloud.ai.review.result.ReviewResults;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.ai.chat.client.ChatClient;
@@ -14,6 +15,7 @@ import reactor.core.publisher.Flux;
 
 import java.time.LocalDateTime;
 import java.util.Map;
+import java.util.function.Consumer;
 
 /**
  * 审批处理节点
@@ -21,7 +23,7 @@ import java.util.Map;
  * 
  * @author Jast
  */
-public class ApprovalProcessNode implements NodeAction {
+public class ApprovalProcessNode implements PrecomputableNode {
 
     private static final Logger logger = LoggerFactory.getLogger(ApprovalProcessNode.class);
 
@@ -31,7 +33,8 @@ public class ApprovalProcessNode implements NodeAction {
 
         文档类型：{document_type}
         风险评分：{risk_score}
-        AI分析结果：{ai_analysis_result}
+        风险评估摘要：
+        {ai_analysis_result}
         审核员意见：{reviewer_comments}
         审批时间：{approval_time}
 
@@ -66,20 +69,12 @@ public class ApprovalProcessNode implements NodeAction {
         logger.info("Approval process node is running...");
 
         String documentType = state.value("document_type", "general");
+        String urgencyLevel = state.value("urgency_level", "normal");
         int riskScore = (Integer) state.value("risk_score", 5);
-        String aiAnalysisResult = state.value("ai_analysis_result", "");
-        String reviewerComments = state.value("reviewer_comments", "");
-        String approvalTime = LocalDateTime.now().toString();
 
         logger.info("Processing approval for document type: {}, risk score: {}", documentType, riskScore);
 
-        Flux<ChatResponse> chatResponseFlux = this.chatClient.prompt()
-                .user(user -> user.text(APPROVAL_PROCESS_PROMPT.getTemplate())
-                        .param("document_type", documentType)
-                        .param("risk_score", String.valueOf(riskScore))
-                        .param("ai_analysis_result", aiAnalysisResult)
-                        .param("reviewer_comments", reviewerComments)
-                        .param("approval_time", approvalTime))
+        Flux<ChatResponse> chatResponseFlux = request(state, LlmCallContext.of(documentType, urgencyLevel))
                 .stream()
                 .chatResponse();
 
@@ -89,11 +84,7 @@ public class ApprovalProcessNode implements NodeAction {
                 .mapResult(response -> {
                     String approvalResult = response.getResult().getOutput().getText();
                     logger.info("Approval process completed successfully");
-                    return Map.of(
-                        "final_status", "approved",
-                        "approval_reason", approvalResult,
-                        "approval_timestamp", System.currentTimeMillis()
-                    );
+                    return result(approvalResult);
                 })
                 .build(chatResponseFlux);
 
@@ -102,4 +93,31 @@ public class ApprovalProcessNode implements NodeAction {
             "approval_reason", generator
         );
     }
+
+    @Override
+    public ChatClient.ChatClientRequestSpec request(OverAllState state, Consumer<ChatClient.AdvisorSpec> callContext) {
+        String documentType = state.value("document_type", "general");
+        int riskScore = (Integer) state.value("risk_score", 5);
+        String aiAnalysisResult = ReviewResults.riskAssessmentPrompt(state);
+        String reviewerComments = state.value("reviewer_comments", "");
+        String approvalTime = LocalDateTime.now().toString();
+
+        return this.chatClient.prompt()
+                .advisors(callContext)
+                .user(user -> user.text(APPROVAL_PROCESS_PROMPT.getTemplate())
+                        .param("document_type", documentType)
+                        .param("risk_score", String.valueOf(riskScore))
+                        .param("ai_analysis_result", aiAnalysisResult)
+                        .param("reviewer_comments", reviewerComments)
+                        .param("approval_time", approvalTime));
+    }
+
+    @Override
+    public Map<String, Object> result(String approvalResult) {
+        return Map.of(
+            "final_status", "approved",
+            "approval_reason", approvalResult,
+            "approval_timestamp", System.currentTimeMillis()
+        );
+    }
 }
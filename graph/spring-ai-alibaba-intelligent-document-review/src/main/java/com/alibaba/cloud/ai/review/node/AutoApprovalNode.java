@@ -0,0 +1,114 @@
+package com.alibaba.cloud.ai.review.node;
+
+import com.alibaba.cloud.ai.graph.OverAllState;
+import com.alibaba.cloud.ai.graph.action.NodeAction;
+import com.alibaba.cloud.ai.review.config.DocumentReviewProperties;
+import com.alibaba.cloud.ai.review.dispatcher.FastPathDispatcher;
+import com.alibaba.cloud.ai.review.result.ComplianceResult;
+import com.alibaba.cloud.ai.review.result.ReviewResults;
+import com.alibaba.cloud.ai.review.result.RiskAssessment;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 自动审批节点（快速通道）
+ * 低风险文档满足规则时由 {@link FastPathDispatcher} 路由到此节点，按模板生成审批结果与最终报告后直接结束，
+ * 不中断等待人工审核，也不调用大模型
+ *
+ * @author Jast
+ */
+public class AutoApprovalNode implements NodeAction {
+
+    private static final Logger logger = LoggerFactory.getLogger(AutoApprovalNode.class);
+
+    public static final String REVIEW_ACTION = "auto_approve";
+
+    private final FastPathDispatcher fastPath;
+
+    public AutoApprovalNode(FastPathDispatcher fastPath) {
+        this.fastPath = fastPath;
+    }
+
+    @Override
+    public Map<String, Object> apply(OverAllState state) {
+        String documentType = state.value("document_type", "general");
+        String urgencyLevel = state.value("urgency_level", "normal");
+        RiskAssessment risk = ReviewResults.riskAssessment(state);
+        ComplianceResult compliance = ReviewResults.compliance(state);
+        String approvalTime = LocalDateTime.now().toString();
+
+        String approvalReason = approvalReason(documentType, risk, compliance);
+        logger.info("Auto approving low-risk document - type: {}, risk score: {}", documentType,
+                risk == null ? null : risk.overallRiskScore());
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("final_status", "approved");
+        result.put("review_action", REVIEW_ACTION);
+        result.put("reviewer_comments", "快速通道规则自动通过");
+        result.put("fast_path", true);
+        result.put("approval_reason", approvalReason);
+        result.put("approval_timestamp", System.currentTimeMillis());
+        result.put("final_report", report(state, documentType, urgencyLevel, approvalReason, approvalTime));
+        result.put("report_timestamp", System.currentTimeMillis());
+        result.put("workflow_completed", true);
+        return result;
+    }
+
+    private String approvalReason(String documentType, RiskAssessment risk, ComplianceResult compliance) {
+        StringBuilder reason = new StringBuilder("文档符合 ").append(documentType).append(" 类型的低风险快速通道规则：");
+        DocumentReviewProperties.FastPath.Rule rule = fastPath.rule(documentType);
+        if (risk != null) {
+            reason.append("总体风险评分 ").append(risk.overallRiskScore());
+            if (rule != null) {
+                reason.append("（上限 ").append(rule.getMaxRiskScore()).append("）");
+            }
+        }
+        if (compliance != null) {
+            reason.append("，合规状态 ").append(compliance.overallStatus())
+                    .append("，合规评分 ").append(compliance.complianceScore());
+            if (rule != null) {
+                reason.append("（下限 ").append(rule.getMinComplianceScore()).append("）");
+            }
+        }
+        reason.append("，无需上级审批，已自动通过。");
+        return reason.toString();
+    }
+
+    private static String report(OverAllState state, String documentType, String urgencyLevel, String approvalReason,
+                                 String approvalTime) {
+        StringBuilder report = new StringBuilder();
+        report.append("# 文档审核报告（自动审批）\n\n");
+        report.append("## 执行摘要\n");
+        report.append("- 文档类型：").append(documentType).append('\n');
+        report.append("- 紧急程度：").append(urgencyLevel).append('\n');
+        report.append("- 最终状态：approved（快速通道）\n");
+        Object start = state.value("review_start_timestamp").orElse(null);
+        if (start instanceof Number timestamp) {
+            report.append("- 审核开始时间：")
+                    .append(LocalDateTime.ofInstant(Instant.ofEpochMilli(timestamp.longValue()), ZoneId.systemDefault()))
+                    .append('\n');
+        }
+        report.append("- 审批时间：").append(approvalTime).append("\n\n");
+        appendSection(report, "内容分析", ReviewResults.contentAnalysisPrompt(state));
+        appendSection(report, "合规检查", ReviewResults.compliancePrompt(state));
+        appendSection(report, "风险评估", ReviewResults.riskAssessmentPrompt(state));
+        report.append("## 决策依据\n").append(approvalReason).append("\n\n");
+        report.append("## 后续行动\n");
+        report.append("- 按常规流程归档并执行\n");
+        report.append("- 如对自动审批结果有异议，请提交人工复核\n");
+        return report.toString();
+    }
+
+    private static void appendSection(StringBuilder report, String title, String content) {
+        if (content == null || content.isBlank()) {
+            return;
+        }
+        report.append("## ").append(title).append('\n').append(content).append("\n\n");
+    }
+}
@@ -5,6 +5,15 @@ import com.alibaba.cloud.ai.graph.OverAllState;
 import com.alibaba.cloud.ai.graph.action.NodeAction;
 import com.alibaba.cloud.ai.graph.async.AsyncGenerator;
 import com.alibaba.cloud.ai.graph.streaming.StreamingChatGenerator;
+import com.alibaba.cloud.ai.review.chunk.ChunkedAnalysisRunner;
+import com.alibaba.cloud.ai.review.chunk.SectionPlan;
+import com.alibaba.cloud.ai.review.llm.LlmCallContext;
+import com.alibaba.cloud.ai.review.result.ComplianceResult;
+import com.alibaba.cloud.ai.review.result.ReviewContent;
+import com.alibaba.cloud.ai.review.result.ReviewResults;
+import com.alibaba.cloud.ai.review.result.StreamingJsonParser;
+import com.alibaba.cloud.ai.review.variant.ReviewVariant;
+import com.alibaba.fastjson.JSONObject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.ai.chat.client.ChatClient;
@@ -12,11 +21,20 @@ import org.springframework.ai.chat.model.ChatResponse;
 import org.springframework.ai.chat.prompt.PromptTemplate;
 import reactor.core.publisher.Flux;
 
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 /**
  * 合规性检查节点
  * 检查文档是否符合相关法规、标准和公司政策
+ * 配置了分块分析时，大文档按章节分块并发检查后合并结果
+ * 启用修改后重审时按章节记录检查单元，重审只检查内容有变化的章节，其余沿用上一轮输出
+ * 检查结果解析一次后以 {@link ComplianceResult} 存入状态
+ * 启用规则预筛时，预筛发现项写入提示词，由模型逐条确认
+ * 提示词只列出审核图变体对应文档类型的特殊要求，通用变体列出全部类型
  * 
  * @author Jast
  */
@@ -30,7 +48,10 @@ public class ComplianceCheckNode implements NodeAction {
 
         文档类型：{document_type}
         文档内容：{document_content}
-        初步分析结果：{content_analysis_result}
+        初步分析结果（可选参考）：{content_analysis_result}
+        规则预筛发现项（确定性关键词/正则规则命中，@ 后为文档中的字符偏移）：
+        {prescreen_findings}
+        请逐条确认预筛发现项是否成立（误报请忽略，成立的写入检查结果），并补充规则未覆盖的问题。
 
         请根据文档类型检查以下合规性要求：
 
@@ -41,10 +62,7 @@ public class ComplianceCheckNode implements NodeAction {
         4. 语言规范性
 
         根据文档类型的特殊要求：
-        - 合同类：法律条款完整性、权责明确性、风险条款合理性
-        - 技术文档：技术标准符合性、安全要求、版本管理
-        - 财务报告：数据准确性、审计要求、披露完整性
-        - 政策文件：政策依据、执行可行性、影响评估
+        {type_requirements}
 
         请以JSON格式返回检查结果，包含：
         - compliance_score: 合规性评分(1-10)
@@ -58,29 +76,89 @@ public class ComplianceCheckNode implements NodeAction {
         """
     );
 
+    private static final String NO_CONTENT_ANALYSIS_HINT = "（暂无，请直接基于文档内容进行检查）";
+
+    private static final String NO_PRESCREEN_FINDINGS = "（无）";
+
+    private static final List<String> ALL_TYPE_REQUIREMENTS = ReviewVariant.GENERAL.complianceFocus();
+
     private final ChatClient chatClient;
 
+    /**
+     * 是否将内容分析结果作为提示一并提交；并行模式下内容分析尚未完成，应关闭
+     */
+    private final boolean useContentAnalysisHints;
+
+    private final ChunkedAnalysisRunner chunkedAnalysis;
+
+    private final String typeRequirements;
+
+    private final ReviewContent content;
+
     public ComplianceCheckNode(ChatClient.Builder chatClientBuilder) {
+        this(chatClientBuilder, true);
+    }
+
+    public ComplianceCheckNode(ChatClient.Builder chatClientBuilder, boolean useContentAnalysisHints) {
+        this(chatClientBuilder, useContentAnalysisHints, null);
+    }
+
+    /**
+     * @param chatClientBuilder       ChatClient 构建器
+     * @param useContentAnalysisHints 是否参考内容分析结果
+     * @param chunkedAnalysis         分块分析执行器，为 null 时始终整篇检查
+     */
+    public ComplianceCheckNode(ChatClient.Builder chatClientBuilder, boolean useContentAnalysisHints,
+                               ChunkedAnalysisRunner chunkedAnalysis) {
+        this(chatClientBuilder, useContentAnalysisHints, chunkedAnalysis, ALL_TYPE_REQUIREMENTS);
+    }
+
+    public ComplianceCheckNode(ChatClient.Builder chatClientBuilder, boolean useContentAnalysisHints,
+                               ChunkedAnalysisRunner chunkedAnalysis, List<String> typeRequirements) {
+        this(chatClientBuilder, useContentAnalysisHints, chunkedAnalysis, typeRequirements, ReviewContent.INLINE);
+    }
+
+    /**
+     * @param typeRequirements 提示词中列出的文档类型特殊要求，由审核图变体决定
+     * @param content          文档原文的读取入口
+     */
+    public ComplianceCheckNode(ChatClient.Builder chatClientBuilder, boolean useContentAnalysisHints,
+                               ChunkedAnalysisRunner chunkedAnalysis, List<String> typeRequirements,
+                               ReviewContent content) {
         this.chatClient = chatClientBuilder.build();
+        this.useContentAnalysisHints = useContentAnalysisHints;
+        this.chunkedAnalysis = chunkedAnalysis;
+        this.typeRequirements = typeRequirements.stream().map(requirement -> "- " + requirement)
+                .collect(Collectors.joining("\n"));
+        this.content = content;
     }
 
     @Override
     public Map<String, Object> apply(OverAllState state) {
         logger.info("Compliance check node is running...");
 
-        String documentContent = state.value("document_content", "");
+        String documentContent = content.documentContent(state);
         String documentType = state.value("document_type", "general");
-        String contentAnalysisResult = state.value("content_analysis_result", "");
-
-        logger.info("Performing compliance check for document type: {}", documentType);
-
-        Flux<ChatResponse> chatResponseFlux = this.chatClient.prompt()
-                .user(user -> user.text(COMPLIANCE_CHECK_PROMPT.getTemplate())
-                        .param("document_content", documentContent)
-                        .param("document_type", documentType)
-                        .param("content_analysis_result", contentAnalysisResult))
-                .stream()
-                .chatResponse();
+        String urgencyLevel = state.value("urgency_level", "normal");
+        String contentAnalysisResult = useContentAnalysisHints ? ReviewResults.contentAnalysisPrompt(state) : "";
+        boolean hasHints = !contentAnalysisResult.isBlank();
+        String contentAnalysisHint = hasHints ? contentAnalysisResult : NO_CONTENT_ANALYSIS_HINT;
+        String prescreenResult = ReviewResults.prescreenPrompt(state);
+        String prescreenFindings = prescreenResult.isBlank() ? NO_PRESCREEN_FINDINGS : prescreenResult;
+
+        logger.info("Performing compliance check for document type: {}, with content analysis hints: {}",
+                documentType, hasHints);
+
+        SectionPlan plan = chunkedAnalysis == null ? SectionPlan.of(List.of(documentContent))
+                : chunkedAnalysis.plan(documentContent, ReviewResults.analysisUnits(state, ReviewResults.COMPLIANCE_UNITS));
+        if (plan.size() > 1 || plan.incremental()) {
+            return applyChunked(state, plan, documentType, urgencyLevel, contentAnalysisHint, prescreenFindings);
+        }
+
+        StreamingJsonParser parser = new StreamingJsonParser();
+        Flux<ChatResponse> chatResponseFlux = check(documentContent, documentType, contentAnalysisHint, prescreenFindings,
+                LlmCallContext.of(documentType, urgencyLevel))
+                .doOnNext(parser::append);
 
         AsyncGenerator<? extends NodeOutput> generator = StreamingChatGenerator.builder()
                 .startingNode("compliance_check_stream")
@@ -88,10 +166,64 @@ public class ComplianceCheckNode implements NodeAction {
                 .mapResult(response -> {
                     String complianceResult = response.getResult().getOutput().getText();
                     logger.info("Compliance check completed, result length: {}", complianceResult.length());
-                    return Map.of("compliance_result", complianceResult);
+                    return result(complianceResult, parser.result());
                 })
                 .build(chatResponseFlux);
 
         return Map.of("compliance_result", generator);
     }
+
+    /**
+     * 分块检查：各分块并发检查，流结束后合并为一个结果
+     */
+    private Map<String, Object> applyChunked(OverAllState state, SectionPlan plan, String documentType,
+                                             String urgencyLevel, String contentAnalysisHint,
+                                             String prescreenFindings) {
+        // 所有分块调用共用一个调用上下文，计入同一次节点执行
+        Consumer<ChatClient.AdvisorSpec> callContext = LlmCallContext.of(documentType, urgencyLevel);
+        ChunkedAnalysisRunner.ChunkedAnalysis analysis = chunkedAnalysis.run(plan,
+                chunk -> check(chunk, documentType, contentAnalysisHint, prescreenFindings, callContext));
+
+        AsyncGenerator<? extends NodeOutput> generator = StreamingChatGenerator.builder()
+                .startingNode("compliance_check_stream")
+                .startingState(state)
+                .mapResult(response -> {
+                    String complianceResult = analysis.mergedResult().get();
+                    logger.info("Chunked compliance check completed, chunks: {}, reused: {}, merged result length: {}",
+                            plan.size(), plan.reused(), complianceResult.length());
+                    Map<String, Object> result = result(complianceResult, StreamingJsonParser.parse(complianceResult));
+                    if (plan.incremental()) {
+                        result.put(ReviewResults.COMPLIANCE_UNITS, plan.toAnalysisUnits(analysis.chunkResults().get()));
+                    }
+                    return result;
+                })
+                .build(analysis.stream());
+
+        return Map.of("compliance_result", generator);
+    }
+
+    private static Map<String, Object> result(String complianceResult, JSONObject json) {
+        Map<String, Object> result = new HashMap<>();
+        result.put("compliance_result", complianceResult);
+        if (json != null) {
+            result.put(ReviewResults.COMPLIANCE, ComplianceResult.from(json));
+        } else {
+            logger.warn("Compliance result is not valid JSON, downstream nodes will use the raw text");
+        }
+        return result;
+    }
+
+    private Flux<ChatResponse> check(String documentContent, String documentType, String contentAnalysisHint,
+                                     String prescreenFindings, Consumer<ChatClient.AdvisorSpec> callContext) {
+        return this.chatClient.prompt()
+                .advisors(callContext)
+                .user(user -> user.text(COMPLIANCE_CHECK_PROMPT.getTemplate())
+                        .param("document_content", documentContent)
+                        .param("document_type", documentType)
+                        .param("content_analysis_result", contentAnalysisHint)
+                        .param("prescreen_findings", prescreenFindings)
+                        .param("type_requirements", typeRequirements))
+                .stream()
+                .chatResponse();
+    }
 }
@@ -5,6 +5,14 @@ import com.alibaba.cloud.ai.graph.OverAllState;
 import com.alibaba.cloud.ai.graph.action.NodeAction;
 import com.alibaba.cloud.ai.graph.async.AsyncGenerator;
 import com.alibaba.cloud.ai.graph.streaming.StreamingChatGenerator;
+import com.alibaba.cloud.ai.review.chunk.ChunkedAnalysisRunner;
+import com.alibaba.cloud.ai.review.chunk.SectionPlan;
+import com.alibaba.cloud.ai.review.llm.LlmCallContext;
+import com.alibaba.cloud.ai.review.result.ContentAnalysis;
+import com.alibaba.cloud.ai.review.result.ReviewContent;
+import com.alibaba.cloud.ai.review.result.ReviewResults;
+import com.alibaba.cloud.ai.review.result.StreamingJsonParser;
+import com.alibaba.fastjson.JSONObject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.ai.chat.client.ChatClient;
@@ -12,11 +20,17 @@ import org.springframework.ai.chat.model.ChatResponse;
 import org.springframework.ai.chat.prompt.PromptTemplate;
 import reactor.core.publisher.Flux;
 
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 /**
  * 内容分析节点
  * 对文档内容进行初步分析，识别文档类型、主要内容和基本结构
+ * 配置了分块分析时，大文档按章节分块并发分析后合并结果
+ * 启用修改后重审时按章节记录分析单元，重审只分析内容有变化的章节，其余沿用上一轮输出
+ * 输出在流式接收时即完成 JSON 扫描，结束时解析一次并以 {@link ContentAnalysis} 存入状态
  * 
  * @author Jast
  */
@@ -54,28 +68,47 @@ public class ContentAnalysisNode implements NodeAction {
 
     private final ChatClient chatClient;
 
+    private final ChunkedAnalysisRunner chunkedAnalysis;
+
+    private final ReviewContent content;
+
     public ContentAnalysisNode(ChatClient.Builder chatClientBuilder) {
+        this(chatClientBuilder, null, ReviewContent.INLINE);
+    }
+
+    /**
+     * @param chatClientBuilder ChatClient 构建器
+     * @param chunkedAnalysis   分块分析执行器，为 null 时始终整篇分析
+     * @param content           文档原文的读取入口
+     */
+    public ContentAnalysisNode(ChatClient.Builder chatClientBuilder, ChunkedAnalysisRunner chunkedAnalysis,
+                               ReviewContent content) {
         this.chatClient = chatClientBuilder.build();
+        this.chunkedAnalysis = chunkedAnalysis;
+        this.content = content;
     }
 
     @Override
     public Map<String, Object> apply(OverAllState state) {
         logger.info("Content analysis node is running...");
 
-        String documentContent = state.value("document_content", "");
+        String documentContent = content.documentContent(state);
         String documentType = state.value("document_type", "general");
         String urgencyLevel = state.value("urgency_level", "normal");
 
         logger.info("Analyzing document - Type: {}, Urgency: {}, Content length: {}", 
                    documentType, urgencyLevel, documentContent.length());
 
-        Flux<ChatResponse> chatResponseFlux = this.chatClient.prompt()
-                .user(user -> user.text(CONTENT_ANALYSIS_PROMPT.getTemplate())
-                        .param("document_content", documentContent)
-                        .param("document_type", documentType)
-                        .param("urgency_level", urgencyLevel))
-                .stream()
-                .chatResponse();
+        SectionPlan plan = chunkedAnalysis == null ? SectionPlan.of(List.of(documentContent))
+                : chunkedAnalysis.plan(documentContent, ReviewResults.analysisUnits(state, ReviewResults.CONTENT_ANALYSIS_UNITS));
+        if (plan.size() > 1 || plan.incremental()) {
+            return applyChunked(state, plan, documentType, urgencyLevel);
+        }
+
+        StreamingJsonParser parser = new StreamingJsonParser();
+        Flux<ChatResponse> chatResponseFlux = analyze(documentContent, documentType, urgencyLevel,
+                LlmCallContext.of(documentType, urgencyLevel))
+                .doOnNext(parser::append);
 
         AsyncGenerator<? extends NodeOutput> generator = StreamingChatGenerator.builder()
                 .startingNode("content_analysis_stream")
@@ -83,10 +116,61 @@ public class ContentAnalysisNode implements NodeAction {
                 .mapResult(response -> {
                     String analysisResult = response.getResult().getOutput().getText();
                     logger.info("Content analysis completed, result length: {}", analysisResult.length());
-                    return Map.of("content_analysis_result", analysisResult);
+                    return result(analysisResult, parser.result());
                 })
                 .build(chatResponseFlux);
 
         return Map.of("content_analysis_result", generator);
     }
+
+    /**
+     * 分块分析：各分块并发分析，流结束后合并为一个结果
+     */
+    private Map<String, Object> applyChunked(OverAllState state, SectionPlan plan, String documentType,
+                                             String urgencyLevel) {
+        // 所有分块调用共用一个调用上下文，计入同一次节点执行
+        Consumer<ChatClient.AdvisorSpec> callContext = LlmCallContext.of(documentType, urgencyLevel);
+        ChunkedAnalysisRunner.ChunkedAnalysis analysis = chunkedAnalysis.run(plan,
+                chunk -> analyze(chunk, documentType, urgencyLevel, callContext));
+
+        AsyncGenerator<? extends NodeOutput> generator = StreamingChatGenerator.builder()
+                .startingNode("content_analysis_stream")
+                .startingState(state)
+                .mapResult(response -> {
+                    String analysisResult = analysis.mergedResult().get();
+                    logger.info("Chunked content analysis completed, chunks: {}, reused: {}, merged result length: {}",
+                            plan.size(), plan.reused(), analysisResult.length());
+                    Map<String, Object> result = result(analysisResult, StreamingJsonParser.parse(analysisResult));
+                    if (plan.incremental()) {
+                        result.put(ReviewResults.CONTENT_ANALYSIS_UNITS, plan.toAnalysisUnits(analysis.chunkResults().get()));
+                    }
+                    return result;
+                })
+                .build(analysis.stream());
+
+        return Map.of("content_analysis_result", generator);
+    }
+
+    private static Map<String, Object> result(String analysisResult, JSONObject json) {
+        Map<String, Object> result = new HashMap<>();
+        result.put("content_analysis_result", analysisResult);
+        if (json != null) {
+            result.put(ReviewResults.CONTENT_ANALYSIS, ContentAnalysis.from(json));
+        } else {
+            logger.warn("Content analysis result is not valid JSON, downstream nodes will use the raw text");
+        }
+        return result;
+    }
+
+    private Flux<ChatResponse> analyze(String documentContent, String documentType, String urgencyLevel,
+                                       Consumer<ChatClient.AdvisorSpec> callContext) {
+        return this.chatClient.prompt()
+                .advisors(callContext)
+                .user(user -> user.text(CONTENT_ANALYSIS_PROMPT.getTemplate())
+                        .param("document_content", documentContent)
+                        .param("document_type", documentType)
+                        .param("urgency_level", urgencyLevel))
+                .stream()
+                .chatResponse();
+    }
 }
@@ -0,0 +1,40 @@
+package com.alibaba.cloud.ai.review.node;
+
+import com.alibaba.cloud.ai.graph.OverAllState;
+import com.alibaba.cloud.ai.graph.action.NodeAction;
+import com.alibaba.cloud.ai.review.blob.BlobRef;
+import com.alibaba.cloud.ai.review.result.ReviewResults;
+import com.alibaba.cloud.ai.review.upload.DocumentRef;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+
+/**
+ * 文档接收节点
+ * 记录审核开始时间，并作为并行分析分支（内容分析 / 合规检查）的分叉点
+ *
+ * @author Jast
+ */
+public class DocumentIntakeNode implements NodeAction {
+
+    private static final Logger logger = LoggerFactory.getLogger(DocumentIntakeNode.class);
+
+    @Override
+    public Map<String, Object> apply(OverAllState state) {
+        String documentType = state.value("document_type", "general");
+        DocumentRef ref = ReviewResults.documentRef(state);
+        if (ref != null) {
+            // 上传的文档只记录引用信息，由需要全文的节点按需读取
+            logger.info("Document intake - Type: {}, Uploaded bytes: {}, SHA-256: {}", documentType, ref.bytes(), ref.sha256());
+        } else {
+            // 以引用保存的文档不为记录长度读取原文
+            Object content = state.value("document_content").orElse("");
+            BlobRef blob = BlobRef.of(content);
+            logger.info("Document intake - Type: {}, Content length: {}", documentType,
+                    blob != null ? blob.chars() : String.valueOf(content).length());
+        }
+
+        return Map.of("review_start_timestamp", System.currentTimeMillis());
+    }
+}
@@ -2,9 +2,10 @@ package com.alibaba.cloud.ai.review.node;
 
 import com.alibaba.cloud.ai.graph.NodeOutput;
 import com.alibaba.cloud.ai.graph.OverAllState;
-import com.alibaba.cloud.ai.graph.action.NodeAction;
 import com.alibaba.cloud.ai.graph.async.AsyncGenerator;
 import com.alibaba.cloud.ai.graph.streaming.StreamingChatGenerator;
+import com.alibaba.cloud.ai.review.llm.LlmCallContext;
+import com.alibaba.cloud.ai.review.result.ReviewResults;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.ai.chat.client.ChatClient;
@@ -14,6 +15,7 @@ import reactor.core.publisher.Flux;
 
 import java.time.LocalDateTime;
 import java.util.Map;
+import java.util.function.Consumer;
 
 /**
  * 最终报告节点
@@ -21,7 +23,7 @@ import java.util.Map;
  * 
  * @author Jast
  */
-public class FinalReportNode implements NodeAction {
+public class FinalReportNode implements PrecomputableNode {
 
     private static final Logger logger = LoggerFactory.getLogger(FinalReportNode.class);
 
@@ -36,6 +38,13 @@ public class FinalReportNode implements NodeAction {
         最终状态：{final_status}
 
         === AI分析结果 ===
+        内容分析：
+        {content_analysis_result}
+
+        合规检查：
+        {compliance_result}
+
+        风险评估：
         {ai_analysis_result}
 
         === 人工审核意见 ===
@@ -74,7 +83,34 @@ public class FinalReportNode implements NodeAction {
         String documentType = state.value("document_type", "general");
         String urgencyLevel = state.value("urgency_level", "normal");
         String finalStatus = state.value("final_status", "completed");
-        String aiAnalysisResult = state.value("ai_analysis_result", "");
+
+        logger.info("Generating final report for document type: {}, status: {}", documentType, finalStatus);
+
+        Flux<ChatResponse> chatResponseFlux = request(state, LlmCallContext.of(documentType, urgencyLevel))
+                .stream()
+                .chatResponse();
+
+        AsyncGenerator<? extends NodeOutput> generator = StreamingChatGenerator.builder()
+                .startingNode("final_report_stream")
+                .startingState(state)
+                .mapResult(response -> {
+                    String finalReport = response.getResult().getOutput().getText();
+                    logger.info("Final report generated successfully, length: {}", finalReport.length());
+                    return result(finalReport);
+                })
+                .build(chatResponseFlux);
+
+        return Map.of("final_report", generator);
+    }
+
+    @Override
+    public ChatClient.ChatClientRequestSpec request(OverAllState state, Consumer<ChatClient.AdvisorSpec> callContext) {
+        String documentType = state.value("document_type", "general");
+        String urgencyLevel = state.value("urgency_level", "normal");
+        String finalStatus = state.value("final_status", "completed");
+        String contentAnalysisResult = ReviewResults.contentAnalysisPrompt(state);
+        String complianceResult = ReviewResults.compliancePrompt(state);
+        String aiAnalysisResult = ReviewResults.riskAssessmentPrompt(state);
         String reviewAction = state.value("review_action", "");
         String reviewerComments = state.value("reviewer_comments", "");
         String suggestedChanges = state.value("suggested_changes", "");
@@ -84,37 +120,29 @@ public class FinalReportNode implements NodeAction {
         
         String reviewStartTime = LocalDateTime.now().minusMinutes(30).toString(); // 估算审核开始时间
 
-        logger.info("Generating final report for document type: {}, status: {}", documentType, finalStatus);
-
-        Flux<ChatResponse> chatResponseFlux = this.chatClient.prompt()
+        return this.chatClient.prompt()
+                .advisors(callContext)
                 .user(user -> user.text(FINAL_REPORT_PROMPT.getTemplate())
                         .param("document_type", documentType)
                         .param("urgency_level", urgencyLevel)
                         .param("review_start_time", reviewStartTime)
                         .param("final_status", finalStatus)
+                        .param("content_analysis_result", contentAnalysisResult)
+                        .param("compliance_result", complianceResult)
                         .param("ai_analysis_result", aiAnalysisResult)
                         .param("review_action", reviewAction)
                         .param("reviewer_comments", reviewerComments)
                         .param("suggested_changes", suggestedChanges)
-                        .param("processing_result", processingResult))
-                .stream()
-                .chatResponse();
-
-        AsyncGenerator<? extends NodeOutput> generator = StreamingChatGenerator.builder()
-                .startingNode("final_report_stream")
-                .startingState(state)
-                .mapResult(response -> {
-                    String finalReport = response.getResult().getOutput().getText();
-                    logger.info("Final report generated successfully, length: {}", finalReport.length());
-                    return Map.of(
-                        "final_report", finalReport,
-                        "report_timestamp", System.currentTimeMillis(),
-                        "workflow_completed", true
-                    );
-                })
-                .build(chatResponseFlux);
+                        .param("processing_result", processingResult));
+    }
 
-        return Map.of("final_report", generator);
+    @Override
+    public Map<String, Object> result(String finalReport) {
+        return Map.of(
+            "final_report", finalReport,
+            "report_timestamp", System.currentTimeMillis(),
+            "workflow_completed", true
+        );
     }
 
     /**
@@ -3,6 +3,8 @@ package com.alibaba.cloud.ai.review.node;
 import com.alibaba.cloud.ai.graph.OverAllState;
 import com.alibaba.cloud.ai.graph.StateGraph;
 import com.alibaba.cloud.ai.graph.action.NodeAction;
+import com.alibaba.cloud.ai.review.result.ReviewResults;
+import com.alibaba.cloud.ai.review.similar.NearDuplicateMatch;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -27,7 +29,7 @@ public class HumanReviewNode implements NodeAction {
         HashMap<String, Object> resultMap = new HashMap<>();
         
         // 获取AI分析的结果
-        String aiAnalysisResult = state.value("ai_analysis_result", "");
+        String aiAnalysisResult = ReviewResults.riskAssessmentPrompt(state);
         int riskScore = (Integer) state.value("risk_score", 5);
         String documentType = state.value("document_type", "general");
         
@@ -57,7 +59,9 @@ public class HumanReviewNode implements NodeAction {
             // 首次进入人工审核节点，准备审核信息
             resultMap.put("human_review_required", true);
             resultMap.put("human_next_node", StateGraph.END); // 默认结束，等待人类反馈
-            resultMap.put("review_instruction", generateReviewInstruction(aiAnalysisResult, riskScore, documentType));
+            resultMap.put("review_instruction", generateReviewInstruction(aiAnalysisResult, riskScore, documentType,
+                    ReviewResults.nearDuplicate(state), state.value(ReviewResults.PREVIOUS_THREAD_ID, ""),
+                    ReviewResults.revisionRound(state)));
             
             logger.info("Human review node prepared - Waiting for human reviewer input");
         }
@@ -91,7 +95,9 @@ public class HumanReviewNode implements NodeAction {
     /**
      * 生成给人类审核员的指导信息
      */
-    private String generateReviewInstruction(String aiAnalysisResult, int riskScore, String documentType) {
+    private String generateReviewInstruction(String aiAnalysisResult, int riskScore, String documentType,
+                                             NearDuplicateMatch nearDuplicate, String previousThreadId,
+                                             int revisionRound) {
         StringBuilder instruction = new StringBuilder();
         instruction.append("请审核以下AI分析结果：\n\n");
         instruction.append("文档类型：").append(documentType).append("\n");
@@ -105,9 +111,16 @@ public class HumanReviewNode implements NodeAction {
             instruction.append("✅ 低风险文档，可正常处理。\n");
         }
         
+        if (nearDuplicate != null) {
+            instruction.append("\n").append(nearDuplicate.toInstruction()).append("\n");
+        }
+        if (!previousThreadId.isBlank()) {
+            instruction.append("\n本文档为第 ").append(revisionRound).append(" 轮修改后重审（上一轮审核：").append(previousThreadId)
+                    .append("），未修改章节沿用上一轮的分析结果。\n");
+        }
+
         instruction.append("\nAI分析结果摘要：\n");
-        instruction.append(aiAnalysisResult.length() > 200 ? 
-            aiAnalysisResult.substring(0, 200) + "..." : aiAnalysisResult);
+        instruction.append(aiAnalysisResult);
         
         instruction.append("\n\n请选择审核动作：");
         instruction.append("\n- approve/通过：同意文档通过");
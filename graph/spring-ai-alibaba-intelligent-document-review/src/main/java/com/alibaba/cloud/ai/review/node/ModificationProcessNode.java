@@ -2,9 +2,10 @@ package com.alibaba.cloud.ai.review.node;
 
 import com.alibaba.cloud.ai.graph.NodeOutput;
 import com.alibaba.cloud.ai.graph.OverAllState;
-import com.alibaba.cloud.ai.graph.action.NodeAction;
 import com.alibaba.cloud.ai.graph.async.AsyncGenerator;
 import com.alibaba.cloud.ai.graph.streaming.StreamingChatGenerator;
+import com.alibaba.cloud.ai.review.llm.LlmCallContext;
+import com.alibaba.cloud.ai.review.result.ReviewResults;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.ai.chat.client.ChatClient;
@@ -14,6 +15,7 @@ import reactor.core.publisher.Flux;
 
 import java.time.LocalDateTime;
 import java.util.Map;
+import java.util.function.Consumer;
 
 /**
  * 修改处理节点
@@ -21,7 +23,7 @@ import java.util.Map;
  * 
  * @author Jast
  */
-public class ModificationProcessNode implements NodeAction {
+public class ModificationProcessNode implements PrecomputableNode {
 
     private static final Logger logger = LoggerFactory.getLogger(ModificationProcessNode.class);
 
@@ -31,7 +33,8 @@ public class ModificationProcessNode implements NodeAction {
 
         文档类型：{document_type}
         风险评分：{risk_score}
-        AI分析结果：{ai_analysis_result}
+        风险评估摘要：
+        {ai_analysis_result}
         审核员意见：{reviewer_comments}
         建议修改内容：{suggested_changes}
         修改时间：{modification_time}
@@ -68,22 +71,11 @@ public class ModificationProcessNode implements NodeAction {
         logger.info("Modification process node is running...");
 
         String documentType = state.value("document_type", "general");
-        int riskScore = (Integer) state.value("risk_score", 5);
-        String aiAnalysisResult = state.value("ai_analysis_result", "");
-        String reviewerComments = state.value("reviewer_comments", "");
-        String suggestedChanges = state.value("suggested_changes", "");
-        String modificationTime = LocalDateTime.now().toString();
+        String urgencyLevel = state.value("urgency_level", "normal");
 
         logger.info("Processing modification guidance for document type: {}", documentType);
 
-        Flux<ChatResponse> chatResponseFlux = this.chatClient.prompt()
-                .user(user -> user.text(MODIFICATION_PROCESS_PROMPT.getTemplate())
-                        .param("document_type", documentType)
-                        .param("risk_score", String.valueOf(riskScore))
-                        .param("ai_analysis_result", aiAnalysisResult)
-                        .param("reviewer_comments", reviewerComments)
-                        .param("suggested_changes", suggestedChanges)
-                        .param("modification_time", modificationTime))
+        Flux<ChatResponse> chatResponseFlux = request(state, LlmCallContext.of(documentType, urgencyLevel))
                 .stream()
                 .chatResponse();
 
@@ -93,11 +85,7 @@ public class ModificationProcessNode implements NodeAction {
                 .mapResult(response -> {
                     String modificationResult = response.getResult().getOutput().getText();
                     logger.info("Modification process guidance generated");
-                    return Map.of(
-                        "final_status", "needs_modification",
-                        "modification_guidance", modificationResult,
-                        "modification_timestamp", System.currentTimeMillis()
-                    );
+                    return result(modificationResult);
                 })
                 .build(chatResponseFlux);
 
@@ -106,4 +94,33 @@ public class ModificationProcessNode implements NodeAction {
             "modification_guidance", generator
         );
     }
+
+    @Override
+    public ChatClient.ChatClientRequestSpec request(OverAllState state, Consumer<ChatClient.AdvisorSpec> callContext) {
+        String documentType = state.value("document_type", "general");
+        int riskScore = (Integer) state.value("risk_score", 5);
+        String aiAnalysisResult = ReviewResults.riskAssessmentPrompt(state);
+        String reviewerComments = state.value("reviewer_comments", "");
+        String suggestedChanges = state.value("suggested_changes", "");
+        String modificationTime = LocalDateTime.now().toString();
+
+        return this.chatClient.prompt()
+                .advisors(callContext)
+                .user(user -> user.text(MODIFICATION_PROCESS_PROMPT.getTemplate())
+                        .param("document_type", documentType)
+                        .param("risk_score", String.valueOf(riskScore))
+                        .param("ai_analysis_result", aiAnalysisResult)
+                        .param("reviewer_comments", reviewerComments)
+                        .param("suggested_changes", suggestedChanges)
+                        .param("modification_time", modificationTime));
+    }
+
+    @Override
+    public Map<String, Object> result(String modificationResult) {
+        return Map.of(
+            "final_status", "needs_modification",
+            "modification_guidance", modificationResult,
+            "modification_timestamp", System.currentTimeMillis()
+        );
+    }
 }
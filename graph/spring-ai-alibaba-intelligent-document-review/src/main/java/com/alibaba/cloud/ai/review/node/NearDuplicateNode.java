@@ -0,0 +1,77 @@
+package com.alibaba.cloud.ai.review.node;
+
+import com.alibaba.cloud.ai.graph.OverAllState;
+import com.alibaba.cloud.ai.graph.action.NodeAction;
+import com.alibaba.cloud.ai.review.metrics.ReviewMetrics;
+import com.alibaba.cloud.ai.review.result.ReviewContent;
+import com.alibaba.cloud.ai.review.result.ReviewResults;
+import com.alibaba.cloud.ai.review.similar.DocumentFingerprint;
+import com.alibaba.cloud.ai.review.similar.NearDuplicateIndex;
+import com.alibaba.cloud.ai.review.similar.NearDuplicateMatch;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * 近重复检测节点
+ * 在大模型节点之前计算文档的 MinHash 指纹并查询近重复索引，命中时把参考文档写入状态，
+ * 随后的内容分析、合规检查与风险评估直接复用参考文档的结果
+ *
+ * @author Jast
+ */
+public class NearDuplicateNode implements NodeAction {
+
+    private static final Logger logger = LoggerFactory.getLogger(NearDuplicateNode.class);
+
+    private final NearDuplicateIndex index;
+
+    private final ReviewMetrics metrics;
+
+    private final ReviewContent content;
+
+    /**
+     * @param index   近重复索引
+     * @param metrics 审核指标，未启用指标时为 null
+     * @param content 文档原文的读取入口
+     */
+    public NearDuplicateNode(NearDuplicateIndex index, ReviewMetrics metrics, ReviewContent content) {
+        this.index = index;
+        this.metrics = metrics;
+        this.content = content;
+    }
+
+    @Override
+    public Map<String, Object> apply(OverAllState state) {
+        String documentType = state.value("document_type", "general");
+        if (state.value(ReviewResults.PREVIOUS_THREAD_ID).isPresent()) {
+            // 修改后重审按章节沿用上一轮结果，不再整体复用近重复文档的结果
+            record(documentType, "revision");
+            return Map.of();
+        }
+        String documentContent = content.documentContent(state);
+
+        DocumentFingerprint fingerprint = index.fingerprint(documentContent);
+        if (fingerprint == null) {
+            record(documentType, "skipped");
+            return Map.of();
+        }
+        Optional<NearDuplicateMatch> match = index.find(documentType, fingerprint);
+        if (match.isEmpty()) {
+            record(documentType, "miss");
+            return Map.of();
+        }
+        logger.info("Near-duplicate of review {} found - similarity: {}, changed sections: {}",
+                match.get().sourceThreadId(), String.format("%.3f", match.get().similarity()),
+                match.get().changedSections().size());
+        record(documentType, "hit");
+        return Map.of(ReviewResults.NEAR_DUPLICATE, match.get());
+    }
+
+    private void record(String documentType, String outcome) {
+        if (metrics != null) {
+            metrics.recordNearDuplicate(documentType, outcome);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.alibaba.cloud.ai.review.node;
+
+import com.alibaba.cloud.ai.graph.OverAllState;
+import com.alibaba.cloud.ai.graph.action.NodeAction;
+import org.springframework.ai.chat.client.ChatClient;
+
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * 可以预先执行的大模型节点
+ * 提示词与结果映射由节点统一提供：图中执行时以流式调用生成，预先执行时以非流式调用生成，两者得到相同的状态更新
+ *
+ * @author Jast
+ */
+public interface PrecomputableNode extends NodeAction {
+
+    /**
+     * 按状态构建模型调用
+     *
+     * @param callContext 调用上下文，见 {@link com.alibaba.cloud.ai.review.llm.LlmCallContext}
+     */
+    ChatClient.ChatClientRequestSpec request(OverAllState state, Consumer<ChatClient.AdvisorSpec> callContext);
+
+    /**
+     * 模型输出完成后写入状态的字段
+     */
+    Map<String, Object> result(String text);
+}
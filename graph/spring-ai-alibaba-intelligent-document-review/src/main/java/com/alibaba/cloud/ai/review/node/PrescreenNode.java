@@ -0,0 +1,49 @@
+package com.alibaba.cloud.ai.review.node;
+
+import com.alibaba.cloud.ai.graph.OverAllState;
+import com.alibaba.cloud.ai.graph.action.NodeAction;
+import com.alibaba.cloud.ai.review.prescreen.PrescreenResult;
+import com.alibaba.cloud.ai.review.prescreen.PrescreenRuleSource;
+import com.alibaba.cloud.ai.review.result.ReviewContent;
+import com.alibaba.cloud.ai.review.result.ReviewResults;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+
+/**
+ * 规则预筛节点
+ * 在大模型节点之前用当前规则对文档做一次多模式扫描，发现项（含偏移）存入状态，
+ * 合规检查节点把发现项写入提示词，由模型确认而不是从头发现
+ *
+ * @author Jast
+ */
+public class PrescreenNode implements NodeAction {
+
+    private static final Logger logger = LoggerFactory.getLogger(PrescreenNode.class);
+
+    private final PrescreenRuleSource rules;
+
+    private final ReviewContent content;
+
+    /**
+     * @param rules   预筛规则
+     * @param content 文档原文的读取入口
+     */
+    public PrescreenNode(PrescreenRuleSource rules, ReviewContent content) {
+        this.rules = rules;
+        this.content = content;
+    }
+
+    @Override
+    public Map<String, Object> apply(OverAllState state) {
+        String documentContent = content.documentContent(state);
+        String documentType = state.value("document_type", "general");
+
+        PrescreenResult result = rules.current().scan(documentContent, documentType);
+        logger.info("Prescreen completed - type: {}, findings: {}, matches: {}, rules version: {}, scan: {} us",
+                documentType, result.findings().size(), result.totalMatches(), result.rulesVersion(), result.scanMicros());
+
+        return Map.of(ReviewResults.PRESCREEN, result);
+    }
+}
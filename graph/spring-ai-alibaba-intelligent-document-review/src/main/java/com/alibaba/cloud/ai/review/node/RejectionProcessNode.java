@@ -2,9 +2,10 @@ package com.alibaba.cloud.ai.review.node;
 
 import com.alibaba.cloud.ai.graph.NodeOutput;
 import com.alibaba.cloud.ai.graph.OverAllState;
-import com.alibaba.cloud.ai.graph.action.NodeAction;
 import com.alibaba.cloud.ai.graph.async.AsyncGenerator;
 import com.alibaba.cloud.ai.graph.streaming.StreamingChatGenerator;
+import com.alibaba.cloud.ai.review.llm.LlmCallContext;
+import com.alibaba.cloud.ai.review.result.ReviewResults;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.ai.chat.client.ChatClient;
@@ -14,6 +15,7 @@ import reactor.core.publisher.Flux;
 
 import java.time.LocalDateTime;
 import java.util.Map;
+import java.util.function.Consumer;
 
 /**
  * 拒绝处理节点
@@ -21,7 +23,7 @@ import java.util.Map;
  * 
  * @author Jast
  */
-public class RejectionProcessNode implements NodeAction {
+public class RejectionProcessNode implements PrecomputableNode {
 
     private static final Logger logger = LoggerFactory.getLogger(RejectionProcessNode.class);
 
@@ -31,7 +33,8 @@ public class RejectionProcessNode implements NodeAction {
 
         文档类型：{document_type}
         风险评分：{risk_score}
-        AI分析结果：{ai_analysis_result}
+        风险评估摘要：
+        {ai_analysis_result}
         审核员意见：{reviewer_comments}
         拒绝时间：{rejection_time}
 
@@ -66,20 +69,12 @@ public class RejectionProcessNode implements NodeAction {
         logger.info("Rejection process node is running...");
 
         String documentType = state.value("document_type", "general");
+        String urgencyLevel = state.value("urgency_level", "normal");
         int riskScore = (Integer) state.value("risk_score", 5);
-        String aiAnalysisResult = state.value("ai_analysis_result", "");
-        String reviewerComments = state.value("reviewer_comments", "");
-        String rejectionTime = LocalDateTime.now().toString();
 
         logger.info("Processing rejection for document type: {}, risk score: {}", documentType, riskScore);
 
-        Flux<ChatResponse> chatResponseFlux = this.chatClient.prompt()
-                .user(user -> user.text(REJECTION_PROCESS_PROMPT.getTemplate())
-                        .param("document_type", documentType)
-                        .param("risk_score", String.valueOf(riskScore))
-                        .param("ai_analysis_result", aiAnalysisResult)
-                        .param("reviewer_comments", reviewerComments)
-                        .param("rejection_time", rejectionTime))
+        Flux<ChatResponse> chatResponseFlux = request(state, LlmCallContext.of(documentType, urgencyLevel))
                 .stream()
                 .chatResponse();
 
@@ -89,11 +84,7 @@ public class RejectionProcessNode implements NodeAction {
                 .mapResult(response -> {
                     String rejectionResult = response.getResult().getOutput().getText();
                     logger.info("Rejection process completed");
-                    return Map.of(
-                        "final_status", "rejected",
-                        "rejection_reason", rejectionResult,
-                        "rejection_timestamp", System.currentTimeMillis()
-                    );
+                    return result(rejectionResult);
                 })
                 .build(chatResponseFlux);
 
@@ -102,4 +93,31 @@ public class RejectionProcessNode implements NodeAction {
             "rejection_reason", generator
         );
     }
+
+    @Override
+    public ChatClient.ChatClientRequestSpec request(OverAllState state, Consumer<ChatClient.AdvisorSpec> callContext) {
+        String documentType = state.value("document_type", "general");
+        int riskScore = (Integer) state.value("risk_score", 5);
+        String aiAnalysisResult = ReviewResults.riskAssessmentPrompt(state);
+        String reviewerComments = state.value("reviewer_comments", "");
+        String rejectionTime = LocalDateTime.now().toString();
+
+        return this.chatClient.prompt()
+                .advisors(callContext)
+                .user(user -> user.text(REJECTION_PROCESS_PROMPT.getTemplate())
+                        .param("document_type", documentType)
+                        .param("risk_score", String.valueOf(riskScore))
+                        .param("ai_analysis_result", aiAnalysisResult)
+                        .param("reviewer_comments", reviewerComments)
+                        .param("rejection_time", rejectionTime));
+    }
+
+    @Override
+    public Map<String, Object> result(String rejectionResult) {
+        return Map.of(
+            "final_status", "rejected",
+            "rejection_reason", rejectionResult,
+            "rejection_timestamp", System.currentTimeMillis()
+        );
+    }
 }
@@ -5,6 +5,12 @@ import com.alibaba.cloud.ai.graph.OverAllState;
 import com.alibaba.cloud.ai.graph.action.NodeAction;
 import com.alibaba.cloud.ai.graph.async.AsyncGenerator;
 import com.alibaba.cloud.ai.graph.streaming.StreamingChatGenerator;
+import com.alibaba.cloud.ai.review.llm.LlmCallContext;
+import com.alibaba.cloud.ai.review.result.ReviewResults;
+import com.alibaba.cloud.ai.review.result.RiskAssessment;
+import com.alibaba.cloud.ai.review.result.StreamingJsonParser;
+import com.alibaba.cloud.ai.review.variant.RiskDimension;
+import com.alibaba.fastjson.JSONObject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.ai.chat.client.ChatClient;
@@ -12,11 +18,16 @@ import org.springframework.ai.chat.model.ChatResponse;
 import org.springframework.ai.chat.prompt.PromptTemplate;
 import reactor.core.publisher.Flux;
 
+import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * 风险评估节点
  * 评估文档可能带来的各种风险并给出风险等级
+ * 提示词使用内容分析与合规检查的类型化结果，评估结果解析一次后以 {@link RiskAssessment} 存入状态
+ * 评估的风险维度由审核图变体决定，默认评估全部五个维度
  * 
  * @author Jast
  */
@@ -35,39 +46,12 @@ public class RiskAssessmentNode implements NodeAction {
 
         请从以下维度评估风险：
 
-        1. 法律风险：
-           - 合规性违规风险
-           - 法律责任风险
-           - 监管处罚风险
-
-        2. 财务风险：
-           - 经济损失风险
-           - 成本超支风险
-           - 投资风险
-
-        3. 声誉风险：
-           - 品牌形象风险
-           - 公众关系风险
-           - 媒体负面报道风险
-
-        4. 操作风险：
-           - 执行困难风险
-           - 技术实施风险
-           - 人员配置风险
-
-        5. 信息安全风险：
-           - 数据泄露风险
-           - 隐私保护风险
-           - 网络安全风险
+        {risk_criteria}
 
         请以JSON格式返回评估结果，包含：
         - overall_risk_score: 总体风险评分(1-10, 1最低，10最高)
         - risk_level: 风险等级(low/medium/high/critical)
-        - legal_risk: 法律风险评分(1-10)
-        - financial_risk: 财务风险评分(1-10)
-        - reputation_risk: 声誉风险评分(1-10)
-        - operational_risk: 操作风险评分(1-10)
-        - security_risk: 安全风险评分(1-10)
+        {risk_fields}
         - identified_risks: 识别的具体风险列表
         - mitigation_measures: 风险缓解措施建议
         - escalation_required: 是否需要上级审批(true/false)
@@ -76,10 +60,26 @@ public class RiskAssessmentNode implements NodeAction {
         """
     );
 
+    private static final String NO_CONTENT_ANALYSIS = "（本类文档未做内容分析，请结合合规性检查结果评估）";
+
     private final ChatClient chatClient;
 
+    private final String riskCriteria;
+
+    private final String riskFields;
+
     public RiskAssessmentNode(ChatClient.Builder chatClientBuilder) {
+        this(chatClientBuilder, EnumSet.allOf(RiskDimension.class));
+    }
+
+    /**
+     * @param chatClientBuilder ChatClient 构建器
+     * @param dimensions        评估的风险维度，未评估的维度在结果中没有评分
+     */
+    public RiskAssessmentNode(ChatClient.Builder chatClientBuilder, Set<RiskDimension> dimensions) {
         this.chatClient = chatClientBuilder.build();
+        this.riskCriteria = RiskDimension.criteria(dimensions);
+        this.riskFields = RiskDimension.fields(dimensions);
     }
 
     @Override
@@ -88,19 +88,25 @@ public class RiskAssessmentNode implements NodeAction {
 
         String documentType = state.value("document_type", "general");
         String urgencyLevel = state.value("urgency_level", "normal");
-        String contentAnalysisResult = state.value("content_analysis_result", "");
-        String complianceResult = state.value("compliance_result", "");
+        String contentAnalysis = ReviewResults.contentAnalysisPrompt(state);
+        String contentAnalysisResult = contentAnalysis.isBlank() ? NO_CONTENT_ANALYSIS : contentAnalysis;
+        String complianceResult = ReviewResults.compliancePrompt(state);
 
         logger.info("Performing risk assessment for document type: {}, urgency: {}", documentType, urgencyLevel);
 
+        StreamingJsonParser parser = new StreamingJsonParser();
         Flux<ChatResponse> chatResponseFlux = this.chatClient.prompt()
+                .advisors(LlmCallContext.of(documentType, urgencyLevel))
                 .user(user -> user.text(RISK_ASSESSMENT_PROMPT.getTemplate())
                         .param("document_type", documentType)
                         .param("urgency_level", urgencyLevel)
                         .param("content_analysis_result", contentAnalysisResult)
-                        .param("compliance_result", complianceResult))
+                        .param("compliance_result", complianceResult)
+                        .param("risk_criteria", riskCriteria)
+                        .param("risk_fields", riskFields))
                 .stream()
-                .chatResponse();
+                .chatResponse()
+                .doOnNext(parser::append);
 
         AsyncGenerator<? extends NodeOutput> generator = StreamingChatGenerator.builder()
                 .startingNode("risk_assessment_stream")
@@ -108,41 +114,26 @@ public class RiskAssessmentNode implements NodeAction {
                 .mapResult(response -> {
                     String riskResult = response.getResult().getOutput().getText();
                     logger.info("Risk assessment completed, result length: {}", riskResult.length());
-                    
-                    // 尝试提取风险评分（简化处理）
-                    int riskScore = extractRiskScore(riskResult);
-                    
-                    return Map.of(
-                        "ai_analysis_result", riskResult,
-                        "risk_score", riskScore
-                    );
+                    return result(riskResult, parser.result());
                 })
                 .build(chatResponseFlux);
 
         return Map.of("ai_analysis_result", generator, "risk_score", generator);
     }
 
-    /**
-     * 从AI分析结果中提取风险评分
-     * 简化实现，实际应用中可能需要更复杂的JSON解析
-     */
-    private int extractRiskScore(String riskResult) {
-        try {
-            // 简单的正则匹配提取风险评分
-            if (riskResult.contains("overall_risk_score")) {
-                String[] parts = riskResult.split("overall_risk_score");
-                if (parts.length > 1) {
-                    String scorePart = parts[1].split(",")[0].replaceAll("[^0-9]", "");
-                    if (!scorePart.isEmpty()) {
-                        return Integer.parseInt(scorePart);
-                    }
-                }
-            }
-            // 默认中等风险
-            return 5;
-        } catch (Exception e) {
-            logger.warn("Failed to extract risk score from result", e);
-            return 5; // 默认中等风险
+    private static Map<String, Object> result(String riskResult, JSONObject json) {
+        Map<String, Object> result = new HashMap<>();
+        result.put("ai_analysis_result", riskResult);
+        // 风险评估后流程在人工审核前暂停，记录开始等待的时间
+        result.put("human_review_requested_at", System.currentTimeMillis());
+        if (json != null) {
+            RiskAssessment assessment = RiskAssessment.from(json);
+            result.put(ReviewResults.RISK_ASSESSMENT, assessment);
+            result.put("risk_score", assessment.overallRiskScore());
+        } else {
+            logger.warn("Risk assessment result is not valid JSON, using default risk score");
+            result.put("risk_score", RiskAssessment.DEFAULT_RISK_SCORE);
         }
+        return result;
     }
 }
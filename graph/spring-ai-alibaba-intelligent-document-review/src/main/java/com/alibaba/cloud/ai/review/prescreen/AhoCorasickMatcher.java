@@ -0,0 +1,163 @@
+package com.alibaba.cloud.ai.review.prescreen;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+
+/**
+ * Aho-Corasick 多模式匹配器
+ * 构建时把失败链接展开为稠密的状态转移表，扫描时每个字符只需一次查表，与模式数量无关。
+ * 字符先映射为字符类：模式中未出现的字符统一为类 0 并直接回到根状态，转移表大小为 状态数 x 字符类数。
+ * ASCII 字母不区分大小写。
+ *
+ * @author Jast
+ */
+public class AhoCorasickMatcher {
+
+    private static final int[] NO_OUTPUT = new int[0];
+
+    private final int[] charClass = new int[Character.MAX_VALUE + 1];
+
+    private final int alphabetSize;
+
+    private final int[] transitions;
+
+    private final int[][] outputs;
+
+    private final int[] patternLengths;
+
+    /**
+     * 匹配回调
+     */
+    @FunctionalInterface
+    public interface MatchHandler {
+
+        /**
+         * @param pattern 模式在构建列表中的下标
+         * @param start   匹配起始偏移（含）
+         * @param end     匹配结束偏移（不含）
+         */
+        void onMatch(int pattern, int start, int end);
+    }
+
+    /**
+     * @param patterns 模式列表，空字符串被忽略
+     */
+    public AhoCorasickMatcher(List<String> patterns) {
+        this.patternLengths = new int[patterns.size()];
+
+        // 字符类：0 保留给模式中未出现的字符
+        int classes = 1;
+        for (String pattern : patterns) {
+            for (int i = 0; i < pattern.length(); i++) {
+                char c = fold(pattern.charAt(i));
+                if (charClass[c] == 0) {
+                    charClass[c] = classes++;
+                }
+            }
+        }
+        for (char c = 'A'; c <= 'Z'; c++) {
+            charClass[c] = charClass[Character.toLowerCase(c)];
+        }
+        this.alphabetSize = classes;
+
+        // 构建字典树
+        List<Map<Integer, Integer>> children = new ArrayList<>();
+        List<List<Integer>> terminals = new ArrayList<>();
+        children.add(new HashMap<>());
+        terminals.add(new ArrayList<>());
+        for (int p = 0; p < patterns.size(); p++) {
+            String pattern = patterns.get(p);
+            patternLengths[p] = pattern.length();
+            if (pattern.isEmpty()) {
+                continue;
+            }
+            int state = 0;
+            for (int i = 0; i < pattern.length(); i++) {
+                int c = charClass[fold(pattern.charAt(i))];
+                Integer next = children.get(state).get(c);
+                if (next == null) {
+                    next = children.size();
+                    children.get(state).put(c, next);
+                    children.add(new HashMap<>());
+                    terminals.add(new ArrayList<>());
+                }
+                state = next;
+            }
+            terminals.get(state).add(p);
+        }
+
+        // 按广度优先计算失败链接，同时展开为稠密转移表并合并输出
+        int states = children.size();
+        this.transitions = new int[Math.multiplyExact(states, alphabetSize)];
+        this.outputs = new int[states][];
+        int[] fail = new int[states];
+        Queue<Integer> queue = new ArrayDeque<>();
+        outputs[0] = toArray(terminals.get(0));
+        for (Map.Entry<Integer, Integer> child : children.get(0).entrySet()) {
+            transitions[child.getKey()] = child.getValue();
+            queue.add(child.getValue());
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            int[] own = toArray(terminals.get(state));
+            int[] inherited = outputs[fail[state]];
+            outputs[state] = inherited.length == 0 ? own : concat(own, inherited);
+            int base = state * alphabetSize;
+            int failBase = fail[state] * alphabetSize;
+            for (int c = 0; c < alphabetSize; c++) {
+                Integer next = children.get(state).get(c);
+                if (next != null) {
+                    fail[next] = transitions[failBase + c];
+                    transitions[base + c] = next;
+                    queue.add(next);
+                } else {
+                    transitions[base + c] = transitions[failBase + c];
+                }
+            }
+        }
+    }
+
+    /**
+     * 单次扫描文本，按匹配结束位置的顺序回调所有（包括重叠的）匹配
+     */
+    public void scan(CharSequence text, MatchHandler handler) {
+        int[] classes = charClass;
+        int[] delta = transitions;
+        int width = alphabetSize;
+        int state = 0;
+        for (int i = 0, length = text.length(); i < length; i++) {
+            state = delta[state * width + classes[text.charAt(i)]];
+            int[] matched = outputs[state];
+            for (int pattern : matched) {
+                handler.onMatch(pattern, i + 1 - patternLengths[pattern], i + 1);
+            }
+        }
+    }
+
+    public int stateCount() {
+        return outputs.length;
+    }
+
+    public int alphabetSize() {
+        return alphabetSize;
+    }
+
+    private static char fold(char c) {
+        return c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+    }
+
+    private static int[] toArray(List<Integer> values) {
+        return values.isEmpty() ? NO_OUTPUT : values.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private static int[] concat(int[] first, int[] second) {
+        int[] merged = Arrays.copyOf(first, first.length + second.length);
+        System.arraycopy(second, 0, merged, first.length, second.length);
+        return merged;
+    }
+}
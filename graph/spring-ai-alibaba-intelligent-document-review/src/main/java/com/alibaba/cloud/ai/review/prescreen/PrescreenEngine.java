@@ -0,0 +1,182 @@
+package com.alibaba.cloud.ai.review.prescreen;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Matcher;
+
+/**
+ * 预筛引擎
+ * 所有规则的关键词与正则锚点编译为一个 {@link AhoCorasickMatcher}，对文档只做一次扫描：
+ * keyword 规则直接产生发现项；带锚点的 regex 规则只在锚点命中位置前后的窗口内执行正则（重叠窗口合并）；
+ * absent 规则在扫描结束后检查关键词是否出现过。没有锚点的 regex 规则需要对全文执行一次正则，应尽量避免。
+ * 引擎编译后不可变，可被多个线程同时使用。
+ *
+ * @author Jast
+ */
+public class PrescreenEngine {
+
+    private static final int MAX_EXCERPT_CHARS = 60;
+
+    private final List<PrescreenRule> rules;
+
+    private final AhoCorasickMatcher matcher;
+
+    /**
+     * 模式下标 -> 所属规则下标
+     */
+    private final int[] patternRules;
+
+    private final int maxFindingsPerRule;
+
+    private final long version;
+
+    /**
+     * @param rules              规则列表
+     * @param maxFindingsPerRule 每条规则最多保留的发现项数
+     * @param version            规则版本，写入扫描结果便于追溯
+     */
+    public PrescreenEngine(List<PrescreenRule> rules, int maxFindingsPerRule, long version) {
+        this.rules = List.copyOf(rules);
+        this.maxFindingsPerRule = Math.max(1, maxFindingsPerRule);
+        this.version = version;
+
+        List<String> patterns = new ArrayList<>();
+        List<Integer> owners = new ArrayList<>();
+        for (int r = 0; r < this.rules.size(); r++) {
+            PrescreenRule rule = this.rules.get(r);
+            for (String keyword : rule.type() == PrescreenRule.Type.REGEX ? rule.anchors() : rule.keywords()) {
+                patterns.add(keyword);
+                owners.add(r);
+            }
+        }
+        this.matcher = new AhoCorasickMatcher(patterns);
+        this.patternRules = owners.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    public PrescreenResult scan(String text, String documentType) {
+        long start = System.nanoTime();
+        int ruleCount = rules.size();
+        boolean[] applicable = new boolean[ruleCount];
+        for (int r = 0; r < ruleCount; r++) {
+            applicable[r] = rules.get(r).appliesTo(documentType);
+        }
+
+        List<List<PrescreenFinding>> found = new ArrayList<>(ruleCount);
+        for (int r = 0; r < ruleCount; r++) {
+            found.add(new ArrayList<>());
+        }
+        int[] matchCounts = new int[ruleCount];
+        boolean[] seen = new boolean[ruleCount];
+        // regex 规则的锚点窗口，按出现顺序记录 [from, to)，相邻重叠的窗口直接合并
+        int[][] windows = new int[ruleCount][];
+        int[] windowCounts = new int[ruleCount];
+
+        int length = text.length();
+        matcher.scan(text, (pattern, from, to) -> {
+            int r = patternRules[pattern];
+            if (!applicable[r]) {
+                return;
+            }
+            PrescreenRule rule = rules.get(r);
+            switch (rule.type()) {
+                case KEYWORD -> {
+                    matchCounts[r]++;
+                    if (found.get(r).size() < maxFindingsPerRule) {
+                        found.get(r).add(finding(rule, text, from, to));
+                    }
+                }
+                case ABSENT -> seen[r] = true;
+                case REGEX -> {
+                    int windowFrom = Math.max(0, from - rule.window());
+                    int windowTo = Math.min(length, to + rule.window());
+                    int count = windowCounts[r];
+                    // 匹配按结束位置递增回调，新窗口的结束位置不会早于上一个窗口
+                    if (count > 0 && windows[r][2 * count - 1] >= windowFrom) {
+                        windows[r][2 * count - 2] = Math.min(windows[r][2 * count - 2], windowFrom);
+                        windows[r][2 * count - 1] = windowTo;
+                    } else {
+                        if (windows[r] == null) {
+                            windows[r] = new int[8];
+                        } else if (windows[r].length == 2 * count) {
+                            windows[r] = Arrays.copyOf(windows[r], 4 * count);
+                        }
+                        windows[r][2 * count] = windowFrom;
+                        windows[r][2 * count + 1] = windowTo;
+                        windowCounts[r]++;
+                    }
+                }
+            }
+        });
+
+        for (int r = 0; r < ruleCount; r++) {
+            PrescreenRule rule = rules.get(r);
+            if (!applicable[r]) {
+                continue;
+            }
+            if (rule.type() == PrescreenRule.Type.ABSENT && !seen[r]) {
+                matchCounts[r]++;
+                found.get(r).add(finding(rule, text, -1, -1));
+            } else if (rule.type() == PrescreenRule.Type.REGEX) {
+                // 窗口边界不作为 ^ / $ 的行首行尾，环视可以看到窗口外的文本
+                Matcher regex = rule.pattern().matcher(text).useAnchoringBounds(false).useTransparentBounds(true);
+                if (rule.anchors().isEmpty()) {
+                    matchCounts[r] += findAll(regex, rule, text, 0, length, found.get(r));
+                } else {
+                    for (int w = 0; w < windowCounts[r]; w++) {
+                        matchCounts[r] += findAll(regex, rule, text, windows[r][2 * w], windows[r][2 * w + 1], found.get(r));
+                    }
+                }
+            }
+        }
+
+        List<PrescreenFinding> findings = new ArrayList<>();
+        int totalMatches = 0;
+        for (int r = 0; r < ruleCount; r++) {
+            findings.addAll(found.get(r));
+            totalMatches += matchCounts[r];
+        }
+        return new PrescreenResult(List.copyOf(findings), totalMatches, version, (System.nanoTime() - start) / 1000);
+    }
+
+    public List<PrescreenRule> rules() {
+        return rules;
+    }
+
+    public long version() {
+        return version;
+    }
+
+    public int automatonStates() {
+        return matcher.stateCount();
+    }
+
+    private int findAll(Matcher regex, PrescreenRule rule, String text, int from, int to, List<PrescreenFinding> found) {
+        int count = 0;
+        regex.region(from, to);
+        while (regex.find()) {
+            count++;
+            if (found.size() < maxFindingsPerRule) {
+                found.add(finding(rule, text, regex.start(), regex.end()));
+            }
+        }
+        return count;
+    }
+
+    /**
+     * 命中所在行不超过 60 个字符时以整行作为示例（如「- 联系电话：」），否则只取命中文本
+     */
+    private static PrescreenFinding finding(PrescreenRule rule, String text, int start, int end) {
+        String excerpt = "";
+        if (start >= 0) {
+            int lineStart = text.lastIndexOf('\n', start - 1) + 1;
+            int lineEnd = text.indexOf('\n', end);
+            String line = text.substring(lineStart, lineEnd < 0 ? text.length() : lineEnd).strip();
+            excerpt = line.length() <= MAX_EXCERPT_CHARS ? line : text.substring(start, end).strip();
+            if (excerpt.length() > MAX_EXCERPT_CHARS) {
+                excerpt = excerpt.substring(0, MAX_EXCERPT_CHARS) + "...";
+            }
+        }
+        return new PrescreenFinding(rule.id(), rule.category(), rule.severity(), rule.description(), start, end, excerpt);
+    }
+}
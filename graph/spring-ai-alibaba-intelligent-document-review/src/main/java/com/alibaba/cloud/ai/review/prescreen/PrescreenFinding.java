@@ -0,0 +1,28 @@
+package com.alibaba.cloud.ai.review.prescreen;
+
+import java.io.Serializable;
+
+/**
+ * 预筛发现项
+ *
+ * @param ruleId      命中的规则 id
+ * @param category    规则分类
+ * @param severity    严重程度
+ * @param description 问题描述
+ * @param start       命中文本在文档中的起始偏移（含），absent 规则为 -1
+ * @param end         命中文本在文档中的结束偏移（不含），absent 规则为 -1
+ * @param match       命中的文本，absent 规则为空字符串
+ * @author Jast
+ */
+public record PrescreenFinding(String ruleId,
+                               String category,
+                               String severity,
+                               String description,
+                               int start,
+                               int end,
+                               String match) implements Serializable {
+
+    public boolean isAbsence() {
+        return start < 0;
+    }
+}
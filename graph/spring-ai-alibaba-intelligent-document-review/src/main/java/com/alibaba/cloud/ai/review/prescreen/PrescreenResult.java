@@ -0,0 +1,113 @@
+package com.alibaba.cloud.ai.review.prescreen;
+
+import com.alibaba.fastjson.JSONArray;
+import com.alibaba.fastjson.JSONObject;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 预筛结果
+ *
+ * @param findings     发现项，按规则分组、组内按出现位置排序；每条规则最多保留若干条
+ * @param totalMatches 截断前的命中总数
+ * @param rulesVersion 扫描时使用的规则版本
+ * @param scanMicros   扫描耗时（微秒）
+ * @author Jast
+ */
+public record PrescreenResult(List<PrescreenFinding> findings,
+                              int totalMatches,
+                              long rulesVersion,
+                              long scanMicros) implements Serializable {
+
+    /**
+     * 写入提示词的规则条数上限
+     */
+    private static final int MAX_PROMPT_RULES = 20;
+
+    /**
+     * 每条规则写入提示词的命中示例数
+     */
+    private static final int MAX_PROMPT_EXAMPLES = 3;
+
+    private static final List<String> SEVERITY_ORDER = List.of("high", "medium", "low");
+
+    /**
+     * 供合规检查提示词使用的文本：按严重程度列出命中的规则、命中次数与示例位置，没有发现项时返回空字符串
+     */
+    public String toPrompt() {
+        Map<String, List<PrescreenFinding>> byRule = new LinkedHashMap<>();
+        for (PrescreenFinding finding : findings) {
+            byRule.computeIfAbsent(finding.ruleId(), id -> new ArrayList<>()).add(finding);
+        }
+        List<List<PrescreenFinding>> groups = new ArrayList<>(byRule.values());
+        groups.sort((a, b) -> Integer.compare(severityRank(a.get(0).severity()), severityRank(b.get(0).severity())));
+
+        StringBuilder prompt = new StringBuilder();
+        for (int i = 0; i < groups.size() && i < MAX_PROMPT_RULES; i++) {
+            List<PrescreenFinding> group = groups.get(i);
+            PrescreenFinding first = group.get(0);
+            prompt.append("- [").append(first.severity()).append("] ").append(first.description())
+                    .append("（").append(first.ruleId()).append("）：");
+            if (first.isAbsence()) {
+                prompt.append("文档中未找到相关条款\n");
+                continue;
+            }
+            prompt.append(group.size()).append(" 处，如 ");
+            for (int j = 0; j < group.size() && j < MAX_PROMPT_EXAMPLES; j++) {
+                PrescreenFinding finding = group.get(j);
+                prompt.append(j > 0 ? "、" : "").append("“").append(finding.match()).append("”@").append(finding.start());
+            }
+            prompt.append('\n');
+        }
+        if (groups.size() > MAX_PROMPT_RULES) {
+            prompt.append("- 另有 ").append(groups.size() - MAX_PROMPT_RULES).append(" 条规则命中，已省略\n");
+        }
+        return prompt.toString().strip();
+    }
+
+    /**
+     * 状态序列化后结果变为字段 Map，这里兼容驼峰与下划线两种键名
+     */
+    public static PrescreenResult from(JSONObject json) {
+        List<PrescreenFinding> findings = new ArrayList<>();
+        JSONArray items = json.getJSONArray("findings");
+        if (items != null) {
+            for (int i = 0; i < items.size(); i++) {
+                JSONObject item = items.getJSONObject(i);
+                findings.add(new PrescreenFinding(
+                        text(item, "ruleId", "rule_id"),
+                        text(item, "category", "category"),
+                        text(item, "severity", "severity"),
+                        text(item, "description", "description"),
+                        number(item, "start", "start", -1),
+                        number(item, "end", "end", -1),
+                        text(item, "match", "match")));
+            }
+        }
+        return new PrescreenResult(List.copyOf(findings),
+                number(json, "totalMatches", "total_matches", findings.size()),
+                number(json, "rulesVersion", "rules_version", 0),
+                number(json, "scanMicros", "scan_micros", 0));
+    }
+
+    private static int severityRank(String severity) {
+        int rank = SEVERITY_ORDER.indexOf(severity);
+        return rank < 0 ? SEVERITY_ORDER.size() : rank;
+    }
+
+    private static String text(JSONObject json, String camel, String snake) {
+        String value = json.getString(camel);
+        value = value != null ? value : json.getString(snake);
+        return value == null ? "" : value;
+    }
+
+    private static int number(JSONObject json, String camel, String snake, int defaultValue) {
+        Integer value = json.getInteger(camel);
+        value = value != null ? value : json.getInteger(snake);
+        return value == null ? defaultValue : value;
+    }
+}
@@ -0,0 +1,123 @@
+package com.alibaba.cloud.ai.review.prescreen;
+
+import com.alibaba.fastjson.JSONArray;
+import com.alibaba.fastjson.JSONObject;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * 预筛规则
+ *
+ * @param id            规则 id，同时作为发现项的标识
+ * @param category      分类，如 liability、termination
+ * @param severity      严重程度：high / medium / low
+ * @param description   写入提示词的问题描述
+ * @param type          规则类型
+ * @param keywords      keyword 规则的关键词；absent 规则要求至少出现其中之一
+ * @param pattern       regex 规则的正则表达式
+ * @param anchors       regex 规则的锚点关键词，非空时只在锚点命中位置前后 window 个字符内执行正则
+ * @param window        锚点窗口大小（字符）
+ * @param documentTypes 适用的文档类型，为空时适用于所有类型
+ * @author Jast
+ */
+public record PrescreenRule(String id,
+                            String category,
+                            String severity,
+                            String description,
+                            Type type,
+                            List<String> keywords,
+                            Pattern pattern,
+                            List<String> anchors,
+                            int window,
+                            Set<String> documentTypes) {
+
+    /**
+     * 规则类型
+     */
+    public enum Type {
+
+        /**
+         * 出现任一关键词即为发现项
+         */
+        KEYWORD,
+
+        /**
+         * 正则表达式匹配即为发现项
+         */
+        REGEX,
+
+        /**
+         * 所有关键词都未出现时为发现项（如缺少终止条款）
+         */
+        ABSENT
+    }
+
+    public boolean appliesTo(String documentType) {
+        return documentTypes.isEmpty()
+                || (documentType != null && documentTypes.contains(documentType.toLowerCase(Locale.ROOT)));
+    }
+
+    /**
+     * 从规则文件中的 JSON 对象解析，配置错误时抛出 IllegalArgumentException
+     */
+    public static PrescreenRule from(JSONObject json, int defaultWindow) {
+        String id = json.getString("id");
+        if (id == null || id.isBlank()) {
+            throw new IllegalArgumentException("Prescreen rule without id: " + json);
+        }
+        Type type;
+        try {
+            type = Type.valueOf(json.getString("type") == null ? "KEYWORD" : json.getString("type").toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Prescreen rule " + id + " has unknown type: " + json.getString("type"));
+        }
+        List<String> keywords = strings(json.getJSONArray("keywords"));
+        List<String> anchors = strings(json.getJSONArray("anchors"));
+        Pattern pattern = null;
+        if (type == Type.REGEX) {
+            String regex = json.getString("pattern");
+            if (regex == null || regex.isEmpty()) {
+                throw new IllegalArgumentException("Prescreen regex rule " + id + " has no pattern");
+            }
+            try {
+                pattern = Pattern.compile(regex, Pattern.MULTILINE | Pattern.CASE_INSENSITIVE);
+            } catch (PatternSyntaxException e) {
+                throw new IllegalArgumentException("Prescreen rule " + id + " has an invalid pattern: " + e.getMessage());
+            }
+        } else if (keywords.isEmpty()) {
+            throw new IllegalArgumentException("Prescreen " + type.name().toLowerCase(Locale.ROOT) + " rule " + id
+                    + " has no keywords");
+        }
+        Set<String> documentTypes = new LinkedHashSet<>();
+        for (String documentType : strings(json.getJSONArray("document_types"))) {
+            documentTypes.add(documentType.toLowerCase(Locale.ROOT));
+        }
+        return new PrescreenRule(id,
+                json.getString("category") == null ? "general" : json.getString("category"),
+                json.getString("severity") == null ? "medium" : json.getString("severity").toLowerCase(Locale.ROOT),
+                json.getString("description") == null ? id : json.getString("description"),
+                type, keywords, pattern, anchors,
+                json.getInteger("window") == null ? defaultWindow : json.getInteger("window"),
+                Set.copyOf(documentTypes));
+    }
+
+    private static List<String> strings(JSONArray array) {
+        if (array == null) {
+            return List.of();
+        }
+        List<String> strings = new ArrayList<>(array.size());
+        for (int i = 0; i < array.size(); i++) {
+            String value = array.getString(i);
+            if (value != null && !value.isEmpty()) {
+                strings.add(value);
+            }
+        }
+        return List.copyOf(strings);
+    }
+}
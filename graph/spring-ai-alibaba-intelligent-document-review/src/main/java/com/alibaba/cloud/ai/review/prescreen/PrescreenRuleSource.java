@@ -0,0 +1,200 @@
+package com.alibaba.cloud.ai.review.prescreen;
+
+import com.alibaba.cloud.ai.review.config.DocumentReviewProperties;
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONArray;
+import com.alibaba.fastjson.JSONObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 预筛规则来源
+ * 从 classpath 或本地文件加载 JSON 规则并编译为 {@link PrescreenEngine}。规则来自本地文件时按 reload-interval 检查文件的
+ * 修改时间与大小，变化后重新编译并原子替换当前引擎，进行中的扫描继续使用旧引擎；新规则无法解析时保留旧规则并记录错误。
+ *
+ * @author Jast
+ */
+@Component
+@ConditionalOnProperty(prefix = "document-review.prescreen", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class PrescreenRuleSource implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(PrescreenRuleSource.class);
+
+    private static final String CLASSPATH_PREFIX = "classpath:";
+
+    private final String location;
+
+    private final DocumentReviewProperties.Prescreen config;
+
+    private final ScheduledExecutorService watcher;
+
+    private volatile PrescreenEngine engine;
+
+    private volatile Instant loadedAt;
+
+    private volatile String lastError;
+
+    private long reloadFailures;
+
+    private String fileSignature;
+
+    public PrescreenRuleSource(DocumentReviewProperties properties) {
+        this.config = properties.getPrescreen();
+        this.location = config.getRulesLocation();
+        // 启动时规则无法加载直接失败，避免在没有预筛的情况下静默运行
+        if (!reload()) {
+            throw new IllegalStateException("Failed to load prescreen rules from " + location + ": " + lastError);
+        }
+        if (!location.startsWith(CLASSPATH_PREFIX) && !config.getReloadInterval().isZero()) {
+            this.watcher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "prescreen-rule-watcher");
+                thread.setDaemon(true);
+                return thread;
+            });
+            long interval = Math.max(100, config.getReloadInterval().toMillis());
+            this.watcher.scheduleWithFixedDelay(this::reloadIfChanged, interval, interval, TimeUnit.MILLISECONDS);
+        } else {
+            this.watcher = null;
+        }
+    }
+
+    /**
+     * 当前规则编译的引擎
+     */
+    public PrescreenEngine current() {
+        return engine;
+    }
+
+    /**
+     * 重新加载规则
+     *
+     * @return 是否加载成功；失败时继续使用原有规则
+     */
+    public synchronized boolean reload() {
+        try {
+            String signature = location.startsWith(CLASSPATH_PREFIX) ? null : signature(Path.of(location));
+            List<PrescreenRule> rules = parse(read());
+            long version = engine == null ? 1 : engine.version() + 1;
+            PrescreenEngine compiled = new PrescreenEngine(rules, config.getMaxFindingsPerRule(), version);
+            this.engine = compiled;
+            this.fileSignature = signature;
+            this.loadedAt = Instant.now();
+            this.lastError = null;
+            logger.info("Loaded {} prescreen rules from {} - version: {}, automaton states: {}", rules.size(), location,
+                    version, compiled.automatonStates());
+            return true;
+        } catch (IOException | RuntimeException e) {
+            reloadFailures++;
+            lastError = e.getMessage();
+            logger.error("Failed to load prescreen rules from {}, keeping version {}", location,
+                    engine == null ? 0 : engine.version(), e);
+            return false;
+        }
+    }
+
+    /**
+     * 规则来源统计
+     */
+    public synchronized Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("location", location);
+        stats.put("hot_reload", watcher != null);
+        stats.put("version", engine.version());
+        stats.put("rules", engine.rules().size());
+        stats.put("automaton_states", engine.automatonStates());
+        stats.put("loaded_at", loadedAt.toString());
+        stats.put("reload_failures", reloadFailures);
+        stats.put("last_error", lastError);
+        return stats;
+    }
+
+    @Override
+    public void destroy() {
+        if (watcher != null) {
+            watcher.shutdownNow();
+        }
+    }
+
+    private synchronized void reloadIfChanged() {
+        try {
+            String signature = signature(Path.of(location));
+            if (!signature.equals(fileSignature)) {
+                logger.info("Prescreen rule file {} changed, reloading", location);
+                if (!reload()) {
+                    // 记录失败的文件版本，文件再次变化前不重复尝试
+                    fileSignature = signature;
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Failed to check prescreen rule file {}: {}", location, e.getMessage());
+        }
+    }
+
+    private String read() throws IOException {
+        if (location.startsWith(CLASSPATH_PREFIX)) {
+            String resource = location.substring(CLASSPATH_PREFIX.length());
+            try (InputStream in = PrescreenRuleSource.class.getResourceAsStream(resource.startsWith("/") ? resource : "/" + resource)) {
+                if (in == null) {
+                    throw new IOException("Classpath resource not found: " + resource);
+                }
+                return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            }
+        }
+        return Files.readString(Path.of(location), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 规则文件格式：{"window": 100, "rules": [...]}，也可以直接是规则数组
+     */
+    private List<PrescreenRule> parse(String content) {
+        Object parsed = JSON.parse(content);
+        int window = config.getDefaultWindow();
+        JSONArray items;
+        if (parsed instanceof JSONArray array) {
+            items = array;
+        } else if (parsed instanceof JSONObject object) {
+            window = object.getInteger("window") == null ? window : object.getInteger("window");
+            items = object.getJSONArray("rules");
+        } else {
+            items = null;
+        }
+        if (items == null) {
+            throw new IllegalArgumentException("Prescreen rule file must be a JSON array or an object with \"rules\"");
+        }
+        List<PrescreenRule> rules = new ArrayList<>(items.size());
+        Set<String> ids = new HashSet<>();
+        for (int i = 0; i < items.size(); i++) {
+            PrescreenRule rule = PrescreenRule.from(items.getJSONObject(i), window);
+            if (!ids.add(rule.id())) {
+                throw new IllegalArgumentException("Duplicate prescreen rule id: " + rule.id());
+            }
+            rules.add(rule);
+        }
+        return rules;
+    }
+
+    private static String signature(Path file) throws IOException {
+        BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        return attributes.lastModifiedTime().toMillis() + ":" + attributes.size();
+    }
+}
@@ -0,0 +1,43 @@
+package com.alibaba.cloud.ai.review.result;
+
+import com.alibaba.fastjson.JSONObject;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * 合规性检查结果
+ *
+ * @author Jast
+ */
+public record ComplianceResult(Integer complianceScore,
+                               List<String> passedChecks,
+                               List<String> failedChecks,
+                               List<String> warnings,
+                               List<String> recommendations,
+                               String overallStatus) implements Serializable {
+
+    public static ComplianceResult from(JSONObject json) {
+        return new ComplianceResult(
+                JsonFields.score(json, "compliance_score"),
+                JsonFields.strings(json, "passed_checks"),
+                JsonFields.strings(json, "failed_checks"),
+                JsonFields.strings(json, "warnings"),
+                JsonFields.strings(json, "recommendations"),
+                JsonFields.text(json, "overall_status"));
+    }
+
+    /**
+     * 供下游节点提示词使用的精简文本；通过的检查项只保留数量
+     */
+    public String toPrompt() {
+        StringBuilder prompt = new StringBuilder();
+        JsonFields.appendLine(prompt, "总体状态", overallStatus);
+        JsonFields.appendLine(prompt, "合规评分", complianceScore);
+        JsonFields.appendLine(prompt, "通过检查项数", passedChecks.isEmpty() ? null : passedChecks.size());
+        JsonFields.appendList(prompt, "未通过检查项", failedChecks);
+        JsonFields.appendList(prompt, "警告", warnings);
+        JsonFields.appendList(prompt, "改进建议", recommendations);
+        return prompt.toString().strip();
+    }
+}
@@ -0,0 +1,45 @@
+package com.alibaba.cloud.ai.review.result;
+
+import com.alibaba.fastjson.JSONObject;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * 内容分析结果
+ *
+ * @author Jast
+ */
+public record ContentAnalysis(String summary,
+                              List<String> mainTopics,
+                              List<String> keyPoints,
+                              Integer structureQuality,
+                              Integer languageQuality,
+                              Integer completeness,
+                              List<String> initialConcerns) implements Serializable {
+
+    public static ContentAnalysis from(JSONObject json) {
+        return new ContentAnalysis(
+                JsonFields.text(json, "summary"),
+                JsonFields.strings(json, "main_topics"),
+                JsonFields.strings(json, "key_points"),
+                JsonFields.score(json, "structure_quality"),
+                JsonFields.score(json, "language_quality"),
+                JsonFields.score(json, "completeness"),
+                JsonFields.strings(json, "initial_concerns"));
+    }
+
+    /**
+     * 供下游节点提示词使用的精简文本
+     */
+    public String toPrompt() {
+        StringBuilder prompt = new StringBuilder();
+        JsonFields.appendLine(prompt, "摘要", summary);
+        JsonFields.appendList(prompt, "主要话题", mainTopics);
+        JsonFields.appendList(prompt, "关键点", keyPoints);
+        JsonFields.appendLine(prompt, "结构/语言/完整性评分",
+                JsonFields.scores(structureQuality, languageQuality, completeness));
+        JsonFields.appendList(prompt, "初步问题", initialConcerns);
+        return prompt.toString().strip();
+    }
+}
@@ -0,0 +1,133 @@
+package com.alibaba.cloud.ai.review.result;
+
+import com.alibaba.fastjson.JSONObject;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 模型 JSON 输出的字段读取与提示词格式化工具
+ * 模型返回的字段类型并不稳定（评分可能是字符串或小数，列表元素可能是对象），这里统一做宽松转换
+ *
+ * @author Jast
+ */
+final class JsonFields {
+
+    /**
+     * 写入提示词时每个列表最多保留的条目数
+     */
+    static final int MAX_PROMPT_ITEMS = 10;
+
+    /**
+     * 字符串评分中的第一个数值，可带 "/满分"，如 "8"、"7.5"、"8/10"、"评分：4/5"
+     */
+    private static final Pattern SCORE = Pattern.compile("(-?\\d+(?:\\.\\d+)?)(?:\\s*/\\s*(\\d+(?:\\.\\d+)?))?");
+
+    private JsonFields() {
+    }
+
+    static String text(JSONObject json, String key) {
+        Object value = json.get(key);
+        return value == null ? null : value.toString().strip();
+    }
+
+    /**
+     * 读取 1-10 的评分，兼容数值、小数与字符串；字符串取第一个数值，"x/满分" 按满分折算为 10 分制，
+     * 结果四舍五入后限制在 1-10，无法识别时返回 null
+     */
+    static Integer score(JSONObject json, String key) {
+        Object value = json.get(key);
+        double score;
+        if (value instanceof Number number) {
+            score = number.doubleValue();
+        } else if (value instanceof String text) {
+            Matcher matcher = SCORE.matcher(text);
+            if (!matcher.find()) {
+                return null;
+            }
+            score = Double.parseDouble(matcher.group(1));
+            if (matcher.group(2) != null) {
+                double fullScore = Double.parseDouble(matcher.group(2));
+                if (fullScore > 0) {
+                    score = score * 10 / fullScore;
+                }
+            }
+        } else {
+            return null;
+        }
+        if (Double.isNaN(score) || Double.isInfinite(score)) {
+            return null;
+        }
+        return (int) Math.max(1, Math.min(10, Math.round(score)));
+    }
+
+    static boolean flag(JSONObject json, String key) {
+        Object value = json.get(key);
+        return value instanceof Boolean bool ? bool : value != null && "true".equalsIgnoreCase(value.toString().strip());
+    }
+
+    /**
+     * 读取字符串列表；单个字符串视为只有一项，对象元素取各字段值拼接
+     */
+    static List<String> strings(JSONObject json, String key) {
+        Object value = json.get(key);
+        if (value == null) {
+            return List.of();
+        }
+        Collection<?> items = value instanceof Collection<?> collection ? collection : List.of(value);
+        List<String> strings = new ArrayList<>(items.size());
+        for (Object item : items) {
+            String text = item instanceof Map<?, ?> map ? joinValues(map) : item == null ? "" : item.toString().strip();
+            if (!text.isEmpty()) {
+                strings.add(text);
+            }
+        }
+        return List.copyOf(strings);
+    }
+
+    private static String joinValues(Map<?, ?> map) {
+        StringBuilder text = new StringBuilder();
+        for (Object value : map.values()) {
+            if (value != null) {
+                text.append(text.length() > 0 ? " / " : "").append(value);
+            }
+        }
+        return text.toString();
+    }
+
+    /**
+     * 多个评分以 "/" 连接，缺失的评分记为 "-"；全部缺失时返回 null
+     */
+    static String scores(Integer... scores) {
+        StringBuilder text = new StringBuilder();
+        boolean any = false;
+        for (Integer score : scores) {
+            text.append(text.length() > 0 ? "/" : "").append(score == null ? "-" : score.toString());
+            any |= score != null;
+        }
+        return any ? text.toString() : null;
+    }
+
+    static void appendLine(StringBuilder prompt, String label, Object value) {
+        if (value != null && !value.toString().isBlank()) {
+            prompt.append(label).append('：').append(value).append('\n');
+        }
+    }
+
+    static void appendList(StringBuilder prompt, String label, List<String> items) {
+        if (items.isEmpty()) {
+            return;
+        }
+        prompt.append(label).append('：');
+        int shown = Math.min(items.size(), MAX_PROMPT_ITEMS);
+        prompt.append(String.join("；", items.subList(0, shown)));
+        if (items.size() > shown) {
+            prompt.append("；等 ").append(items.size()).append(" 项");
+        }
+        prompt.append('\n');
+    }
+}
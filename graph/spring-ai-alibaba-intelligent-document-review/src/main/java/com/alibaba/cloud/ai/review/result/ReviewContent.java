@@ -0,0 +1,78 @@
+package com.alibaba.cloud.ai.review.result;
+
+import com.alibaba.cloud.ai.graph.OverAllState;
+import com.alibaba.cloud.ai.review.blob.BlobRef;
+import com.alibaba.cloud.ai.review.blob.BlobStore;
+import com.alibaba.cloud.ai.review.upload.DocumentRef;
+import com.alibaba.cloud.ai.review.upload.DocumentSpool;
+
+/**
+ * 状态中文档与大字段原文的读取入口
+ * 上传的文档（{@link DocumentRef}）与以 {@link BlobRef} 保存的字段只记录内容哈希，文件位置分别由
+ * {@link DocumentSpool} 与 {@link BlobStore} 解析，状态、检查点与发送给客户端的事件中都不包含服务端路径。
+ * 未启用引用存储时状态中只有原文，直接返回。
+ *
+ * @author Jast
+ */
+public class ReviewContent {
+
+    /**
+     * 状态中只有原文时使用（如基准测试），状态中出现引用时抛出异常
+     */
+    public static final ReviewContent INLINE = new ReviewContent(null, null);
+
+    private final DocumentSpool spool;
+
+    private final BlobStore blobs;
+
+    /**
+     * @param spool 上传文档落盘目录，为 null 时不支持按引用传入的文档
+     * @param blobs 大字段引用存储，未启用时为 null
+     */
+    public ReviewContent(DocumentSpool spool, BlobStore blobs) {
+        this.spool = spool;
+        this.blobs = blobs;
+    }
+
+    /**
+     * 文档全文：优先读取 document_content，上传的文档按引用从落盘文件读取
+     */
+    public String documentContent(OverAllState state) {
+        String content = text(state, "document_content");
+        if (!content.isEmpty()) {
+            return content;
+        }
+        DocumentRef ref = ReviewResults.documentRef(state);
+        if (ref == null) {
+            return "";
+        }
+        if (spool == null) {
+            throw new IllegalStateException("State holds uploaded document " + ref.sha256() + " but no document spool is available");
+        }
+        return spool.read(ref);
+    }
+
+    /**
+     * 字符串字段的原文，以引用保存时从引用存储读取，不存在时返回空字符串
+     */
+    public String text(OverAllState state, String key) {
+        Object value = resolve(state.value(key).orElse(null));
+        return value instanceof String text ? text : "";
+    }
+
+    /**
+     * 字段的值，以引用保存的字符串解析为原文
+     *
+     * @throws IllegalStateException 值是引用但未启用引用存储
+     */
+    public Object resolve(Object value) {
+        BlobRef ref = BlobRef.of(value);
+        if (ref == null) {
+            return value;
+        }
+        if (blobs == null) {
+            throw new IllegalStateException("State holds blob " + ref.sha256() + " but the blob store is not enabled");
+        }
+        return blobs.read(ref);
+    }
+}
@@ -0,0 +1,205 @@
+package com.alibaba.cloud.ai.review.result;
+
+import com.alibaba.cloud.ai.graph.OverAllState;
+import com.alibaba.cloud.ai.review.chunk.AnalysisUnit;
+import com.alibaba.cloud.ai.review.prescreen.PrescreenResult;
+import com.alibaba.cloud.ai.review.similar.NearDuplicateMatch;
+import com.alibaba.cloud.ai.review.upload.DocumentRef;
+import com.alibaba.fastjson.JSONObject;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * 状态中类型化分析结果的读写入口
+ * 分析节点把 JSON 输出解析一次后以记录类型存入状态，下游节点直接读取字段构建精简提示词。
+ * 状态经过序列化或从旧检查点恢复时，结果可能是字段 Map 或只有原始文本，这里统一转换回记录类型。
+ * 文档与原始文本可能以引用保存，原文经 {@link ReviewContent} 读取。
+ *
+ * @author Jast
+ */
+public final class ReviewResults {
+
+    public static final String CONTENT_ANALYSIS = "content_analysis";
+
+    public static final String COMPLIANCE = "compliance";
+
+    public static final String RISK_ASSESSMENT = "risk_assessment";
+
+    public static final String PRESCREEN = "prescreen";
+
+    public static final String NEAR_DUPLICATE = "near_duplicate";
+
+    public static final String CONTENT_ANALYSIS_UNITS = "content_analysis_units";
+
+    public static final String COMPLIANCE_UNITS = "compliance_units";
+
+    /**
+     * 修改后重审时关联的上一轮审核线程 id
+     */
+    public static final String PREVIOUS_THREAD_ID = "previous_thread_id";
+
+    /**
+     * 修改后重审的轮次，首轮审核为 0
+     */
+    public static final String REVISION_ROUND = "revision_round";
+
+    /**
+     * 通过 POST /start 上传的文档引用，此时状态中没有 document_content
+     */
+    public static final String DOCUMENT_REF = "document_ref";
+
+    /**
+     * 无法得到类型化结果时，原始文本写入提示词的最大长度
+     */
+    private static final int MAX_RAW_PROMPT_CHARS = 500;
+
+    private ReviewResults() {
+    }
+
+    public static ContentAnalysis contentAnalysis(OverAllState state) {
+        return read(state, CONTENT_ANALYSIS, "content_analysis_result", ContentAnalysis.class, ContentAnalysis::from);
+    }
+
+    public static ComplianceResult compliance(OverAllState state) {
+        return read(state, COMPLIANCE, "compliance_result", ComplianceResult.class, ComplianceResult::from);
+    }
+
+    public static RiskAssessment riskAssessment(OverAllState state) {
+        return read(state, RISK_ASSESSMENT, "ai_analysis_result", RiskAssessment.class, RiskAssessment::from);
+    }
+
+    /**
+     * 规则预筛结果，未启用预筛时返回 null
+     */
+    public static PrescreenResult prescreen(OverAllState state) {
+        Object value = state.value(PRESCREEN).orElse(null);
+        if (value instanceof PrescreenResult result) {
+            return result;
+        }
+        return value instanceof Map<?, ?> fields ? PrescreenResult.from(new JSONObject(toStringKeys(fields))) : null;
+    }
+
+    /**
+     * 近重复检测命中的参考文档，未命中或未启用时返回 null
+     */
+    public static NearDuplicateMatch nearDuplicate(OverAllState state) {
+        Object value = state.value(NEAR_DUPLICATE).orElse(null);
+        if (value instanceof NearDuplicateMatch match) {
+            return match;
+        }
+        return value instanceof Map<?, ?> fields ? NearDuplicateMatch.from(new JSONObject(toStringKeys(fields))) : null;
+    }
+
+    /**
+     * 按章节记录的分析单元，未启用修改后重审或尚无记录时返回空列表
+     */
+    public static List<AnalysisUnit> analysisUnits(OverAllState state, String key) {
+        Object value = state.value(key).orElse(null);
+        if (!(value instanceof List<?> values)) {
+            return List.of();
+        }
+        List<AnalysisUnit> units = new ArrayList<>(values.size());
+        for (Object unit : values) {
+            if (unit instanceof AnalysisUnit analysisUnit) {
+                units.add(analysisUnit);
+            } else if (unit instanceof Map<?, ?> fields) {
+                units.add(AnalysisUnit.from(fields));
+            }
+        }
+        return units;
+    }
+
+    /**
+     * 上传文档的引用，以查询参数传入文档时返回 null
+     */
+    public static DocumentRef documentRef(OverAllState state) {
+        Object value = state.value(DOCUMENT_REF).orElse(null);
+        if (value instanceof DocumentRef ref) {
+            return ref;
+        }
+        return value instanceof Map<?, ?> fields ? DocumentRef.from(fields) : null;
+    }
+
+    /**
+     * 修改后重审的轮次，首轮审核为 0
+     */
+    public static int revisionRound(OverAllState state) {
+        return state.value(REVISION_ROUND).map(value -> value instanceof Number number ? number.intValue() : 0).orElse(0);
+    }
+
+    /**
+     * 预筛发现项的提示词文本，没有发现项时返回空字符串
+     */
+    public static String prescreenPrompt(OverAllState state) {
+        PrescreenResult result = prescreen(state);
+        return result == null ? "" : result.toPrompt();
+    }
+
+    /**
+     * 内容分析的精简提示词文本，没有结果时返回空字符串
+     */
+    public static String contentAnalysisPrompt(OverAllState state) {
+        ContentAnalysis result = contentAnalysis(state);
+        return result != null ? result.toPrompt() : rawPrompt(state, "content_analysis_result");
+    }
+
+    public static String compliancePrompt(OverAllState state) {
+        ComplianceResult result = compliance(state);
+        return result != null ? result.toPrompt() : rawPrompt(state, "compliance_result");
+    }
+
+    public static String riskAssessmentPrompt(OverAllState state) {
+        RiskAssessment result = riskAssessment(state);
+        return result != null ? result.toPrompt() : rawPrompt(state, "ai_analysis_result");
+    }
+
+    private static <T> T read(OverAllState state, String key, String rawKey, Class<T> type,
+                              Function<JSONObject, T> factory) {
+        Object value = state.value(key).orElse(null);
+        if (type.isInstance(value)) {
+            return type.cast(value);
+        }
+        if (value instanceof Map<?, ?> fields) {
+            return factory.apply(snakeCase(fields));
+        }
+        // 旧检查点中只有原始文本
+        String raw = inlineText(state, rawKey);
+        JSONObject json = raw.isEmpty() ? null : StreamingJsonParser.parse(raw);
+        return json == null ? null : factory.apply(json);
+    }
+
+    /**
+     * 状态序列化后记录会变为以组件名（驼峰）为键的 Map，转换回模型输出使用的下划线键
+     */
+    private static JSONObject snakeCase(Map<?, ?> fields) {
+        JSONObject json = new JSONObject(fields.size());
+        for (Map.Entry<?, ?> field : fields.entrySet()) {
+            json.put(String.valueOf(field.getKey()).replaceAll("([a-z0-9])([A-Z])", "$1_$2").toLowerCase(),
+                    field.getValue());
+        }
+        return json;
+    }
+
+    private static Map<String, Object> toStringKeys(Map<?, ?> fields) {
+        Map<String, Object> map = new LinkedHashMap<>(fields.size());
+        fields.forEach((key, value) -> map.put(String.valueOf(key), value));
+        return map;
+    }
+
+    /**
+     * 原始文本字段：只有写入类型化结果之前的旧检查点会走到这里，那时还没有引用存储，值总是原文
+     */
+    private static String inlineText(OverAllState state, String key) {
+        Object value = state.value(key).orElse(null);
+        return value instanceof String text ? text : "";
+    }
+
+    private static String rawPrompt(OverAllState state, String rawKey) {
+        String text = inlineText(state, rawKey);
+        return text.length() > MAX_RAW_PROMPT_CHARS ? text.substring(0, MAX_RAW_PROMPT_CHARS) + "..." : text;
+    }
+}
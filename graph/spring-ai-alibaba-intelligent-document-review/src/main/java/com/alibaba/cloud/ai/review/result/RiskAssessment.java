@@ -0,0 +1,57 @@
+package com.alibaba.cloud.ai.review.result;
+
+import com.alibaba.fastjson.JSONObject;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * 风险评估结果，包含总体评分与各维度评分
+ *
+ * @author Jast
+ */
+public record RiskAssessment(int overallRiskScore,
+                             String riskLevel,
+                             Integer legalRisk,
+                             Integer financialRisk,
+                             Integer reputationRisk,
+                             Integer operationalRisk,
+                             Integer securityRisk,
+                             List<String> identifiedRisks,
+                             List<String> mitigationMeasures,
+                             boolean escalationRequired) implements Serializable {
+
+    /**
+     * 模型未给出总体评分时使用的默认值（中等风险）
+     */
+    public static final int DEFAULT_RISK_SCORE = 5;
+
+    public static RiskAssessment from(JSONObject json) {
+        Integer overall = JsonFields.score(json, "overall_risk_score");
+        return new RiskAssessment(
+                overall == null ? DEFAULT_RISK_SCORE : overall,
+                JsonFields.text(json, "risk_level"),
+                JsonFields.score(json, "legal_risk"),
+                JsonFields.score(json, "financial_risk"),
+                JsonFields.score(json, "reputation_risk"),
+                JsonFields.score(json, "operational_risk"),
+                JsonFields.score(json, "security_risk"),
+                JsonFields.strings(json, "identified_risks"),
+                JsonFields.strings(json, "mitigation_measures"),
+                JsonFields.flag(json, "escalation_required"));
+    }
+
+    /**
+     * 供下游节点提示词使用的精简文本
+     */
+    public String toPrompt() {
+        StringBuilder prompt = new StringBuilder();
+        JsonFields.appendLine(prompt, "总体风险", overallRiskScore + "/10" + (riskLevel == null ? "" : "（" + riskLevel + "）"));
+        JsonFields.appendLine(prompt, "法律/财务/声誉/操作/安全风险", JsonFields.scores(legalRisk, financialRisk,
+                reputationRisk, operationalRisk, securityRisk));
+        JsonFields.appendList(prompt, "识别的风险", identifiedRisks);
+        JsonFields.appendList(prompt, "缓解措施", mitigationMeasures);
+        JsonFields.appendLine(prompt, "需要上级审批", escalationRequired ? "是" : "否");
+        return prompt.toString().strip();
+    }
+}
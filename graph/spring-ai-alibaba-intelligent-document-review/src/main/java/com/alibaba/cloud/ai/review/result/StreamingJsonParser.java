@@ -0,0 +1,140 @@
+package com.alibaba.cloud.ai.review.result;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONObject;
+import org.springframework.ai.chat.model.ChatResponse;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * 容错的流式 JSON 解析器
+ * 模型输出按流式分片依次追加，解析器边接收边扫描括号与字符串状态，只缓存第一个 JSON 对象本身：
+ * 对象之前的 ```json 代码块标记、说明文字以及对象之后的多余内容都会被忽略。
+ * 流结束时只做一次解析；输出被截断时按当前的括号栈补齐后再尝试解析。
+ *
+ * @author Jast
+ */
+public class StreamingJsonParser {
+
+    private final StringBuilder buffer = new StringBuilder();
+
+    /**
+     * 尚未闭合的括号对应的结束符，栈顶为最内层
+     */
+    private final Deque<Character> closers = new ArrayDeque<>();
+
+    private boolean inString;
+
+    private boolean escaped;
+
+    private boolean complete;
+
+    private boolean parsed;
+
+    private JSONObject result;
+
+    /**
+     * 解析一段完整的模型输出，无法解析时返回 null
+     */
+    public static JSONObject parse(String text) {
+        return text == null ? null : new StreamingJsonParser().append(text).result();
+    }
+
+    /**
+     * 追加一个流式响应分片中的文本
+     */
+    public StreamingJsonParser append(ChatResponse response) {
+        if (response == null || response.getResult() == null || response.getResult().getOutput() == null) {
+            return this;
+        }
+        return append(response.getResult().getOutput().getText());
+    }
+
+    /**
+     * 追加一段流式输出；第一个对象闭合后的内容直接丢弃
+     */
+    public StreamingJsonParser append(CharSequence chunk) {
+        if (chunk == null) {
+            return this;
+        }
+        for (int i = 0; i < chunk.length() && !complete; i++) {
+            char c = chunk.charAt(i);
+            if (buffer.length() == 0 && c != '{') {
+                continue;
+            }
+            buffer.append(c);
+            if (inString) {
+                if (escaped) {
+                    escaped = false;
+                } else if (c == '\\') {
+                    escaped = true;
+                } else if (c == '"') {
+                    inString = false;
+                }
+                continue;
+            }
+            switch (c) {
+                case '"' -> inString = true;
+                case '{' -> closers.push('}');
+                case '[' -> closers.push(']');
+                case '}', ']' -> {
+                    closers.poll();
+                    complete = closers.isEmpty();
+                }
+                default -> {
+                }
+            }
+        }
+        return this;
+    }
+
+    /**
+     * 第一个 JSON 对象是否已经完整接收
+     */
+    public boolean isComplete() {
+        return complete;
+    }
+
+    /**
+     * 解析已接收的 JSON 对象，结果会被缓存，重复调用不会重复解析；无法解析时返回 null
+     */
+    public JSONObject result() {
+        if (!parsed) {
+            parsed = true;
+            if (buffer.length() > 0) {
+                try {
+                    result = JSON.parseObject(complete ? buffer.toString() : repaired());
+                } catch (Exception e) {
+                    result = null;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 补齐被截断的输出：闭合字符串、去掉悬空的逗号和键，再按栈顺序补上括号
+     */
+    private String repaired() {
+        StringBuilder text = new StringBuilder(buffer);
+        if (inString) {
+            if (escaped) {
+                text.setLength(text.length() - 1);
+            }
+            text.append('"');
+        }
+        int end = text.length();
+        while (end > 0 && (Character.isWhitespace(text.charAt(end - 1)) || text.charAt(end - 1) == ',')) {
+            end--;
+        }
+        text.setLength(end);
+        if (end > 0 && text.charAt(end - 1) == ':') {
+            text.append("null");
+        }
+        for (char closer : closers) {
+            text.append(closer);
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,33 @@
+package com.alibaba.cloud.ai.review.similar;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 文档指纹
+ *
+ * @param signature        MinHash 签名
+ * @param sectionHashes    各章节（去掉空白与标点后）的内容哈希，按章节顺序排列
+ * @param sectionTitles    各章节的标题（首个非空行）
+ * @param normalizedLength 去掉空白与标点后的字符数
+ * @author Jast
+ */
+public record DocumentFingerprint(int[] signature, long[] sectionHashes, List<String> sectionTitles,
+                                  int normalizedLength) {
+
+    /**
+     * 本文档中内容在另一文档里找不到相同章节的章节标题
+     */
+    public List<String> changedSections(DocumentFingerprint other) {
+        long[] known = other.sectionHashes.clone();
+        Arrays.sort(known);
+        List<String> changed = new ArrayList<>();
+        for (int i = 0; i < sectionHashes.length; i++) {
+            if (Arrays.binarySearch(known, sectionHashes[i]) < 0) {
+                changed.add(sectionTitles.get(i));
+            }
+        }
+        return changed;
+    }
+}
@@ -0,0 +1,76 @@
+package com.alibaba.cloud.ai.review.similar;
+
+import com.alibaba.cloud.ai.graph.OverAllState;
+import com.alibaba.cloud.ai.graph.action.NodeAction;
+import com.alibaba.cloud.ai.review.result.ReviewContent;
+import com.alibaba.cloud.ai.review.result.ReviewResults;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * 把完成审核的文档写入近重复索引的节点包装
+ * 包装审核的收尾节点（最终报告、自动审批）：进入节点时三个分析节点的结果都已确定，先写入索引再执行原节点。
+ * 本身复用了其他文档结果的审核、以及模型输出无法解析为类型化结果的审核不写入索引。
+ *
+ * @author Jast
+ */
+public class IndexingNodeAction implements NodeAction {
+
+    private static final Logger logger = LoggerFactory.getLogger(IndexingNodeAction.class);
+
+    private final NodeAction delegate;
+
+    private final NearDuplicateIndex index;
+
+    private final ReviewContent content;
+
+    public IndexingNodeAction(NodeAction delegate, NearDuplicateIndex index, ReviewContent content) {
+        this.delegate = delegate;
+        this.index = index;
+        this.content = content;
+    }
+
+    @Override
+    public Map<String, Object> apply(OverAllState state) throws Exception {
+        if (ReviewResults.nearDuplicate(state) == null) {
+            try {
+                index(state);
+            } catch (RuntimeException e) {
+                // 索引失败不影响审核本身
+                logger.warn("Failed to index completed review for near-duplicate detection", e);
+            }
+        }
+        return delegate.apply(state);
+    }
+
+    private void index(OverAllState state) {
+        Map<String, Object> results = new HashMap<>();
+        results.put(ReviewResults.CONTENT_ANALYSIS, ReviewResults.contentAnalysis(state));
+        results.put(ReviewResults.COMPLIANCE, ReviewResults.compliance(state));
+        results.put(ReviewResults.RISK_ASSESSMENT, ReviewResults.riskAssessment(state));
+        for (List<String> keys : ReusedResultNodeAction.NODE_RESULTS.values()) {
+            for (String key : keys) {
+                if (!results.containsKey(key)) {
+                    // 索引保存原文，复用时再经状态合并策略写入引用存储
+                    results.put(key, content.resolve(state.value(key).orElse(null)));
+                }
+            }
+        }
+        if (results.containsValue(null)) {
+            logger.debug("Review has incomplete analysis results, not indexing");
+            return;
+        }
+        DocumentFingerprint fingerprint = index.fingerprint(content.documentContent(state));
+        if (fingerprint == null) {
+            return;
+        }
+        String threadId = state.value("thread_id", "");
+        index.add(threadId.isBlank() ? UUID.randomUUID().toString() : threadId, state.value("document_type", "general"),
+                fingerprint, results);
+    }
+}
@@ -0,0 +1,146 @@
+package com.alibaba.cloud.ai.review.similar;
+
+import com.alibaba.cloud.ai.review.chunk.DocumentChunker;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * MinHash 指纹计算
+ * 文本先去掉空白与标点并把 ASCII 字母转为小写，再按固定长度的字符 shingle 计算 MinHash 签名：
+ * 每个 shingle 先哈希为 64 位，再经 numHashes 个形如 (a * h + b) 的独立哈希取最小值。
+ * 两份签名相同位置取值相等的比例即 shingle 集合 Jaccard 相似度的无偏估计。
+ * 同时按 {@link DocumentChunker#sections(String)} 的章节切分记录各章节的内容哈希，用于列出两份文档中不同的章节。
+ *
+ * @author Jast
+ */
+public class MinHasher {
+
+    /**
+     * 固定种子，保证重启后同一文档的签名不变
+     */
+    private static final long SEED = 0x5DEECE66DL;
+
+    private static final int MAX_TITLE_CHARS = 40;
+
+    private final int shingleChars;
+
+    private final long[] multipliers;
+
+    private final long[] offsets;
+
+    /**
+     * @param shingleChars shingle 长度（字符）
+     * @param numHashes    签名长度
+     */
+    public MinHasher(int shingleChars, int numHashes) {
+        this.shingleChars = Math.max(1, shingleChars);
+        this.multipliers = new long[numHashes];
+        this.offsets = new long[numHashes];
+        SplittableRandom random = new SplittableRandom(SEED);
+        for (int i = 0; i < numHashes; i++) {
+            multipliers[i] = random.nextLong() | 1;
+            offsets[i] = random.nextLong();
+        }
+    }
+
+    public int numHashes() {
+        return multipliers.length;
+    }
+
+    public DocumentFingerprint fingerprint(String text) {
+        List<String> sections = DocumentChunker.sections(text);
+        long[] sectionHashes = new long[sections.size()];
+        List<String> sectionTitles = new ArrayList<>(sections.size());
+        for (int i = 0; i < sections.size(); i++) {
+            sectionHashes[i] = sectionHash(sections.get(i));
+            sectionTitles.add(title(sections.get(i)));
+        }
+
+        char[] normalized = new char[text.length()];
+        int length = normalize(text, normalized);
+        return new DocumentFingerprint(signature(normalized, length), sectionHashes, List.copyOf(sectionTitles), length);
+    }
+
+    /**
+     * 章节内容哈希，去掉空白与标点后计算，只改动排版的章节哈希不变
+     */
+    public static long sectionHash(String section) {
+        char[] normalized = new char[section.length()];
+        int length = normalize(section, normalized);
+        return hash(normalized, 0, length);
+    }
+
+    /**
+     * 两份签名的相似度（相同位置取值相等的比例）
+     */
+    public static double similarity(int[] first, int[] second) {
+        int length = Math.min(first.length, second.length);
+        if (length == 0) {
+            return 0;
+        }
+        int equal = 0;
+        for (int i = 0; i < length; i++) {
+            if (first[i] == second[i]) {
+                equal++;
+            }
+        }
+        return (double) equal / length;
+    }
+
+    private int[] signature(char[] text, int length) {
+        int numHashes = multipliers.length;
+        int[] signature = new int[numHashes];
+        Arrays.fill(signature, Integer.MAX_VALUE);
+        int shingles = Math.max(1, length - shingleChars + 1);
+        int width = Math.min(shingleChars, length);
+        for (int start = 0; start < shingles; start++) {
+            long shingle = hash(text, start, start + width);
+            for (int i = 0; i < numHashes; i++) {
+                int value = (int) ((shingle * multipliers[i] + offsets[i]) >>> 32);
+                if (value < signature[i]) {
+                    signature[i] = value;
+                }
+            }
+        }
+        return signature;
+    }
+
+    /**
+     * 去掉空白与标点、ASCII 字母转小写，写入 target 并返回长度
+     */
+    private static int normalize(String text, char[] target) {
+        int length = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                target[length++] = c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+            }
+        }
+        return length;
+    }
+
+    private static long hash(char[] text, int from, int to) {
+        long hash = 1125899906842597L;
+        for (int i = from; i < to; i++) {
+            hash = 31 * hash + text[i];
+        }
+        // splitmix64 的最终混合，打散相近 shingle 的哈希值
+        hash = (hash ^ (hash >>> 30)) * 0xBF58476D1CE4E5B9L;
+        hash = (hash ^ (hash >>> 27)) * 0x94D049BB133111EBL;
+        return hash ^ (hash >>> 31);
+    }
+
+    private static String title(String section) {
+        for (String line : section.split("\n")) {
+            String stripped = line.strip();
+            if (!stripped.isEmpty()) {
+                stripped = stripped.replaceFirst("^#+\\s*", "");
+                return stripped.length() > MAX_TITLE_CHARS ? stripped.substring(0, MAX_TITLE_CHARS) + "..." : stripped;
+            }
+        }
+        return "";
+    }
+}
@@ -0,0 +1,270 @@
+package com.alibaba.cloud.ai.review.similar;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 近重复文档索引
+ * 以 MinHash 签名索引已完成审核的文档及其分析结果，签名按 LSH 分段分桶：任一段完全相同的同类型文档成为候选，
+ * 再用完整签名估计相似度，达到阈值的最相似文档为命中。查询只访问 bands 个桶，耗时与索引规模基本无关。
+ * 索引只在内存中，文档数超过上限时按最近最少使用淘汰。
+ *
+ * @author Jast
+ */
+public class NearDuplicateIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(NearDuplicateIndex.class);
+
+    private final MinHasher hasher;
+
+    private final double threshold;
+
+    private final int bands;
+
+    private final int rows;
+
+    private final int maxEntries;
+
+    private final int minChars;
+
+    /**
+     * 线程 id -> 索引项，按访问顺序排列，用于 LRU 淘汰
+     */
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(256, 0.75f, true);
+
+    /**
+     * 分段桶键 -> 该段签名相同的索引项；绝大多数桶只有一项，直接存放 {@link Entry}，多于一项时为 List&lt;Entry&gt;
+     */
+    private final Map<Long, Object> buckets = new HashMap<>();
+
+    private final AtomicLong lookups = new AtomicLong();
+
+    private final AtomicLong hits = new AtomicLong();
+
+    private final AtomicLong candidates = new AtomicLong();
+
+    private final AtomicLong lookupNanos = new AtomicLong();
+
+    private final AtomicLong maxLookupNanos = new AtomicLong();
+
+    private final AtomicLong indexed = new AtomicLong();
+
+    private final AtomicLong evictions = new AtomicLong();
+
+    /**
+     * @param hasher     指纹计算器，签名长度需为 bands 的整数倍
+     * @param threshold  命中的最低相似度
+     * @param bands      LSH 分段数
+     * @param maxEntries 索引文档数上限
+     * @param minChars   短于该字符数的文档不参与检测
+     */
+    public NearDuplicateIndex(MinHasher hasher, double threshold, int bands, int maxEntries, int minChars) {
+        if (bands <= 0 || hasher.numHashes() % bands != 0) {
+            throw new IllegalArgumentException("num-hashes (" + hasher.numHashes()
+                    + ") must be a positive multiple of bands (" + bands + ")");
+        }
+        this.hasher = hasher;
+        this.threshold = threshold;
+        this.bands = bands;
+        this.rows = hasher.numHashes() / bands;
+        this.maxEntries = Math.max(1, maxEntries);
+        this.minChars = minChars;
+    }
+
+    /**
+     * 计算文档指纹，文档过短时返回 null
+     */
+    public DocumentFingerprint fingerprint(String documentContent) {
+        if (documentContent == null || documentContent.length() < minChars) {
+            return null;
+        }
+        return hasher.fingerprint(documentContent);
+    }
+
+    /**
+     * 查找同类型文档中相似度不低于阈值的最相似文档
+     */
+    public Optional<NearDuplicateMatch> find(String documentType, DocumentFingerprint fingerprint) {
+        long start = System.nanoTime();
+        String type = normalizeType(documentType);
+        Entry best = null;
+        double bestSimilarity = threshold;
+        int compared = 0;
+        synchronized (this) {
+            Set<Entry> seen = new HashSet<>();
+            for (int band = 0; band < bands; band++) {
+                for (Entry entry : bucket(buckets.get(bandKey(fingerprint.signature(), band)))) {
+                    if (!entry.documentType.equals(type) || !seen.add(entry)) {
+                        continue;
+                    }
+                    compared++;
+                    double similarity = MinHasher.similarity(fingerprint.signature(), entry.fingerprint.signature());
+                    if (similarity >= bestSimilarity) {
+                        best = entry;
+                        bestSimilarity = similarity;
+                    }
+                }
+            }
+            if (best != null) {
+                // 命中视为一次访问，刷新 LRU 顺序
+                entries.get(best.threadId);
+            }
+        }
+
+        long elapsed = System.nanoTime() - start;
+        lookups.incrementAndGet();
+        candidates.addAndGet(compared);
+        lookupNanos.addAndGet(elapsed);
+        maxLookupNanos.accumulateAndGet(elapsed, Math::max);
+        if (best == null) {
+            return Optional.empty();
+        }
+        hits.incrementAndGet();
+        return Optional.of(new NearDuplicateMatch(best.threadId, bestSimilarity,
+                List.copyOf(fingerprint.changedSections(best.fingerprint))));
+    }
+
+    /**
+     * 索引一份已完成审核的文档，同一线程 id 再次索引时替换原有项
+     *
+     * @param results 可复用的分析结果（状态键 -> 值）
+     */
+    public void add(String threadId, String documentType, DocumentFingerprint fingerprint, Map<String, Object> results) {
+        Entry entry = new Entry(threadId, normalizeType(documentType), fingerprint, Map.copyOf(results));
+        synchronized (this) {
+            Entry previous = entries.put(threadId, entry);
+            if (previous != null) {
+                unlink(previous);
+            }
+            for (int band = 0; band < bands; band++) {
+                link(bandKey(fingerprint.signature(), band), entry);
+            }
+            Iterator<Entry> eldest = entries.values().iterator();
+            while (entries.size() > maxEntries) {
+                unlink(eldest.next());
+                eldest.remove();
+                evictions.incrementAndGet();
+            }
+        }
+        indexed.incrementAndGet();
+        logger.debug("Indexed review {} for near-duplicate detection", threadId);
+    }
+
+    /**
+     * 参考文档的分析结果，已被淘汰时返回 null
+     */
+    public synchronized Map<String, Object> results(String threadId) {
+        Entry entry = entries.get(threadId);
+        return entry == null ? null : entry.results;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        long lookupCount = lookups.get();
+        stats.put("entries", size());
+        stats.put("max_entries", maxEntries);
+        stats.put("threshold", threshold);
+        stats.put("bands", bands);
+        stats.put("rows", rows);
+        stats.put("lookups", lookupCount);
+        stats.put("hits", hits.get());
+        stats.put("hit_rate", lookupCount == 0 ? 0.0 : (double) hits.get() / lookupCount);
+        stats.put("avg_candidates", lookupCount == 0 ? 0.0 : (double) candidates.get() / lookupCount);
+        stats.put("avg_lookup_micros", lookupCount == 0 ? 0.0 : lookupNanos.get() / 1000.0 / lookupCount);
+        stats.put("max_lookup_micros", maxLookupNanos.get() / 1000.0);
+        stats.put("indexed", indexed.get());
+        stats.put("evictions", evictions.get());
+        return stats;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void link(long key, Entry entry) {
+        Object bucket = buckets.putIfAbsent(key, entry);
+        if (bucket instanceof Entry single) {
+            List<Entry> list = new ArrayList<>(2);
+            list.add(single);
+            list.add(entry);
+            buckets.put(key, list);
+        } else if (bucket != null) {
+            ((List<Entry>) bucket).add(entry);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void unlink(Entry entry) {
+        for (int band = 0; band < bands; band++) {
+            long key = bandKey(entry.fingerprint.signature(), band);
+            Object bucket = buckets.get(key);
+            if (bucket == entry) {
+                buckets.remove(key);
+            } else if (bucket instanceof List<?>) {
+                List<Entry> list = (List<Entry>) bucket;
+                list.remove(entry);
+                if (list.size() == 1) {
+                    buckets.put(key, list.get(0));
+                }
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Entry> bucket(Object bucket) {
+        if (bucket == null) {
+            return List.of();
+        }
+        return bucket instanceof Entry single ? List.of(single) : (List<Entry>) bucket;
+    }
+
+    /**
+     * 分段的桶键：段序号与该段各行签名值的组合哈希
+     */
+    private long bandKey(int[] signature, int band) {
+        long key = band;
+        for (int i = band * rows, end = i + rows; i < end; i++) {
+            key = key * 0x9E3779B97F4A7C15L + signature[i];
+        }
+        return key ^ (key >>> 29);
+    }
+
+    private static String normalizeType(String documentType) {
+        return documentType == null ? "" : documentType.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * 索引项，按引用比较
+     */
+    private static final class Entry {
+
+        private final String threadId;
+
+        private final String documentType;
+
+        private final DocumentFingerprint fingerprint;
+
+        private final Map<String, Object> results;
+
+        private Entry(String threadId, String documentType, DocumentFingerprint fingerprint,
+                      Map<String, Object> results) {
+            this.threadId = threadId;
+            this.documentType = documentType;
+            this.fingerprint = fingerprint;
+            this.results = results;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.alibaba.cloud.ai.review.similar;
+
+import com.alibaba.fastjson.JSONObject;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * 近重复检测命中的参考文档
+ *
+ * @param sourceThreadId  参考文档的审核线程 id，分析结果复用自该线程
+ * @param similarity      估计的相似度
+ * @param changedSections 本文档中与参考文档内容不同的章节标题
+ * @author Jast
+ */
+public record NearDuplicateMatch(String sourceThreadId,
+                                 double similarity,
+                                 List<String> changedSections) implements Serializable {
+
+    /**
+     * 写入提示信息的章节数上限
+     */
+    private static final int MAX_LISTED_SECTIONS = 10;
+
+    /**
+     * 给人工审核员的说明
+     */
+    public String toInstruction() {
+        StringBuilder instruction = new StringBuilder();
+        instruction.append("本文档与已审核文档（").append(sourceThreadId).append("）相似度 ")
+                .append(String.format("%.2f", similarity)).append("，AI 分析结果复用自该文档。");
+        if (changedSections.isEmpty()) {
+            instruction.append("两者章节内容一致。");
+        } else {
+            instruction.append("以下章节内容不同，请重点核对：");
+            for (int i = 0; i < changedSections.size() && i < MAX_LISTED_SECTIONS; i++) {
+                instruction.append(i > 0 ? "、" : "").append(changedSections.get(i));
+            }
+            if (changedSections.size() > MAX_LISTED_SECTIONS) {
+                instruction.append(" 等 ").append(changedSections.size()).append(" 个章节");
+            }
+        }
+        return instruction.toString();
+    }
+
+    /**
+     * 状态序列化后结果变为字段 Map，这里兼容驼峰与下划线两种键名
+     */
+    public static NearDuplicateMatch from(JSONObject json) {
+        String sourceThreadId = json.containsKey("sourceThreadId") ? json.getString("sourceThreadId")
+                : json.getString("source_thread_id");
+        Double similarity = json.getDouble("similarity");
+        List<String> changedSections = json.containsKey("changedSections")
+                ? json.getJSONArray("changedSections").toJavaList(String.class)
+                : json.containsKey("changed_sections") ? json.getJSONArray("changed_sections").toJavaList(String.class)
+                : List.of();
+        return new NearDuplicateMatch(sourceThreadId, similarity == null ? 0 : similarity, List.copyOf(changedSections));
+    }
+}
@@ -0,0 +1,72 @@
+package com.alibaba.cloud.ai.review.similar;
+
+import com.alibaba.cloud.ai.graph.OverAllState;
+import com.alibaba.cloud.ai.graph.action.NodeAction;
+import com.alibaba.cloud.ai.review.result.ReviewResults;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 复用近重复文档分析结果的节点包装
+ * 状态中有近重复命中时，直接从索引取出参考文档在本节点的结果写回状态，不再调用大模型；
+ * 参考文档已被淘汰或结果不完整时照常执行节点
+ *
+ * @author Jast
+ */
+public class ReusedResultNodeAction implements NodeAction {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReusedResultNodeAction.class);
+
+    /**
+     * 各分析节点写入状态的结果键，索引时按这些键保存，复用时按节点取回
+     */
+    public static final Map<String, List<String>> NODE_RESULTS = Map.of(
+            "content_analysis", List.of("content_analysis_result", ReviewResults.CONTENT_ANALYSIS),
+            "compliance_check", List.of("compliance_result", ReviewResults.COMPLIANCE),
+            "risk_assessment", List.of("ai_analysis_result", ReviewResults.RISK_ASSESSMENT, "risk_score"));
+
+    private final String node;
+
+    private final NodeAction delegate;
+
+    private final NearDuplicateIndex index;
+
+    public ReusedResultNodeAction(String node, NodeAction delegate, NearDuplicateIndex index) {
+        if (!NODE_RESULTS.containsKey(node)) {
+            throw new IllegalArgumentException("Node " + node + " has no reusable results");
+        }
+        this.node = node;
+        this.delegate = delegate;
+        this.index = index;
+    }
+
+    @Override
+    public Map<String, Object> apply(OverAllState state) throws Exception {
+        NearDuplicateMatch match = ReviewResults.nearDuplicate(state);
+        if (match == null) {
+            return delegate.apply(state);
+        }
+        Map<String, Object> source = index.results(match.sourceThreadId());
+        List<String> keys = NODE_RESULTS.get(node);
+        if (source == null || !source.keySet().containsAll(keys)) {
+            logger.warn("Results of near-duplicate {} are no longer indexed, running {}", match.sourceThreadId(), node);
+            return delegate.apply(state);
+        }
+
+        Map<String, Object> result = new HashMap<>();
+        for (String key : keys) {
+            result.put(key, source.get(key));
+        }
+        if ("risk_assessment".equals(node)) {
+            // 与 RiskAssessmentNode 一致，记录开始等待人工审核的时间
+            result.put("human_review_requested_at", System.currentTimeMillis());
+        }
+        logger.info("Reusing {} results of near-duplicate {} (similarity {})", node, match.sourceThreadId(),
+                String.format("%.3f", match.similarity()));
+        return result;
+    }
+}
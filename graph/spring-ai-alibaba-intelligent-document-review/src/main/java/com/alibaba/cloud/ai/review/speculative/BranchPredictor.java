@@ -0,0 +1,65 @@
+package com.alibaba.cloud.ai.review.speculative;
+
+import com.alibaba.cloud.ai.review.config.DocumentReviewProperties;
+import com.alibaba.cloud.ai.review.result.ComplianceResult;
+import com.alibaba.cloud.ai.review.result.RiskAssessment;
+
+/**
+ * 人工审核结果预测
+ * 按风险评估与合规检查结果预测审核员最可能选择的处理分支：低风险且合规、未要求上级审批的预测为通过，
+ * 高风险的预测为拒绝，其余预测为要求修改
+ *
+ * @author Jast
+ */
+public class BranchPredictor {
+
+    public static final String APPROVAL = "approval_process";
+
+    public static final String REJECTION = "rejection_process";
+
+    public static final String MODIFICATION = "modification_process";
+
+    private final DocumentReviewProperties.Speculative config;
+
+    public BranchPredictor(DocumentReviewProperties.Speculative config) {
+        this.config = config;
+    }
+
+    /**
+     * 预测的分支节点；模型输出无法解析为类型化结果，或预测的分支未允许预先执行时返回 null
+     */
+    public String predict(RiskAssessment risk, ComplianceResult compliance) {
+        if (risk == null) {
+            return null;
+        }
+        String branch;
+        if (risk.overallRiskScore() >= config.getRejectMinRiskScore()) {
+            branch = REJECTION;
+        } else if (risk.overallRiskScore() <= config.getApproveMaxRiskScore() && !risk.escalationRequired()
+                && compliant(compliance)) {
+            branch = APPROVAL;
+        } else {
+            branch = MODIFICATION;
+        }
+        return config.getBranches().contains(branch) ? branch : null;
+    }
+
+    /**
+     * 分支对应的审核动作，与 HumanReviewNode 的取值一致，写入推测时的状态供最终报告提示词使用
+     */
+    public static String reviewAction(String branch) {
+        return switch (branch) {
+            case REJECTION -> "reject";
+            case MODIFICATION -> "modify";
+            default -> "approve";
+        };
+    }
+
+    private boolean compliant(ComplianceResult compliance) {
+        if (compliance == null || compliance.overallStatus() == null) {
+            return false;
+        }
+        String status = compliance.overallStatus().trim();
+        return config.getApproveComplianceStatuses().stream().anyMatch(status::equalsIgnoreCase);
+    }
+}
@@ -0,0 +1,80 @@
+package com.alibaba.cloud.ai.review.speculative;
+
+import java.util.function.LongSupplier;
+
+/**
+ * 推测执行的 token 预算
+ * 按固定窗口计数：开始推测前按预估值预留，预留后超过上限则不执行；完成后按实际用量结算，失败时归还预留
+ *
+ * @author Jast
+ */
+public class SpeculationBudget {
+
+    private final long limit;
+
+    private final long windowMillis;
+
+    private final LongSupplier clock;
+
+    private long windowStart;
+
+    private long used;
+
+    public SpeculationBudget(long limit, long windowMillis) {
+        this(limit, windowMillis, System::currentTimeMillis);
+    }
+
+    SpeculationBudget(long limit, long windowMillis, LongSupplier clock) {
+        this.limit = limit;
+        this.windowMillis = Math.max(1, windowMillis);
+        this.clock = clock;
+        this.windowStart = clock.getAsLong();
+    }
+
+    /**
+     * 预留 token，当前窗口剩余不足时返回 false
+     */
+    public synchronized boolean tryReserve(long tokens) {
+        roll();
+        if (used + tokens > limit) {
+            return false;
+        }
+        used += tokens;
+        return true;
+    }
+
+    /**
+     * 按实际用量结算预留；预留所在的窗口已经结束时只把实际用量计入当前窗口
+     *
+     * @param reservedAt 预留时的 {@link #now()}
+     */
+    public synchronized void settle(long reserved, long actual, long reservedAt) {
+        roll();
+        long refund = reservedAt >= windowStart ? reserved : 0;
+        used = Math.max(0, used + actual - refund);
+    }
+
+    public synchronized long remaining() {
+        roll();
+        return Math.max(0, limit - used);
+    }
+
+    public long limit() {
+        return limit;
+    }
+
+    /**
+     * 当前时间，供结算时判断预留所在的窗口
+     */
+    public long now() {
+        return clock.getAsLong();
+    }
+
+    private void roll() {
+        long now = clock.getAsLong();
+        if (now - windowStart >= windowMillis) {
+            windowStart = now - (now - windowStart) % windowMillis;
+            used = 0;
+        }
+    }
+}
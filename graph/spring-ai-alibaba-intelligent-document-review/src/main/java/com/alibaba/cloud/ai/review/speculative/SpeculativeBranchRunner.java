@@ -0,0 +1,447 @@
+package com.alibaba.cloud.ai.review.speculative;
+
+import com.alibaba.cloud.ai.graph.OverAllState;
+import com.alibaba.cloud.ai.graph.action.EdgeAction;
+import com.alibaba.cloud.ai.review.config.DocumentReviewProperties;
+import com.alibaba.cloud.ai.review.dispatcher.FastPathDispatcher;
+import com.alibaba.cloud.ai.review.llm.LlmCallContext;
+import com.alibaba.cloud.ai.review.metrics.ReviewMetrics;
+import com.alibaba.cloud.ai.review.node.PrecomputableNode;
+import com.alibaba.cloud.ai.review.result.ReviewResults;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.chat.metadata.Usage;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.beans.factory.DisposableBean;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 人工审核期间的推测执行
+ * 风险评估后分流到人工审核时，按 {@link BranchPredictor} 预测审核员的决定，在后台线程以非流式调用预先生成该分支的处理结果
+ * 与最终报告，按 thread_id 暂存。审核员提交后，{@link SpeculativeNodeAction} 在分支节点与最终报告节点向这里取结果：
+ * 审核动作与预测一致、且没有填写意见与修改建议（两者都会写入提示词）时直接提交暂存结果，否则丢弃并照常执行节点。
+ * 推测消耗的 token 受 {@link SpeculationBudget} 限制，统计命中率、各未命中原因与提交/丢弃的 token 数以评估收益。
+ *
+ * @author Jast
+ */
+public class SpeculativeBranchRunner implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(SpeculativeBranchRunner.class);
+
+    public static final String FINAL_REPORT = "final_report";
+
+    private final DocumentReviewProperties.Speculative config;
+
+    private final BranchPredictor predictor;
+
+    private final SpeculationBudget budget;
+
+    private final Map<String, PrecomputableNode> nodes;
+
+    private final ReviewMetrics metrics;
+
+    private final double charsPerToken;
+
+    private final ThreadPoolExecutor executor;
+
+    private final Map<String, Speculation> speculations = new ConcurrentHashMap<>();
+
+    private final Map<String, AtomicLong> outcomes = new ConcurrentHashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+
+    private final AtomicLong misses = new AtomicLong();
+
+    private final AtomicLong tokensSpent = new AtomicLong();
+
+    private final AtomicLong tokensCommitted = new AtomicLong();
+
+    private final AtomicLong tokensDiscarded = new AtomicLong();
+
+    private final AtomicLong savedMillis = new AtomicLong();
+
+    /**
+     * @param nodes         可预先执行的分支节点与最终报告节点，按节点名索引
+     * @param metrics       审核指标，未启用指标时为 null
+     * @param charsPerToken 响应没有用量信息时按输出字符数估算 token
+     */
+    public SpeculativeBranchRunner(DocumentReviewProperties.Speculative config, Map<String, PrecomputableNode> nodes,
+                                   ReviewMetrics metrics, double charsPerToken) {
+        this.config = config;
+        this.predictor = new BranchPredictor(config);
+        this.budget = new SpeculationBudget(config.getTokenBudget(), config.getBudgetWindow().toMillis());
+        this.nodes = Map.copyOf(nodes);
+        this.metrics = metrics;
+        this.charsPerToken = charsPerToken > 0 ? charsPerToken : 1;
+        AtomicInteger threads = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(config.getMaxConcurrent(), config.getMaxConcurrent(), 0,
+                TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(Math.max(1, config.getMaxQueue())), runnable -> {
+                    Thread thread = new Thread(runnable, "review-speculative-" + threads.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        logger.info("Speculative branch precomputation enabled - branches: {}, token budget: {} per {}",
+                config.getBranches(), config.getTokenBudget(), config.getBudgetWindow());
+    }
+
+    /**
+     * 包装风险评估后的分流：分流到人工审核时提交推测，分流结果不变
+     */
+    public EdgeAction speculating(EdgeAction route) {
+        return state -> {
+            String next = route.apply(state);
+            if (FastPathDispatcher.HUMAN_REVIEW.equals(next)) {
+                try {
+                    submit(state);
+                } catch (RuntimeException e) {
+                    // 推测失败不影响审核本身
+                    logger.warn("Failed to submit speculative precomputation", e);
+                }
+            }
+            return next;
+        };
+    }
+
+    /**
+     * 取出节点的预生成结果，不可用时返回 null，由调用方照常执行节点
+     *
+     * @param node  当前执行的节点名
+     * @param state 审核员提交后的状态
+     */
+    public Map<String, Object> take(String node, OverAllState state) {
+        String threadId = state.value("thread_id", "");
+        Speculation speculation = threadId.isBlank() ? null : speculations.get(threadId);
+        if (speculation == null) {
+            return null;
+        }
+        if (FINAL_REPORT.equals(node)) {
+            speculations.remove(threadId, speculation);
+            Part report = speculation.branchCommitted ? speculation.parts.remove(FINAL_REPORT) : null;
+            if (report == null) {
+                discard(speculation, null);
+                return null;
+            }
+            commit(FINAL_REPORT, report);
+            return stamped(report.result());
+        }
+
+        String reason = missReason(speculation, node, state);
+        Part part = reason == null ? speculation.parts.remove(node) : null;
+        if (part == null) {
+            misses.incrementAndGet();
+            record(speculation.branch, reason == null ? "failed" : reason);
+            speculations.remove(threadId, speculation);
+            discard(speculation, null);
+            logger.info("Discarded speculative {} for thread {} ({})", speculation.branch, threadId, reason);
+            return null;
+        }
+        hits.incrementAndGet();
+        record(speculation.branch, "hit");
+        speculation.branchCommitted = true;
+        if (!speculation.parts.containsKey(FINAL_REPORT)) {
+            speculations.remove(threadId, speculation);
+        }
+        commit(node, part);
+        logger.info("Committed speculative {} for thread {}, saved ~{} ms", node, threadId, part.millis());
+        return stamped(part.result());
+    }
+
+    public Map<String, Object> stats() {
+        evictStale();
+        long decided = hits.get() + misses.get();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("branches", config.getBranches());
+        stats.put("include_final_report", config.isIncludeFinalReport());
+        stats.put("pending", speculations.size());
+        stats.put("running", executor.getActiveCount());
+        stats.put("queued", executor.getQueue().size());
+        stats.put("hits", hits.get());
+        stats.put("misses", misses.get());
+        stats.put("hit_rate", decided == 0 ? 0.0 : (double) hits.get() / decided);
+        Map<String, Long> outcomeCounts = new LinkedHashMap<>();
+        outcomes.entrySet().stream().sorted(Map.Entry.comparingByKey())
+                .forEach(entry -> outcomeCounts.put(entry.getKey(), entry.getValue().get()));
+        stats.put("outcomes", outcomeCounts);
+        stats.put("tokens_spent", tokensSpent.get());
+        stats.put("tokens_committed", tokensCommitted.get());
+        stats.put("tokens_discarded", tokensDiscarded.get());
+        stats.put("token_budget", budget.limit());
+        stats.put("token_budget_remaining", budget.remaining());
+        stats.put("saved_ms", savedMillis.get());
+        return stats;
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    private void submit(OverAllState state) {
+        String threadId = state.value("thread_id", "");
+        if (threadId.isBlank()) {
+            return;
+        }
+        String branch = predictor.predict(ReviewResults.riskAssessment(state), ReviewResults.compliance(state));
+        if (branch == null) {
+            record(null, "unpredicted");
+            return;
+        }
+        evictStale();
+        long estimate = config.getEstimatedTokensPerRun();
+        long reservedAt = budget.now();
+        if (!budget.tryReserve(estimate)) {
+            record(branch, "budget_exhausted");
+            logger.info("Speculation token budget exhausted, not precomputing {} for thread {}", branch, threadId);
+            return;
+        }
+        Speculation speculation = new Speculation(threadId, branch, state.value("document_type", "general"),
+                new HashMap<>(state.data()), estimate, reservedAt);
+        Speculation previous = speculations.put(threadId, speculation);
+        if (previous != null) {
+            record(previous.branch, "superseded");
+            discard(previous, null);
+        }
+        try {
+            executor.execute(() -> run(speculation));
+        } catch (RejectedExecutionException e) {
+            speculations.remove(threadId, speculation);
+            budget.settle(estimate, 0, reservedAt);
+            record(branch, "busy");
+            return;
+        }
+        record(branch, "submitted");
+        logger.info("Speculatively precomputing {} for thread {}", branch, threadId);
+    }
+
+    private void run(Speculation speculation) {
+        if (!speculation.claimed.compareAndSet(false, true)) {
+            // 审核员在开始前已经提交，推测被取消
+            budget.settle(speculation.reserved, 0, speculation.reservedAt);
+            return;
+        }
+        long tokens = 0;
+        try {
+            // 与 HumanReviewNode 在审核员通过且未填写意见时写入的状态一致
+            Map<String, Object> data = speculation.snapshot;
+            data.put("review_action", BranchPredictor.reviewAction(speculation.branch));
+            data.put("reviewer_comments", "");
+            data.put("suggested_changes", "");
+            data.put("human_next_node", speculation.branch);
+
+            Part branch = generate(speculation.branch, data, speculation.documentType);
+            tokens += branch.tokens();
+            speculation.parts.put(speculation.branch, branch);
+            if (config.isIncludeFinalReport() && !speculation.discarded) {
+                data.putAll(branch.result());
+                Part report = generate(FINAL_REPORT, data, speculation.documentType);
+                tokens += report.tokens();
+                speculation.parts.put(FINAL_REPORT, report);
+            }
+            speculation.done.complete(null);
+        } catch (Exception e) {
+            logger.warn("Speculative {} for thread {} failed", speculation.branch, speculation.threadId, e);
+            // 已生成的部分不再提交，审核员提交时按 failed 计为未命中
+            speculation.discarded = true;
+            speculation.done.completeExceptionally(e);
+        } finally {
+            tokensSpent.addAndGet(tokens);
+            budget.settle(speculation.reserved, tokens, speculation.reservedAt);
+            if (speculation.discarded) {
+                drain(speculation);
+            }
+        }
+    }
+
+    private Part generate(String node, Map<String, Object> data, String documentType) {
+        long startedAt = System.currentTimeMillis();
+        PrecomputableNode action = nodes.get(node);
+        ChatResponse response = action.request(new OverAllState(data), LlmCallContext.speculative(node, documentType))
+                .call()
+                .chatResponse();
+        String text = response == null || response.getResult() == null ? null : response.getResult().getOutput().getText();
+        if (text == null || text.isBlank()) {
+            throw new IllegalStateException("Empty speculative response for " + node);
+        }
+        return new Part(action.result(text), tokens(response, text), System.currentTimeMillis() - startedAt);
+    }
+
+    /**
+     * 不能提交预生成结果的原因，可以提交时返回 null；推测仍在执行时等待其完成
+     */
+    private String missReason(Speculation speculation, String node, OverAllState state) {
+        if (System.currentTimeMillis() - speculation.createdAt > config.getRetention().toMillis()) {
+            return "expired";
+        }
+        if (!node.equals(speculation.branch)) {
+            return "branch_mismatch";
+        }
+        if (!state.value("reviewer_comments", "").isBlank() || !state.value("suggested_changes", "").isBlank()) {
+            return "feedback_changed";
+        }
+        if (speculation.claimed.compareAndSet(false, true)) {
+            return "not_started";
+        }
+        try {
+            speculation.done.get(config.getCommitWait().toMillis(), TimeUnit.MILLISECONDS);
+            return null;
+        } catch (TimeoutException e) {
+            return "timeout";
+        } catch (ExecutionException e) {
+            return "failed";
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return "interrupted";
+        }
+    }
+
+    private void commit(String node, Part part) {
+        tokensCommitted.addAndGet(part.tokens());
+        savedMillis.addAndGet(part.millis());
+        if (metrics != null) {
+            metrics.recordSpeculationTokens(node, "committed", part.tokens());
+        }
+    }
+
+    /**
+     * 丢弃推测，已生成部分的 token 计为丢弃；仍在执行的推测完成后再计
+     *
+     * @param outcome 计入统计的原因，调用方已计入时为 null
+     */
+    private void discard(Speculation speculation, String outcome) {
+        speculation.discarded = true;
+        speculation.claimed.set(true);
+        if (outcome != null) {
+            record(speculation.branch, outcome);
+        }
+        if (speculation.done.isDone()) {
+            drain(speculation);
+        }
+    }
+
+    private void drain(Speculation speculation) {
+        for (String node : List.copyOf(speculation.parts.keySet())) {
+            Part part = speculation.parts.remove(node);
+            if (part != null) {
+                tokensDiscarded.addAndGet(part.tokens());
+                if (metrics != null) {
+                    metrics.recordSpeculationTokens(node, "discarded", part.tokens());
+                }
+            }
+        }
+    }
+
+    /**
+     * 丢弃超过保留时间的推测，数量超过上限时丢弃最早的
+     */
+    private void evictStale() {
+        long expiredBefore = System.currentTimeMillis() - config.getRetention().toMillis();
+        speculations.values().removeIf(speculation -> {
+            if (speculation.createdAt >= expiredBefore) {
+                return false;
+            }
+            discard(speculation, "expired");
+            return true;
+        });
+        int excess = speculations.size() - config.getMaxEntries();
+        if (excess > 0) {
+            List<Speculation> oldest = new ArrayList<>(speculations.values());
+            oldest.sort(Comparator.comparingLong(speculation -> speculation.createdAt));
+            for (Speculation speculation : oldest.subList(0, Math.min(excess, oldest.size()))) {
+                if (speculations.remove(speculation.threadId, speculation)) {
+                    discard(speculation, "evicted");
+                }
+            }
+        }
+    }
+
+    private long tokens(ChatResponse response, String text) {
+        Usage usage = response.getMetadata() == null ? null : response.getMetadata().getUsage();
+        if (usage != null && usage.getTotalTokens() != null && usage.getTotalTokens() > 0) {
+            return usage.getTotalTokens();
+        }
+        return (long) Math.ceil(text.length() / charsPerToken);
+    }
+
+    private void record(String branch, String outcome) {
+        outcomes.computeIfAbsent(outcome, key -> new AtomicLong()).incrementAndGet();
+        if (metrics != null) {
+            metrics.recordSpeculation(branch, outcome);
+        }
+    }
+
+    /**
+     * 预生成结果中的时间戳改为提交时间
+     */
+    private static Map<String, Object> stamped(Map<String, Object> result) {
+        Map<String, Object> stamped = new HashMap<>(result);
+        long now = System.currentTimeMillis();
+        stamped.replaceAll((key, value) -> key.endsWith("_timestamp") ? now : value);
+        return stamped;
+    }
+
+    /**
+     * 一个节点的预生成结果
+     */
+    private record Part(Map<String, Object> result, long tokens, long millis) {
+    }
+
+    /**
+     * 一次推测：预测的分支与推测时的状态快照，分支结果与最终报告生成后放入 parts
+     */
+    private static final class Speculation {
+
+        private final String threadId;
+
+        private final String branch;
+
+        private final String documentType;
+
+        private final Map<String, Object> snapshot;
+
+        private final long reserved;
+
+        private final long reservedAt;
+
+        private final long createdAt = System.currentTimeMillis();
+
+        /**
+         * 执行线程开始执行或审核员提交时置位，先置位的一方决定推测是否执行
+         */
+        private final AtomicBoolean claimed = new AtomicBoolean();
+
+        private final CompletableFuture<Void> done = new CompletableFuture<>();
+
+        private final Map<String, Part> parts = new ConcurrentHashMap<>();
+
+        private volatile boolean discarded;
+
+        private volatile boolean branchCommitted;
+
+        private Speculation(String threadId, String branch, String documentType, Map<String, Object> snapshot,
+                            long reserved, long reservedAt) {
+            this.threadId = threadId;
+            this.branch = branch;
+            this.documentType = documentType;
+            this.snapshot = snapshot;
+            this.reserved = reserved;
+            this.reservedAt = reservedAt;
+        }
+    }
+}
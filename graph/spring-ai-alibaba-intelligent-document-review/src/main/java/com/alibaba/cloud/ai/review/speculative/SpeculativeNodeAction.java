@@ -0,0 +1,33 @@
+package com.alibaba.cloud.ai.review.speculative;
+
+import com.alibaba.cloud.ai.graph.OverAllState;
+import com.alibaba.cloud.ai.graph.action.NodeAction;
+
+import java.util.Map;
+
+/**
+ * 提交推测结果的节点包装
+ * 包装人工审核后的分支节点与最终报告节点：有与审核员决定一致的预生成结果时直接写回状态，否则照常执行节点
+ *
+ * @author Jast
+ */
+public class SpeculativeNodeAction implements NodeAction {
+
+    private final String node;
+
+    private final NodeAction delegate;
+
+    private final SpeculativeBranchRunner runner;
+
+    public SpeculativeNodeAction(String node, NodeAction delegate, SpeculativeBranchRunner runner) {
+        this.node = node;
+        this.delegate = delegate;
+        this.runner = runner;
+    }
+
+    @Override
+    public Map<String, Object> apply(OverAllState state) throws Exception {
+        Map<String, Object> committed = runner.take(node, state);
+        return committed != null ? committed : delegate.apply(state);
+    }
+}
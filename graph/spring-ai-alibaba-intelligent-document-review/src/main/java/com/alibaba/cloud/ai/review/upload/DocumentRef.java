@@ -0,0 +1,38 @@
+package com.alibaba.cloud.ai.review.upload;
+
+import java.io.Serializable;
+import java.util.Map;
+
+/**
+ * 以引用方式传入审核图的文档
+ * 状态中只保存内容哈希、字节数与字符集，需要全文的节点经 {@link DocumentSpool#read(DocumentRef)} 读取；
+ * 引用中不含文件路径，落盘目录不会随状态、事件或 /status 发送给客户端
+ *
+ * @param sha256  文档字节的 SHA-256（十六进制）
+ * @param bytes   文档字节数
+ * @param charset 文档字符集
+ * @author Jast
+ */
+public record DocumentRef(String sha256, long bytes, String charset) implements Serializable {
+
+    /**
+     * 状态中的值是文档引用（记录或序列化后的字段 Map）时返回引用，否则返回 null
+     */
+    public static DocumentRef of(Object value) {
+        if (value instanceof DocumentRef ref) {
+            return ref;
+        }
+        return value instanceof Map<?, ?> fields && fields.containsKey("sha256") && fields.containsKey("bytes")
+                ? from(fields) : null;
+    }
+
+    /**
+     * 状态序列化后记录变为字段 Map，这里转换回记录
+     */
+    public static DocumentRef from(Map<?, ?> fields) {
+        Object bytes = fields.get("bytes");
+        Object charset = fields.get("charset");
+        return new DocumentRef(String.valueOf(fields.get("sha256")),
+                bytes instanceof Number number ? number.longValue() : 0, charset == null ? "UTF-8" : charset.toString());
+    }
+}
@@ -0,0 +1,58 @@
+package com.alibaba.cloud.ai.review.upload;
+
+import com.alibaba.cloud.ai.graph.RunnableConfig;
+import com.alibaba.cloud.ai.graph.checkpoint.BaseCheckpointSaver;
+import com.alibaba.cloud.ai.graph.checkpoint.Checkpoint;
+
+import java.util.Collection;
+import java.util.Optional;
+
+/**
+ * 为检查点中的 {@link DocumentRef} 登记引用的检查点存储包装
+ * 写入或读取检查点时以线程 id 为引用方登记上传文档，清除线程时释放；
+ * 停在人工审核的线程持有引用期间，落盘文件不会因超过保留时间而被清理。
+ *
+ * @author Jast
+ */
+public class DocumentRetainingCheckpointSaver implements BaseCheckpointSaver {
+
+    private static final String DEFAULT_THREAD_ID = "$default";
+
+    private final BaseCheckpointSaver delegate;
+
+    private final DocumentSpool spool;
+
+    public DocumentRetainingCheckpointSaver(BaseCheckpointSaver delegate, DocumentSpool spool) {
+        this.delegate = delegate;
+        this.spool = spool;
+    }
+
+    @Override
+    public Collection<Checkpoint> list(RunnableConfig config) {
+        return delegate.list(config);
+    }
+
+    @Override
+    public Optional<Checkpoint> get(RunnableConfig config) {
+        Optional<Checkpoint> checkpoint = delegate.get(config);
+        checkpoint.ifPresent(found -> spool.retain(threadId(config), found.getState().values()));
+        return checkpoint;
+    }
+
+    @Override
+    public RunnableConfig put(RunnableConfig config, Checkpoint checkpoint) throws Exception {
+        spool.retain(threadId(config), checkpoint.getState().values());
+        return delegate.put(config, checkpoint);
+    }
+
+    @Override
+    public boolean clear(RunnableConfig config) {
+        boolean cleared = delegate.clear(config);
+        spool.release(threadId(config));
+        return cleared;
+    }
+
+    private static String threadId(RunnableConfig config) {
+        return config.threadId().orElse(DEFAULT_THREAD_ID);
+    }
+}
@@ -0,0 +1,277 @@
+package com.alibaba.cloud.ai.review.upload;
+
+import com.alibaba.cloud.ai.review.config.DocumentReviewProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * 上传文档落盘
+ * 请求体按固定大小的缓冲区边读边写入临时文件（FileChannel），同时计算 SHA-256，整个文档不会在堆上出现；
+ * 写完后以内容哈希命名（相同内容只保留一份），返回 {@link DocumentRef} 供审核图按引用读取。
+ * 检查点中引用文档的审核线程登记为引用方（见 {@link DocumentRetainingCheckpointSaver}），仍被引用的文件不会清理；
+ * 没有引用方且超过保留时间未再上传、读取或释放的文件定期清理。
+ *
+ * @author Jast
+ */
+@Component
+public class DocumentSpool implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(DocumentSpool.class);
+
+    private static final String SUFFIX = ".doc";
+
+    private static final Pattern HASH = Pattern.compile("[0-9a-f]{64}");
+
+    private final Path directory;
+
+    private final long maxBytes;
+
+    private final int bufferBytes;
+
+    private final Duration retention;
+
+    private final ScheduledExecutorService cleaner;
+
+    private final AtomicLong uploads = new AtomicLong();
+
+    private final AtomicLong deduplicated = new AtomicLong();
+
+    private final AtomicLong rejected = new AtomicLong();
+
+    private final AtomicLong uploadedBytes = new AtomicLong();
+
+    private final AtomicLong uploadNanos = new AtomicLong();
+
+    private final AtomicLong removed = new AtomicLong();
+
+    /**
+     * 引用方（审核线程 id）持有的文档哈希
+     */
+    private final Map<String, Set<String>> owners = new HashMap<>();
+
+    /**
+     * 文档哈希的引用方数量
+     */
+    private final Map<String, Integer> references = new HashMap<>();
+
+    public DocumentSpool(DocumentReviewProperties properties) throws IOException {
+        DocumentReviewProperties.Upload config = properties.getUpload();
+        this.directory = Files.createDirectories(Path.of(config.getSpoolDirectory()));
+        this.maxBytes = config.getMaxBytes();
+        this.bufferBytes = Math.max(4096, config.getBufferBytes());
+        this.retention = config.getRetention();
+        this.cleaner = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "document-spool-cleaner");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = Math.max(1000, retention.toMillis() / 4);
+        this.cleaner.scheduleWithFixedDelay(this::removeExpired, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 把输入流写入落盘文件
+     *
+     * @param in      请求体，调用方负责关闭
+     * @param charset 文档字符集，读取时按该字符集解码
+     * @throws DocumentTooLargeException 文档超过大小上限
+     * @throws IllegalArgumentException  文档为空
+     */
+    public DocumentRef spool(InputStream in, Charset charset) throws IOException {
+        long start = System.nanoTime();
+        MessageDigest digest = sha256();
+        Path temp = Files.createTempFile(directory, "upload-", ".tmp");
+        long total = 0;
+        try {
+            byte[] buffer = new byte[bufferBytes];
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                ByteBuffer wrapped = ByteBuffer.wrap(buffer);
+                for (int read = in.read(buffer); read >= 0; read = in.read(buffer)) {
+                    total += read;
+                    if (total > maxBytes) {
+                        rejected.incrementAndGet();
+                        throw new DocumentTooLargeException("文档超过大小上限 " + maxBytes + " 字节");
+                    }
+                    digest.update(buffer, 0, read);
+                    wrapped.clear().limit(read);
+                    while (wrapped.hasRemaining()) {
+                        channel.write(wrapped);
+                    }
+                }
+            }
+            if (total == 0) {
+                throw new IllegalArgumentException("文档内容为空");
+            }
+
+            String sha256 = HexFormat.of().formatHex(digest.digest());
+            Path target = path(sha256);
+            if (Files.exists(target)) {
+                // 相同内容已落盘，刷新修改时间以延后清理，临时文件在 finally 中删除
+                deduplicated.incrementAndGet();
+                Files.setLastModifiedTime(target, FileTime.fromMillis(System.currentTimeMillis()));
+            } else {
+                // 内容相同的并发上传同时移动时覆盖的也是相同字节
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            }
+
+            long elapsed = System.nanoTime() - start;
+            uploads.incrementAndGet();
+            uploadedBytes.addAndGet(total);
+            uploadNanos.addAndGet(elapsed);
+            logger.info("Spooled document {} - bytes: {}, elapsed: {} ms", sha256, total, elapsed / 1_000_000);
+            return new DocumentRef(sha256, total, charset.name());
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * 读取并解码引用的文档全文，无法解码的字节替换为替换字符
+     *
+     * @throws IllegalArgumentException 引用的哈希不是 SHA-256 十六进制串
+     */
+    public String read(DocumentRef ref) {
+        Path file = path(ref.sha256());
+        try {
+            // 刷新修改时间，读取中的文档不会因上传时间早而被清理
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+            return new String(Files.readAllBytes(file), Charset.forName(ref.charset()));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read spooled document " + ref.sha256(), e);
+        }
+    }
+
+    /**
+     * 为引用方登记 values 中出现的文档引用，同一引用方对同一文档只计一次
+     */
+    public synchronized void retain(String owner, Collection<?> values) {
+        for (Object value : values) {
+            DocumentRef ref = DocumentRef.of(value);
+            if (ref != null && owners.computeIfAbsent(owner, key -> new HashSet<>()).add(ref.sha256())) {
+                references.merge(ref.sha256(), 1, Integer::sum);
+            }
+        }
+    }
+
+    /**
+     * 释放引用方持有的所有文档引用；不再被引用的文件从此时起计算保留时间
+     */
+    public synchronized void release(String owner) {
+        Set<String> held = owners.remove(owner);
+        if (held == null) {
+            return;
+        }
+        for (String sha256 : held) {
+            if (references.merge(sha256, -1, Integer::sum) <= 0) {
+                references.remove(sha256);
+                touch(directory.resolve(sha256 + SUFFIX));
+            }
+        }
+    }
+
+    /**
+     * 单个文档的字节上限
+     */
+    public long maxBytes() {
+        return maxBytes;
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        long nanos = uploadNanos.get();
+        stats.put("directory", directory.toString());
+        stats.put("max_bytes", maxBytes);
+        stats.put("uploads", uploads.get());
+        stats.put("deduplicated", deduplicated.get());
+        stats.put("rejected_too_large", rejected.get());
+        stats.put("uploaded_bytes", uploadedBytes.get());
+        stats.put("avg_mb_per_second", nanos == 0 ? 0.0 : uploadedBytes.get() / 1048576.0 / (nanos / 1e9));
+        stats.put("removed_expired", removed.get());
+        synchronized (this) {
+            stats.put("referenced_documents", references.size());
+            stats.put("owners", owners.size());
+        }
+        return stats;
+    }
+
+    @Override
+    public void destroy() {
+        cleaner.shutdownNow();
+    }
+
+    /**
+     * 删除没有引用方且超过保留时间的文件，以及异常中断遗留的临时文件
+     */
+    synchronized void removeExpired() {
+        long cutoff = System.currentTimeMillis() - retention.toMillis();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                if (name.endsWith(SUFFIX) && references.containsKey(name.substring(0, name.length() - SUFFIX.length()))) {
+                    continue;
+                }
+                if (Files.getLastModifiedTime(file).toMillis() < cutoff && Files.deleteIfExists(file)) {
+                    removed.incrementAndGet();
+                }
+            }
+        } catch (IOException | UncheckedIOException e) {
+            logger.warn("Failed to clean spooled documents in {}", directory, e);
+        }
+    }
+
+    private void touch(Path file) {
+        try {
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+        } catch (IOException e) {
+            logger.debug("Failed to touch spooled document {}", file, e);
+        }
+    }
+
+    /**
+     * 内容哈希对应的落盘文件；哈希来自客户端可见的状态，校验格式后才拼接路径
+     */
+    private Path path(String sha256) {
+        if (!HASH.matcher(sha256).matches()) {
+            throw new IllegalArgumentException("Not a document hash: " + sha256);
+        }
+        return directory.resolve(sha256 + SUFFIX);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.alibaba.cloud.ai.review.upload;
+
+/**
+ * 上传的文档超过大小上限，已写入的部分被丢弃
+ *
+ * @author Jast
+ */
+public class DocumentTooLargeException extends RuntimeException {
+
+    public DocumentTooLargeException(String message) {
+        super(message);
+    }
+}
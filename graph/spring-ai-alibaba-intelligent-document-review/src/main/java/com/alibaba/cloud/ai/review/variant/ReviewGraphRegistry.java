@@ -0,0 +1,189 @@
+package com.alibaba.cloud.ai.review.variant;
+
+import com.alibaba.cloud.ai.graph.CompiledGraph;
+import com.alibaba.cloud.ai.graph.OverAllState;
+import com.alibaba.cloud.ai.graph.action.EdgeAction;
+import com.alibaba.cloud.ai.review.dispatcher.FastPathDispatcher;
+import com.alibaba.cloud.ai.review.metrics.ReviewMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 预编译的审核图变体
+ * 启动时为每个变体编译一次审核图，新审核按 document_type 选择变体，变体名写入状态的 review_variant，
+ * 继续审核、状态查询等按线程状态找回同一个变体。所有变体共用一个检查点存储，任一变体都可以读取线程状态。
+ * 按变体统计启动、继续、完成分析的审核数，分析耗时（文档接收到风险评估后分流）与分析吞吐。
+ *
+ * @author Jast
+ */
+public class ReviewGraphRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReviewGraphRegistry.class);
+
+    /**
+     * 状态中记录审核图变体的字段
+     */
+    public static final String STATE_KEY = "review_variant";
+
+    private final boolean enabled;
+
+    private final ReviewMetrics metrics;
+
+    private final Map<ReviewVariant, CompiledGraph> graphs = new EnumMap<>(ReviewVariant.class);
+
+    private final Map<ReviewVariant, List<String>> nodes = new EnumMap<>(ReviewVariant.class);
+
+    private final Map<ReviewVariant, Stats> stats = new EnumMap<>(ReviewVariant.class);
+
+    private final long startedAtMillis = System.currentTimeMillis();
+
+    /**
+     * @param enabled 是否按文档类型选择变体，关闭时只使用 {@link ReviewVariant#GENERAL}
+     * @param metrics 审核指标，未启用指标时为 null
+     */
+    public ReviewGraphRegistry(boolean enabled, ReviewMetrics metrics) {
+        this.enabled = enabled;
+        this.metrics = metrics;
+        for (ReviewVariant variant : ReviewVariant.values()) {
+            stats.put(variant, new Stats());
+        }
+    }
+
+    /**
+     * 需要编译的变体
+     */
+    public List<ReviewVariant> variants() {
+        return enabled ? List.of(ReviewVariant.values()) : List.of(ReviewVariant.GENERAL);
+    }
+
+    /**
+     * 登记编译好的变体，仅在启动时调用
+     *
+     * @param nodes 变体在人工审核前执行的节点，用于统计展示
+     */
+    public void register(ReviewVariant variant, CompiledGraph graph, List<String> nodes) {
+        graphs.put(variant, graph);
+        this.nodes.put(variant, List.copyOf(nodes));
+        logger.info("Registered {} review graph variant - nodes before human review: {}", variant.id(), nodes);
+    }
+
+    /**
+     * 文档类型对应的变体
+     */
+    public ReviewVariant route(String documentType) {
+        return enabled ? ReviewVariant.of(documentType) : ReviewVariant.GENERAL;
+    }
+
+    /**
+     * 开始新审核：按初始状态中的 document_type 选择变体并写入 review_variant
+     */
+    public CompiledGraph start(Map<String, Object> input) {
+        ReviewVariant variant = route((String) input.get("document_type"));
+        input.put(STATE_KEY, variant.id());
+        stats.get(variant).started.incrementAndGet();
+        return graph(variant);
+    }
+
+    /**
+     * 继续审核：使用线程开始时选择的变体，没有记录变体的旧线程使用通用变体
+     */
+    public CompiledGraph resume(OverAllState state) {
+        ReviewVariant variant = variant(state);
+        stats.get(variant).resumed.incrementAndGet();
+        return graph(variant);
+    }
+
+    /**
+     * 用于读取线程状态的审核图，所有变体共用检查点存储
+     */
+    public CompiledGraph stateReader() {
+        return graph(ReviewVariant.GENERAL);
+    }
+
+    /**
+     * 线程状态中记录的变体
+     */
+    public ReviewVariant variant(OverAllState state) {
+        Object id = state.value(STATE_KEY).orElse(null);
+        ReviewVariant variant = id == null ? ReviewVariant.GENERAL : ReviewVariant.of(id.toString());
+        return graphs.containsKey(variant) ? variant : ReviewVariant.GENERAL;
+    }
+
+    /**
+     * 包装风险评估后的分流，记录变体完成分析的数量与耗时
+     */
+    public EdgeAction tracking(ReviewVariant variant, EdgeAction route) {
+        return state -> {
+            String next = route.apply(state);
+            Object startedAt = state.value("review_start_timestamp").orElse(null);
+            long millis = startedAt instanceof Number since ? System.currentTimeMillis() - since.longValue() : 0;
+            stats.get(variant).analyzed(next, millis);
+            if (metrics != null) {
+                metrics.recordVariantAnalysis(variant.id(), next, millis);
+            }
+            return next;
+        };
+    }
+
+    public Map<String, Object> stats() {
+        double uptimeMinutes = Math.max(1, System.currentTimeMillis() - startedAtMillis) / 60000.0;
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("document_type_variants", enabled);
+        Map<String, Object> variants = new LinkedHashMap<>();
+        graphs.keySet().forEach(variant -> {
+            Stats variantStats = stats.get(variant);
+            Map<String, Object> entry = new LinkedHashMap<>();
+            long analyzed = variantStats.analyzed.get();
+            entry.put("nodes", nodes.get(variant));
+            entry.put("risk_dimensions", variant.riskDimensions().stream().map(RiskDimension::field).toList());
+            entry.put("started", variantStats.started.get());
+            entry.put("analyzed", analyzed);
+            entry.put("auto_approved", variantStats.autoApproved.get());
+            entry.put("resumed", variantStats.resumed.get());
+            entry.put("avg_analysis_ms", analyzed == 0 ? 0 : variantStats.analysisMillis.get() / analyzed);
+            entry.put("max_analysis_ms", variantStats.maxAnalysisMillis.get());
+            entry.put("analyzed_per_minute", analyzed / uptimeMinutes);
+            variants.put(variant.id(), entry);
+        });
+        result.put("variants", variants);
+        return result;
+    }
+
+    private CompiledGraph graph(ReviewVariant variant) {
+        CompiledGraph graph = graphs.get(variant);
+        return graph != null ? graph : graphs.get(ReviewVariant.GENERAL);
+    }
+
+    /**
+     * 单个变体的计数
+     */
+    private static final class Stats {
+
+        private final AtomicLong started = new AtomicLong();
+
+        private final AtomicLong resumed = new AtomicLong();
+
+        private final AtomicLong analyzed = new AtomicLong();
+
+        private final AtomicLong autoApproved = new AtomicLong();
+
+        private final AtomicLong analysisMillis = new AtomicLong();
+
+        private final AtomicLong maxAnalysisMillis = new AtomicLong();
+
+        private void analyzed(String next, long millis) {
+            analyzed.incrementAndGet();
+            if (FastPathDispatcher.AUTO_APPROVAL.equals(next)) {
+                autoApproved.incrementAndGet();
+            }
+            analysisMillis.addAndGet(millis);
+            maxAnalysisMillis.accumulateAndGet(millis, Math::max);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.alibaba.cloud.ai.review.variant;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * 按文档类型区分的审核图变体
+ * 每个变体决定是否执行内容分析、合规检查提示词中的类型要求，以及风险评估的维度；
+ * 未识别的文档类型使用 {@link #GENERAL}，即完整的审核流程
+ *
+ * @author Jast
+ */
+public enum ReviewVariant {
+
+    /**
+     * 合同：完整流程，合规检查只列合同要求，风险评估覆盖全部五个维度
+     */
+    CONTRACT(true, List.of("合同类：法律条款完整性、权责明确性、风险条款合理性"),
+            EnumSet.allOf(RiskDimension.class)),
+
+    /**
+     * 技术文档：不做内容分析，直接按技术要求做合规检查，风险只评估操作与信息安全
+     */
+    TECHNICAL(false, List.of("技术文档：技术标准符合性、安全要求、版本管理"),
+            EnumSet.of(RiskDimension.OPERATIONAL, RiskDimension.SECURITY)),
+
+    /**
+     * 财务报告：风险评估法律、财务与操作三个维度
+     */
+    FINANCIAL(true, List.of("财务报告：数据准确性、审计要求、披露完整性"),
+            EnumSet.of(RiskDimension.LEGAL, RiskDimension.FINANCIAL, RiskDimension.OPERATIONAL)),
+
+    /**
+     * 政策文件：风险评估法律、声誉与操作三个维度
+     */
+    POLICY(true, List.of("政策文件：政策依据、执行可行性、影响评估"),
+            EnumSet.of(RiskDimension.LEGAL, RiskDimension.REPUTATION, RiskDimension.OPERATIONAL)),
+
+    /**
+     * 其他类型：完整流程，合规检查列出所有类型的要求，风险评估覆盖全部五个维度
+     */
+    GENERAL(true, List.of(CONTRACT.complianceFocus.get(0), TECHNICAL.complianceFocus.get(0),
+            FINANCIAL.complianceFocus.get(0), POLICY.complianceFocus.get(0)),
+            EnumSet.allOf(RiskDimension.class));
+
+    private final boolean contentAnalysis;
+
+    private final List<String> complianceFocus;
+
+    private final Set<RiskDimension> riskDimensions;
+
+    ReviewVariant(boolean contentAnalysis, List<String> complianceFocus, Set<RiskDimension> riskDimensions) {
+        this.contentAnalysis = contentAnalysis;
+        this.complianceFocus = complianceFocus;
+        this.riskDimensions = riskDimensions;
+    }
+
+    /**
+     * 变体名称，与 document_type 取值相同
+     */
+    public String id() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * 是否执行内容分析节点
+     */
+    public boolean contentAnalysis() {
+        return contentAnalysis;
+    }
+
+    /**
+     * 合规检查提示词中按文档类型列出的特殊要求
+     */
+    public List<String> complianceFocus() {
+        return complianceFocus;
+    }
+
+    public Set<RiskDimension> riskDimensions() {
+        return riskDimensions;
+    }
+
+    /**
+     * 文档类型对应的变体，不区分大小写，未识别的类型返回 {@link #GENERAL}
+     */
+    public static ReviewVariant of(String documentType) {
+        if (documentType != null) {
+            for (ReviewVariant variant : values()) {
+                if (variant.id().equalsIgnoreCase(documentType.trim())) {
+                    return variant;
+                }
+            }
+        }
+        return GENERAL;
+    }
+}
@@ -0,0 +1,64 @@
+package com.alibaba.cloud.ai.review.variant;
+
+import java.util.Collection;
+
+/**
+ * 风险评估维度，每个维度对应提示词中的一段评估要求与结果中的一个评分字段
+ *
+ * @author Jast
+ */
+public enum RiskDimension {
+
+    LEGAL("法律风险", "legal_risk", "合规性违规风险", "法律责任风险", "监管处罚风险"),
+
+    FINANCIAL("财务风险", "financial_risk", "经济损失风险", "成本超支风险", "投资风险"),
+
+    REPUTATION("声誉风险", "reputation_risk", "品牌形象风险", "公众关系风险", "媒体负面报道风险"),
+
+    OPERATIONAL("操作风险", "operational_risk", "执行困难风险", "技术实施风险", "人员配置风险"),
+
+    SECURITY("信息安全风险", "security_risk", "数据泄露风险", "隐私保护风险", "网络安全风险");
+
+    private final String title;
+
+    private final String field;
+
+    private final String[] aspects;
+
+    RiskDimension(String title, String field, String... aspects) {
+        this.title = title;
+        this.field = field;
+        this.aspects = aspects;
+    }
+
+    public String field() {
+        return field;
+    }
+
+    /**
+     * 提示词中的评估要求段落，按给定顺序编号
+     */
+    public static String criteria(Collection<RiskDimension> dimensions) {
+        StringBuilder criteria = new StringBuilder();
+        int index = 1;
+        for (RiskDimension dimension : dimensions) {
+            criteria.append(index++).append(". ").append(dimension.title).append("：\n");
+            for (String aspect : dimension.aspects) {
+                criteria.append("   - ").append(aspect).append('\n');
+            }
+            criteria.append('\n');
+        }
+        return criteria.toString().stripTrailing();
+    }
+
+    /**
+     * 提示词中要求返回的评分字段
+     */
+    public static String fields(Collection<RiskDimension> dimensions) {
+        StringBuilder fields = new StringBuilder();
+        for (RiskDimension dimension : dimensions) {
+            fields.append("- ").append(dimension.field).append(": ").append(dimension.title).append("评分(1-10)\n");
+        }
+        return fields.toString().stripTrailing();
+    }
+}
@@ -0,0 +1,201 @@
+package com.alibaba.cloud.ai.review.blob;
+
+import com.alibaba.cloud.ai.review.config.DocumentReviewProperties;
+import com.alibaba.fastjson.JSON;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 引用存储测试：内容去重、内存映射读取、按线程计数的清理，以及停在人工审核的线程的检查点大小
+ *
+ * @author Jast
+ */
+class BlobStoreTest {
+
+    private static final String[] RESULT_KEYS = {"content_analysis_result", "compliance_result", "ai_analysis_result"};
+
+    @TempDir
+    Path directory;
+
+    private BlobStore store;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        DocumentReviewProperties properties = new DocumentReviewProperties();
+        properties.getBlobStore().setDirectory(directory.toString());
+        properties.getBlobStore().setMinChars(100);
+        properties.getBlobStore().setGcGrace(Duration.ZERO);
+        store = new BlobStore(properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        store.destroy();
+    }
+
+    @Test
+    void storesIdenticalValuesOnce() {
+        String text = contract(1, 10);
+        BlobRef first = store.put(text);
+        BlobRef second = store.put(new String(text.toCharArray()));
+
+        assertEquals(first, second);
+        assertEquals(1, files());
+        assertEquals(text, store.read(second));
+        assertEquals(text.length(), second.chars());
+        assertEquals(1L, store.stats().get("deduplicated"));
+        // 序列化后的字段 Map 同样识别为引用，且只包含哈希与字符数
+        assertEquals(first, BlobRef.of(Map.of("sha256", first.sha256(), "chars", first.chars())));
+        assertFalse(JSON.toJSONString(first).contains(directory.toString()));
+    }
+
+    @Test
+    void rejectsRefsThatAreNotContentHashes() {
+        assertThrows(IllegalArgumentException.class, () -> store.read(new BlobRef("../../etc/passwd", 10)));
+        assertThrows(IllegalArgumentException.class, () -> store.read(new BlobRef("ABC", 3)));
+    }
+
+    @Test
+    void keepsShortValuesInline() {
+        assertSame("approved", store.externalize("approved"));
+        assertEquals(7, store.externalize(7));
+        assertTrue(store.externalize(contract(2, 10)) instanceof BlobRef);
+        assertNull(BlobRef.of(Map.of("sha256", "abc", "bytes", 3)));
+    }
+
+    @Test
+    void collectsBlobsOnlyAfterEveryOwnerReleases() {
+        BlobRef shared = store.put(contract(3, 10));
+        BlobRef own = store.put(contract(4, 10));
+        store.put(contract(5, 10));
+
+        store.retain("review-1", List.of(shared, "short value"));
+        store.retain("review-2", List.of(shared, Map.of("sha256", own.sha256(), "chars", own.chars())));
+        // 同一线程的多个检查点引用同一内容只计一次
+        store.retain("review-2", List.of(shared));
+
+        assertEquals(1, store.collect());
+        store.release("review-1");
+        assertEquals(0, store.collect());
+        assertEquals(shared.chars(), store.read(shared).length());
+
+        store.release("review-2");
+        assertEquals(2, store.collect());
+        assertEquals(0, files());
+    }
+
+    @Test
+    void pausedThreadCheckpointShrinksToHandles() throws Exception {
+        int threads = 200;
+        List<byte[]> inline = new ArrayList<>();
+        List<byte[]> handles = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            Map<String, Object> state = pausedState(i);
+            Map<String, Object> externalized = new HashMap<>();
+            state.forEach((key, value) -> externalized.put(key, store.externalize(value)));
+            // 检查点存储按 CheckpointCodec 的方式把状态 Map 以 Java 序列化写出
+            inline.add(encode(state));
+            handles.add(encode(externalized));
+        }
+        long inlineBytes = inline.stream().mapToLong(bytes -> bytes.length).sum() / threads;
+        long handleBytes = handles.stream().mapToLong(bytes -> bytes.length).sum() / threads;
+        // 两组恢复的状态都保持可达，避免前一组被回收影响后一组的测量
+        List<Object> restored = new ArrayList<>();
+        long handleHeap = retainedHeap(handles, restored) / threads;
+        long inlineHeap = retainedHeap(inline, restored) / threads;
+
+        assertTrue(handleBytes < 1500, "checkpoint should only hold handles, got " + handleBytes);
+        assertTrue(handleBytes * 10 < inlineBytes,
+                "checkpoint should shrink, inline: " + inlineBytes + ", handles: " + handleBytes);
+        assertTrue(handleHeap * 5 < inlineHeap,
+                "paused thread heap should shrink, inline: " + inlineHeap + ", handles: " + handleHeap);
+
+        // 节点按需读取的原文与写入时一致
+        Map<String, Object> state = pausedState(0);
+        assertEquals(state.get("document_content"), store.read((BlobRef) store.externalize(state.get("document_content"))));
+    }
+
+    /**
+     * 风险评估完成、停在人工审核前的线程状态
+     */
+    private static Map<String, Object> pausedState(int thread) {
+        Map<String, Object> state = new HashMap<>();
+        state.put("document_content", contract(thread, 120));
+        state.put("document_type", "contract");
+        state.put("urgency_level", "normal");
+        state.put("thread_id", "review-" + thread);
+        state.put("risk_score", 6);
+        state.put("human_review_requested_at", System.currentTimeMillis());
+        for (String key : RESULT_KEYS) {
+            state.put(key, "{\"" + key + "\": \"" + "第" + thread + "份合同存在付款期限不明确、违约责任不对等的问题。".repeat(60) + "\"}");
+        }
+        return state;
+    }
+
+    private static String contract(int seed, int clauses) {
+        StringBuilder contract = new StringBuilder("# 合同 ").append(seed).append("\n\n");
+        for (int i = 1; i <= clauses; i++) {
+            contract.append("## 第").append(i).append("条\n\n")
+                    .append("甲方应在收到乙方发票后三十日内支付第").append(i).append("期服务费用，逾期按日万分之五支付违约金。")
+                    .append("乙方应按附件约定的标准提供服务，并在每月末提交服务报告，未达标准的应在五个工作日内完成整改。\n\n");
+        }
+        return contract.toString();
+    }
+
+    private static byte[] encode(Map<String, Object> state) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(new HashMap<>(state));
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * 把所有线程的检查点恢复到堆上（与内存检查点存储持有的状态相同）后增加的堆占用
+     */
+    private static long retainedHeap(List<byte[]> checkpoints, List<Object> states) throws Exception {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        System.gc();
+        long before = memory.getHeapMemoryUsage().getUsed();
+        for (byte[] data : checkpoints) {
+            try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(data))) {
+                states.add(in.readObject());
+            }
+        }
+        System.gc();
+        return memory.getHeapMemoryUsage().getUsed() - before;
+    }
+
+    private long files() {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.count();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
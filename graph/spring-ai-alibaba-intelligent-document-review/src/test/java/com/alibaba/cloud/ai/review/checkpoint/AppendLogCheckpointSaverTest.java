@@ -0,0 +1,124 @@
+package com.alibaba.cloud.ai.review.checkpoint;
+
+import com.alibaba.cloud.ai.graph.RunnableConfig;
+import com.alibaba.cloud.ai.graph.checkpoint.Checkpoint;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 追加日志检查点存储测试
+ *
+ * @author Jast
+ */
+class AppendLogCheckpointSaverTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void recoversPausedThreadsAfterReopen() throws Exception {
+        try (AppendLogCheckpointSaver saver = newSaver(4096)) {
+            for (int i = 0; i < 100; i++) {
+                RunnableConfig config = RunnableConfig.builder().threadId("review-" + i).build();
+                saver.put(config, checkpoint("content_analysis", i));
+                saver.put(config, checkpoint("risk_assessment", i));
+            }
+            saver.clear(RunnableConfig.builder().threadId("review-0").build());
+        }
+
+        try (AppendLogCheckpointSaver saver = newSaver(4096)) {
+            assertEquals(99, saver.threadCount());
+            assertFalse(saver.get(RunnableConfig.builder().threadId("review-0").build()).isPresent());
+
+            RunnableConfig config = RunnableConfig.builder().threadId("review-42").build();
+            Checkpoint latest = saver.get(config).orElseThrow();
+            assertEquals("risk_assessment", latest.getNodeId());
+            assertEquals(42, latest.getState().get("sequence"));
+            assertEquals(2, saver.list(config).size());
+        }
+    }
+
+    @Test
+    void replacesCheckpointById() throws Exception {
+        try (AppendLogCheckpointSaver saver = newSaver(1024 * 1024)) {
+            RunnableConfig config = saver.put(RunnableConfig.builder().threadId("review").build(),
+                    checkpoint("risk_assessment", 1));
+            Checkpoint replacement = Checkpoint.builder()
+                    .id(config.checkPointId().orElseThrow())
+                    .nodeId("risk_assessment")
+                    .nextNodeId("human_review")
+                    .state(Map.of("sequence", 2))
+                    .build();
+            saver.put(config, replacement);
+
+            assertEquals(1, saver.list(config).size());
+            assertEquals(2, saver.get(config).orElseThrow().getState().get("sequence"));
+        }
+    }
+
+    @Test
+    void compactionDropsSupersededSegments() throws Exception {
+        try (AppendLogCheckpointSaver saver = newSaver(4096)) {
+            RunnableConfig config = RunnableConfig.builder().threadId("review").build();
+            for (int i = 0; i < 200; i++) {
+                saver.clear(config);
+                saver.put(RunnableConfig.builder().threadId("review").build(), checkpoint("content_analysis", i));
+            }
+            long before = saver.diskBytes();
+
+            assertTrue(saver.compact() > 0);
+            assertTrue(saver.diskBytes() < before);
+            assertEquals(199, saver.get(config).orElseThrow().getState().get("sequence"));
+        }
+    }
+
+    @Test
+    void compactionKeepsClearRecordWhileOlderSegmentsRemain() throws Exception {
+        RunnableConfig cleared = RunnableConfig.builder().threadId("cleared").build();
+        RunnableConfig kept = RunnableConfig.builder().threadId("kept").build();
+        // 段 A：两个线程各一条记录
+        try (AppendLogCheckpointSaver saver = newSaver(1024 * 1024, 0.3)) {
+            saver.put(cleared, checkpoint("content_analysis", 1));
+            saver.put(kept, checkpoint("content_analysis", 2));
+        }
+        // 段上限为 1 字节时每条记录都滚动到新段：清除记录在段 B，段 A 仍有一半存活数据不会被压缩
+        try (AppendLogCheckpointSaver saver = newSaver(1, 0.3)) {
+            saver.clear(cleared);
+            saver.put(RunnableConfig.builder().threadId("other").build(), checkpoint("content_analysis", 3));
+
+            assertEquals(1, saver.compact());
+        }
+
+        try (AppendLogCheckpointSaver saver = newSaver(1, 0.3)) {
+            assertFalse(saver.contains("cleared"));
+            assertFalse(saver.get(cleared).isPresent());
+            assertEquals(2, saver.get(kept).orElseThrow().getState().get("sequence"));
+            assertEquals(2, saver.threadCount());
+        }
+    }
+
+    private AppendLogCheckpointSaver newSaver(long segmentBytes) throws Exception {
+        return newSaver(segmentBytes, 0.5);
+    }
+
+    private AppendLogCheckpointSaver newSaver(long segmentBytes, double compactionLiveRatio) throws Exception {
+        return new AppendLogCheckpointSaver(directory, segmentBytes, 8, Duration.ofMillis(50), Duration.ofHours(1),
+                compactionLiveRatio);
+    }
+
+    private static Checkpoint checkpoint(String nodeId, int sequence) {
+        return Checkpoint.builder()
+                .nodeId(nodeId)
+                .nextNodeId("human_review")
+                .state(Map.of("document_content", "合同正文".repeat(20), "sequence", sequence))
+                .build();
+    }
+}
@@ -0,0 +1,155 @@
+package com.alibaba.cloud.ai.review.checkpoint;
+
+import com.alibaba.cloud.ai.graph.RunnableConfig;
+import com.alibaba.cloud.ai.graph.StateGraph;
+import com.alibaba.cloud.ai.graph.checkpoint.Checkpoint;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 有界内存检查点存储测试：按线程数、字节数与空闲时间淘汰，中断线程溢出与加载
+ *
+ * @author Jast
+ */
+class BoundedCheckpointSaverTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void evictsLeastRecentlyUsedThreadByThreadLimit() throws Exception {
+        try (BoundedCheckpointSaver saver = new BoundedCheckpointSaver(2, Long.MAX_VALUE, Duration.ofHours(1), null)) {
+            saver.put(config("a"), checkpoint(StateGraph.END, 1));
+            saver.put(config("b"), checkpoint(StateGraph.END, 2));
+            // 访问 a 后 b 成为最久未使用的线程
+            assertTrue(saver.get(config("a")).isPresent());
+            saver.put(config("c"), checkpoint(StateGraph.END, 3));
+
+            assertTrue(saver.get(config("a")).isPresent());
+            assertFalse(saver.get(config("b")).isPresent());
+            assertTrue(saver.get(config("c")).isPresent());
+            assertEquals(1, saver.getEvictions());
+            assertEquals(2, saver.stats().get("threads"));
+        }
+    }
+
+    @Test
+    void evictsByEstimatedBytes() throws Exception {
+        long bytes = BoundedCheckpointSaver.estimateBytes(checkpoint(StateGraph.END, 1));
+        try (BoundedCheckpointSaver saver = new BoundedCheckpointSaver(100, bytes * 2, Duration.ofHours(1), null)) {
+            saver.put(config("a"), checkpoint(StateGraph.END, 1));
+            saver.put(config("b"), checkpoint(StateGraph.END, 2));
+            assertEquals(0, saver.getEvictions());
+
+            saver.put(config("c"), checkpoint(StateGraph.END, 3));
+
+            assertFalse(saver.get(config("a")).isPresent());
+            assertEquals(1, saver.getEvictions());
+            assertEquals(bytes * 2, saver.stats().get("bytes"));
+            assertEquals(1L, saver.stats().get("size_evictions"));
+        }
+    }
+
+    @Test
+    void evictsIdleThreads() throws Exception {
+        try (BoundedCheckpointSaver saver = new BoundedCheckpointSaver(100, Long.MAX_VALUE, Duration.ofMillis(200),
+                null)) {
+            saver.put(config("idle"), checkpoint(StateGraph.END, 1));
+            Thread.sleep(300);
+            saver.put(config("active"), checkpoint(StateGraph.END, 2));
+
+            assertEquals(1, saver.evictIdle());
+            assertFalse(saver.get(config("idle")).isPresent());
+            assertTrue(saver.get(config("active")).isPresent());
+            assertEquals(1L, saver.stats().get("idle_evictions"));
+            assertEquals(0L, saver.stats().get("size_evictions"));
+            assertEquals(1, saver.getEvictions());
+        }
+    }
+
+    @Test
+    void spillsPausedThreadAndReloadsOnGet() throws Exception {
+        try (BoundedCheckpointSaver saver = new BoundedCheckpointSaver(1, Long.MAX_VALUE, Duration.ofHours(1),
+                spillSaver())) {
+            saver.put(config("paused"), checkpoint("risk_assessment", 1));
+            saver.put(config("paused"), checkpoint("human_review", 2));
+            saver.put(config("other"), checkpoint(StateGraph.END, 3));
+
+            assertEquals(1, saver.getSpills());
+            assertEquals(1, saver.stats().get("spilled_threads"));
+
+            // 再次访问时从磁盘加载，检查点顺序保持最新在前；other 因线程数上限被淘汰并丢弃
+            Checkpoint latest = saver.get(config("paused")).orElseThrow();
+            assertEquals("human_review", latest.getNextNodeId());
+            assertEquals(2, latest.getState().get("sequence"));
+            assertEquals(2, saver.list(config("paused")).size());
+            assertEquals(1, saver.getReloads());
+            assertEquals(0, saver.stats().get("spilled_threads"));
+            assertEquals(1L, saver.stats().get("discards"));
+        }
+    }
+
+    @Test
+    void discardsCompletedThreadAndNotifiesListener() throws Exception {
+        try (BoundedCheckpointSaver saver = new BoundedCheckpointSaver(1, Long.MAX_VALUE, Duration.ofHours(1),
+                spillSaver())) {
+            List<String> discarded = new ArrayList<>();
+            saver.setDiscardListener(discarded::add);
+
+            saver.put(config("done"), checkpoint(StateGraph.END, 1));
+            saver.put(config("next"), checkpoint("human_review", 2));
+
+            assertEquals(List.of("done"), discarded);
+            assertEquals(0, saver.getSpills());
+            assertEquals(1L, saver.stats().get("discards"));
+            assertFalse(saver.get(config("done")).isPresent());
+        }
+    }
+
+    @Test
+    void replacingUnknownCheckpointThrows() throws Exception {
+        try (BoundedCheckpointSaver saver = new BoundedCheckpointSaver(10, Long.MAX_VALUE, Duration.ofHours(1), null)) {
+            RunnableConfig config = saver.put(config("review"), checkpoint("human_review", 1));
+            Checkpoint replacement = Checkpoint.builder()
+                    .id(config.checkPointId().orElseThrow())
+                    .nodeId("risk_assessment")
+                    .nextNodeId("human_review")
+                    .state(Map.of("sequence", 2))
+                    .build();
+            saver.put(config, replacement);
+            assertEquals(2, saver.get(config).orElseThrow().getState().get("sequence"));
+
+            RunnableConfig missing = RunnableConfig.builder(config).checkPointId("missing").build();
+            assertThrows(NoSuchElementException.class, () -> saver.put(missing, checkpoint("human_review", 3)));
+        }
+    }
+
+    private AppendLogCheckpointSaver spillSaver() throws Exception {
+        return new AppendLogCheckpointSaver(directory, 1024 * 1024, 8, Duration.ofMillis(50), Duration.ofHours(1),
+                0.5);
+    }
+
+    private static RunnableConfig config(String threadId) {
+        return RunnableConfig.builder().threadId(threadId).build();
+    }
+
+    private static Checkpoint checkpoint(String nextNodeId, int sequence) {
+        return Checkpoint.builder()
+                .nodeId("risk_assessment")
+                .nextNodeId(nextNodeId)
+                .state(Map.of("document_content", "合同正文".repeat(20), "sequence", sequence))
+                .build();
+    }
+}
@@ -0,0 +1,71 @@
+package com.alibaba.cloud.ai.review.chunk;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONObject;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 分块结果合并测试：评分取最低或平均，列表合并去重，总体状态取最严重
+ *
+ * @author Jast
+ */
+class ChunkResultMergerTest {
+
+    private static final List<String> CHUNK_RESULTS = List.of(
+            "{\"compliance_score\": 8, \"failed_checks\": [\"缺少签章\"], \"overall_status\": \"compliant\", "
+                    + "\"escalation_required\": false, \"summary\": \"第一部分\"}",
+            "```json\n{\"compliance_score\": \"5\", \"failed_checks\": [\"缺少签章\", \"期限未填写\"], "
+                    + "\"overall_status\": \"non-compliant\", \"escalation_required\": true, \"summary\": \"第二部分\"}\n```",
+            "{\"compliance_score\": 6.5, \"failed_checks\": [], \"overall_status\": \"needs-review\"}");
+
+    @Test
+    void conservativeKeepsLowestScore() {
+        JSONObject merged = JSON.parseObject(new ChunkResultMerger(ChunkResultMerger.Strategy.CONSERVATIVE)
+                .merge(CHUNK_RESULTS));
+
+        assertEquals(5.0, merged.getDoubleValue("compliance_score"));
+        assertEquals(List.of("缺少签章", "期限未填写"), merged.getJSONArray("failed_checks").toJavaList(String.class));
+        assertEquals("non-compliant", merged.getString("overall_status"));
+        assertTrue(merged.getBooleanValue("escalation_required"));
+        assertEquals("第一部分\n第二部分", merged.getString("summary"));
+    }
+
+    @Test
+    void averageSumsThenDividesByChunkCount() {
+        JSONObject merged = JSON.parseObject(new ChunkResultMerger(ChunkResultMerger.Strategy.AVERAGE)
+                .merge(CHUNK_RESULTS));
+
+        // (8 + 5 + 6.5) / 3 = 6.5
+        assertEquals(6.5, merged.getDoubleValue("compliance_score"));
+        assertEquals("non-compliant", merged.getString("overall_status"));
+    }
+
+    @Test
+    void mergesNonNumericScoreAsText() {
+        String merged = new ChunkResultMerger(ChunkResultMerger.Strategy.AVERAGE).merge(List.of(
+                "{\"compliance_score\": 7}", "{\"compliance_score\": \"待定\"}", "{\"compliance_score\": 9}"));
+
+        assertEquals("7.0\n待定\n9", JSON.parseObject(merged).getString("compliance_score"));
+    }
+
+    @Test
+    void keepsUnparsedChunkAsRawText() {
+        String merged = new ChunkResultMerger(ChunkResultMerger.Strategy.CONSERVATIVE).merge(List.of(
+                "{\"compliance_score\": 7}", "无法给出评分"));
+
+        assertTrue(merged.startsWith("{\"compliance_score\":7.0}"));
+        assertTrue(merged.endsWith("[第 2 部分]\n无法给出评分"));
+    }
+
+    @Test
+    void concatJoinsChunksInOrder() {
+        String merged = new ChunkResultMerger(ChunkResultMerger.Strategy.CONCAT).merge(List.of("甲", "乙"));
+
+        assertEquals("[第 1 部分]\n甲\n\n[第 2 部分]\n乙", merged);
+    }
+}
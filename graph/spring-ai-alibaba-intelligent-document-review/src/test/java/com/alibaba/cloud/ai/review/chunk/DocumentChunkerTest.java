@@ -0,0 +1,79 @@
+package com.alibaba.cloud.ai.review.chunk;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 文档分块测试：章节边界、分块上限与相邻分块的重叠
+ *
+ * @author Jast
+ */
+class DocumentChunkerTest {
+
+    @Test
+    void keepsShortDocumentWhole() {
+        String document = "# 保密协议\n第一条 双方应对商业信息保密。\n";
+
+        assertEquals(List.of(document), new DocumentChunker(100, 10).split(document));
+    }
+
+    @Test
+    void splitsAtSectionStarts() {
+        String document = "# 保密协议\n前言\n第一条 保密信息\n内容\n1.2 例外情形\n内容\n二、违约责任\n内容\n";
+
+        List<String> sections = DocumentChunker.sections(document);
+
+        assertEquals(List.of("# 保密协议\n前言\n", "第一条 保密信息\n内容\n", "1.2 例外情形\n内容\n", "二、违约责任\n内容\n"),
+                sections);
+        assertEquals(document, String.join("", sections));
+    }
+
+    @Test
+    void packsSectionsUpToLimitWithOverlap() {
+        StringBuilder document = new StringBuilder();
+        for (int i = 1; i <= 20; i++) {
+            document.append("第").append(i).append("条 ").append("条款内容".repeat(10)).append('\n');
+        }
+        int chunkChars = 200;
+        int overlapChars = 30;
+
+        List<String> chunks = new DocumentChunker(chunkChars, overlapChars).split(document.toString());
+
+        assertTrue(chunks.size() > 1);
+        StringBuilder restored = new StringBuilder(chunks.get(0));
+        for (int i = 1; i < chunks.size(); i++) {
+            String previous = chunks.get(i - 1);
+            String chunk = chunks.get(i);
+            assertTrue(chunk.length() <= chunkChars + overlapChars);
+            // 每个分块以上一块末尾的 overlapChars 个字符开头，且正文从章节起始行开始
+            assertTrue(chunk.startsWith(previous.substring(previous.length() - overlapChars)));
+            assertTrue(chunk.substring(overlapChars).startsWith("第"));
+            restored.append(chunk.substring(overlapChars));
+        }
+        assertTrue(chunks.get(0).length() <= chunkChars);
+        assertEquals(document.toString(), restored.toString());
+    }
+
+    @Test
+    void hardSplitsOversizedParagraph() {
+        String document = "甲".repeat(250);
+
+        List<String> chunks = new DocumentChunker(100, 0).split(document);
+
+        assertEquals(List.of("甲".repeat(100), "甲".repeat(100), "甲".repeat(50)), chunks);
+    }
+
+    @Test
+    void capsOverlapAtHalfChunk() {
+        String document = "甲".repeat(100) + "\n\n" + "乙".repeat(100);
+
+        List<String> chunks = new DocumentChunker(102, 500).split(document);
+
+        assertEquals(2, chunks.size());
+        assertEquals("甲".repeat(49) + "\n\n" + "乙".repeat(100), chunks.get(1));
+    }
+}
@@ -0,0 +1,206 @@
+package com.alibaba.cloud.ai.review.chunk;
+
+import com.alibaba.cloud.ai.review.result.StreamingJsonParser;
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONObject;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.Prompt;
+import reactor.core.publisher.Flux;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 修改后重审测试：长合同经过多轮修改，桩模型统计每轮提示词 token 数
+ *
+ * @author Jast
+ */
+class IncrementalReviewTest {
+
+    private static final String PROMPT = "你是一个专业的合规性审查专家。请对以下文档进行合规性检查，并以JSON格式返回检查结果：\n";
+
+    private static final Pattern CLAUSE_TITLE = Pattern.compile("第\\d+条");
+
+    private final CountingChatModel model = new CountingChatModel();
+
+    private final ChatClient chatClient = ChatClient.builder(model).build();
+
+    private final ChunkedAnalysisRunner runner = new ChunkedAnalysisRunner(new DocumentChunker(6000, 300),
+            new ChunkResultMerger(ChunkResultMerger.Strategy.CONSERVATIVE), 12000, 4, new SectionDiffPlanner(4000, 300));
+
+    @Test
+    void reanalyzesOnlyChangedSectionsAcrossModificationRounds() {
+        String round1 = contract(100);
+        Round first = review(round1, List.of());
+        assertEquals(0, first.plan().reused());
+
+        // 第二轮：修改一个条款
+        String round2 = round1.replace("第17条约定的付款期限为30日", "第17条约定的付款期限为15日");
+        Round second = review(round2, first.units());
+
+        // 第三轮：再修改一个条款并新增一个条款
+        String round3 = round2.replace("第72条约定的付款期限为30日", "第72条约定的付款期限为45日")
+                .replace("## 第5条", "## 第101条 补充条款\n\n双方另行约定的补充事项以书面形式为准。\n\n## 第5条");
+        Round third = review(round3, second.units());
+
+        assertEquals(first.plan().size() - 1, second.plan().reused());
+        for (Round round : List.of(first, second, third)) {
+            assertEquals(expectedPromptTokens(round.plan()), round.promptTokens());
+        }
+        assertTrue(second.promptTokens() * 4 < first.promptTokens(), "round 2 should send under a quarter of round 1");
+        assertTrue(third.promptTokens() * 2 < first.promptTokens(), "round 3 should send under half of round 1");
+        assertTrue(third.plan().units().stream().filter(unit -> !unit.isReused())
+                .anyMatch(unit -> unit.text().contains("45日")));
+
+        // 合并结果覆盖所有条款，无论结果来自本轮还是上一轮
+        JSONObject merged = StreamingJsonParser.parse(third.mergedResult());
+        assertEquals(101, merged.getJSONArray("passed_checks").size());
+        assertTrue(merged.getJSONArray("passed_checks").contains("第101条"));
+    }
+
+    @Test
+    void unchangedDocumentReusesEverything() {
+        String document = contract(20);
+        Round first = review(document, List.of());
+        Round second = review(document.replace("\n\n", "\n\n\n"), first.units());
+
+        assertEquals(second.plan().size(), second.plan().reused());
+        assertEquals(0, second.promptTokens());
+        assertEquals(first.mergedResult(), second.mergedResult());
+    }
+
+    @Test
+    void firstReviewBelowThresholdIsAnalyzedWhole() {
+        String document = contract(20);
+        SectionPlan plan = runner.plan(document, List.of());
+
+        assertTrue(document.length() > 4000 && document.length() <= 12000);
+        assertEquals(1, plan.size());
+        assertEquals(document, plan.units().get(0).text());
+    }
+
+    @Test
+    void splitsOversizedSectionsWithOverlap() {
+        // 没有章节标题的长文档只有一个章节，按段落切分后装箱
+        StringBuilder paragraphs = new StringBuilder();
+        for (int i = 0; paragraphs.length() < 30000; i++) {
+            paragraphs.append("段落").append(i).append("：乙方应按照约定的标准提供服务，甲方应按期支付费用。".repeat(10))
+                    .append("\n\n");
+        }
+        String document = paragraphs.toString();
+        SectionPlan plan = runner.plan(document, List.of());
+
+        assertTrue(plan.size() >= 30000 / 4000, "plan should split the document, units: " + plan.size());
+        String previous = null;
+        for (SectionPlan.Unit unit : plan.units()) {
+            assertTrue(unit.text().length() <= 4000 + 300, "unit too long: " + unit.text().length());
+            if (previous != null) {
+                assertTrue(unit.text().startsWith(previous.substring(previous.length() - 300)));
+            }
+            previous = unit.text();
+        }
+    }
+
+    @Test
+    void planWithoutPlannerSplitsIntoChunks() {
+        ChunkedAnalysisRunner plain = new ChunkedAnalysisRunner(new DocumentChunker(6000, 300),
+                new ChunkResultMerger(ChunkResultMerger.Strategy.CONSERVATIVE), 12000, 4);
+        SectionPlan plan = plain.plan(contract(60), List.of());
+
+        assertTrue(plan.size() > 1);
+        assertTrue(!plan.incremental());
+        assertEquals(1, plain.plan(contract(5), List.of()).size());
+    }
+
+    private Round review(String document, List<AnalysisUnit> previous) {
+        long before = model.promptTokens.get();
+        SectionPlan plan = runner.plan(document, previous);
+        ChunkedAnalysisRunner.ChunkedAnalysis analysis = runner.run(plan,
+                text -> chatClient.prompt().user(PROMPT + text).stream().chatResponse());
+        analysis.stream().blockLast();
+        return new Round(plan, plan.toAnalysisUnits(analysis.chunkResults().get()), analysis.mergedResult().get(),
+                model.promptTokens.get() - before);
+    }
+
+    /**
+     * 按运行器的分块提示词格式计算未沿用单元发送的提示词 token 数
+     */
+    private static long expectedPromptTokens(SectionPlan plan) {
+        List<SectionPlan.Unit> units = plan.units();
+        long tokens = 0;
+        for (int i = 0; i < units.size(); i++) {
+            if (units.get(i).isReused()) {
+                continue;
+            }
+            String header = units.size() == 1 ? "" : "【第 " + (i + 1) + "/" + units.size() + " 部分】\n";
+            tokens += PROMPT.length() + header.length() + units.get(i).text().length();
+        }
+        return tokens;
+    }
+
+    /**
+     * 生成指定条款数的合同，每个条款内容各不相同
+     */
+    private static String contract(int clauses) {
+        StringBuilder contract = new StringBuilder("# 长期服务合同\n\n");
+        for (int i = 1; i <= clauses; i++) {
+            contract.append("## 第").append(i).append("条 服务事项").append(i).append("\n\n")
+                    .append("第").append(i).append("条约定的付款期限为30日，甲方应在收到发票后按约定支付服务费用。")
+                    .append("乙方应按照附件").append(i).append("所列标准提供服务，并在每月末提交服务报告。")
+                    .append("服务报告应列明服务内容、服务时长、参与人员及发现的问题，甲方应在收到报告后十个工作日内确认或提出书面异议，")
+                    .append("逾期未提出异议的视为确认。因乙方原因导致服务未达标准的，乙方应在甲方通知后五个工作日内完成整改，")
+                    .append("整改费用由乙方自行承担；整改后仍未达标的，甲方有权另行委托第三方完成，所需费用由乙方承担。")
+                    .append("任何一方违反本条约定的，应赔偿对方因此遭受的直接损失，违约金不超过本条所涉费用的百分之")
+                    .append(i % 20 + 1).append("。\n\n");
+        }
+        return contract.toString();
+    }
+
+    private record Round(SectionPlan plan, List<AnalysisUnit> units, String mergedResult, long promptTokens) {
+    }
+
+    /**
+     * 桩模型：按提示词字符数估算 token（中文约一字一个 token），输出提示词中出现的条款编号
+     */
+    private static class CountingChatModel implements ChatModel {
+
+        private final AtomicLong promptTokens = new AtomicLong();
+
+        @Override
+        public ChatResponse call(Prompt prompt) {
+            return stream(prompt).blockLast();
+        }
+
+        @Override
+        public Flux<ChatResponse> stream(Prompt prompt) {
+            String text = prompt.getContents();
+            promptTokens.addAndGet(text.length());
+            List<String> clauses = new ArrayList<>();
+            Matcher matcher = CLAUSE_TITLE.matcher(text);
+            while (matcher.find()) {
+                if (!clauses.contains(matcher.group())) {
+                    clauses.add(matcher.group());
+                }
+            }
+            String result = JSON.toJSONString(Map.of("compliance_score", 8, "passed_checks", clauses,
+                    "overall_status", "compliant"));
+            return Flux.just(response(result));
+        }
+
+        private static ChatResponse response(String text) {
+            return new ChatResponse(List.of(new Generation(new AssistantMessage(text))));
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.alibaba.cloud.ai.review.config;
+
+import com.alibaba.cloud.ai.review.controller.process.ReviewEventEncoder;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.ConfigurationPropertySources;
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.boot.env.YamlPropertySourceLoader;
+import org.springframework.core.env.PropertySource;
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 配置绑定测试：application.yml 能完整绑定到 {@link DocumentReviewProperties}，
+ * 且会改变审核结果的可选功能在配置文件与代码默认值中都是关闭的
+ *
+ * @author Jast
+ */
+class DocumentReviewPropertiesTest {
+
+    @Test
+    void bindsApplicationYaml() throws IOException {
+        DocumentReviewProperties properties = bindApplicationYaml();
+
+        assertTrue(properties.getGraph().isParallelAnalysis());
+        assertEquals(ReviewEventEncoder.StateEmission.DELTA, properties.getStream().getStateEmission());
+        assertEquals("memory", properties.getCheckpoint().getType());
+        assertEquals(Duration.ofHours(24), properties.getCheckpoint().getBounded().getIdleTtl());
+    }
+
+    @Test
+    void optInFeaturesAreOffByDefault() throws IOException {
+        for (DocumentReviewProperties properties : List.of(new DocumentReviewProperties(), bindApplicationYaml())) {
+            assertFalse(properties.getLlmCache().isEnabled());
+            assertFalse(properties.getFastPath().isEnabled());
+            assertTrue(properties.getFastPath().getRules().isEmpty());
+            assertFalse(properties.getNearDuplicate().isEnabled());
+            assertFalse(properties.getSpeculative().isEnabled());
+            assertFalse(properties.getBlobStore().isEnabled());
+        }
+    }
+
+    private static DocumentReviewProperties bindApplicationYaml() throws IOException {
+        List<PropertySource<?>> sources = new YamlPropertySourceLoader()
+                .load("application", new ClassPathResource("application.yml"));
+        Binder binder = new Binder(ConfigurationPropertySources.from(sources), null,
+                ApplicationConversionService.getSharedInstance());
+        return binder.bind("document-review", DocumentReviewProperties.class).get();
+    }
+}
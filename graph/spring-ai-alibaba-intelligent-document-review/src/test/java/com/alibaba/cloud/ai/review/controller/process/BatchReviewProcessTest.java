@@ -0,0 +1,43 @@
+package com.alibaba.cloud.ai.review.controller.process;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * 批量审核请求解析测试
+ *
+ * @author Jast
+ */
+class BatchReviewProcessTest {
+
+    @Test
+    void parsesJsonArrayAndNdjson() {
+        List<BatchReviewProcess.BatchDocument> array = BatchReviewProcess.parseDocuments(
+                "[{\"document_content\":\"合同一\",\"document_type\":\"contract\",\"thread_id\":\"c1\"},"
+                        + "{\"document_content\":\"合同二\"}]", false, "batch-1", 10);
+        List<BatchReviewProcess.BatchDocument> ndjson = BatchReviewProcess.parseDocuments(
+                "{\"document_content\":\"合同一\",\"document_type\":\"contract\",\"thread_id\":\"c1\"}\n\n"
+                        + "{\"document_content\":\"合同二\"}\n", true, "batch-1", 10);
+
+        assertEquals(array, ndjson);
+        assertEquals("c1", array.get(0).threadId());
+        assertEquals("batch-1-1", array.get(1).threadId());
+        assertEquals("general", array.get(1).documentType());
+        assertEquals("normal", array.get(1).urgencyLevel());
+    }
+
+    @Test
+    void rejectsInvalidBatches() {
+        assertThrows(IllegalArgumentException.class,
+                () -> BatchReviewProcess.parseDocuments("[{\"document_type\":\"contract\"}]", false, "b", 10));
+        assertThrows(IllegalArgumentException.class,
+                () -> BatchReviewProcess.parseDocuments("[]", false, "b", 10));
+        assertThrows(IllegalArgumentException.class,
+                () -> BatchReviewProcess.parseDocuments("{\"document_content\":\"a\"}\n{\"document_content\":\"b\"}",
+                        true, "b", 1));
+    }
+}
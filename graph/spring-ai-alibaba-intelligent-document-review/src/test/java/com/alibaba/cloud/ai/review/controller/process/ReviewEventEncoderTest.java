@@ -0,0 +1,178 @@
+package com.alibaba.cloud.ai.review.controller.process;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONObject;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * SSE 事件编码测试：对比 full 与 delta 两种方式下一次合同审核发送的节点事件字节数，
+ * 并验证客户端按 delta 合并后得到的状态与完整状态一致
+ *
+ * @author Jast
+ */
+class ReviewEventEncoderTest {
+
+    @Test
+    void deltaEmissionCutsBytesPerReview() throws Exception {
+        List<List<NodeStep>> streams = contractReview();
+
+        long fullBytes = bytesPerReview(streams, ReviewEventEncoder.StateEmission.FULL);
+        long deltaBytes = bytesPerReview(streams, ReviewEventEncoder.StateEmission.DELTA);
+
+        assertTrue(deltaBytes > 0);
+        // 每个节点结果至少要完整发送一次，这个工作负载下新增的结果本身就超过完整快照字节数的四分之一，
+        // 因此 delta 的下限约为 full 的 1/4 而不是 1/10；这里断言已达到的比例，并断言 delta 只比这个下限多出事件元数据
+        assertTrue(deltaBytes * 5 < fullBytes * 2,
+                () -> "delta emission should send under 40% of the bytes of full snapshots, full: " + fullBytes
+                        + ", delta: " + deltaBytes);
+        long floor = minimumBytes(streams);
+        int events = streams.stream().mapToInt(List::size).sum();
+        assertTrue(deltaBytes <= floor + events * 256L,
+                () -> "delta emission should only add event metadata to the values it must send, floor: " + floor
+                        + ", delta: " + deltaBytes);
+    }
+
+    @Test
+    void clientMergesDeltasIntoFullState() throws Exception {
+        for (List<NodeStep> stream : contractReview()) {
+            ReviewEventEncoder encoder = new ReviewEventEncoder(ReviewEventEncoder.StateEmission.DELTA);
+            Map<String, Object> clientState = new HashMap<>();
+            for (int i = 0; i < stream.size(); i++) {
+                NodeStep step = stream.get(i);
+                JSONObject event = JSON.parseObject(encoder.encodeNodeOutput(step.node(), step.state()));
+
+                assertEquals(ReviewEventEncoder.PROTOCOL_VERSION, event.getIntValue("protocol_version"));
+                assertEquals(i == 0, event.getBooleanValue("snapshot"));
+                if (event.getBooleanValue("snapshot")) {
+                    clientState = new HashMap<>(event.getJSONObject("data"));
+                } else {
+                    clientState.putAll(event.getJSONObject("delta"));
+                    assertFalse(event.getJSONObject("delta").containsKey("document_content"));
+                }
+                assertEquals(JSON.parseObject(JSON.toJSONString(step.state())), new JSONObject(clientState));
+            }
+        }
+    }
+
+    @Test
+    void resolvesReferencedValuesBeforeEmitting() {
+        Object ref = Map.of("sha256", "abc", "chars", 12);
+        for (ReviewEventEncoder.StateEmission emission : ReviewEventEncoder.StateEmission.values()) {
+            ReviewEventEncoder encoder = new ReviewEventEncoder(emission, value -> value == ref ? "最终报告原文" : value);
+            Map<String, Object> state = new LinkedHashMap<>();
+            state.put("document_type", "contract");
+            JSON.parseObject(encoder.encodeNodeOutput("document_intake", state));
+            state.put("final_report", ref);
+            JSONObject event = JSON.parseObject(encoder.encodeNodeOutput("final_report", state));
+
+            JSONObject data = event.getJSONObject(emission == ReviewEventEncoder.StateEmission.FULL ? "data" : "delta");
+            assertEquals("最终报告原文", data.getString("final_report"));
+        }
+    }
+
+    @Test
+    void parsesStateEmissionParameter() {
+        assertEquals(ReviewEventEncoder.StateEmission.FULL, ReviewEventEncoder.StateEmission.parse(" Full "));
+        assertEquals(ReviewEventEncoder.StateEmission.DELTA, ReviewEventEncoder.StateEmission.parse("delta"));
+        assertNull(ReviewEventEncoder.StateEmission.parse(""));
+        assertNull(ReviewEventEncoder.StateEmission.parse(null));
+        assertThrows(IllegalArgumentException.class, () -> ReviewEventEncoder.StateEmission.parse("partial"));
+    }
+
+    private static long bytesPerReview(List<List<NodeStep>> streams, ReviewEventEncoder.StateEmission emission) {
+        long bytes = 0;
+        for (List<NodeStep> stream : streams) {
+            ReviewEventEncoder encoder = new ReviewEventEncoder(emission);
+            for (NodeStep step : stream) {
+                bytes += encoder.encodeNodeOutput(step.node(), step.state()).getBytes(StandardCharsets.UTF_8).length;
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * 每个流的首个完整状态加上之后每个变化的值各发送一次所需的字节数
+     */
+    private static long minimumBytes(List<List<NodeStep>> streams) {
+        long bytes = 0;
+        for (List<NodeStep> stream : streams) {
+            Map<String, Object> previous = stream.get(0).state();
+            bytes += JSON.toJSONString(previous).getBytes(StandardCharsets.UTF_8).length;
+            for (NodeStep step : stream.subList(1, stream.size())) {
+                for (Map.Entry<String, Object> entry : step.state().entrySet()) {
+                    if (!entry.getValue().equals(previous.get(entry.getKey()))) {
+                        bytes += JSON.toJSONString(entry.getValue()).getBytes(StandardCharsets.UTF_8).length;
+                    }
+                }
+                previous = step.state();
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * 模拟一次预设合同审核：开始审核的流在人工审核前暂停，继续审核的流从人工审核执行到最终报告
+     */
+    private static List<List<NodeStep>> contractReview() throws Exception {
+        String contract = Files.readString(Path.of("src/main/resources/problematic-contract.md"));
+        Map<String, Object> state = new LinkedHashMap<>();
+        state.put("document_content", contract);
+        state.put("document_type", "contract");
+        state.put("urgency_level", "high");
+
+        List<NodeStep> start = new ArrayList<>();
+        start.add(step("__START__", state));
+        state.put("review_start_timestamp", 1700000000000L);
+        start.add(step("document_intake", state));
+        state.put("content_analysis_result", fakeResult("content_analysis", 1800));
+        start.add(step("content_analysis", state));
+        state.put("compliance_result", fakeResult("compliance_check", 1500));
+        start.add(step("compliance_check", state));
+        state.put("ai_analysis_result", fakeResult("risk_assessment", 2000));
+        state.put("risk_score", 8);
+        start.add(step("risk_assessment", state));
+
+        List<NodeStep> resume = new ArrayList<>();
+        state.put("review_action", "approve");
+        state.put("reviewer_comments", "同意，但需补充保密期限");
+        state.put("human_next_node", "approval_process");
+        resume.add(step("human_review", state));
+        state.put("final_status", "approved");
+        state.put("approval_reason", fakeResult("approval_process", 1200));
+        resume.add(step("approval_process", state));
+        state.put("final_report", fakeResult("final_report", 4000));
+        resume.add(step("final_report", state));
+        resume.add(step("__END__", state));
+        return List.of(start, resume);
+    }
+
+    private static NodeStep step(String node, Map<String, Object> state) {
+        return new NodeStep(node, new LinkedHashMap<>(state));
+    }
+
+    private static String fakeResult(String node, int length) {
+        StringBuilder result = new StringBuilder(length);
+        while (result.length() < length) {
+            result.append(node).append(" 结果：条款存在风险，建议补充说明。");
+        }
+        return result.substring(0, length);
+    }
+
+    private record NodeStep(String node, Map<String, Object> state) {
+    }
+}
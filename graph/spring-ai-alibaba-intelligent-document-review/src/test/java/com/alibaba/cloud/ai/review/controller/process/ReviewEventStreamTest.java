@@ -0,0 +1,117 @@
+package com.alibaba.cloud.ai.review.controller.process;
+
+import com.alibaba.fastjson.JSON;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Subscription;
+import org.springframework.http.codec.ServerSentEvent;
+import reactor.core.publisher.BaseSubscriber;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 有界 SSE 缓冲测试：用不主动请求数据的订阅者模拟停滞的浏览器标签页
+ *
+ * @author Jast
+ */
+class ReviewEventStreamTest {
+
+    @Test
+    void dropsChunksButKeepsNodeEvents() {
+        AtomicReference<ReviewEventStream.Stats> finished = new AtomicReference<>();
+        ReviewEventStream stream = new ReviewEventStream(encoder(), 4, ReviewEventStream.SlowConsumerPolicy.DROP_CHUNKS, finished::set);
+        StalledClient client = subscribe(stream);
+
+        for (int i = 0; i < 100; i++) {
+            stream.chunk("final_report_stream", "片段" + i);
+        }
+        stream.nodeOutput("final_report", Map.of("final_report", "报告"));
+        stream.complete();
+        client.request(Long.MAX_VALUE);
+
+        assertEquals(4, client.events.size());
+        assertEquals("final_report", JSON.parseObject(client.events.get(3)).getString("node"));
+        assertEquals(97, finished.get().droppedChunks());
+        assertEquals(4, finished.get().peakDepth());
+        assertTrue(client.completed);
+    }
+
+    @Test
+    void coalescesChunksOfSameNode() {
+        AtomicReference<ReviewEventStream.Stats> finished = new AtomicReference<>();
+        ReviewEventStream stream = new ReviewEventStream(encoder(), 2, ReviewEventStream.SlowConsumerPolicy.COALESCE, finished::set);
+        StalledClient client = subscribe(stream);
+
+        stream.chunk("content_analysis_stream", "a");
+        stream.chunk("compliance_check_stream", "b");
+        stream.chunk("content_analysis_stream", "c");
+        stream.chunk("compliance_check_stream", "d");
+        stream.complete();
+        client.request(Long.MAX_VALUE);
+
+        assertEquals("ac", JSON.parseObject(client.events.get(0)).getString("content_analysis_stream"));
+        assertEquals("bd", JSON.parseObject(client.events.get(1)).getString("compliance_check_stream"));
+        assertEquals(2, finished.get().coalescedChunks());
+        assertEquals(0, finished.get().droppedChunks());
+    }
+
+    @Test
+    void disconnectsSlowConsumer() {
+        AtomicReference<ReviewEventStream.Stats> finished = new AtomicReference<>();
+        ReviewEventStream stream = new ReviewEventStream(encoder(), 2, ReviewEventStream.SlowConsumerPolicy.DISCONNECT, finished::set);
+        StalledClient client = subscribe(stream);
+
+        for (int i = 0; i < 3; i++) {
+            stream.chunk("final_report_stream", "x");
+        }
+
+        assertTrue(client.failed);
+        assertTrue(finished.get().disconnected());
+    }
+
+    private static ReviewEventEncoder encoder() {
+        return new ReviewEventEncoder(ReviewEventEncoder.StateEmission.DELTA);
+    }
+
+    private static StalledClient subscribe(ReviewEventStream stream) {
+        StalledClient client = new StalledClient();
+        stream.asFlux().subscribe(client);
+        return client;
+    }
+
+    /**
+     * 订阅后不请求任何事件，直到测试显式调用 request
+     */
+    private static class StalledClient extends BaseSubscriber<ServerSentEvent<String>> {
+
+        private final List<String> events = new CopyOnWriteArrayList<>();
+
+        private volatile boolean completed;
+
+        private volatile boolean failed;
+
+        @Override
+        protected void hookOnSubscribe(Subscription subscription) {
+        }
+
+        @Override
+        protected void hookOnNext(ServerSentEvent<String> event) {
+            events.add(event.data());
+        }
+
+        @Override
+        protected void hookOnComplete() {
+            completed = true;
+        }
+
+        @Override
+        protected void hookOnError(Throwable throwable) {
+            failed = true;
+        }
+    }
+}
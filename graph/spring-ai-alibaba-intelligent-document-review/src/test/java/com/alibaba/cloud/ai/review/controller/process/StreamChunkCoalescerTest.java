@@ -0,0 +1,100 @@
+package com.alibaba.cloud.ai.review.controller.process;
+
+import com.alibaba.fastjson.JSON;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 流式分片合并测试，并校验合并前后的事件数与每事件字节数
+ *
+ * @author Jast
+ */
+class StreamChunkCoalescerTest {
+
+    @Test
+    void flushesOnSizeAndNodeBoundary() {
+        List<String> events = new CopyOnWriteArrayList<>();
+        StreamChunkCoalescer coalescer = newCoalescer(events, Duration.ofHours(1), 10);
+
+        coalescer.chunk("content_analysis_stream", "12345");
+        coalescer.chunk("compliance_check_stream", "abc");
+        coalescer.chunk("content_analysis_stream", "67890");
+        assertEquals(List.of("{\"content_analysis_stream\":\"1234567890\"}"), events);
+
+        coalescer.nodeOutput("compliance_check", Map.of("compliance_result", "abc"));
+        assertEquals(3, events.size());
+        assertEquals("{\"compliance_check_stream\":\"abc\"}", events.get(1));
+        assertEquals("compliance_check", JSON.parseObject(events.get(2)).getString("node"));
+    }
+
+    @Test
+    void flushesWhenWindowElapses() throws InterruptedException {
+        List<String> events = new CopyOnWriteArrayList<>();
+        StreamChunkCoalescer coalescer = newCoalescer(events, Duration.ofMillis(20), 1024);
+
+        coalescer.chunk("final_report_stream", "## 执行");
+        coalescer.chunk("final_report_stream", "摘要");
+        assertTrue(events.isEmpty());
+
+        Thread.sleep(200);
+        assertEquals(List.of("{\"final_report_stream\":\"## 执行摘要\"}"), events);
+    }
+
+    @Test
+    void countsEventsBeforeAndAfterCoalescing() {
+        String report = "本合同存在付款条款不明确、违约责任不对等、保密期限缺失等问题，建议补充后重新提交审核。".repeat(40);
+        // 窗口足够长时只按字符数上限发送，事件数是确定的
+        for (Duration window : List.of(Duration.ZERO, Duration.ofHours(1))) {
+            for (int maxChars : new int[]{64, 256, 1024}) {
+                List<String> events = new CopyOnWriteArrayList<>();
+                StreamChunkCoalescer coalescer = newCoalescer(events, window, maxChars);
+                // 模拟模型每次输出 2 个字符
+                for (int i = 0; i < report.length(); i += 2) {
+                    coalescer.chunk("final_report_stream", report.substring(i, Math.min(report.length(), i + 2)));
+                }
+                coalescer.flush();
+
+                StreamChunkCoalescer.Stats stats = coalescer.stats();
+                assertEquals(report, String.join("", events.stream()
+                        .map(event -> JSON.parseObject(event).getString("final_report_stream")).toList()));
+                assertEquals(events.size(), stats.chunkEvents());
+                assertEquals((report.length() + 1) / 2, stats.chunks());
+                if (window.isZero()) {
+                    assertEquals(stats.chunks(), stats.chunkEvents());
+                    assertEquals(stats.bytesPerEventBefore(), stats.bytesPerEventAfter());
+                } else {
+                    assertEquals((report.length() + maxChars - 1) / maxChars, stats.chunkEvents());
+                    assertTrue(stats.bytesPerEventAfter() > stats.bytesPerEventBefore() * 5);
+                }
+            }
+        }
+    }
+
+    private static StreamChunkCoalescer newCoalescer(List<String> events, Duration window, int maxChars) {
+        ReviewEventEncoder encoder = new ReviewEventEncoder(ReviewEventEncoder.StateEmission.DELTA);
+        ReviewEventSink sink = new ReviewEventSink() {
+            @Override
+            public void chunk(String nodeName, String text) {
+                events.add(ReviewEventEncoder.encodeChunk(nodeName, text));
+            }
+
+            @Override
+            public void nodeOutput(String nodeName, Map<String, Object> state) {
+                events.add(encoder.encodeNodeOutput(nodeName, state));
+            }
+
+            @Override
+            public void event(String content, String eventName) {
+                events.add(content);
+            }
+        };
+        return new StreamChunkCoalescer(sink, window, maxChars);
+    }
+}
@@ -0,0 +1,74 @@
+package com.alibaba.cloud.ai.review.dispatcher;
+
+import com.alibaba.cloud.ai.review.config.DocumentReviewProperties;
+import com.alibaba.cloud.ai.review.metrics.ReviewMetrics;
+import com.alibaba.cloud.ai.review.result.ComplianceResult;
+import com.alibaba.cloud.ai.review.result.RiskAssessment;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 快速通道规则判定测试
+ *
+ * @author Jast
+ */
+class FastPathDispatcherTest {
+
+    @Test
+    void autoApprovesOnlyWhenEveryConditionHolds() {
+        FastPathDispatcher dispatcher = new FastPathDispatcher(config(), null);
+
+        assertEquals(FastPathDispatcher.HIT, dispatcher.evaluate("technical", risk(3, false), compliance("compliant", 8)));
+        assertEquals(FastPathDispatcher.HIT, dispatcher.evaluate("Technical", risk(1, false), compliance("Compliant", 7)));
+        assertEquals("risk_score", dispatcher.evaluate("technical", risk(4, false), compliance("compliant", 8)));
+        assertEquals("escalation", dispatcher.evaluate("technical", risk(2, true), compliance("compliant", 8)));
+        assertEquals("compliance_status", dispatcher.evaluate("technical", risk(2, false), compliance("needs-review", 8)));
+        assertEquals("compliance_score", dispatcher.evaluate("technical", risk(2, false), compliance("compliant", 6)));
+        assertEquals("compliance_score", dispatcher.evaluate("technical", risk(2, false), compliance("compliant", null)));
+        assertEquals("risk_unavailable", dispatcher.evaluate("technical", null, compliance("compliant", 8)));
+        assertEquals("compliance_unavailable", dispatcher.evaluate("technical", risk(2, false), null));
+        assertEquals("no_rule", dispatcher.evaluate("contract", risk(1, false), compliance("compliant", 10)));
+    }
+
+    @Test
+    void disabledFastPathNeverMatches() {
+        DocumentReviewProperties.FastPath config = config();
+        config.setEnabled(false);
+
+        assertEquals("disabled", new FastPathDispatcher(config, null)
+                .evaluate("technical", risk(1, false), compliance("compliant", 10)));
+    }
+
+    @Test
+    void countsDecisionsByOutcome() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        ReviewMetrics metrics = new ReviewMetrics(registry);
+        metrics.recordFastPath("technical", FastPathDispatcher.HIT);
+        metrics.recordFastPath("technical", FastPathDispatcher.HIT);
+        metrics.recordFastPath("technical", "risk_score");
+
+        assertEquals(2.0, registry.get("review.fast.path").tags("document_type", "technical", "outcome", "hit")
+                .counter().count());
+        assertEquals(1.0, registry.get("review.fast.path").tags("outcome", "risk_score").counter().count());
+    }
+
+    private static DocumentReviewProperties.FastPath config() {
+        DocumentReviewProperties.FastPath config = new DocumentReviewProperties.FastPath();
+        config.setEnabled(true);
+        config.setRules(Map.of("technical", new DocumentReviewProperties.FastPath.Rule()));
+        return config;
+    }
+
+    private static RiskAssessment risk(int score, boolean escalation) {
+        return new RiskAssessment(score, "low", null, null, null, null, null, List.of(), List.of(), escalation);
+    }
+
+    private static ComplianceResult compliance(String status, Integer score) {
+        return new ComplianceResult(score, List.of(), List.of(), List.of(), List.of(), status);
+    }
+}
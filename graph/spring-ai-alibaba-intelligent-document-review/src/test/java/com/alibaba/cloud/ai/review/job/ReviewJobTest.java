@@ -0,0 +1,70 @@
+package com.alibaba.cloud.ai.review.job;
+
+import com.alibaba.cloud.ai.review.controller.process.ReviewEventEncoder;
+import com.alibaba.cloud.ai.review.controller.process.ReviewEventStream;
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONObject;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.codec.ServerSentEvent;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 异步审核任务测试：中途挂接的客户端先收到完整快照，任务结束后挂接只收到快照和状态事件
+ *
+ * @author Jast
+ */
+class ReviewJobTest {
+
+    @Test
+    void lateSubscriberReceivesSnapshotThenLiveEvents() {
+        ReviewJob job = new ReviewJob("job-1", "thread-1");
+        job.started();
+        job.nodeOutput("document_intake", Map.of("document_content", "合同原文", "document_type", "contract"));
+
+        ReviewEventStream stream = newStream(job);
+        job.chunk("content_analysis_stream", "分析中");
+        job.nodeOutput("content_analysis", Map.of("document_content", "合同原文", "document_type", "contract",
+                "content_analysis", "结果"));
+        job.finished(ReviewJob.Status.AWAITING_HUMAN_REVIEW, null);
+
+        List<ServerSentEvent<String>> events = stream.asFlux().collectList().block();
+        assertEquals(4, events.size());
+
+        JSONObject snapshot = JSON.parseObject(events.get(0).data());
+        assertTrue(snapshot.getBooleanValue("snapshot"));
+        assertEquals("合同原文", snapshot.getJSONObject("data").getString("document_content"));
+
+        JSONObject delta = JSON.parseObject(events.get(2).data());
+        assertEquals(Map.of("content_analysis", "结果"), delta.getJSONObject("delta").getInnerMap());
+
+        assertEquals("job", events.get(3).event());
+        assertEquals("awaiting_human_review", JSON.parseObject(events.get(3).data()).getString("status"));
+        assertEquals(0, job.summary(false).getIntValue("subscribers"));
+    }
+
+    @Test
+    void attachAfterFinishReplaysFinalState() {
+        ReviewJob job = new ReviewJob("job-2", "thread-2");
+        job.started();
+        job.nodeOutput("__END__", Map.of("final_report", "报告"));
+        job.finished(ReviewJob.Status.COMPLETED, null);
+
+        List<ServerSentEvent<String>> events = newStream(job).asFlux().collectList().block();
+        assertEquals(2, events.size());
+        assertEquals("报告", JSON.parseObject(events.get(0).data()).getJSONObject("data").getString("final_report"));
+        assertEquals("completed", JSON.parseObject(events.get(1).data()).getString("status"));
+    }
+
+    private static ReviewEventStream newStream(ReviewJob job) {
+        ReviewEventStream[] holder = new ReviewEventStream[1];
+        holder[0] = new ReviewEventStream(new ReviewEventEncoder(ReviewEventEncoder.StateEmission.DELTA), 64,
+                ReviewEventStream.SlowConsumerPolicy.DROP_CHUNKS, stats -> job.detach(holder[0]));
+        job.attach(holder[0]);
+        return holder[0];
+    }
+}
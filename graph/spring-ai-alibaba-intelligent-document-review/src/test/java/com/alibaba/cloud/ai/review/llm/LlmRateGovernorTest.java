@@ -0,0 +1,146 @@
+package com.alibaba.cloud.ai.review.llm;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.Prompt;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 全局限流测试：通过本地桩模型验证并发上限、每分钟请求数与排队上限
+ *
+ * @author Jast
+ */
+class LlmRateGovernorTest {
+
+    @Test
+    void limitsConcurrentStreamsThroughChatClient() {
+        LlmRateGovernor governor = new LlmRateGovernor(0, 0, 2, 100, Duration.ofSeconds(10), null);
+        StubChatModel model = new StubChatModel();
+        ChatClient chatClient = ChatClient.builder(model)
+                .defaultAdvisors(new RateLimitAdvisor(governor, 1.5, 100))
+                .build();
+
+        List<String> results = Flux.range(0, 6)
+                .flatMap(i -> chatClient.prompt().user("审核文档 " + i).stream().content().collectList()
+                        .map(chunks -> String.join("", chunks)))
+                .collectList()
+                .block(Duration.ofSeconds(10));
+
+        assertEquals(6, results.size());
+        assertEquals(2, model.maxActive.get());
+        Map<String, Object> stats = governor.stats();
+        assertEquals(6L, stats.get("granted"));
+        assertEquals(0, stats.get("inFlight"));
+        assertTrue((Long) stats.get("maxWaitMillis") > 0);
+    }
+
+    @Test
+    void queuesBeyondRequestsPerMinuteInArrivalOrder() {
+        AtomicLong clock = new AtomicLong();
+        LlmRateGovernor governor = new LlmRateGovernor(120, 0, 10, 10, Duration.ofSeconds(10), null, clock::get,
+                Schedulers.parallel());
+
+        for (int i = 0; i < 120; i++) {
+            governor.acquire(1).block().release(0);
+        }
+        Mono<LlmRateGovernor.Permit> next = governor.acquire(1).cache();
+        next.subscribe();
+        assertEquals(1, governor.stats().get("queued"));
+
+        // 120 次/分钟即每 0.5 秒补充 1 次
+        clock.addAndGet(Duration.ofMillis(500).toNanos());
+        assertNotNull(next.block(Duration.ofSeconds(5)));
+        assertEquals(0, governor.stats().get("queued"));
+        assertEquals(121L, governor.stats().get("granted"));
+    }
+
+    @Test
+    void grantsByUrgencyWithAging() {
+        assertEquals(List.of("high", "normal", "low"), grantOrder(null));
+        // 低优先级调用已排队 25 秒，按 10 秒一级老化后与 high 同级，先到先得
+        assertEquals(List.of("low", "high", "normal"), grantOrder(Duration.ofSeconds(10)));
+    }
+
+    private static List<String> grantOrder(Duration agingInterval) {
+        AtomicLong clock = new AtomicLong();
+        LlmRateGovernor governor = new LlmRateGovernor(0, 0, 1, 10, Duration.ofSeconds(10), agingInterval, clock::get,
+                Schedulers.parallel());
+        LlmRateGovernor.Permit running = governor.acquire(1).block();
+        List<String> order = new CopyOnWriteArrayList<>();
+        governor.acquire(1, LlmPriority.LOW).subscribe(permit -> {
+            order.add("low");
+            permit.release(0);
+        });
+        clock.addAndGet(Duration.ofSeconds(25).toNanos());
+        governor.acquire(1, LlmPriority.HIGH).subscribe(permit -> {
+            order.add("high");
+            permit.release(0);
+        });
+        governor.acquire(1, LlmPriority.NORMAL).subscribe(permit -> {
+            order.add("normal");
+            permit.release(0);
+        });
+
+        running.release(0);
+        return order;
+    }
+
+    @Test
+    void rejectsWhenQueueIsFull() {
+        LlmRateGovernor governor = new LlmRateGovernor(0, 0, 1, 1, Duration.ofSeconds(10), null);
+        LlmRateGovernor.Permit running = governor.acquire(1).block();
+        governor.acquire(1).subscribe();
+
+        Exception error = assertThrows(Exception.class, () -> governor.acquire(1).block());
+        assertInstanceOf(LlmRateLimitException.class, error);
+        assertEquals(1L, governor.stats().get("rejected"));
+        running.release(0);
+    }
+
+    /**
+     * 桩模型：每次流式调用输出 5 个分片，记录同时进行中的调用数
+     */
+    private static class StubChatModel implements ChatModel {
+
+        private final AtomicInteger active = new AtomicInteger();
+
+        private final AtomicInteger maxActive = new AtomicInteger();
+
+        @Override
+        public ChatResponse call(Prompt prompt) {
+            return response("{}");
+        }
+
+        @Override
+        public Flux<ChatResponse> stream(Prompt prompt) {
+            return Flux.range(0, 5)
+                    .delayElements(Duration.ofMillis(20))
+                    .map(i -> response("片段" + i))
+                    .doOnSubscribe(subscription -> maxActive.accumulateAndGet(active.incrementAndGet(), Math::max))
+                    .doOnTerminate(active::decrementAndGet);
+        }
+
+        private static ChatResponse response(String text) {
+            return new ChatResponse(List.of(new Generation(new AssistantMessage(text))));
+        }
+    }
+}
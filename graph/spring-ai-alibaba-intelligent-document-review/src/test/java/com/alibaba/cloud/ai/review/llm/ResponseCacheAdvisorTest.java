@@ -0,0 +1,146 @@
+package com.alibaba.cloud.ai.review.llm;
+
+import com.alibaba.cloud.ai.review.config.DocumentReviewProperties;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.metadata.ChatGenerationMetadata;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.Prompt;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 响应缓存测试：通过本地桩模型验证命中、流式回放、按节点关闭缓存，以及空响应与未结束的流不写入缓存
+ *
+ * @author Jast
+ */
+class ResponseCacheAdvisorTest {
+
+    private static final String ANSWER = "{\"overall_risk_score\": 3}";
+
+    @Test
+    void servesRepeatedCallFromCache() throws Exception {
+        LlmResponseCache cache = new LlmResponseCache(1024 * 1024, null);
+        StubChatModel model = new StubChatModel(ANSWER, "STOP");
+        ChatClient chatClient = ChatClient.builder(model)
+                .defaultAdvisors(new ResponseCacheAdvisor(cache, "qwen-plus", 4))
+                .build();
+
+        assertEquals(ANSWER, chatClient.prompt().user("审核文档").call().content());
+        assertEquals(ANSWER, chatClient.prompt().user("审核文档").call().content());
+
+        assertEquals(1, model.calls.get());
+        assertEquals(1L, cache.stats().get("stores"));
+        assertEquals(1L, cache.stats().get("memory_hits"));
+    }
+
+    @Test
+    void replaysCachedResponseAsStream() throws Exception {
+        LlmResponseCache cache = new LlmResponseCache(1024 * 1024, null);
+        StubChatModel model = new StubChatModel(ANSWER, "STOP");
+        ChatClient chatClient = ChatClient.builder(model)
+                .defaultAdvisors(new ResponseCacheAdvisor(cache, "qwen-plus", 4))
+                .build();
+
+        List<String> first = stream(chatClient);
+        List<String> replayed = stream(chatClient);
+
+        assertEquals(1, model.calls.get());
+        assertEquals(ANSWER, String.join("", first));
+        assertEquals(ANSWER, String.join("", replayed));
+        // 按 replayChunkChars 重新切分为多个分片回放
+        assertEquals((ANSWER.length() + 3) / 4, replayed.size());
+    }
+
+    @Test
+    void excludedNodesBypassCache() throws Exception {
+        LlmResponseCache cache = new LlmResponseCache(1024 * 1024, null);
+        StubChatModel model = new StubChatModel(ANSWER, "STOP");
+        NodeChatClientFactory factory = new NodeChatClientFactory(ChatClient.builder(model),
+                new DocumentReviewProperties(), new ResponseCacheAdvisor(cache, "qwen-plus", 4), null, null);
+
+        ChatClient finalReport = factory.forNode("final_report").build();
+        finalReport.prompt().user("生成报告").call().content();
+        finalReport.prompt().user("生成报告").call().content();
+        assertEquals(2, model.calls.get());
+
+        ChatClient riskAssessment = factory.forNode("risk_assessment").build();
+        riskAssessment.prompt().user("评估风险").call().content();
+        riskAssessment.prompt().user("评估风险").call().content();
+        assertEquals(3, model.calls.get());
+        assertEquals(1L, cache.stats().get("stores"));
+    }
+
+    @Test
+    void doesNotCacheEmptyOrUnfinishedResponses() throws Exception {
+        LlmResponseCache cache = new LlmResponseCache(1024 * 1024, null);
+        StubChatModel empty = new StubChatModel(" ", "STOP");
+        ChatClient emptyClient = ChatClient.builder(empty)
+                .defaultAdvisors(new ResponseCacheAdvisor(cache, "qwen-plus", 4))
+                .build();
+        emptyClient.prompt().user("审核文档").call().content();
+        emptyClient.prompt().user("审核文档").call().content();
+        stream(emptyClient);
+        assertEquals(3, empty.calls.get());
+
+        // 流式中间块的结束原因为 "NULL"，整个流都没有真正的结束原因时视为未正常结束
+        StubChatModel unfinished = new StubChatModel(ANSWER, "NULL");
+        ChatClient unfinishedClient = ChatClient.builder(unfinished)
+                .defaultAdvisors(new ResponseCacheAdvisor(cache, "qwen-plus", 4))
+                .build();
+        stream(unfinishedClient);
+        stream(unfinishedClient);
+        assertEquals(2, unfinished.calls.get());
+
+        assertEquals(0L, cache.stats().get("stores"));
+    }
+
+    private static List<String> stream(ChatClient chatClient) {
+        return chatClient.prompt().user("审核文档").stream().content().collectList().block(Duration.ofSeconds(5));
+    }
+
+    /**
+     * 桩模型：返回固定文本，流式调用时每 5 个字符一个分片，只有最后一个分片带结束原因
+     */
+    private static class StubChatModel implements ChatModel {
+
+        private final String text;
+
+        private final String finishReason;
+
+        private final AtomicInteger calls = new AtomicInteger();
+
+        StubChatModel(String text, String finishReason) {
+            this.text = text;
+            this.finishReason = finishReason;
+        }
+
+        @Override
+        public ChatResponse call(Prompt prompt) {
+            calls.incrementAndGet();
+            return response(text, finishReason);
+        }
+
+        @Override
+        public Flux<ChatResponse> stream(Prompt prompt) {
+            calls.incrementAndGet();
+            int chunks = (text.length() + 4) / 5;
+            return Flux.range(0, chunks)
+                    .map(i -> response(text.substring(i * 5, Math.min(text.length(), i * 5 + 5)),
+                            i == chunks - 1 ? finishReason : "NULL"));
+        }
+
+        private static ChatResponse response(String text, String finishReason) {
+            return new ChatResponse(List.of(new Generation(new AssistantMessage(text),
+                    ChatGenerationMetadata.builder().finishReason(finishReason).build())));
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.alibaba.cloud.ai.review.llm;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.Prompt;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 紧急程度调度模拟：调用槽位饱和时同时提交一批文档，每个文档依次经过内容分析与合规检查（并行）、风险评估三次模型调用，
+ * 统计各紧急程度从提交到进入人工审核的 p95 耗时，并与不区分优先级（按到达顺序）的结果对比
+ *
+ * @author Jast
+ */
+class UrgencySchedulingSimulationTest {
+
+    private static final int DOCUMENTS = 48;
+
+    private static final int LLM_SLOTS = 2;
+
+    @Test
+    void urgentReviewsReachHumanReviewFirstUnderSaturation() {
+        Map<String, Long> prioritized = simulate(true);
+        Map<String, Long> fifo = simulate(false);
+        String p95 = "p95 time-to-human-review (ms) prioritized: " + prioritized + ", fifo: " + fifo;
+
+        assertTrue(prioritized.get("high") < prioritized.get("normal"), p95);
+        assertTrue(prioritized.get("high") * 2 < fifo.get("high"), p95);
+    }
+
+    /**
+     * @return 各紧急程度的 p95 耗时（毫秒）
+     */
+    private static Map<String, Long> simulate(boolean prioritized) {
+        LlmRateGovernor governor = new LlmRateGovernor(0, 0, LLM_SLOTS, 1000, Duration.ofMinutes(1),
+                Duration.ofMinutes(1));
+        ChatClient chatClient = ChatClient.builder(new StubChatModel())
+                .defaultAdvisors(new RateLimitAdvisor(governor, 1.5, 100))
+                .build();
+
+        Map<String, List<Long>> latencies = new ConcurrentHashMap<>();
+        long start = System.nanoTime();
+        Flux.range(0, DOCUMENTS)
+                .flatMap(i -> {
+                    String urgency = i % 4 == 0 ? "high" : "normal";
+                    String scheduled = prioritized ? urgency : "normal";
+                    return Mono.when(call(chatClient, "内容分析", scheduled), call(chatClient, "合规检查", scheduled))
+                            .then(call(chatClient, "风险评估", scheduled))
+                            .doOnSuccess(ignored -> latencies.computeIfAbsent(urgency, key -> Collections.synchronizedList(new ArrayList<>()))
+                                    .add((System.nanoTime() - start) / 1_000_000));
+                }, DOCUMENTS)
+                .blockLast(Duration.ofSeconds(30));
+        assertEquals(DOCUMENTS / 4, latencies.get("high").size());
+        assertEquals(DOCUMENTS - DOCUMENTS / 4, latencies.get("normal").size());
+
+        Map<String, Long> p95 = new ConcurrentHashMap<>();
+        latencies.forEach((urgency, values) -> {
+            List<Long> sorted = new ArrayList<>(values);
+            Collections.sort(sorted);
+            p95.put(urgency, sorted.get((int) Math.ceil(sorted.size() * 0.95) - 1));
+        });
+        return p95;
+    }
+
+    private static Mono<String> call(ChatClient chatClient, String task, String urgency) {
+        return chatClient.prompt()
+                .advisors(LlmCallContext.of("contract", urgency))
+                .user(task)
+                .stream()
+                .content()
+                .collectList()
+                .map(chunks -> String.join("", chunks));
+    }
+
+    /**
+     * 桩模型：每次调用输出 4 个分片，共约 20 毫秒
+     */
+    private static class StubChatModel implements ChatModel {
+
+        @Override
+        public ChatResponse call(Prompt prompt) {
+            return response("{}");
+        }
+
+        @Override
+        public Flux<ChatResponse> stream(Prompt prompt) {
+            return Flux.range(0, 4)
+                    .delayElements(Duration.ofMillis(5))
+                    .map(i -> response("片段" + i));
+        }
+
+        private static ChatResponse response(String text) {
+            return new ChatResponse(List.of(new Generation(new AssistantMessage(text))));
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.alibaba.cloud.ai.review.metrics;
+
+import com.alibaba.cloud.ai.review.llm.LlmCallContext;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.metadata.ChatResponseMetadata;
+import org.springframework.ai.chat.metadata.DefaultUsage;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.Prompt;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 调用指标测试：桩模型输出带累计用量的流式分片，节点计时在模型调用结束后才记录
+ *
+ * @author Jast
+ */
+class ReviewMetricsTest {
+
+    @Test
+    void recordsLlmCallAndStreamingNodeDuration() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        ReviewMetrics metrics = new ReviewMetrics(registry);
+        ChatClient chatClient = ChatClient.builder(new StubChatModel())
+                .defaultAdvisors(new MetricsAdvisor(metrics))
+                .defaultAdvisors(advisor -> advisor.param(LlmCallContext.NODE_KEY, "risk_assessment"))
+                .build();
+
+        NodeSpan span = new NodeSpan(metrics, "risk_assessment", "contract");
+        Consumer<ChatClient.AdvisorSpec> callContext = advisor -> {
+            LlmCallContext.of("contract", "high").accept(advisor);
+            advisor.param(LlmCallContext.NODE_SPAN_KEY, span);
+        };
+        Flux<String> stream = chatClient.prompt().advisors(callContext).user("评估风险").stream().content();
+        span.streaming();
+        assertNull(registry.find("review.node.duration").timer());
+
+        assertEquals(5, stream.collectList().block(Duration.ofSeconds(5)).size());
+
+        Timer call = registry.get("review.llm.call.duration")
+                .tags("node", "risk_assessment", "document_type", "contract", "outcome", "success").timer();
+        assertEquals(1, call.count());
+        assertEquals(1, registry.get("review.llm.first.token").tag("node", "risk_assessment").timer().count());
+        assertEquals(120, registry.get("review.llm.tokens").tag("direction", "input").counter().count());
+        assertEquals(50, registry.get("review.llm.tokens").tag("direction", "output").counter().count());
+        assertEquals(5, registry.get("review.llm.stream.chunks").summary().totalAmount());
+
+        Timer node = registry.get("review.node.duration")
+                .tags("node", "risk_assessment", "document_type", "contract", "outcome", "success").timer();
+        assertEquals(1, node.count());
+        assertTrue(node.totalTime(TimeUnit.MILLISECONDS) >= call.totalTime(TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void normalizesHumanReviewAction() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        ReviewMetrics metrics = new ReviewMetrics(registry);
+        metrics.recordHumanWait("contract", "通过", 60_000);
+        metrics.recordHumanWait("contract", "任意输入", 1_000);
+
+        assertEquals(1, registry.get("review.human.wait").tag("outcome", "approve").timer().count());
+        assertEquals(1, registry.get("review.human.wait").tag("outcome", "other").timer().count());
+    }
+
+    /**
+     * 桩模型：输出 5 个分片，每个分片带累计用量
+     */
+    private static class StubChatModel implements ChatModel {
+
+        @Override
+        public ChatResponse call(Prompt prompt) {
+            return response("{}", 5);
+        }
+
+        @Override
+        public Flux<ChatResponse> stream(Prompt prompt) {
+            return Flux.range(1, 5)
+                    .delayElements(Duration.ofMillis(5))
+                    .map(i -> response("片段" + i, i));
+        }
+
+        private static ChatResponse response(String text, int index) {
+            return ChatResponse.builder()
+                    .generations(List.of(new Generation(new AssistantMessage(text))))
+                    .metadata(ChatResponseMetadata.builder().usage(new DefaultUsage(120, index * 10)).build())
+                    .build();
+        }
+    }
+}
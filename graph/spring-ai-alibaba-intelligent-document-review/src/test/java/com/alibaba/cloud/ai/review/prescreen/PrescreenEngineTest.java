@@ -0,0 +1,120 @@
+package com.alibaba.cloud.ai.review.prescreen;
+
+import com.alibaba.cloud.ai.review.config.DocumentReviewProperties;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 规则预筛测试
+ *
+ * @author Jast
+ */
+class PrescreenEngineTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void matcherReportsOverlappingMatchesIgnoringAsciiCase() {
+        List<String> matches = new ArrayList<>();
+        new AhoCorasickMatcher(List.of("he", "she", "his", "hers", "保密"))
+                .scan("uSHErs 保密", (pattern, start, end) -> matches.add(pattern + "@" + start + "-" + end));
+
+        assertEquals(List.of("1@1-4", "0@2-4", "3@2-6", "4@7-9"), matches);
+    }
+
+    @Test
+    void findsKnownIssuesInProblematicContract() throws Exception {
+        PrescreenRuleSource source = new PrescreenRuleSource(new DocumentReviewProperties());
+        PrescreenResult result = source.current().scan(resource("/problematic-contract.md"), "contract");
+
+        Set<String> rules = result.findings().stream().map(PrescreenFinding::ruleId).collect(Collectors.toSet());
+        assertTrue(rules.containsAll(Set.of("missing_termination", "confidentiality_period_blank", "penalty_rate_missing",
+                "arbitration_institution_missing", "blank_field", "vague_scope")), rules.toString());
+        assertFalse(rules.contains("missing_confidentiality"));
+        assertFalse(rules.contains("unlimited_liability"));
+        // 已填写违约金比例的「按日支付合同总额的0.1%」不应命中
+        assertEquals(1, result.findings().stream().filter(f -> f.ruleId().equals("penalty_rate_missing")).count());
+        assertTrue(result.toPrompt().contains("missing_termination"));
+
+        // 限定为合同的规则不适用于其他类型
+        Set<String> technical = source.current().scan(resource("/problematic-contract.md"), "technical").findings().stream()
+                .map(PrescreenFinding::ruleId).collect(Collectors.toSet());
+        assertEquals(Set.of("blank_field", "vague_scope"), technical);
+    }
+
+    @Test
+    void keepsPreviousRulesWhenReloadFails() throws Exception {
+        Path file = directory.resolve("rules.json");
+        Files.writeString(file, """
+                [{"id": "secret", "type": "keyword", "keywords": ["绝密"]}]
+                """);
+        DocumentReviewProperties properties = new DocumentReviewProperties();
+        properties.getPrescreen().setRulesLocation(file.toString());
+        properties.getPrescreen().setReloadInterval(Duration.ZERO);
+        PrescreenRuleSource source = new PrescreenRuleSource(properties);
+        assertEquals(1, source.current().scan("此文件为绝密", null).findings().size());
+
+        Files.writeString(file, """
+                [{"id": "broken", "type": "regex", "pattern": "(unclosed"}]
+                """);
+        assertFalse(source.reload());
+        assertEquals(1, source.current().version());
+        assertNotNull(source.stats().get("last_error"));
+
+        Files.writeString(file, """
+                {"rules": [{"id": "secret", "type": "keyword", "keywords": ["绝密", "机密"]}]}
+                """);
+        assertTrue(source.reload());
+        assertEquals(2, source.current().version());
+        assertEquals(2, source.current().scan("绝密与机密", null).findings().size());
+    }
+
+    @Test
+    void hotReloadsChangedRuleFile() throws Exception {
+        Path file = directory.resolve("rules.json");
+        Files.writeString(file, """
+                [{"id": "secret", "type": "keyword", "keywords": ["绝密"]}]
+                """);
+        DocumentReviewProperties properties = new DocumentReviewProperties();
+        properties.getPrescreen().setRulesLocation(file.toString());
+        properties.getPrescreen().setReloadInterval(Duration.ofMillis(100));
+        PrescreenRuleSource source = new PrescreenRuleSource(properties);
+        try {
+            Files.writeString(file, """
+                    [{"id": "secret", "type": "keyword", "keywords": ["绝密"]},
+                     {"id": "internal", "type": "keyword", "keywords": ["内部"]}]
+                    """);
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis() + 5000));
+            long deadline = System.currentTimeMillis() + 5000;
+            while (source.current().version() == 1 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(50);
+            }
+            assertEquals(2, source.current().rules().size());
+        } finally {
+            source.destroy();
+        }
+    }
+
+    private static String resource(String name) throws Exception {
+        try (InputStream in = PrescreenEngineTest.class.getResourceAsStream(name)) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.alibaba.cloud.ai.review.result;
+
+import com.alibaba.fastjson.JSONObject;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 流式 JSON 解析器与类型化结果测试
+ *
+ * @author Jast
+ */
+class StreamingJsonParserTest {
+
+    @Test
+    void parsesFencedObjectAcrossChunksAndIgnoresTrailingText() {
+        StreamingJsonParser parser = new StreamingJsonParser();
+        String output = "风险评估结果如下：\n```json\n{\"overall_risk_score\": \"8\", \"risk_level\": \"high\", "
+                + "\"identified_risks\": [\"违约金过高\", {\"risk\": \"保密期限\", \"level\": \"medium\"}], "
+                + "\"note\": \"含 } 与 \\\" 的文本\", \"escalation_required\": true}\n```\n以上为评估结果。";
+        for (int i = 0; i < output.length(); i += 7) {
+            parser.append(output.substring(i, Math.min(output.length(), i + 7)));
+        }
+
+        assertTrue(parser.isComplete());
+        RiskAssessment assessment = RiskAssessment.from(parser.result());
+        assertEquals(8, assessment.overallRiskScore());
+        assertEquals("high", assessment.riskLevel());
+        assertEquals("保密期限 / medium", assessment.identifiedRisks().get(1));
+        assertTrue(assessment.escalationRequired());
+    }
+
+    @Test
+    void repairsTruncatedOutput() {
+        JSONObject json = StreamingJsonParser.parse("{\"compliance_score\": 6.6, \"warnings\": [\"缺少签章\", \"期限");
+
+        ComplianceResult result = ComplianceResult.from(json);
+        assertEquals(7, result.complianceScore());
+        assertEquals(2, result.warnings().size());
+        assertNull(result.overallStatus());
+    }
+
+    @Test
+    void returnsNullWithoutObject() {
+        StreamingJsonParser parser = new StreamingJsonParser().append("模型未返回 JSON");
+
+        assertFalse(parser.isComplete());
+        assertNull(parser.result());
+    }
+
+    @Test
+    void parsesScoreFormsAndClampsToRange() {
+        RiskAssessment assessment = RiskAssessment.from(StreamingJsonParser.parse("{\"overall_risk_score\": \"8/10\", "
+                + "\"legal_risk\": \"7.5\", \"financial_risk\": \"评分：4/5\", \"reputation_risk\": 15, "
+                + "\"operational_risk\": \"0\", \"security_risk\": \"高\"}"));
+
+        assertEquals(8, assessment.overallRiskScore());
+        assertEquals(8, assessment.legalRisk());
+        assertEquals(8, assessment.financialRisk());
+        assertEquals(10, assessment.reputationRisk());
+        assertEquals(1, assessment.operationalRisk());
+        assertNull(assessment.securityRisk());
+
+        ComplianceResult compliance = ComplianceResult.from(StreamingJsonParser.parse("{\"compliance_score\": \"6 分（满分 10）\"}"));
+        assertEquals(6, compliance.complianceScore());
+        ContentAnalysis analysis = ContentAnalysis.from(StreamingJsonParser.parse("{\"completeness\": -3}"));
+        assertEquals(1, analysis.completeness());
+    }
+
+    @Test
+    void promptOmitsMissingFields() {
+        ContentAnalysis analysis = ContentAnalysis.from(StreamingJsonParser.parse("{\"summary\": \"保密协议\", \"completeness\": 4}"));
+
+        assertEquals("摘要：保密协议\n结构/语言/完整性评分：-/-/4", analysis.toPrompt());
+    }
+}
@@ -0,0 +1,88 @@
+package com.alibaba.cloud.ai.review.similar;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 近重复索引测试
+ *
+ * @author Jast
+ */
+class NearDuplicateIndexTest {
+
+    private final MinHasher hasher = new MinHasher(5, 128);
+
+    private String contract;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        try (InputStream in = NearDuplicateIndexTest.class.getResourceAsStream("/problematic-contract.md")) {
+            contract = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    @Test
+    void findsEditedCopyAndReportsChangedSections() {
+        NearDuplicateIndex index = new NearDuplicateIndex(hasher, 0.85, 16, 100, 200);
+        index.add("source", "contract", index.fingerprint(contract), Map.of("compliance_result", "ok"));
+
+        String edited = contract.replace("按日支付合同总额的0.1%违约金", "按日支付合同总额的10%违约金");
+        Optional<NearDuplicateMatch> match = index.find("contract", index.fingerprint(edited));
+
+        assertTrue(match.isPresent());
+        assertEquals("source", match.get().sourceThreadId());
+        assertTrue(match.get().similarity() >= 0.85);
+        assertEquals(1, match.get().changedSections().size());
+        assertTrue(match.get().changedSections().get(0).contains("乙方违约"), match.get().changedSections().toString());
+        assertEquals("ok", index.results("source").get("compliance_result"));
+    }
+
+    @Test
+    void missesDifferentDocumentsAndOtherDocumentTypes() {
+        NearDuplicateIndex index = new NearDuplicateIndex(hasher, 0.85, 16, 100, 200);
+        index.add("source", "contract", index.fingerprint(contract), Map.of());
+
+        StringBuilder unrelated = new StringBuilder();
+        for (int i = 0; i < 40; i++) {
+            unrelated.append("第").append(i).append("季度营业收入同比增长，毛利率与费用率保持稳定。\n");
+        }
+        assertTrue(index.find("contract", index.fingerprint(unrelated.toString())).isEmpty());
+        assertTrue(index.find("financial", index.fingerprint(contract)).isEmpty());
+        assertTrue(index.find(" Contract ", index.fingerprint(contract)).isPresent());
+        assertNull(index.fingerprint("过短的文档"));
+        assertEquals(3, ((Number) index.stats().get("lookups")).intValue());
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedAndReplacesSameThread() {
+        NearDuplicateIndex index = new NearDuplicateIndex(hasher, 0.85, 16, 2, 200);
+        index.add("a", "contract", index.fingerprint(contract), Map.of("v", 1));
+        index.add("b", "contract", index.fingerprint(contract.replace("甲方", "委托方")), Map.of("v", 2));
+        // 访问 a 使 b 成为最久未使用
+        index.results("a");
+        index.add("c", "contract", index.fingerprint(contract.replace("乙方", "受托方")), Map.of("v", 3));
+
+        assertEquals(2, index.size());
+        assertNull(index.results("b"));
+
+        index.add("a", "contract", index.fingerprint(contract), Map.of("v", 4));
+        assertEquals(2, index.size());
+        assertEquals(4, index.results("a").get("v"));
+        assertEquals(1L, index.stats().get("evictions"));
+    }
+
+    @Test
+    void rejectsSignatureLengthNotDivisibleByBands() {
+        assertThrows(IllegalArgumentException.class, () -> new NearDuplicateIndex(hasher, 0.85, 3, 10, 0));
+    }
+}
@@ -0,0 +1,77 @@
+package com.alibaba.cloud.ai.review.speculative;
+
+import com.alibaba.cloud.ai.review.config.DocumentReviewProperties;
+import com.alibaba.cloud.ai.review.result.ComplianceResult;
+import com.alibaba.cloud.ai.review.result.RiskAssessment;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 推测执行测试：按风险评分与合规状态预测分支，以及按窗口限制 token 消耗
+ *
+ * @author Jast
+ */
+class BranchPredictorTest {
+
+    @Test
+    void predictsBranchFromRiskAndCompliance() {
+        BranchPredictor predictor = new BranchPredictor(new DocumentReviewProperties.Speculative());
+
+        assertEquals(BranchPredictor.APPROVAL, predictor.predict(risk(3, false), compliance("Compliant")));
+        assertEquals(BranchPredictor.MODIFICATION, predictor.predict(risk(3, true), compliance("compliant")));
+        assertEquals(BranchPredictor.MODIFICATION, predictor.predict(risk(3, false), compliance("partial")));
+        assertEquals(BranchPredictor.MODIFICATION, predictor.predict(risk(6, false), compliance("compliant")));
+        assertEquals(BranchPredictor.REJECTION, predictor.predict(risk(8, false), compliance("compliant")));
+        assertEquals(BranchPredictor.MODIFICATION, predictor.predict(risk(2, false), null));
+        assertNull(predictor.predict(null, compliance("compliant")));
+        assertEquals("reject", BranchPredictor.reviewAction(BranchPredictor.REJECTION));
+    }
+
+    @Test
+    void skipsBranchesNotAllowed() {
+        DocumentReviewProperties.Speculative config = new DocumentReviewProperties.Speculative();
+        config.setBranches(Set.of(BranchPredictor.APPROVAL));
+        BranchPredictor predictor = new BranchPredictor(config);
+
+        assertEquals(BranchPredictor.APPROVAL, predictor.predict(risk(1, false), compliance("compliant")));
+        assertNull(predictor.predict(risk(9, false), compliance("non_compliant")));
+    }
+
+    @Test
+    void budgetCapsTokensPerWindow() {
+        AtomicLong clock = new AtomicLong(1_000);
+        SpeculationBudget budget = new SpeculationBudget(10_000, 60_000, clock::get);
+
+        long reservedAt = budget.now();
+        assertTrue(budget.tryReserve(4_000));
+        assertTrue(budget.tryReserve(4_000));
+        assertFalse(budget.tryReserve(4_000));
+
+        // 按实际用量结算后归还多预留的部分
+        budget.settle(4_000, 1_500, reservedAt);
+        assertEquals(4_500, budget.remaining());
+        assertTrue(budget.tryReserve(4_000));
+
+        // 新窗口重新计数，上一窗口的预留结算时只计实际用量
+        clock.addAndGet(60_000);
+        assertEquals(10_000, budget.remaining());
+        budget.settle(4_000, 3_000, reservedAt);
+        assertEquals(7_000, budget.remaining());
+    }
+
+    private static RiskAssessment risk(int score, boolean escalation) {
+        return new RiskAssessment(score, null, null, null, null, null, null, List.of(), List.of(), escalation);
+    }
+
+    private static ComplianceResult compliance(String status) {
+        return new ComplianceResult(8, List.of(), List.of(), List.of(), List.of(), status);
+    }
+}
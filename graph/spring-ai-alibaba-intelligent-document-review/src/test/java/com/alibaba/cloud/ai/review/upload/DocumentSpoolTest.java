@@ -0,0 +1,192 @@
+package com.alibaba.cloud.ai.review.upload;
+
+import com.alibaba.cloud.ai.review.config.DocumentReviewProperties;
+import com.alibaba.fastjson.JSON;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 上传文档落盘测试：内容哈希、去重、大小上限、按线程引用的清理，以及写入大文档时堆分配不随文档大小增长
+ *
+ * @author Jast
+ */
+class DocumentSpoolTest {
+
+    @TempDir
+    Path directory;
+
+    private DocumentSpool spool;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        DocumentReviewProperties properties = new DocumentReviewProperties();
+        properties.getUpload().setSpoolDirectory(directory.toString());
+        properties.getUpload().setMaxBytes(32L * 1024 * 1024);
+        spool = new DocumentSpool(properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        spool.destroy();
+    }
+
+    @Test
+    void spoolsDocumentUnderContentHash() throws Exception {
+        String document = "# 技术服务合同\n\n第一条 乙方应在收到预付款后三十日内交付系统。\n";
+        byte[] bytes = document.getBytes(StandardCharsets.UTF_8);
+
+        DocumentRef ref = spool.spool(new ByteArrayInputStream(bytes), StandardCharsets.UTF_8);
+
+        String expected = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        assertEquals(expected, ref.sha256());
+        assertEquals(bytes.length, ref.bytes());
+        assertEquals(document, spool.read(ref));
+        assertEquals(document, spool.read(DocumentRef.from(Map.of("sha256", ref.sha256(),
+                "bytes", (int) ref.bytes(), "charset", "UTF-8"))));
+        // 状态与 /status 中的引用不含落盘目录
+        assertFalse(JSON.toJSONString(ref).contains(directory.toString()));
+    }
+
+    @Test
+    void rejectsRefsThatAreNotContentHashes() {
+        assertThrows(IllegalArgumentException.class,
+                () -> spool.read(new DocumentRef("../../etc/passwd", 10, "UTF-8")));
+    }
+
+    @Test
+    void identicalUploadsShareOneFile() throws IOException {
+        byte[] bytes = "重复上传的文档".getBytes(StandardCharsets.UTF_8);
+        DocumentRef first = spool.spool(new ByteArrayInputStream(bytes), StandardCharsets.UTF_8);
+        DocumentRef second = spool.spool(new ByteArrayInputStream(bytes), StandardCharsets.UTF_8);
+
+        assertEquals(first, second);
+        assertEquals(1, files());
+        assertEquals(1L, spool.stats().get("deduplicated"));
+    }
+
+    @Test
+    void keepsDocumentsReferencedByPausedThreads() throws IOException {
+        DocumentRef ref = spool.spool(new ByteArrayInputStream("等待人工审核的合同".getBytes(StandardCharsets.UTF_8)),
+                StandardCharsets.UTF_8);
+        Path file = directory.resolve(ref.sha256() + ".doc");
+        FileTime expired = FileTime.from(Instant.now().minus(Duration.ofDays(8)));
+
+        // 检查点序列化后引用是字段 Map
+        spool.retain("review-1", List.of("contract", Map.of("sha256", ref.sha256(), "bytes", (int) ref.bytes(), "charset", "UTF-8")));
+        Files.setLastModifiedTime(file, expired);
+        spool.removeExpired();
+        assertTrue(Files.exists(file));
+
+        // 释放后从此时起计算保留时间
+        spool.release("review-1");
+        spool.removeExpired();
+        assertTrue(Files.exists(file));
+
+        Files.setLastModifiedTime(file, expired);
+        spool.removeExpired();
+        assertEquals(0, files());
+    }
+
+    @Test
+    void readingRefreshesRetention() throws IOException {
+        DocumentRef ref = spool.spool(new ByteArrayInputStream("恢复后继续审核的合同".getBytes(StandardCharsets.UTF_8)),
+                StandardCharsets.UTF_8);
+        Path file = directory.resolve(ref.sha256() + ".doc");
+        Files.setLastModifiedTime(file, FileTime.from(Instant.now().minus(Duration.ofDays(8))));
+
+        spool.read(ref);
+        spool.removeExpired();
+        assertTrue(Files.exists(file));
+    }
+
+    @Test
+    void rejectsOversizedAndEmptyDocuments() {
+        assertThrows(DocumentTooLargeException.class,
+                () -> spool.spool(new GeneratedInputStream(33L * 1024 * 1024), StandardCharsets.UTF_8));
+        assertThrows(IllegalArgumentException.class,
+                () -> spool.spool(new ByteArrayInputStream(new byte[0]), StandardCharsets.UTF_8));
+        // 写入一半的临时文件不会残留
+        assertEquals(0, files());
+    }
+
+    @Test
+    void heapAllocationStaysFlatForLargeDocuments() throws IOException {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        // 预热，排除类加载与摘要算法初始化的分配
+        spool.spool(new GeneratedInputStream(1024 * 1024), StandardCharsets.UTF_8);
+
+        long size = 24L * 1024 * 1024;
+        long before = threads.getThreadAllocatedBytes(threadId);
+        DocumentRef ref = spool.spool(new GeneratedInputStream(size), StandardCharsets.UTF_8);
+        long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+
+        assertEquals(size, ref.bytes());
+        assertEquals(size, Files.size(directory.resolve(ref.sha256() + ".doc")));
+        assertTrue(allocated < 2L * 1024 * 1024, "spooling should allocate about one buffer, got " + allocated);
+    }
+
+    private long files() {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.count();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * 按需生成内容的输入流，不在堆上保留整个文档
+     */
+    private static class GeneratedInputStream extends InputStream {
+
+        private static final byte[] LINE = "第N条 甲方应在验收合格后十五个工作日内支付合同价款。\n".getBytes(StandardCharsets.UTF_8);
+
+        private final long size;
+
+        private long position;
+
+        GeneratedInputStream(long size) {
+            this.size = size;
+        }
+
+        @Override
+        public int read() {
+            return position < size ? LINE[(int) (position++ % LINE.length)] & 0xff : -1;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) {
+            if (position >= size) {
+                return -1;
+            }
+            int count = (int) Math.min(length, size - position);
+            for (int i = 0; i < count; i++) {
+                buffer[offset + i] = LINE[(int) (position++ % LINE.length)];
+            }
+            return count;
+        }
+    }
+}
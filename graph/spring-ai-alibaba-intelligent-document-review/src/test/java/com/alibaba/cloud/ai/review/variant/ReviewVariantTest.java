@@ -0,0 +1,54 @@
+package com.alibaba.cloud.ai.review.variant;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 审核图变体测试：按文档类型选择变体，以及各变体风险评估提示词的维度与长度
+ *
+ * @author Jast
+ */
+class ReviewVariantTest {
+
+    @Test
+    void routesDocumentTypesCaseInsensitively() {
+        assertEquals(ReviewVariant.CONTRACT, ReviewVariant.of("contract"));
+        assertEquals(ReviewVariant.TECHNICAL, ReviewVariant.of(" Technical "));
+        assertEquals(ReviewVariant.FINANCIAL, ReviewVariant.of("FINANCIAL"));
+        assertEquals(ReviewVariant.POLICY, ReviewVariant.of("policy"));
+        assertEquals(ReviewVariant.GENERAL, ReviewVariant.of("memo"));
+        assertEquals(ReviewVariant.GENERAL, ReviewVariant.of(null));
+
+        ReviewGraphRegistry disabled = new ReviewGraphRegistry(false, null);
+        assertEquals(ReviewVariant.GENERAL, disabled.route("contract"));
+        assertEquals(List.of(ReviewVariant.GENERAL), disabled.variants());
+    }
+
+    @Test
+    void lighterVariantsAskForFewerRiskDimensions() {
+        String contract = RiskDimension.criteria(ReviewVariant.CONTRACT.riskDimensions());
+        String technical = RiskDimension.criteria(ReviewVariant.TECHNICAL.riskDimensions());
+
+        assertTrue(contract.contains("5. 信息安全风险"));
+        assertTrue(technical.startsWith("1. 操作风险"));
+        assertTrue(technical.contains("2. 信息安全风险"));
+        assertFalse(technical.contains("法律风险"));
+        assertTrue(technical.length() * 2 < contract.length());
+        assertEquals("- operational_risk: 操作风险评分(1-10)\n- security_risk: 信息安全风险评分(1-10)",
+                RiskDimension.fields(ReviewVariant.TECHNICAL.riskDimensions()));
+    }
+
+    @Test
+    void onlyTechnicalSkipsContentAnalysis() {
+        for (ReviewVariant variant : ReviewVariant.values()) {
+            assertEquals(variant != ReviewVariant.TECHNICAL, variant.contentAnalysis(), variant.id());
+        }
+        assertEquals(4, ReviewVariant.GENERAL.complianceFocus().size());
+        assertEquals(1, ReviewVariant.POLICY.complianceFocus().size());
+    }
+}